@@ -0,0 +1,106 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import common.graph.Graph;
+import io.dot.DotGraphReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each algorithm solving a graph from start to finish, on a spread of graphs from the sample data that can each
+ * be solved in well under a second.
+ *
+ * Run with gradle jmh, from the project directory so that the sample data can be found.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolverBenchmarks {
+    @Param({
+        "2p_Fork_Join_Nodes_10_CCR_1.01_WeightType_Random.dot",
+        "4p_Join_Nodes_10_CCR_1.00_WeightType_Random.dot",
+        "2p_Independent_Nodes_21_WeightType_Random.dot",
+        "4p_Random_Nodes_21_Density_4.86_CCR_10.02_WeightType_Random.dot",
+        "2p_OutTree-Unbalanced-MaxBf-3_Nodes_21_CCR_0.99_WeightType_Random.dot",
+        "2p_Random_Nodes_30_Density_2.10_CCR_0.99_WeightType_Random.dot"
+    })
+    public String graphName;
+
+    @Param({"greedy", "dfs", "astar", "idastar", "smastar", "tiered-2", "tiered-4", "tiered-8"})
+    public String algorithm;
+
+    private Graph _graph;
+    private int _processors;
+
+    @Setup
+    public void setup() throws IOException {
+        _graph = readGraph(graphName);
+        _processors = processorsOf(graphName);
+    }
+
+    @Benchmark
+    public int solve() {
+        Algorithm algorithm = create();
+        algorithm.run(_graph, _processors);
+        return algorithm.getCurrentBest().getEndTime();
+    }
+
+    /**
+     * Creates the algorithm to time. Tiered algorithms are set up the same way Ainur sets them up
+     */
+    private Algorithm create() {
+        Arborist arborist = DefaultHeuristics.arborist();
+        LowerBound lowerBound = DefaultHeuristics.lowerBound();
+
+        switch(algorithm) {
+            case "greedy":
+                return new GreedyAlgorithm();
+            case "dfs":
+                return new DFSAlgorithm(arborist, lowerBound);
+            case "astar":
+                return new AStarAlgorithm(arborist, lowerBound);
+            case "idastar":
+                return new IDAStarAlgorithm(arborist, lowerBound);
+            case "smastar":
+                return new SMAStarAlgorithm(arborist, lowerBound);
+            default:
+                int threads = Integer.parseInt(algorithm.substring("tiered-".length()));
+                return new TieredAlgorithm(threads,
+                    (tier, communicator) -> {
+                        if(tier == 0)
+                            return new DFSAlgorithm(communicator, arborist, lowerBound, Math.min(4, _graph.size()));
+                        else if(tier < (_graph.size() / 2 + 1))
+                            return new AStarAlgorithm(communicator, arborist, lowerBound);
+                        else
+                            return new DFSAlgorithm(communicator, arborist, lowerBound, Integer.MAX_VALUE);
+                    },
+                    TieredAlgorithm.Mode.WORK_STEALING);
+        }
+    }
+
+    /**
+     * Reads one of the graphs in the sample data
+     */
+    public static Graph readGraph(String graphName) throws IOException {
+        try(InputStream is = new FileInputStream(Paths.get("data", "SampleData", "Input", graphName).toFile())) {
+            return new DotGraphReader(is).read();
+        }
+    }
+
+    /**
+     * Gets the number of processors a sample graph was made for, from the Np_ at the start of its name
+     */
+    public static int processorsOf(String graphName) {
+        return Integer.parseInt(graphName.substring(0, graphName.indexOf('p')));
+    }
+}
@@ -0,0 +1,191 @@
+package algorithm.heuristics;
+
+import algorithm.AlgorithmUtils;
+import algorithm.SolverBenchmarks;
+import algorithm.heuristics.lowerbound.CriticalPath;
+import algorithm.heuristics.lowerbound.FastCriticalPath;
+import algorithm.heuristics.lowerbound.FillTimeBound;
+import algorithm.heuristics.lowerbound.IdleTimeBound;
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.*;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+import common.schedule.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a single call of each lower bound, pruner and AlgorithmUtils helper, as made part way through a search.
+ * Best run with the gc profiler (as gradle jmh does) to see which of them allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeuristicBenchmarks {
+    @Param({
+        "4p_Join_Nodes_10_CCR_1.00_WeightType_Random.dot",
+        "4p_Random_Nodes_21_Density_4.86_CCR_10.02_WeightType_Random.dot",
+        "2p_Random_Nodes_30_Density_2.10_CCR_0.99_WeightType_Random.dot",
+        "16p_Fork_Nodes_21_CCR_0.96_WeightType_Random.dot"
+    })
+    public String graphName;
+
+    private Graph _graph;
+    private ArraySchedule _schedule;
+    private ReadySet _ready;
+    private Node _next;
+    private Task _task;
+
+    private final LowerBound _criticalPath = new CriticalPath();
+    private final LowerBound _fastCriticalPath = new FastCriticalPath();
+    private final LowerBound _fillTime = new FillTimeBound();
+    private final LowerBound _scanningFillTime = new ScanningFillTimeBound();
+    private final LowerBound _idleTime = new IdleTimeBound();
+    private final LowerBound _defaultLowerBound = DefaultHeuristics.lowerBound();
+
+    private final Arborist _startTime = new StartTimePruner();
+    private final Arborist _processorOrder = new ProcessorOrderPruner();
+    private final Arborist _betterStart = new BetterStartPruner();
+    private final Arborist _betterSwap = new BetterSwapPruner();
+    private final Arborist _gap = new GapPruner();
+    private final Arborist _equivalentNode = new EquivalentNodePruner();
+    private final Arborist _defaultArborist = DefaultHeuristics.arborist();
+
+    /**
+     * FillTimeBound as it was before the schedule kept track of its idle time, adding up the unscheduled nodes and
+     * processor gaps on every call. Kept to compare against fillTimeBound.
+     */
+    private static class ScanningFillTimeBound implements LowerBound {
+        @Override
+        public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
+            int space = 0;
+            for(Node node : graph.getNodes()) {
+                if(!schedule.contains(node))
+                    space += node.getComputationCost();
+            }
+
+            int latestTime = schedule.getEndTime();
+            for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
+                space -= (latestTime - schedule.getEndTime(processor));
+
+            return Math.max((int)Math.ceil(space / (double)schedule.getNumProcessors()) + latestTime, latestTime);
+        }
+    }
+
+    /**
+     * Schedules half of the graph, each node as early as possible, so that the heuristics are measured on the sort of
+     * partial schedule they see in the middle of a search. The next ready node is then the one to be added.
+     */
+    @Setup
+    public void setup() throws IOException {
+        _graph = SolverBenchmarks.readGraph(graphName);
+        _schedule = new ArraySchedule(_graph, SolverBenchmarks.processorsOf(graphName));
+        _ready = new ReadySet(_graph);
+
+        while(_schedule.size() < _graph.size() / 2) {
+            Node node = _ready.first();
+            int[] earliestStarts = AlgorithmUtils.calculateEarliestTimes(_graph, _schedule, node);
+
+            int best = 0;
+            for(int processor = 1; processor < earliestStarts.length; ++processor)
+                if(earliestStarts[processor] < earliestStarts[best])
+                    best = processor;
+
+            _schedule.addTask(new Task(best, earliestStarts[best], node));
+            _ready.add(node);
+        }
+
+        _next = _ready.first();
+        // Put it on the last processor, so the pruners that look at other processors have the most to look at
+        int processor = _schedule.getNumProcessors() - 1;
+        _task = new Task(processor, AlgorithmUtils.calculateEarliestTime(_graph, _schedule, _next, processor), _next);
+    }
+
+    @Benchmark
+    public int criticalPath() {
+        return _criticalPath.estimate(_graph, _schedule, _ready);
+    }
+
+    @Benchmark
+    public int fastCriticalPath() {
+        return _fastCriticalPath.estimate(_graph, _schedule, _ready);
+    }
+
+    @Benchmark
+    public int fillTimeBound() {
+        return _fillTime.estimate(_graph, _schedule, _ready);
+    }
+
+    @Benchmark
+    public int scanningFillTimeBound() {
+        return _scanningFillTime.estimate(_graph, _schedule, _ready);
+    }
+
+    @Benchmark
+    public int idleTimeBound() {
+        return _idleTime.estimate(_graph, _schedule, _ready);
+    }
+
+    @Benchmark
+    public int defaultLowerBound() {
+        return _defaultLowerBound.estimate(_graph, _schedule, _ready);
+    }
+
+    @Benchmark
+    public boolean startTimePruner() {
+        return _startTime.prune(_graph, _schedule, _task);
+    }
+
+    @Benchmark
+    public boolean processorOrderPruner() {
+        return _processorOrder.prune(_graph, _schedule, _task);
+    }
+
+    @Benchmark
+    public boolean betterStartPruner() {
+        return _betterStart.prune(_graph, _schedule, _task);
+    }
+
+    @Benchmark
+    public boolean betterSwapPruner() {
+        return _betterSwap.prune(_graph, _schedule, _task);
+    }
+
+    @Benchmark
+    public boolean gapPruner() {
+        return _gap.prune(_graph, _schedule, _task);
+    }
+
+    @Benchmark
+    public boolean equivalentNodePruner() {
+        return _equivalentNode.pruneNode(_graph, _schedule, _next);
+    }
+
+    @Benchmark
+    public boolean defaultArborist() {
+        return _defaultArborist.prune(_graph, _schedule, _task);
+    }
+
+    @Benchmark
+    public int[] calculateEarliestTimes() {
+        return AlgorithmUtils.calculateEarliestTimes(_graph, _schedule, _next);
+    }
+
+    @Benchmark
+    public int calculateEarliestTime() {
+        return AlgorithmUtils.calculateEarliestTime(_graph, _schedule, _next, _task.getProcessor());
+    }
+
+    @Benchmark
+    public int calculateEarliestStart() {
+        return AlgorithmUtils.calculateEarliestStart(_graph, _schedule, _next);
+    }
+}
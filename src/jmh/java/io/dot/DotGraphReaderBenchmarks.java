@@ -0,0 +1,102 @@
+package io.dot;
+
+import common.graph.Graph;
+import io.GraphReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares how quickly DotGraphReader parses large generated graphs against the original reader, which read the whole
+ * file into a string and then ran a regex over it for each kind of statement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DotGraphReaderBenchmarks {
+    // Each node has roughly this many outgoing edges
+    private static final int EDGES_PER_NODE = 8;
+
+    @Param({"1000", "10000"})
+    public int nodes;
+
+    private byte[] _file;
+
+    /**
+     * The reader as it was before it streamed
+     */
+    private static class RegexDotGraphReader extends GraphReader {
+        private static final Pattern NODE_PATTERN
+            = Pattern.compile("(?<=;|^|\\{)\\s*(\\w+)\\s*\\[\\s*Weight\\s*=\\s*(\\d+)\\s*]\\s*;");
+        private static final Pattern EDGE_PATTERN
+            = Pattern.compile("(?<=;|^|\\{)\\s*(\\w+)\\s*->\\s*(\\w+)\\s*\\[\\s*Weight\\s*=\\s*(\\d+)\\s*]\\s*;");
+
+        RegexDotGraphReader(InputStream is) {
+            super(is);
+        }
+
+        @Override
+        public Graph read() {
+            Graph.Builder builder = new Graph.Builder();
+
+            Scanner s = new Scanner(_is).useDelimiter("\\A");
+            String text = s.hasNext() ? s.next() : "";
+
+            Matcher name = Pattern.compile("digraph \"([^\\\"]+)\"").matcher(text);
+            if(name.find())
+                builder.name(name.group(1));
+
+            Matcher m = NODE_PATTERN.matcher(text);
+            while(m.find())
+                builder.node(m.group(1), Integer.parseInt(m.group(2)));
+
+            m = EDGE_PATTERN.matcher(text);
+            while(m.find())
+                builder.edge(m.group(1), m.group(2), Integer.parseInt(m.group(3)));
+
+            return builder.build();
+        }
+    }
+
+    /**
+     * Generates a random graph in the same layout as the sample data, with each node followed by its incoming edges
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(nodes);
+        StringBuilder text = new StringBuilder("digraph \"Random_Nodes_" + nodes + "\" {\n");
+
+        for(int node = 0; node < nodes; ++node) {
+            text.append('\t').append(node).append("\t [Weight=").append(random.nextInt(20) + 1).append("];\n");
+
+            int edges = Math.min(node, random.nextInt(EDGES_PER_NODE * 2 + 1));
+            for(int edge = 0; edge < edges; ++edge) {
+                text.append('\t').append(random.nextInt(node)).append(" -> ").append(node)
+                    .append("\t [Weight=").append(random.nextInt(20) + 1).append("];\n");
+            }
+        }
+        text.append("}\n");
+
+        _file = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Graph streaming() {
+        return new DotGraphReader(new ByteArrayInputStream(_file)).read();
+    }
+
+    @Benchmark
+    public Graph regex() {
+        return new RegexDotGraphReader(new ByteArrayInputStream(_file)).read();
+    }
+}
@@ -1,17 +1,13 @@
 import algorithm.*;
-import algorithm.heuristics.DefaultHeuristics;
-import algorithm.heuristics.lowerbound.CriticalPath;
-import algorithm.heuristics.lowerbound.LowerBound;
-import algorithm.heuristics.pruner.Arborist;
-import algorithm.heuristics.pruner.BetterStartPruner;
-import algorithm.heuristics.pruner.ProcessorOrderPruner;
-import algorithm.heuristics.pruner.StartTimePruner;
+import algorithm.heuristics.pruner.CombinedArborist;
+import cli.BatchRunner;
 import cli.Cli;
 import common.Config;
 import common.graph.Graph;
 import common.schedule.Schedule;
+import distributed.Coordinator;
+import distributed.Worker;
 import io.GraphReader;
-import io.ScheduleWriter;
 import io.dot.DotGraphReader;
 import io.dot.DotScheduleWriter;
 import javafx.application.Application;
@@ -20,6 +16,16 @@ import javafx.stage.Stage;
 import visualisation.VisualiserWindow;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
 import java.util.function.Consumer;
 
 /** The Main Class for Ainur **/
@@ -30,6 +36,24 @@ public class Ainur extends Application {
     private static Graph graph;
     private static Algorithm algorithm;
     private static VisualiserWindow window;
+    // Set instead of just the algorithm when checkpointing, along with the checkpoint to carry on from if resuming
+    private static TieredAlgorithm resumable;
+    private static Checkpoint resumeFrom;
+
+    // How often the best schedule is checked on when writing incumbents
+    private static final long INCUMBENT_POLL_MILLIS = 100;
+    // How long running algorithms are given to answer a checkpoint, before their part of it is started over
+    private static final long CHECKPOINT_TIMEOUT_MILLIS = 5000;
+
+    // Set if the search was stopped early, by the timeout or by being told to shut down
+    private static volatile boolean stopped = false;
+    // Set once the final schedule has been written, after which incumbents must not be
+    private static boolean finalWritten = false;
+    // Counted down once the final schedule has been written or failed to, so shutting down can wait for it
+    private static final CountDownLatch finished = new CountDownLatch(1);
+    // Held while writing or deleting the checkpoint file. Set once the search is over, after which no more are written
+    private static final Object checkpointLock = new Object();
+    private static boolean checkpointsDone = false;
 
     /** MAIN **/
 
@@ -37,11 +61,41 @@ public class Ainur extends Application {
       cli = new Cli(args);
       cli.parse();
 
+      if (cli.getBatch()) {
+          runBatch();
+          return;
+      }
+      if (cli.getWorkerAddress() != null) {
+          runWorker(cli.getWorkerAddress(), cli.getCores());
+          return;
+      }
+
       try {
           graph = readGraphFile(cli.getInputFile()); // read the graph
-          algorithm = chooseAlgorithm(cli.getCores()); // choose an algorithm
+          Path spillDirectory = cli.getSpillDirectory() != null ? Paths.get(cli.getSpillDirectory()) : null;
+          if (cli.getCoordinatorPort() >= 0) {
+              algorithm = createCoordinator(graph, cli.getProcessors(), cli.getCoordinatorPort(), cli.getSplitDepth());
+          } else if (cli.getCheckpointFile() != null) {
+              resumable = DefaultAlgorithm.createResumable(graph, cli.getProcessors(), cli.getCores(), spillDirectory,
+                  cli.getHeapBudget());
+              algorithm = resumable;
+              if (cli.getResume())
+                  resumeFrom = readCheckpoint(Paths.get(cli.getCheckpointFile()));
+          } else {
+              algorithm = DefaultAlgorithm.create(graph, cli.getProcessors(), cli.getCores(), spillDirectory,
+                  cli.getHeapBudget()); // choose an algorithm
+          }
           // TODO update upperbound when non optimal implemented
 
+          // Stop the search and write the best schedule so far if the timeout is reached, or if told to shut down
+          if (cli.getTimeout() > 0)
+              startTimeout(cli.getTimeout());
+          Runtime.getRuntime().addShutdownHook(new Thread(Ainur::onShutdown));
+          if (cli.getWriteIncumbents())
+              startIncumbentWriter();
+          if (resumable != null)
+              startCheckpointer(cli.getCheckpointInterval());
+
           Thread schedulingTask = new Thread(() -> runAlgorithm(graph, algorithm, cli.getProcessors(), Ainur::onAlgorithmComplete));
 
           if (cli.getVisualise()) {
@@ -63,19 +117,246 @@ public class Ainur extends Application {
 
     /* Functions */
 
+    /**
+     * Listens for workers, starting with a greedy schedule as the best so far
+     */
+    private static Coordinator createCoordinator(Graph graph, int processors, int port, int splitDepth) {
+        GreedyAlgorithm greedy = new GreedyAlgorithm();
+        greedy.run(graph, processors);
+        try {
+            Coordinator coordinator = new Coordinator(port, splitDepth, greedy.getCurrentBest());
+            System.out.println("Waiting for workers on port " + coordinator.getPort());
+            return coordinator;
+        } catch (IOException e) {
+            System.out.println("Could not listen for workers on port " + port + ": " + e.getMessage()
+                + ". Process terminated prematurely.");
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Searches whatever the coordinator at the given host:port hands out, until it has finished
+     */
+    private static void runWorker(String address, int cores) {
+        int colon = address.lastIndexOf(':');
+        int port;
+        try {
+            port = Integer.parseInt(address.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            System.out.println("Please give the coordinator as host:port. Process terminated prematurely.");
+            System.exit(1);
+            return;
+        }
+
+        try {
+            new Worker(colon > 0 ? address.substring(0, colon) : "localhost", port, cores).run();
+        } catch (IOException e) {
+            System.out.println("Lost the coordinator at " + address + ": " + e.getMessage()
+                + ". Process terminated prematurely.");
+            System.exit(1);
+        } catch (InterruptedException ignored) {
+            // Told to stop
+        }
+    }
+
     private static void onAlgorithmComplete(Schedule schedule) {
         if (cli.getVisualise())
             Platform.runLater(() -> window.stop());
+
+        // Never more than the schedule found, but an algorithm could have been stopped before it caught up
+        int lowerBound = Math.min(algorithm.getStats().getLowerBound(), schedule.getEndTime());
+        boolean optimal = lowerBound >= schedule.getEndTime();
+        // Only mark the output when it may not be optimal, so that normal output is unchanged
+        boolean anytime = cli.getTimeout() > 0 || stopped;
+
+        // A finished search has nothing left to carry on with
+        if (resumable != null) {
+            synchronized (checkpointLock) {
+                checkpointsDone = true;
+                if (optimal && !stopped)
+                    deleteCheckpoint();
+            }
+        }
+
+        int exitCode = 0;
         try {
-            writeSchedule(graph, schedule, cli.getInputFile(), cli.getOutputFile());
-            if (!cli.getVisualise())
-                System.exit(0);
+            synchronized (Ainur.class) {
+                finalWritten = true;
+                writeSchedule(graph, schedule, cli.getOutputFile(), anytime ? optimal : null, lowerBound);
+            }
+            if (!optimal)
+                System.out.println(String.format("Search stopped with a schedule of length %d, which is within %.2f%% "
+                    + "of optimal (no schedule can be shorter than %d)",
+                    schedule.getEndTime(), 100.0 * gap(schedule.getEndTime(), lowerBound), lowerBound));
+            else if (anytime)
+                System.out.println("Search finished with an optimal schedule of length " + schedule.getEndTime());
+            if (cli.getPrunerStats())
+                for (CombinedArborist.Statistics statistics : algorithm.getStats().getPrunerStatistics())
+                    System.out.println(statistics);
         } catch (IOException e) {
             System.out.println("Failed to write the outputted schedule to a file!");
+            exitCode = 1;
+        } finally {
+            finished.countDown();
+        }
+
+        // If shutting down already this blocks, but onShutdown() has been let go so it doesn't matter
+        if (exitCode != 0 || !cli.getVisualise())
+            System.exit(exitCode);
+    }
+
+    /**
+     * Stops the search once the given number of seconds has passed
+     */
+    private static void startTimeout(int seconds) {
+        new Timer("timeout", true).schedule(new TimerTask() {
+            @Override
+            public void run() {
+                stopSearch();
+            }
+        }, seconds * 1000L);
+    }
+
+    /**
+     * Stops the search, taking a last checkpoint of it first if it is being checkpointed
+     */
+    private static void stopSearch() {
+        stopped = true;
+        writeCheckpoint(true);
+        algorithm.stop();
+    }
+
+    /**
+     * Called when the JVM is shutting down, such as on SIGTERM. If the search is still going, stops it and waits for
+     * the best schedule so far to be written.
+     */
+    private static void onShutdown() {
+        if (finished.getCount() == 0)
+            return;
+
+        stopSearch();
+        try {
+            finished.await();
+        } catch (InterruptedException ignored) {
+            // Shutting down regardless
+        }
+    }
+
+    /**
+     * Writes every better schedule the algorithm finds to the output file, until the final schedule is written.
+     * Checks on the best schedule regularly rather than every time it changes, so that the search is never held up
+     * by writing and a quick run of improvements is only written once.
+     */
+    private static void startIncumbentWriter() {
+        Thread writer = new Thread(() -> {
+            Schedule written = null;
+            try {
+                while (finished.getCount() != 0) {
+                    Schedule best = algorithm.getCurrentBest();
+                    if (best != written && best.getEndTime() != Integer.MAX_VALUE) {
+                        synchronized (Ainur.class) {
+                            if (finalWritten)
+                                return;
+                            int lowerBound = Math.min(algorithm.lowerBound(), best.getEndTime());
+                            writeSchedule(graph, best, cli.getOutputFile(), false, lowerBound);
+                        }
+                        written = best;
+                    }
+                    Thread.sleep(INCUMBENT_POLL_MILLIS);
+                }
+            } catch (IOException e) {
+                System.out.println("Failed to write a schedule to a file! No more will be written until the search finishes");
+            } catch (InterruptedException ignored) {
+                // Nothing else to write
+            }
+        }, "incumbent-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Checkpoints the search every given number of seconds, until it is over
+     */
+    private static void startCheckpointer(int seconds) {
+        Thread checkpointer = new Thread(() -> {
+            try {
+                while (finished.getCount() != 0) {
+                    Thread.sleep(seconds * 1000L);
+                    writeCheckpoint(false);
+                }
+            } catch (InterruptedException ignored) {
+                // Nothing else to write
+            }
+        }, "checkpointer");
+        checkpointer.setDaemon(true);
+        checkpointer.start();
+    }
+
+    /**
+     * Takes a checkpoint of the search and writes it over the checkpoint file, unless the search is over or isn't
+     * being checkpointed
+     *
+     * @param last Whether the search is about to be stopped, after which no more checkpoints are written
+     */
+    private static void writeCheckpoint(boolean last) {
+        if (resumable == null)
+            return;
+
+        synchronized (checkpointLock) {
+            if (checkpointsDone)
+                return;
+            checkpointsDone = last;
+            try {
+                Checkpoint checkpoint = resumable.checkpoint(CHECKPOINT_TIMEOUT_MILLIS);
+                if (checkpoint != null)
+                    checkpoint.write(Paths.get(cli.getCheckpointFile()));
+            } catch (IOException e) {
+                System.out.println("Failed to write a checkpoint of the search! " + e);
+            } catch (InterruptedException ignored) {
+                // Left as the last checkpoint written
+            }
+        }
+    }
+
+    private static void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(Paths.get(cli.getCheckpointFile()));
+        } catch (IOException e) {
+            System.out.println("Failed to delete the checkpoint of the finished search! " + e);
+        }
+    }
+
+    /**
+     * Reads the checkpoint to resume from, exiting if it is of some other search
+     *
+     * @return The checkpoint, or null if there is none yet to resume from
+     */
+    private static Checkpoint readCheckpoint(Path file) {
+        if (!Files.exists(file)) {
+            System.out.println("No checkpoint found at " + file + ". Starting a new search");
+            return null;
+        }
+
+        try {
+            Checkpoint checkpoint = Checkpoint.read(file, graph, cli.getProcessors());
+            System.out.println("Resuming the search from " + file + ", where no schedule could be shorter than "
+                + checkpoint.lowerBound());
+            return checkpoint;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Can't resume from " + file + ": " + e.getMessage() + ". Process terminated prematurely.");
             System.exit(1);
+            return null;
         }
     }
 
+    /**
+     * @return How much longer a schedule is than the shortest it could be, as a fraction of its length
+     */
+    private static double gap(int endTime, int lowerBound) {
+        return endTime == 0 ? 0 : (endTime - lowerBound) / (double)endTime;
+    }
+
     /**
      * Reads a graph from the input dot file.
      *
@@ -89,41 +370,36 @@ public class Ainur extends Application {
     }
 
     /**
-     * Decides which algorithm should be used based on number of cores.
-     *
-     * @param cores The number of cores to run the algorithm on.
-     *
-     * @return A DFS algorithm if 1 core
-     *      Tiered algorithm otherwise
+     * Schedules every graph given to the CLI in batch mode, then writes out a summary of them all.
+     * Exits with 1 if any graph could not be scheduled.
      */
-    private static Algorithm chooseAlgorithm(int cores) {
-        GreedyAlgorithm greedy = new GreedyAlgorithm();
-        greedy.run(graph, cli.getProcessors());
-
-        Algorithm algorithm;
-        if(cores == 1) { // Single-threaded DFS algorithm
-            algorithm = new DFSAlgorithm(
-                Arborist.combine(new StartTimePruner(), new ProcessorOrderPruner(), new BetterStartPruner()),
-                new CriticalPath(),
-                greedy.getCurrentBest()
-            );
-        } else { // Multithreaded, Tiered AStar/DFS algorithm
-            Arborist arborist = DefaultHeuristics.arborist();
-            LowerBound lowerBound = DefaultHeuristics.lowerBound();
-
-            return new TieredAlgorithm(cores,
-                (tier, communicator) -> {
-                    if(tier == 0) // Expand to a few states for the purposes of running A stars in parallel
-                        return new DFSAlgorithm(communicator, arborist, lowerBound, Math.min(4, graph.size()));
-                    else if(tier < (graph.size() / 2 + 1)) // Run A stars in parallel on the system
-                        return new AStarAlgorithm(communicator, arborist, lowerBound);
-                    else
-                        return new DFSAlgorithm(communicator, arborist, lowerBound, Integer.MAX_VALUE);
-                },
-                greedy.getCurrentBest());
-        }
+    private static void runBatch() {
+        try {
+            List<Path> graphs = BatchRunner.findGraphs(cli.getInputFile());
+            if (graphs.isEmpty()) {
+                System.out.println("No graphs found matching " + cli.getInputFile() + ". Process terminated prematurely.");
+                System.exit(1);
+            }
+            if (cli.getOutputFile() != null)
+                Files.createDirectories(Paths.get(cli.getOutputFile()));
 
-        return algorithm;
+            List<BatchRunner.Result> results = new BatchRunner(cli.getCores(), cli.getProcessors(), cli.getOutputFile())
+                .run(graphs);
+
+            String summaryFile = cli.getSummaryFile();
+            Writer writer = summaryFile != null ? new FileWriter(summaryFile) : new OutputStreamWriter(System.out);
+            if (summaryFile != null && summaryFile.endsWith(".json"))
+                BatchRunner.writeJson(results, writer);
+            else
+                BatchRunner.writeCsv(results, writer);
+            if (summaryFile != null)
+                writer.close();
+
+            System.exit(results.stream().anyMatch(result -> result.getError() != null) ? 1 : 0);
+        } catch (IOException | InterruptedException e) {
+            System.out.println("Batch scheduling failed: " + e + ". Process terminated prematurely.");
+            System.exit(1);
+        }
     }
 
     /**
@@ -135,8 +411,11 @@ public class Ainur extends Application {
      * @param onFinished Calback to be called on completion of algorithm
      */
     private static void runAlgorithm(Graph graph, Algorithm algorithm, int processors, Consumer<Schedule> onFinished) {
-        // Run the algorithm
-        algorithm.run(graph, processors);
+        // Run the algorithm, carrying on from a checkpoint if there is one
+        if (resumable != null)
+            resumable.run(graph, processors, resumeFrom);
+        else
+            algorithm.run(graph, processors);
 
         Schedule schedule = algorithm.getCurrentBest();
         onFinished.accept(schedule);
@@ -144,21 +423,38 @@ public class Ainur extends Application {
 
 
     /**
-     * Writes the schedule obtained from the scheduling algorithm to a dot file.
+     * Writes the schedule obtained from the scheduling algorithm to a dot file. The schedule is written to a temporary
+     * file first and then moved over the output file, so that the output file is always a complete schedule even
+     * while schedules are being written to it as they are found.
      *
      * @param schedule the schedule to write to the .dot file.
+     * @param optimal whether the schedule is known to be optimal, marked on the graph along with the lower bound and
+     *                gap, or null to leave the graph unmarked
+     * @param lowerBound the length no schedule can be shorter than
      */
-    private static void writeSchedule(Graph graph, Schedule schedule, String inputFile, String outputFile) throws IOException {
-
-        // Create a new file if file does not already exist
-        File file = new File(outputFile);
-        file.createNewFile();
-        OutputStream os = new FileOutputStream(file);
+    private static void writeSchedule(Graph graph, Schedule schedule, String outputFile, Boolean optimal,
+                                      int lowerBound) throws IOException {
+        Path file = Paths.get(outputFile).toAbsolutePath();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
 
-        // Write schedule to output file
-        ScheduleWriter scheduleWriter = new DotScheduleWriter(os);
-        scheduleWriter.write(schedule, graph, new FileInputStream(inputFile));
+        // Write schedule to temporary file
+        try(OutputStream os = new BufferedOutputStream(new FileOutputStream(temporary.toFile()))) {
+            DotScheduleWriter scheduleWriter = new DotScheduleWriter(os);
+            if (optimal != null) {
+                scheduleWriter.setGraphAttribute("Optimal", optimal.toString());
+                scheduleWriter.setGraphAttribute("LowerBound", Integer.toString(lowerBound));
+                scheduleWriter.setGraphAttribute("Gap", String.format(Locale.ROOT, "%.4f", gap(schedule.getEndTime(), lowerBound)));
+            }
+            scheduleWriter.write(schedule, graph);
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
 
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     @Override
@@ -4,13 +4,14 @@ import algorithm.heuristics.lowerbound.LowerBound;
 import algorithm.heuristics.pruner.Arborist;
 import common.graph.Graph;
 import common.graph.Node;
+import common.schedule.ArraySchedule;
 import common.schedule.PackedScheduleQueue;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
-import common.schedule.SimpleSchedule;
 import common.schedule.Task;
 
-import java.math.BigInteger;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * Algorithm implementation that will utilise the A* technique to generate an optimal schedule.
@@ -19,11 +20,11 @@ public class AStarAlgorithm extends BoundableAlgorithm {
 
     private Arborist _arborist;
     private LowerBound _lowerBound;
+    private FrontierFactory _frontier;
+    private PackedScheduleQueue _queue; // The queue being searched, kept so that checkpoints can be taken of it
 
-    private BigInteger _numCulled = BigInteger.ZERO;
-    private BigInteger _numExplored = BigInteger.ZERO;
-    private Node _currentNode;
-    private int _curLowerBound;
+    volatile private Node _currentNode;
+    volatile private int _curLowerBound;
     private int _memoryCounter = 0;
     private boolean _outOfMemory = false;
 
@@ -34,9 +35,21 @@ public class AStarAlgorithm extends BoundableAlgorithm {
      * @param communicator : A communicator used to communicate with tieredAlgorithms
      */
     public AStarAlgorithm(MultiAlgorithmCommunicator communicator, Arborist arborist, LowerBound lowerBound) {
+        this(communicator, arborist, lowerBound, PackedScheduleQueue::new);
+    }
+
+    /**
+     * Constructor for A* with a specific queue of partial schedules to explore.
+     * @param frontier : Creates the queue. If it spills to disk, the A* never hands its work to the communicator when
+     *                 memory runs low
+     */
+    public AStarAlgorithm(MultiAlgorithmCommunicator communicator, Arborist arborist, LowerBound lowerBound,
+                          FrontierFactory frontier) {
         super(communicator);
         _arborist = arborist;
+        _counters.track(arborist);
         _lowerBound = lowerBound;
+        _frontier = frontier;
     }
 
     /**
@@ -48,55 +61,151 @@ public class AStarAlgorithm extends BoundableAlgorithm {
 
         super(new MultiAlgorithmCommunicator(){
             @Override
-            void explorePartialSolution(Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
-                BoundableAlgorithm dfs = new DFSAlgorithm(arborist, lowerBound);
+            protected void explorePartialSolution(Graph graph, Schedule schedule, ReadySet nextNodes, int scheduleBound) {
+                // Shares this communicator so that the DFS bounds with, counts into and updates the same as the A*
+                BoundableAlgorithm dfs = new DFSAlgorithm(this, arborist, lowerBound, Integer.MAX_VALUE);
                 dfs.run(graph, schedule, nextNodes);
-                update(dfs.getCurrentBest());
             }
         });
         _arborist = arborist;
+        _counters.track(arborist);
         _lowerBound = lowerBound;
+        _frontier = PackedScheduleQueue::new;
     }
 
     @Override
-    public void run(Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
+    public void run(Graph graph, Schedule schedule, ReadySet nextNodes) {
 
-        SimpleSchedule simpleSchedule;
+        ArraySchedule arraySchedule;
 
-        if (schedule instanceof SimpleSchedule) {
-            simpleSchedule = (SimpleSchedule)schedule;
+        if (schedule instanceof ArraySchedule) {
+            arraySchedule = (ArraySchedule)schedule;
         } else {
-            simpleSchedule = new SimpleSchedule(schedule);
+            arraySchedule = new ArraySchedule(graph, schedule);
         }
-        run(graph, simpleSchedule, nextNodes);
+        run(graph, arraySchedule, nextNodes);
     }
 
-    private void run(Graph graph, SimpleSchedule rootSchedule, HashSet<Node> startingNextNodes) {
-        PackedScheduleQueue schedulesToVisit = new PackedScheduleQueue();
+    private void run(Graph graph, ArraySchedule rootSchedule, ReadySet startingNextNodes) {
+        try (PackedScheduleQueue schedulesToVisit = _frontier.create(graph, rootSchedule, startingNextNodes)) {
+            //initial best estimate is just the first explored partial schedule.
+            schedulesToVisit.add(_lowerBound.estimate(graph, rootSchedule, startingNextNodes), PackedScheduleQueue.ROOT);
+            search(graph, schedulesToVisit);
+        }
+    }
 
-        //initial best estimate is just the first explored partial schedule.
-        schedulesToVisit.add(_lowerBound.estimate(graph, rootSchedule, startingNextNodes), rootSchedule,  startingNextNodes);
+    /**
+     * Rebuilds the queue of an A* from a frontier of a checkpoint, and carries on searching it
+     * @see BoundableAlgorithm#resume(Graph, Checkpoint.Frontier)
+     */
+    @Override
+    boolean resume(Graph graph, Checkpoint.Frontier frontier) {
+        if(!frontier.isQueue())
+            return false;
+
+        ArraySchedule rootSchedule = frontier.buildSchedule(graph, frontier.getBase());
+        try (PackedScheduleQueue schedulesToVisit = _frontier.create(graph, rootSchedule,
+            new ReadySet(graph, rootSchedule))) {
+            // Every state after the base is one of the A*'s own, and comes after its parent
+            int[] states = new int[frontier.numStates()];
+            states[frontier.getBase()] = PackedScheduleQueue.ROOT;
+            for(int state = frontier.getBase() + 1; state < frontier.numStates(); ++state)
+                states[state] = schedulesToVisit.createState(states[frontier.getParent(state)],
+                    frontier.getTask(graph, state));
+
+            for(int item = 0; item < frontier.size(); ++item)
+                if(frontier.getLowerBound(item) < _communicator.getCurrentBestEndTime())
+                    schedulesToVisit.add(frontier.getLowerBound(item), states[frontier.getState(item)]);
+
+            // Only the states leading to the items added are needed now
+            for(int state = frontier.getBase() + 1; state < frontier.numStates(); ++state)
+                schedulesToVisit.release(states[state]);
+            search(graph, schedulesToVisit);
+        }
+        return true;
+    }
+
+    /**
+     * Explores the queue, best first, until it is empty or the algorithm is stopped
+     */
+    private void search(Graph graph, PackedScheduleQueue schedulesToVisit) {
+        _queue = schedulesToVisit;
+        while (!schedulesToVisit.isEmpty() && !_communicator.isStopped()) {
+            checkpointIfAsked();
 
-        while (!schedulesToVisit.isEmpty()) {
             _curLowerBound = schedulesToVisit.getLowerBound();
-            SimpleSchedule curSchedule = schedulesToVisit.getSchedule();
-            HashSet<Node> nextNodes = schedulesToVisit.getVisitableNodes();
+            int curState = schedulesToVisit.getState();
+            ArraySchedule curSchedule = schedulesToVisit.getSchedule();
+            ReadySet nextNodes = schedulesToVisit.getVisitableNodes();
+            schedulesToVisit.retain(curState); // Its children are stored relative to it
             schedulesToVisit.remove();
 
             // generate all new possible schedules by adding nodes with all parents visited to all possible processors.
-            expand(graph, schedulesToVisit, curSchedule, nextNodes);
+            expand(graph, schedulesToVisit, curState, curSchedule, nextNodes);
+            schedulesToVisit.release(curState);
 
-            schedulesToVisit.cull(getCurrentBest().getEndTime());
+            schedulesToVisit.cull(refreshBestEndTime());
         }
+        _queue = null;
+
+        // If stopped part way, the bound reached is left as it was, since the queue still holds schedules below it
+        if(!_communicator.isStopped())
+            _curLowerBound = refreshBestEndTime();
+    }
+
+    /**
+     * A snapshot of the queue, taken between expanding one schedule and the next. While handing over a schedule the
+     * rest of the schedules being expanded are only on the stack, so none can be taken.
+     * @see BoundableAlgorithm#checkpointPart(boolean)
+     */
+    @Override
+    Checkpoint.Part checkpointPart(boolean handingOver) {
+        if(handingOver || _queue == null)
+            return null;
+
+        PackedScheduleQueue.Snapshot snapshot = _queue.snapshot();
+        return new Checkpoint.Part() {
+            @Override
+            public void addTo(Checkpoint checkpoint) {
+                snapshot.load();
+
+                // Only the states leading to something still in the queue are kept
+                BitSet live = new BitSet(snapshot.numStates());
+                for(int item = 0; item < snapshot.size(); ++item)
+                    for(int state = snapshot.getState(item); state != PackedScheduleQueue.ROOT && !live.get(state);
+                        state = snapshot.getParent(state))
+                        live.set(state);
+
+                Checkpoint.Frontier frontier = checkpoint.addFrontier(true);
+                int base = frontier.addSchedule(snapshot.getRootSchedule());
+                frontier.setBase(base);
+
+                int[] states = new int[snapshot.numStates()];
+                states[PackedScheduleQueue.ROOT] = base;
+                for(int state = live.nextSetBit(0); state != -1; state = live.nextSetBit(state + 1))
+                    states[state] = frontier.addState(states[snapshot.getParent(state)],
+                        snapshot.getNodeAndProcessor(state), snapshot.getStartTime(state));
+
+                for(int item = 0; item < snapshot.size(); ++item)
+                    frontier.addItem(states[snapshot.getState(item)], snapshot.getLowerBound(item));
+            }
+
+            @Override
+            public void discard() {
+                snapshot.discard();
+            }
+        };
     }
 
     /**
      * Expands a state space node and adds all potential children to the schedulesToVisit queue.
      * Has the added benefit of continuing to expand nodes if their lower bound is just as good.
+     * @param curState The state of curSchedule in schedulesToVisit, which children are stored relative to
      * @return Whether or not a solution was found (and can exit early)
      */
-    private boolean expand(Graph graph, PackedScheduleQueue schedulesToVisit, SimpleSchedule curSchedule, HashSet<Node> nextNodes) {
-        if (_communicator.getCurrentBest().getEndTime() <= _curLowerBound) {
+    private boolean expand(Graph graph, PackedScheduleQueue schedulesToVisit, int curState,
+                           ArraySchedule curSchedule, ReadySet nextNodes) {
+        if (refreshBestEndTime() <= _curLowerBound) {
             return false;
         }
         // if current schedule contains all nodes, it is optimal.
@@ -104,62 +213,62 @@ public class AStarAlgorithm extends BoundableAlgorithm {
             _communicator.update(curSchedule);
             return true;
         }
-        // get the nodes that can be added to this schedule
-        //HashSet<Node> nextNodes = AlgorithmUtils.calculateNextNodes(graph, curSchedule);
-
-        //only poll for memory usage every 5 iterations.
+        //only poll for memory usage every 5 iterations. A queue that spills to disk looks after its own memory
         _memoryCounter++;
         if (_memoryCounter == 10){
-            _outOfMemory = outOfMemory();
+            _outOfMemory = !schedulesToVisit.spillsToDisk() && outOfMemory();
             _memoryCounter = 0;
         }
         if (_outOfMemory) {
-            _communicator.explorePartialSolution(graph, new SimpleSchedule(curSchedule), nextNodes);
+            _communicator.explorePartialSolution(graph, new ArraySchedule(curSchedule), new ReadySet(nextNodes),
+                _curLowerBound);
             return false;
         }
 
-        // generate all new possible schedules by adding nodes with all parents visited to all possible processors.
-        for (Node node : nextNodes) {
-            _currentNode = node;
-
-            // find all the nodes that can now be visited after adding current node to schedule
-            HashSet<Node> childNextNodes = AlgorithmUtils.calculateNextNodes(graph, curSchedule, nextNodes, node);
-            // find the earliest possible time the current node could be placed on each processor
-            int[] earliestStarts = AlgorithmUtils.calculateEarliestTimes(graph, curSchedule, node);
-
-            // place the node on each possible processor to generate all possible schedules
-            for (int proc = 0; proc < curSchedule.getNumProcessors(); proc++){
-
-                // generate a new task that is placed on the earliest possible time for current processor
-                Task taskToPlace = new Task(proc, earliestStarts[proc], node);
+        // find the earliest possible time each node could be placed on each processor, which the lower bounds of the
+        // new schedules are also worked out from
+        EarliestTimes earliestTimes = new EarliestTimes(graph, curSchedule, nextNodes);
+
+        // generate all new possible schedules by adding nodes with all parents visited to all possible processors,
+        // apart from those that are pruned. The tasks of each node come together
+        List<Task> tasks = AlgorithmUtils.tasksToTry(graph, curSchedule, nextNodes, earliestTimes, _arborist, _counters);
+        Node node = null;
+        for (Task taskToPlace : tasks) {
+            // find all the nodes that can now be visited after adding each node to schedule
+            if (taskToPlace.getNode() != node) {
+                if (node != null)
+                    nextNodes.remove(node);
+                node = taskToPlace.getNode();
+                _currentNode = node;
+                nextNodes.add(node);
+            }
 
-                // if pruner suggests culling this branch, do not explore this schedule
-                if (_arborist.prune(graph, curSchedule, taskToPlace)) {
-                    _numCulled = _numCulled.add(BigInteger.ONE);
-                    continue;
-                }
-                // We have to concede adding a task now
-                // generates a schedule with new task added.
-                curSchedule.addTask(taskToPlace);
-
-                // find the lower bound associated to the newly generated schedule.
-                int newLowerBound = _lowerBound.estimate(graph, curSchedule, childNextNodes);
-                if(newLowerBound >= getCurrentBest().getEndTime()) {
-                    _numCulled = _numCulled.add(BigInteger.ONE);
+            // We have to concede adding a task now
+            // generates a schedule with new task added.
+            curSchedule.addTask(taskToPlace);
+
+            // find the lower bound associated to the newly generated schedule.
+            int newLowerBound = _lowerBound.estimate(graph, curSchedule, nextNodes, earliestTimes.after(taskToPlace));
+            if(newLowerBound >= _bestEndTime) {
+                _counters.culled();
+            } else {
+                _counters.explored(curSchedule.size());
+
+                if(newLowerBound == _curLowerBound) { // Continue to expand if the lower bound is still good
+                    int childState = schedulesToVisit.createState(curState, taskToPlace);
+                    boolean found = expand(graph, schedulesToVisit, childState, curSchedule, nextNodes);
+                    schedulesToVisit.release(childState);
+                    if( found )
+                        return true;
                 } else {
-                    _numExplored = _numExplored.add(BigInteger.ONE);
-
-                    if(newLowerBound == _curLowerBound) { // Continue to expand if the lower bound is still good
-                        if( expand(graph, schedulesToVisit, curSchedule, childNextNodes) )
-                            return true;
-                    } else {
-                        schedulesToVisit.add(newLowerBound, new SimpleSchedule(curSchedule), childNextNodes);
-                    }
+                    schedulesToVisit.add(newLowerBound, curState, taskToPlace);
                 }
-
-                curSchedule.removeTask(taskToPlace);
             }
+
+            curSchedule.removeTask(taskToPlace);
         }
+        if (node != null)
+            nextNodes.remove(node);
         return false;
     }
 
@@ -175,22 +284,6 @@ public class AStarAlgorithm extends BoundableAlgorithm {
         return runtime.freeMemory() < (1024 * 1024 * 512);
     }
 
-    /**
-     * @see Algorithm#branchesCulled()
-     */
-    @Override
-    public BigInteger branchesCulled() {
-        return _numCulled;
-    }
-
-    /**
-     * @see Algorithm#branchesExplored()
-     */
-    @Override
-    public BigInteger branchesExplored() {
-        return _numExplored;
-    }
-
     /**
      * @see Algorithm#currentNode()
      */
@@ -19,6 +19,14 @@ public interface Algorithm {
      */
     void run(Graph graph, int processors);
 
+    /**
+     * Asks the algorithm to stop as soon as it can. Safe to call from any thread while the algorithm is running.
+     * run() will then return early, and getCurrentBest() will be the best schedule found so far, which is only
+     * optimal if lowerBound() has reached its end time.
+     */
+    default void stop() {
+    }
+
     /**
      * Gets the current best schedule the algorithm is inspecting.
      *
@@ -26,19 +34,32 @@ public interface Algorithm {
      */
     Schedule getCurrentBest();
 
+    /**
+     * Takes a snapshot of how far the algorithm has got. Safe to call from any thread while the algorithm is running.
+     *
+     * @return The counts and bounds at roughly this moment
+     */
+    SearchStats getStats();
+
     /**
      * Gets the number of branches that were culled via pruning and lower bound.
      *
      * @return The number of culled branches that occurred
+     * @see Algorithm#getStats()
      */
-    BigInteger branchesCulled();
+    default BigInteger branchesCulled() {
+        return BigInteger.valueOf(getStats().getCulled());
+    }
 
     /**
      * Gets the number of branches that were explored by the algorithm.
      *
      * @return The number of branches explored
+     * @see Algorithm#getStats()
      */
-    BigInteger branchesExplored();
+    default BigInteger branchesExplored() {
+        return BigInteger.valueOf(getStats().getExplored());
+    }
 
     /**
      * Gets the current node being explored.
@@ -49,6 +70,7 @@ public interface Algorithm {
 
     /**
      * Finds the minimum possible length of a solution. When complete, should be equal to the current best end time.
+     * Must never be more than the length of an optimal schedule, even after the algorithm is stopped.
      */
     int lowerBound();
 }
@@ -1,71 +1,16 @@
 package algorithm;
 
+import algorithm.heuristics.pruner.Arborist;
+import algorithm.heuristics.pruner.EmptyProcessorPruner;
 import common.graph.*;
 import common.schedule.*;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 public class AlgorithmUtils {
-
-    /**
-     * Calculates the nodes that are valid to add to the current schedule.
-     */
-    public static HashSet<Node> calculateNextNodes(Graph graph, Schedule schedule) {
-
-        HashSet<Node> unscheduledNodes = new HashSet<>();
-
-        // finds all the nodes that have not yet been added to the schedule.
-        for (Node node : graph.getNodes()) {
-            if (schedule.findTask(node) == null) {
-                unscheduledNodes.add(node);
-            }
-        }
-        HashSet<Node> nodesToAdd = new HashSet<>(unscheduledNodes);
-
-        // node can only be added next to the schedule if all its parents are in the schedule
-        for (Node node : unscheduledNodes) {
-            for (Edge edge : graph.getIncomingEdges(node)){
-                Node parentNode = edge.getOriginNode();
-                //if a parent is not in the schedule then this node cannot be added.
-                if (!schedule.contains(parentNode)){
-                    nodesToAdd.remove(node);
-                    continue;
-                }
-            }
-        }
-        return nodesToAdd;
-    }
-
-    /**
-     * Calculates the set of available nodes to add to the schedule, derived from adding the current node
-     * to the schedule and using the old set of available nodes.
-     * TODO: Optimize?
-     */
-    public static HashSet<Node> calculateNextNodes(Graph graph, Schedule schedule, HashSet<Node> oldNodes, Node added) {
-        // Construct our new available nodes to pass on by copying available nodes and removing the one we're about
-        // to add
-        HashSet<Node> nextAvailableNodes = new HashSet<>(oldNodes);
-        nextAvailableNodes.remove(added);
-
-        // Now add all the children of the node we are visiting
-        // Check that everything we add has all it's parents in the schedule.
-        // There might be better code to do this or via method?
-        for(Edge edge : graph.getOutgoingEdges(added)) {
-            Node nodeToAdd = edge.getDestinationNode();
-
-            boolean parentsInSchedule = true;
-            for(Edge parentEdge : graph.getIncomingEdges(nodeToAdd)) {
-                if (parentEdge.getOriginNode() != added && !schedule.contains(parentEdge.getOriginNode())) {
-                    parentsInSchedule = false;
-                    break;
-                }
-            }
-            if(parentsInSchedule)
-                nextAvailableNodes.add(nodeToAdd);
-        }
-
-        return nextAvailableNodes;
-    }
+    private static final Arborist FIXED_ORDER_ARBORIST = new EmptyProcessorPruner();
 
     /**
      * Calculates the earliest times it can add the given node to each processor in the set
@@ -75,20 +20,20 @@ public class AlgorithmUtils {
         int[] earliests = new int[schedule.getNumProcessors()];
         for(Edge edge : graph.getIncomingEdges(node)) {
             Node dependencyNode = edge.getOriginNode();
-            Task item = schedule.findTask(dependencyNode);
+            int itemProcessor = schedule.getProcessor(dependencyNode);
+            int itemEndTime = schedule.getStartTime(dependencyNode) + dependencyNode.getComputationCost();
 
             // If it's on the same processor, just has to be after task end. If not, then it also needs
             // to be past the communication cost
             for(int processor = 0; processor < schedule.getNumProcessors(); ++processor) {
-                if (item.getProcessor() == processor)
-                    earliests[processor] = Math.max(earliests[processor], item.getEndTime());
+                if (itemProcessor == processor)
+                    earliests[processor] = Math.max(earliests[processor], itemEndTime);
                 else
-                    earliests[processor] = Math.max(earliests[processor], item.getEndTime() + edge.getCost());
+                    earliests[processor] = Math.max(earliests[processor], itemEndTime + edge.getCost());
             }
         }
         for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
-            if(schedule.size(processor) > 0)
-                earliests[processor] = Math.max(earliests[processor], schedule.getLatest(processor).getEndTime());
+            earliests[processor] = Math.max(earliests[processor], schedule.getEndTime(processor));
 
         return earliests;
     }
@@ -101,18 +46,190 @@ public class AlgorithmUtils {
         int earliest =  0;
         for(Edge edge : graph.getIncomingEdges(node)) {
             Node dependencyNode = edge.getOriginNode();
-            Task item = schedule.findTask(dependencyNode);
+            int itemEndTime = schedule.getStartTime(dependencyNode) + dependencyNode.getComputationCost();
 
             // If it's on the same processor, just has to be after task end. If not, then it also needs
             // to be past the communication cost
-            if (item.getProcessor() == processor)
-                earliest = Math.max(earliest, item.getEndTime());
+            if (schedule.getProcessor(dependencyNode) == processor)
+                earliest = Math.max(earliest, itemEndTime);
             else
-                earliest = Math.max(earliest, item.getEndTime() + edge.getCost());
+                earliest = Math.max(earliest, itemEndTime + edge.getCost());
+        }
+        earliest = Math.max(earliest, schedule.getEndTime(processor));
+
+        return earliest;
+    }
+
+    /**
+     * Gets the earliest time the given node could be placed on any processor. Equivalent to the minimum of
+     * calculateEarliestTimes, but does not allocate.
+     */
+    public static int calculateEarliestStart(Graph graph, Schedule schedule, Node node) {
+        List<Edge> edges = graph.getIncomingEdges(node);
+
+        int earliest = Integer.MAX_VALUE;
+        for(int processor = 0; processor < schedule.getNumProcessors(); ++processor) {
+            int start = schedule.getEndTime(processor);
+            for(int i = 0; i < edges.size(); ++i) {
+                Node dependencyNode = edges.get(i).getOriginNode();
+                int itemEndTime = schedule.getStartTime(dependencyNode) + dependencyNode.getComputationCost();
+
+                if(schedule.getProcessor(dependencyNode) == processor)
+                    start = Math.max(start, itemEndTime);
+                else
+                    start = Math.max(start, itemEndTime + edges.get(i).getCost());
+            }
+            earliest = Math.min(earliest, start);
         }
-        if(schedule.size(processor) > 0)
-            earliest = Math.max(earliest, schedule.getLatest(processor).getEndTime());
 
         return earliest;
     }
+
+    /**
+     * Works out whether the ready nodes can be put into a fixed order, so that some optimal schedule places them in
+     * that order (and so only the first needs to be tried next). This is the case when every ready node has at most
+     * one parent and one child, the parents are all on one processor, and either all the nodes share a single child or
+     * none have one. Ordering them by when their data could arrive on another processor, then by the cost of their
+     * outgoing edge from most to least, must also leave the outgoing edge costs in order from most to least.
+     *
+     * Placing the nodes in this order doesn't place tasks in order of start time, which pruners may rely on. So the
+     * order is only given when everything else left to place has to start after every task already placed.
+     *
+     * @return The node to place next, or null if the ready nodes can't be put into a fixed order
+     */
+    public static Node fixedOrderFirst(Graph graph, Schedule schedule, ReadySet ready) {
+        if(ready.size() == 0)
+            return null;
+
+        Node child = null;
+        int parentProcessor = -1;
+        List<Node> nodes = new ArrayList<>(ready.size());
+        for(Node node : ready) {
+            List<Edge> incoming = graph.getIncomingEdges(node);
+            List<Edge> outgoing = graph.getOutgoingEdges(node);
+            if(incoming.size() > 1 || outgoing.size() > 1)
+                return null;
+
+            Node nodeChild = outgoing.isEmpty() ? null : outgoing.get(0).getDestinationNode();
+            if(nodes.isEmpty())
+                child = nodeChild;
+            else if(nodeChild != child)
+                return null;
+
+            if(!incoming.isEmpty()) {
+                int processor = schedule.getProcessor(incoming.get(0).getOriginNode());
+                if(parentProcessor != -1 && processor != parentProcessor)
+                    return null;
+                parentProcessor = processor;
+            }
+            nodes.add(node);
+        }
+
+        nodes.sort(Comparator.<Node>comparingInt(node -> dataReadyTime(graph, schedule, node))
+            .thenComparing(Comparator.<Node>comparingInt(node -> outgoingCost(graph, node)).reversed())
+            .thenComparingInt(Node::getId));
+        for(int i = 1; i < nodes.size(); ++i)
+            if(outgoingCost(graph, nodes.get(i)) > outgoingCost(graph, nodes.get(i - 1)))
+                return null;
+
+        // Everything left after these nodes comes after the child, which starts once they have all finished
+        if(child != null) {
+            int childStart = 0;
+            for(Node node : nodes)
+                childStart = Math.max(childStart, calculateEarliestStart(graph, schedule, node) + node.getComputationCost());
+            for(Edge edge : graph.getIncomingEdges(child))
+                if(schedule.contains(edge.getOriginNode()))
+                    childStart = Math.max(childStart, schedule.getStartTime(edge.getOriginNode())
+                        + edge.getOriginNode().getComputationCost());
+
+            // A processor whose last task is a parent of the child has every task on it finish before the child
+            for(int processor = 0; processor < schedule.getNumProcessors(); ++processor) {
+                Task latest = schedule.getLatest(processor);
+                if(latest != null && latest.getStartTime() > childStart && !isParent(graph, latest.getNode(), child))
+                    return null;
+            }
+        }
+
+        return nodes.get(0);
+    }
+
+    /**
+     * Gets the tasks to try adding to a partial schedule next: each ready node at its earliest time on each processor,
+     * apart from those the arborist prunes.
+     *
+     * If the ready nodes can be placed in a fixed order (see fixedOrderFirst) only the first of them is tried, on any
+     * processor. Our pruners expect tasks to be added in order of start time, which that order doesn't keep to, so
+     * only empty processors are pruned then. When the ready nodes have parents and also share a child, as in fork-join
+     * graphs, that leaves more to explore than the arborist does, so they are tried as usual.
+     * @return The tasks, with those of each node together
+     */
+    public static List<Task> tasksToTry(Graph graph, Schedule schedule, ReadySet ready, EarliestTimes earliestTimes,
+                                        Arborist arborist, SearchCounters counters) {
+        int processors = schedule.getNumProcessors();
+        List<Task> tasks = new ArrayList<>();
+
+        Node fixedFirst = fixedOrderFirst(graph, schedule, ready);
+        if(fixedFirst != null && !graph.getOutgoingEdges(fixedFirst).isEmpty() && anyHaveParents(graph, ready))
+            fixedFirst = null;
+
+        if(fixedFirst != null) {
+            counters.fixedOrder();
+            for(int processor = 0; processor < processors; ++processor) {
+                Task task = new Task(processor, earliestTimes.get(fixedFirst, processor), fixedFirst);
+                if(!FIXED_ORDER_ARBORIST.prune(graph, schedule, task))
+                    tasks.add(task);
+            }
+        } else {
+            for(Node node : ready) {
+                // Skip working out where the node could go if it would be pruned wherever it went
+                if(arborist.pruneNode(graph, schedule, node))
+                    continue;
+
+                for(int processor = 0; processor < processors; ++processor) {
+                    Task task = new Task(processor, earliestTimes.get(node, processor), node);
+                    if(!arborist.prune(graph, schedule, task))
+                        tasks.add(task);
+                }
+            }
+        }
+
+        counters.culled((long)ready.size() * processors - tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Whether any of the given nodes have parents. Once the nodes of a fixed order start being placed out of start time
+     * order the rest have to be too, and this stays the same as they are placed, as does whether they share a child.
+     */
+    private static boolean anyHaveParents(Graph graph, ReadySet ready) {
+        for(Node node : ready)
+            if(!graph.getIncomingEdges(node).isEmpty())
+                return true;
+        return false;
+    }
+
+    /**
+     * Gets the time all of a ready node's data could have arrived on a processor other than its parent's
+     */
+    private static int dataReadyTime(Graph graph, Schedule schedule, Node node) {
+        int time = 0;
+        for(Edge edge : graph.getIncomingEdges(node))
+            time = Math.max(time, schedule.getStartTime(edge.getOriginNode())
+                + edge.getOriginNode().getComputationCost() + edge.getCost());
+        return time;
+    }
+
+    private static int outgoingCost(Graph graph, Node node) {
+        int cost = 0;
+        for(Edge edge : graph.getOutgoingEdges(node))
+            cost = Math.max(cost, edge.getCost());
+        return cost;
+    }
+
+    private static boolean isParent(Graph graph, Node parent, Node child) {
+        for(Edge edge : graph.getOutgoingEdges(parent))
+            if(edge.getDestinationNode() == child)
+                return true;
+        return false;
+    }
 }
@@ -1,14 +1,18 @@
 package algorithm;
 
 import common.graph.Graph;
-import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
-import common.schedule.SimpleSchedule;
-
-import java.util.HashSet;
 
 public abstract class BoundableAlgorithm implements Algorithm {
     protected final MultiAlgorithmCommunicator _communicator;
+    protected final SearchCounters _counters;
+    // Copy of the communicator's best end time, local to the thread running this algorithm. May be out of date, but
+    // only ever too large, so is always safe to bound with
+    protected int _bestEndTime = Integer.MAX_VALUE;
+    // The generation of the last checkpoint this algorithm answered
+    private int _answeredGeneration = 0;
     /**
      * Constructor that uses a notifier and global best that are defined elsewhere, so that this and other algorithms
      * may work together on a single graph.
@@ -16,23 +20,82 @@ public abstract class BoundableAlgorithm implements Algorithm {
 
     public BoundableAlgorithm(MultiAlgorithmCommunicator communicator) {
         this._communicator = communicator;
+        this._counters = communicator.getCounters();
     }
     /**
      * Constructor that uses a dummy notifier so that the algorithm is runnable independently
      */
     public BoundableAlgorithm() {
         // Note: Assumes that you will never call explore when just running by yourself. Not perfect but good enough.
-        this._communicator = new MultiAlgorithmCommunicator();
+        this(new MultiAlgorithmCommunicator());
     }
 
-    public abstract void run(Graph graph, Schedule schedule, HashSet<Node> nextNodes);
+    public abstract void run(Graph graph, Schedule schedule, ReadySet nextNodes);
     /**
      * Runs the algorithm normally (infinite depth, and starting schedule is empty)
      * @param graph A graph object representing tasks needing to be scheduled.
      */
     @Override
     public void run(Graph graph, int processors) {
-        run(graph, new SimpleSchedule(processors), new HashSet<>(graph.getEntryPoints()));
+        run(graph, new ArraySchedule(graph, processors), new ReadySet(graph));
+    }
+
+    /**
+     * Updates the local copy of the current best end time from the communicator
+     * @return The current best end time
+     */
+    protected int refreshBestEndTime() {
+        return _bestEndTime = _communicator.getCurrentBestEndTime();
+    }
+
+    /**
+     * Answers the communicator if it has asked for a checkpoint. Called by algorithms wherever everything they have
+     * left to explore is known, see checkpointPart(boolean). Costs a single volatile read unless a checkpoint has been
+     * asked for.
+     */
+    protected void checkpointIfAsked() {
+        int generation = _communicator.getCheckpointGeneration();
+        if(generation != _answeredGeneration) {
+            _answeredGeneration = generation;
+            _communicator.answerCheckpoint(this, generation);
+        }
+    }
+
+    /**
+     * Takes a part of a checkpoint holding everything the algorithm has left to explore. Only ever called on the
+     * thread running the algorithm, while it is in checkpointIfAsked() or explorePartialSolution().
+     * @param handingOver Whether the algorithm is in the middle of explorePartialSolution(). The partial schedule it is
+     *                    handing over is not part of what it has left
+     * @return The part, or null if the algorithm can't tell, in which case the schedule it was run on is explored again
+     */
+    Checkpoint.Part checkpointPart(boolean handingOver) {
+        return null;
+    }
+
+    /**
+     * Carries on from a frontier of a checkpoint, instead of running on a single schedule
+     * @return Whether the algorithm could carry on from the frontier. If not, it has not explored any of it
+     */
+    boolean resume(Graph graph, Checkpoint.Frontier frontier) {
+        return false;
+    }
+
+    /**
+     * Stops every algorithm sharing this one's communicator
+     * @see Algorithm#stop()
+     */
+    @Override
+    public void stop() {
+        _communicator.stop();
+    }
+
+    /**
+     * Counts are shared with every other algorithm using the same communicator
+     * @see Algorithm#getStats()
+     */
+    @Override
+    public SearchStats getStats() {
+        return _communicator.getStats(lowerBound());
     }
 
     /**
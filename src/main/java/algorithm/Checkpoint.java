@@ -0,0 +1,433 @@
+package algorithm;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Enough of the state of a search to carry it on later, in another JVM: the best schedule found, the counts so far,
+ * and every partial schedule that has yet to be explored along with its lower bound.
+ *
+ * Partial schedules are kept in frontiers. Each frontier stores its partial schedules as a tree of states, where every
+ * state is its parent plus a single task, in the same way as a PackedScheduleQueue. A frontier is either explored one
+ * partial schedule at a time, or is the queue of an A* which can carry on from all of it at once.
+ * @see TieredAlgorithm#checkpoint(long)
+ * @see TieredAlgorithm#run(Graph, int, Checkpoint)
+ */
+public class Checkpoint {
+    private static final int    MAGIC = 0x41494E52; // AINR
+    private static final int    VERSION = 3;
+
+    private final String        _graphName;
+    private final int           _graphSize;
+    private final int           _processors;
+
+    private int[]               _incumbent = new int[0]; // Node, processor and start time of each task
+    private int                 _incumbentEndTime = Integer.MAX_VALUE;
+    private long[]              _exploredByDepth = new long[0];
+    private long                _culled = 0;
+    private long                _fixedOrder = 0;
+    private long                _transpositionHits = 0;
+    private long                _transpositionMisses = 0;
+    private final List<Frontier> _frontiers = new ArrayList<>();
+
+    /**
+     * Creates an empty checkpoint of a search of the given graph
+     */
+    public Checkpoint(Graph graph, int processors) {
+        this(graph.getName(), graph.size(), processors);
+    }
+
+    private Checkpoint(String graphName, int graphSize, int processors) {
+        _graphName = graphName;
+        _graphSize = graphSize;
+        _processors = processors;
+    }
+
+    /**
+     * Reads a checkpoint written by write(Path)
+     * @throws IllegalArgumentException If the checkpoint is of a search of a different graph or number of processors
+     */
+    public static Checkpoint read(Path file, Graph graph, int processors) throws IOException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(file + " is not an Ainur checkpoint");
+
+            Checkpoint checkpoint = new Checkpoint(in.readUTF(), in.readInt(), in.readInt());
+            if(!checkpoint._graphName.equals(graph.getName()) || checkpoint._graphSize != graph.size()
+                || checkpoint._processors != processors)
+                throw new IllegalArgumentException(file + " is a checkpoint of " + checkpoint._graphName + " on "
+                    + checkpoint._processors + " processors");
+
+            checkpoint._incumbentEndTime = in.readInt();
+            checkpoint._incumbent = readInts(in);
+            checkpoint._culled = in.readLong();
+            checkpoint._fixedOrder = in.readLong();
+            checkpoint._transpositionHits = in.readLong();
+            checkpoint._transpositionMisses = in.readLong();
+            checkpoint._exploredByDepth = new long[readVarInt(in)];
+            for(int depth = 0; depth < checkpoint._exploredByDepth.length; ++depth)
+                checkpoint._exploredByDepth[depth] = in.readLong();
+
+            int frontiers = readVarInt(in);
+            for(int i = 0; i < frontiers; ++i) {
+                Frontier frontier = checkpoint.addFrontier(in.readBoolean());
+                frontier._base = readVarInt(in);
+                frontier._numStates = readVarInt(in);
+                frontier._states = readInts(in, frontier._numStates * Frontier.STATE_INTS);
+                frontier._numItems = readVarInt(in);
+                frontier._items = readInts(in, frontier._numItems * 2);
+            }
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file, then moves it over the given file. The file is always a whole
+     * checkpoint, even if writing is cut short. The temporary file is synced to disk before it is moved, so that a
+     * crash can't leave the move done but the contents not written.
+     */
+    public void write(Path file) throws IOException {
+        Path temporary = file.toAbsolutePath().resolveSibling(file.getFileName() + ".tmp");
+
+        try(FileOutputStream stream = new FileOutputStream(temporary.toFile());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(_graphName);
+            out.writeInt(_graphSize);
+            out.writeInt(_processors);
+
+            out.writeInt(_incumbentEndTime);
+            writeInts(out, _incumbent, _incumbent.length);
+            out.writeLong(_culled);
+            out.writeLong(_fixedOrder);
+            out.writeLong(_transpositionHits);
+            out.writeLong(_transpositionMisses);
+            writeVarInt(out, _exploredByDepth.length);
+            for(long explored : _exploredByDepth)
+                out.writeLong(explored);
+
+            writeVarInt(out, _frontiers.size());
+            for(Frontier frontier : _frontiers) {
+                out.writeBoolean(frontier._queue);
+                writeVarInt(out, frontier._base);
+                writeVarInt(out, frontier._numStates);
+                writeInts(out, frontier._states, frontier._numStates * Frontier.STATE_INTS);
+                writeVarInt(out, frontier._numItems);
+                writeInts(out, frontier._items, frontier._numItems * 2);
+            }
+
+            out.flush();
+            stream.getFD().sync();
+        }
+
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Adds an empty frontier to the checkpoint
+     * @param queue Whether the frontier is an A* queue, to be carried on from all at once
+     */
+    public Frontier addFrontier(boolean queue) {
+        Frontier frontier = new Frontier(_processors, queue);
+        _frontiers.add(frontier);
+        return frontier;
+    }
+
+    /**
+     * Adds a frontier from another checkpoint which was never started on
+     */
+    void addFrontier(Frontier frontier) {
+        _frontiers.add(frontier);
+    }
+
+    public List<Frontier> getFrontiers() {
+        return Collections.unmodifiableList(_frontiers);
+    }
+
+    /**
+     * Records the best schedule found. Only complete schedules are recorded
+     */
+    void setIncumbent(Schedule schedule) {
+        if(schedule.getEndTime() == Integer.MAX_VALUE || schedule.size() != _graphSize)
+            return;
+
+        List<Task> tasks = new ArrayList<>();
+        for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
+            tasks.addAll(schedule.getTasks(processor));
+
+        _incumbent = new int[tasks.size() * 3];
+        for(int i = 0; i < tasks.size(); ++i) {
+            _incumbent[i * 3] = tasks.get(i).getNode().getId();
+            _incumbent[i * 3 + 1] = tasks.get(i).getProcessor();
+            _incumbent[i * 3 + 2] = tasks.get(i).getStartTime();
+        }
+        _incumbentEndTime = schedule.getEndTime();
+    }
+
+    /**
+     * @return The best schedule found before the checkpoint was taken, or null if there was none
+     */
+    public Schedule getIncumbent(Graph graph) {
+        if(_incumbentEndTime == Integer.MAX_VALUE)
+            return null;
+
+        ArraySchedule schedule = new ArraySchedule(graph, _processors);
+        for(int i = 0; i < _incumbent.length; i += 3)
+            schedule.addTask(new Task(_incumbent[i + 1], _incumbent[i + 2], graph.getNode(_incumbent[i])));
+        return schedule;
+    }
+
+    void setStats(SearchStats stats) {
+        _exploredByDepth = new long[stats.getDepths()];
+        for(int depth = 0; depth < _exploredByDepth.length; ++depth)
+            _exploredByDepth[depth] = stats.getExplored(depth);
+        _culled = stats.getCulled();
+        _fixedOrder = stats.getFixedOrder();
+        _transpositionHits = stats.getTranspositionHits();
+        _transpositionMisses = stats.getTranspositionMisses();
+    }
+
+    /**
+     * @return The counts and bounds of the search when the checkpoint was taken
+     */
+    public SearchStats getStats() {
+        return new SearchStats(_exploredByDepth, _culled, _fixedOrder, _transpositionHits, _transpositionMisses,
+            _incumbentEndTime, lowerBound(), Collections.emptyList());
+    }
+
+    /**
+     * @return The smallest end time any schedule could still have when the checkpoint was taken
+     */
+    public int lowerBound() {
+        int lowerBound = _incumbentEndTime;
+        for(Frontier frontier : _frontiers)
+            lowerBound = Math.min(lowerBound, frontier.getLowerBound());
+        return lowerBound;
+    }
+
+    /**
+     * A part of a checkpoint, taken by an algorithm while it is stopped somewhere it knows what it has left to
+     * explore. Anything it needs is copied when it is taken, so that the work of turning it into frontiers can be
+     * done later on another thread.
+     */
+    interface Part {
+        void addTo(Checkpoint checkpoint);
+
+        /**
+         * Frees anything the part keeps off the heap, if it is never added to a checkpoint
+         */
+        default void discard() {
+        }
+    }
+
+    /**
+     * A set of partial schedules and their lower bounds, stored as a tree of states
+     */
+    public static class Frontier {
+        /**
+         * The state of the empty schedule
+         */
+        public static final int ROOT = 0;
+
+        private static final int STATE_INTS = 3; // Parent, node and processor, start time
+
+        private final int   _processors;
+        private final boolean _queue;
+        private int         _base = ROOT;
+
+        private int[]       _states = new int[16 * STATE_INTS];
+        private int         _numStates = 1; // The root
+        private int[]       _items = new int[16];   // State and lower bound of each
+        private int         _numItems = 0;
+
+        private Frontier(int processors, boolean queue) {
+            _processors = processors;
+            _queue = queue;
+            _states[0] = -1;
+        }
+
+        /**
+         * Stores a state of the given task added to the parent state
+         * @return The new state
+         */
+        public int addState(int parent, Task task) {
+            return addState(parent, task.getNode().getId() * _processors + task.getProcessor(), task.getStartTime());
+        }
+
+        /**
+         * Stores a state whose task is packed in the same way as a PackedScheduleQueue packs it
+         */
+        int addState(int parent, int nodeAndProcessor, int startTime) {
+            if((_numStates + 1) * STATE_INTS > _states.length)
+                _states = Arrays.copyOf(_states, Math.max(16 * STATE_INTS, _states.length * 2));
+
+            _states[_numStates * STATE_INTS] = parent;
+            _states[_numStates * STATE_INTS + 1] = nodeAndProcessor;
+            _states[_numStates * STATE_INTS + 2] = startTime;
+            return _numStates++;
+        }
+
+        /**
+         * Stores the states of every task in the schedule, one processor at a time
+         * @return The state of the whole schedule
+         */
+        public int addSchedule(Schedule schedule) {
+            int state = ROOT;
+            for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
+                for(Task task : schedule.getTasks(processor))
+                    state = addState(state, task);
+            return state;
+        }
+
+        /**
+         * Adds the partial schedule of the given state to the frontier
+         */
+        public void addItem(int state, int lowerBound) {
+            if((_numItems + 1) * 2 > _items.length)
+                _items = Arrays.copyOf(_items, Math.max(16, _items.length * 2));
+
+            _items[_numItems * 2] = state;
+            _items[_numItems * 2 + 1] = lowerBound;
+            _numItems++;
+        }
+
+        /**
+         * @return Whether the frontier is an A* queue, see setBase(int)
+         */
+        public boolean isQueue() {
+            return _queue;
+        }
+
+        /**
+         * Sets the state of the schedule an A* started from. Every state after it is the A*'s own, added in an order
+         * it could have added them in.
+         */
+        void setBase(int base) {
+            _base = base;
+        }
+
+        int getBase() {
+            return _base;
+        }
+
+        int numStates() {
+            return _numStates;
+        }
+
+        int getParent(int state) {
+            return _states[state * STATE_INTS];
+        }
+
+        Task getTask(Graph graph, int state) {
+            int nodeAndProcessor = _states[state * STATE_INTS + 1];
+            Node node = graph.getNode(nodeAndProcessor / _processors);
+            return new Task(nodeAndProcessor % _processors, _states[state * STATE_INTS + 2], node);
+        }
+
+        public int size() {
+            return _numItems;
+        }
+
+        int getState(int item) {
+            return _items[item * 2];
+        }
+
+        public int getLowerBound(int item) {
+            return _items[item * 2 + 1];
+        }
+
+        /**
+         * @return The smallest lower bound of any partial schedule in the frontier
+         */
+        public int getLowerBound() {
+            int lowerBound = Integer.MAX_VALUE;
+            for(int item = 0; item < _numItems; ++item)
+                lowerBound = Math.min(lowerBound, getLowerBound(item));
+            return lowerBound;
+        }
+
+        /**
+         * Builds the partial schedule of an item
+         */
+        public ArraySchedule getSchedule(Graph graph, int item) {
+            return buildSchedule(graph, getState(item));
+        }
+
+        ArraySchedule buildSchedule(Graph graph, int state) {
+            List<Task> path = new ArrayList<>();
+            for(int cur = state; cur != ROOT; cur = getParent(cur))
+                path.add(getTask(graph, cur));
+
+            ArraySchedule schedule = new ArraySchedule(graph, _processors);
+            for(int i = path.size() - 1; i >= 0; --i)
+                schedule.addTask(path.get(i));
+            return schedule;
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+        writeVarInt(out, count);
+        for(int i = 0; i < count; ++i)
+            writeVarInt(out, values[i] + 1); // Parents of the root are -1
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        return readInts(in, -1);
+    }
+
+    private static int[] readInts(DataInputStream in, int expected) throws IOException {
+        int count = readVarInt(in);
+        if(expected != -1 && count != expected)
+            throw new IOException("Checkpoint is corrupt");
+
+        int[] values = new int[count];
+        for(int i = 0; i < count; ++i)
+            values[i] = readVarInt(in) - 1;
+        return values;
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        while((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for(int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if(b == -1)
+                throw new IOException("Checkpoint ends part way through");
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+    }
+}
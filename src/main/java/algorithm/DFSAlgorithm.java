@@ -6,7 +6,6 @@ import common.graph.*;
 import common.schedule.*;
 import javafx.util.Pair;
 
-import java.math.BigInteger;
 import java.util.*;
 
 /**
@@ -16,25 +15,46 @@ public class DFSAlgorithm extends BoundableAlgorithm {
     private int _depth;
     private Arborist _arborist;
     private LowerBound _lowerBound;
+    private TranspositionTable _transpositionTable;
+    private boolean _sharesTranspositionTable = false; // Takes the communicator's table for the thread it runs on
+    private ScheduleHash _scheduleHash;
 
-    volatile private BigInteger _numCulled = BigInteger.ZERO;
-    volatile private BigInteger _numExplored = BigInteger.ZERO;
     volatile private Node _currentNode;
     volatile private int _curLowerBound;
 
     private Graph _graph;
 
+    // What is left to explore at each level of recursion, and the task added to get to each level, so that a
+    // checkpoint can be taken of the whole stack
+    private final List<PriorityQueue<Pair<Integer, Task>>> _levels = new ArrayList<>();
+    private final List<Task> _path = new ArrayList<>();
+    private ArraySchedule _schedule;
+
     /**
-     * Constructor for DFSAlgorithm class.
+     * Constructor for DFSAlgorithm class. Shares the transposition table of the thread it runs on with every other
+     * algorithm using the communicator on that thread
      * @param arborist : A pruner to use in algorithm
      * @param lowerBound : A lower-bound to use in algorithm
      * @param communicator : A communicator used to communicate with tieredAlgorithms
+     * @see MultiAlgorithmCommunicator#getTranspositionTable()
      */
     public DFSAlgorithm(MultiAlgorithmCommunicator communicator, Arborist arborist, LowerBound lowerBound, int depth) {
+        this(communicator, arborist, lowerBound, depth, null);
+        _sharesTranspositionTable = true;
+    }
+
+    /**
+     * Constructor for DFSAlgorithm class with a specific transposition table.
+     * @param transpositionTable : A table to record explored partial schedules in, or null to not record them
+     */
+    public DFSAlgorithm(MultiAlgorithmCommunicator communicator, Arborist arborist, LowerBound lowerBound, int depth,
+                        TranspositionTable transpositionTable) {
         super(communicator);
         _arborist = arborist;
+        _counters.track(arborist);
         _lowerBound = lowerBound;
         _depth = depth;
+        _transpositionTable = transpositionTable;
     }
 
     /**
@@ -43,15 +63,19 @@ public class DFSAlgorithm extends BoundableAlgorithm {
     public DFSAlgorithm(Arborist arborist, LowerBound lowerBound) {
         super();
         _arborist = arborist;
+        _counters.track(arborist);
         _lowerBound = lowerBound;
         _depth = Integer.MAX_VALUE;
+        _sharesTranspositionTable = true;
     }
 
     public DFSAlgorithm(Arborist arborist, LowerBound lowerBound, Schedule initialGuess) {
         super(new MultiAlgorithmCommunicator(initialGuess));
         _arborist = arborist;
+        _counters.track(arborist);
         _lowerBound = lowerBound;
         _depth = Integer.MAX_VALUE;
+        _sharesTranspositionTable = true;
     }
 
     /**
@@ -66,11 +90,17 @@ public class DFSAlgorithm extends BoundableAlgorithm {
      * @param nextNodes : A helpful list of nodes to search through next
      */
     @Override
-    public void run(Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
+    public void run(Graph graph, Schedule schedule, ReadySet nextNodes) {
         _graph = graph;
-        recurse(schedule instanceof SimpleSchedule ? (SimpleSchedule)schedule : new SimpleSchedule(schedule),
-            nextNodes, Integer.MAX_VALUE);
-        _curLowerBound = getCurrentBest().getEndTime();
+        if(_sharesTranspositionTable)
+            _transpositionTable = _communicator.getTranspositionTable();
+        _scheduleHash = new ScheduleHash(schedule);
+        refreshBestEndTime();
+        _schedule = schedule instanceof ArraySchedule ? (ArraySchedule)schedule : new ArraySchedule(graph, schedule);
+        recurse(_schedule, nextNodes, Integer.MAX_VALUE);
+        // If stopped part way, the bound reached is left as it was, since not everything below it has been explored
+        if(!_communicator.isStopped())
+            _curLowerBound = refreshBestEndTime();
 
         _currentNode = null;
     }
@@ -80,93 +110,126 @@ public class DFSAlgorithm extends BoundableAlgorithm {
      *
      * @param curSchedule The partial schedule with all nodes visited by 'parent' recursors in it
      * @param availableNodes A helpful list of nodes available to visit next
-     * @param parentLowerBound The minimum lower bound of the parent recursor. Used to calculate current lower bound.
+     * @param parentLowerBound The minimum lower bound of the branches the parent recursors are exploring. Used to
+     *                         calculate current lower bound.
      */
-    @SuppressWarnings("NonAtomicOperationOnVolatileField") // All the volatile non-atomics here are only ever modified in this class, in this thread.
-    private void recurse(SimpleSchedule curSchedule, HashSet<Node> availableNodes, int parentLowerBound) {
+    private void recurse(ArraySchedule curSchedule, ReadySet availableNodes, int parentLowerBound) {
         // If only one node left, take it and place it in optimal place. Base case.
         if(curSchedule.size() + 1 == _graph.size()) {
-            placeLastNode(_graph, curSchedule, availableNodes.iterator().next());
+            placeLastNode(_graph, curSchedule, availableNodes.first());
             return;
         }
 
         // List of tasks ordered by lower bound
         PriorityQueue<Pair<Integer, Task>> orderedTasks = new PriorityQueue<>(Comparator.comparing(Pair::getKey));
-        HashMap<Node, HashSet<Node>> nextAvailableNodes = new HashMap<>();
-
-        // Go through every node of our children and add it to the priority queue
-        for(Node node : availableNodes) {
-            _currentNode = node;
-            // Calculate what nodes can be added next iteration
 
-            HashSet<Node> nodesNextAvailableNodes = AlgorithmUtils.calculateNextNodes(_graph, curSchedule, availableNodes, node);
-            nextAvailableNodes.put(node, nodesNextAvailableNodes);
+        // Where each node could go, which the lower bounds of the schedules made by placing them also start from
+        EarliestTimes earliestTimes = new EarliestTimes(_graph, curSchedule, availableNodes);
+        List<Task> tasks = AlgorithmUtils.tasksToTry(_graph, curSchedule, availableNodes, earliestTimes, _arborist,
+            _counters);
 
-            // Get where to place the node for each processor
-            int[] earliestStarts = AlgorithmUtils.calculateEarliestTimes(_graph, curSchedule, node);
+        // Go through every task and add it to the priority queue. Tasks of the same node come together, so what
+        // nodes can be added next iteration is only worked out once for each node, and undone once we're done with it
+        Node node = null;
+        for(Task toBePlaced : tasks) {
+            if(toBePlaced.getNode() != node) {
+                if(node != null)
+                    availableNodes.remove(node);
+                node = toBePlaced.getNode();
+                _currentNode = node;
+                availableNodes.add(node);
+            }
 
-            // Now we run all possible ways of adding this node to the schedule.c
             // We apply this to the schedule then remove it before using it again,
             // to prevent constant cloning of the schedule
-            for (int processor = 0; processor < curSchedule.getNumProcessors(); ++processor) {
-                Task toBePlaced = new Task(processor, earliestStarts[processor], node);
+            curSchedule.addTask(toBePlaced);
+            int nodesLowerBound = _lowerBound.estimate(_graph, curSchedule, availableNodes,
+                earliestTimes.after(toBePlaced));
+            curSchedule.removeTask(toBePlaced);
 
-                // Check whether our heuristics advise continuing down this noble eightfold path
-                if (_arborist.prune(_graph, curSchedule, toBePlaced)) {
-                    _numCulled = _numCulled.add(BigInteger.ONE); // Same as _numCulled++;
-                    continue;
-                }
-                curSchedule.addTask(toBePlaced);
-                int nodesLowerBound = _lowerBound.estimate(_graph, curSchedule, nextAvailableNodes.get(node));
-                curSchedule.removeTask(toBePlaced);
-
-                // Now add it to our sorted node info
-                orderedTasks.add(new Pair<>(nodesLowerBound, toBePlaced));
-            }
+            // Now add it to our sorted node info
+            orderedTasks.add(new Pair<>(nodesLowerBound, toBePlaced));
         }
+        if(node != null)
+            availableNodes.remove(node);
 
         // Now we go through each node in order and recurse on it
-        while(!orderedTasks.isEmpty()) {
+        _levels.add(orderedTasks);
+        while(!orderedTasks.isEmpty() && !_communicator.isStopped()) {
+            checkpointIfAsked();
+
             Pair<Integer, Task> taskPair = orderedTasks.poll();
             Task toBeAdded = taskPair.getValue();
             // Check if lower bound is good enough
-            if(taskPair.getKey() >= _communicator.getCurrentBest().getEndTime()) {
-                //Same as _numCulled += orderedTasks.size() + 1;
-                _numCulled = _numCulled.add(BigInteger.valueOf(orderedTasks.size() + 1));
+            if(taskPair.getKey() >= refreshBestEndTime()) {
+                _counters.culled(orderedTasks.size() + 1);
                 break; // We can break because every subsequent task has a greater lower bound
             }
 
-            // We are meant to continue with this schedule
-            _numExplored = _numExplored.add(BigInteger.ONE); // Same as _numExplored++
             curSchedule.addTask(toBeAdded);
-            HashSet<Node> nodesNextAvailableNodes = nextAvailableNodes.get(toBeAdded.getNode());
+            _scheduleHash.toggle(toBeAdded);
 
-            // Update our current lower bound to the minimum of the two minimum possible values (parent min, and our ordered task min)
-            _curLowerBound = orderedTasks.isEmpty() ? parentLowerBound : Math.min(parentLowerBound, orderedTasks.peek().getKey());
+            // Skip schedules we have already explored (maybe through adding the same tasks in a different order)
+            if(_transpositionTable != null) {
+                boolean explored = _transpositionTable.visit(_scheduleHash.get(), taskPair.getKey(), curSchedule.size());
+                _counters.transposition(explored);
+                if(explored) {
+                    _counters.culled();
+                    _scheduleHash.toggle(toBeAdded);
+                    curSchedule.removeTask(toBeAdded);
+                    continue;
+                }
+            }
+
+            // We are meant to continue with this schedule
+            _counters.explored(curSchedule.size());
+            availableNodes.add(toBeAdded.getNode());
+
+            // Every branch before this one has been explored and every branch after it has at least its lower bound, so
+            // only the branches being explored here and by the parents can still hold anything shorter
+            _curLowerBound = Math.min(parentLowerBound, taskPair.getKey());
 
             // Either pass the schedule to our communicator
+            _path.add(toBeAdded);
             if (curSchedule.size() + 1 >= _depth)
-                _communicator.explorePartialSolution(_graph, new SimpleSchedule(curSchedule), nodesNextAvailableNodes);
+                _communicator.explorePartialSolution(_graph, new ArraySchedule(curSchedule), new ReadySet(availableNodes),
+                    taskPair.getKey());
             else
-                recurse(curSchedule, nodesNextAvailableNodes, _curLowerBound);
+                recurse(curSchedule, availableNodes, _curLowerBound);
+            _path.remove(_path.size() - 1);
+            availableNodes.remove(toBeAdded.getNode());
+            _scheduleHash.toggle(toBeAdded);
             curSchedule.removeTask(toBeAdded);
         }
+        _levels.remove(_levels.size() - 1);
     }
 
     /**
-     * @see Algorithm#branchesCulled()
+     * Everything left at each level of recursion. Each level has one more task of the path than the last, so while
+     * handing over a partial schedule the path is one longer than that of the deepest level, but otherwise the same.
+     * @see BoundableAlgorithm#checkpointPart(boolean)
      */
     @Override
-    public BigInteger branchesCulled() {
-        return _numCulled;
-    }
+    Checkpoint.Part checkpointPart(boolean handingOver) {
+        ArraySchedule root = new ArraySchedule(_schedule);
+        for(int i = _path.size() - 1; i >= 0; --i)
+            root.removeTask(_path.get(i));
 
-    /**
-     * @see Algorithm#branchesExplored()
-     */
-    @Override
-    public BigInteger branchesExplored() {
-        return _numExplored;
+        List<Task> path = new ArrayList<>(_path);
+        List<List<Pair<Integer, Task>>> levels = new ArrayList<>();
+        for(PriorityQueue<Pair<Integer, Task>> level : _levels)
+            levels.add(new ArrayList<>(level));
+
+        return checkpoint -> {
+            Checkpoint.Frontier frontier = checkpoint.addFrontier(false);
+            int state = frontier.addSchedule(root);
+            for(int level = 0; level < levels.size(); ++level) {
+                for(Pair<Integer, Task> sibling : levels.get(level))
+                    frontier.addItem(frontier.addState(state, sibling.getValue()), sibling.getKey());
+                if(level < path.size())
+                    state = frontier.addState(state, path.get(level));
+            }
+        };
     }
 
     /**
@@ -185,7 +248,7 @@ public class DFSAlgorithm extends BoundableAlgorithm {
     /**
      * Places the last node in a schedule in the most optimal place, and attempts to update current best if it is better
      */
-    private void placeLastNode(Graph graph, SimpleSchedule schedule, Node last) {
+    private void placeLastNode(Graph graph, ArraySchedule schedule, Node last) {
         // Choose where to add it:
         int[] earliestStarts = AlgorithmUtils.calculateEarliestTimes(graph, schedule, last);
 
@@ -197,10 +260,11 @@ public class DFSAlgorithm extends BoundableAlgorithm {
 
         // Check if better than current, if so then update.
         int endTime = Math.max(schedule.getEndTime(), earliestStarts[minIndex] + last.getComputationCost());
-        if(endTime < _communicator.getCurrentBest().getEndTime()) {
-            SimpleSchedule newSchedule = new SimpleSchedule(schedule);
+        if(endTime < _bestEndTime) {
+            ArraySchedule newSchedule = new ArraySchedule(schedule);
             newSchedule.addTask(new Task(minIndex, earliestStarts[minIndex], last));
             _communicator.update(newSchedule);
+            refreshBestEndTime();
         }
     }
 }
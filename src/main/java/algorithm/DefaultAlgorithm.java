@@ -0,0 +1,122 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import algorithm.heuristics.lowerbound.FastCriticalPath;
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import algorithm.heuristics.pruner.BetterStartPruner;
+import algorithm.heuristics.pruner.EquivalentNodePruner;
+import algorithm.heuristics.pruner.ProcessorOrderPruner;
+import algorithm.heuristics.pruner.StartTimePruner;
+import common.graph.Graph;
+import common.schedule.PackedScheduleQueue;
+import common.schedule.SpillingScheduleQueue;
+
+import java.nio.file.Path;
+
+/**
+ * The algorithm Ainur uses to find optimal schedules
+ */
+public class DefaultAlgorithm {
+    /**
+     * Decides which algorithm should be used based on number of cores. Either way the algorithm starts with the
+     * schedule found by a greedy algorithm as its current best.
+     *
+     * @param graph The graph the algorithm will be run on
+     * @param processors The number of processors the algorithm will schedule on
+     * @param cores The number of cores to run the algorithm on.
+     *
+     * @return A DFS algorithm if 1 core
+     *      Tiered algorithm otherwise
+     */
+    public static Algorithm create(Graph graph, int processors, int cores) {
+        return create(graph, processors, cores, null, 0);
+    }
+
+    /**
+     * Decides which algorithm should be used based on number of cores, with the A* frontiers spilled to disk once they
+     * go over a heap budget. An A* is then used even on 1 core, so that the search stays best first however large the
+     * frontier gets.
+     *
+     * @param spillDirectory The directory to spill frontiers to, or null to keep them on the heap
+     * @param heapBudget The number of bytes of heap the frontiers may share before spilling
+     * @see DefaultAlgorithm#create(Graph, int, int)
+     */
+    public static Algorithm create(Graph graph, int processors, int cores, Path spillDirectory, long heapBudget) {
+        GreedyAlgorithm greedy = new GreedyAlgorithm();
+        greedy.run(graph, processors);
+        FrontierFactory frontier = frontier(spillDirectory, heapBudget, cores);
+
+        if(cores == 1 && spillDirectory != null) { // Single-threaded A* algorithm
+            return new AStarAlgorithm(new MultiAlgorithmCommunicator(greedy.getCurrentBest()),
+                DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound(), frontier);
+        } else if(cores == 1) { // Single-threaded DFS algorithm
+            return new DFSAlgorithm(
+                Arborist.combine(
+                    new EquivalentNodePruner(), new StartTimePruner(), new ProcessorOrderPruner(), new BetterStartPruner()
+                ),
+                new FastCriticalPath(),
+                greedy.getCurrentBest()
+            );
+        } else { // Multithreaded, Tiered AStar/DFS algorithm
+            return new TieredAlgorithm(cores, tiers(graph, frontier), greedy.getCurrentBest(),
+                TieredAlgorithm.Mode.WORK_STEALING);
+        }
+    }
+
+    /**
+     * Creates the same algorithms as create(), but always within a TieredAlgorithm so that checkpoints can be taken of
+     * the search and it can be carried on from them. On 1 core the tiered algorithm runs the single algorithm on the
+     * whole search, so checkpoints hold its own stack or queue.
+     *
+     * @see DefaultAlgorithm#create(Graph, int, int, Path, long)
+     * @see TieredAlgorithm#checkpoint(long)
+     */
+    public static TieredAlgorithm createResumable(Graph graph, int processors, int cores, Path spillDirectory,
+                                                  long heapBudget) {
+        GreedyAlgorithm greedy = new GreedyAlgorithm();
+        greedy.run(graph, processors);
+        FrontierFactory frontier = frontier(spillDirectory, heapBudget, cores);
+
+        AlgorithmFactory generator;
+        if(cores == 1 && spillDirectory != null) {
+            generator = (tier, communicator) -> new AStarAlgorithm(communicator, DefaultHeuristics.arborist(),
+                DefaultHeuristics.lowerBound(), frontier);
+        } else if(cores == 1) {
+            generator = (tier, communicator) -> new DFSAlgorithm(communicator,
+                Arborist.combine(
+                    new EquivalentNodePruner(), new StartTimePruner(), new ProcessorOrderPruner(), new BetterStartPruner()
+                ),
+                new FastCriticalPath(), Integer.MAX_VALUE);
+        } else {
+            generator = tiers(graph, frontier);
+        }
+        return new TieredAlgorithm(cores, generator, greedy.getCurrentBest(), TieredAlgorithm.Mode.WORK_STEALING)
+            .enableCheckpoints();
+    }
+
+    private static FrontierFactory frontier(Path spillDirectory, long heapBudget, int cores) {
+        return spillDirectory == null
+            ? PackedScheduleQueue::new
+            : (g, rootSchedule, rootNodes) ->
+                new SpillingScheduleQueue(g, rootSchedule, rootNodes, spillDirectory, heapBudget / cores);
+    }
+
+    /**
+     * A DFS to expand the first few tasks, A stars in parallel on what it hands over, and DFSs once most tasks are
+     * placed
+     */
+    private static AlgorithmFactory tiers(Graph graph, FrontierFactory frontier) {
+        Arborist arborist = DefaultHeuristics.arborist();
+        LowerBound lowerBound = DefaultHeuristics.lowerBound();
+
+        return (tier, communicator) -> {
+            if(tier == 0) // Expand to a few states for the purposes of running A stars in parallel
+                return new DFSAlgorithm(communicator, arborist, lowerBound, Math.min(4, graph.size()));
+            else if(tier < (graph.size() / 2 + 1)) // Run A stars in parallel on the system
+                return new AStarAlgorithm(communicator, arborist, lowerBound, frontier);
+            else
+                return new DFSAlgorithm(communicator, arborist, lowerBound, Integer.MAX_VALUE);
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package algorithm;
+
+import common.graph.Edge;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+import java.util.Arrays;
+
+/**
+ * The earliest each ready node of a partial schedule could start on each processor (as calculateEarliestTimes gives),
+ * worked out once for the schedule. These also give the earliest times for any schedule made by adding one task to
+ * it, as only the end time of the task's processor changes for the nodes that were already ready. Nodes the task
+ * makes ready are worked out when they are asked for.
+ *
+ * The earliest processor for each node, and the earliest node for each processor, are kept along with the next
+ * earliest, so that these can be found for the schedule with a task added without looking through them all again.
+ * @see AlgorithmUtils#calculateEarliestTimes(Graph, Schedule, Node)
+ */
+public class EarliestTimes {
+    private static final int NONE = -1;
+
+    private final Graph     _graph;
+    private final Schedule  _schedule;
+    private final int       _processors;
+    private final int[]     _times; // By node id, then processor
+    private final boolean[] _known; // Which nodes were ready, and so have their times in _times
+
+    // By node id
+    private final int[]     _earliest;
+    private final int[]     _earliestProcessor;
+    private final int[]     _secondEarliest; // On any processor but the earliest
+
+    // By processor
+    private final int[]     _nextStart;
+    private final int[]     _nextNode;
+    private final int[]     _secondNextStart; // Of any node but the next
+
+    private final Task      _added; // The task added to the schedule since the times were worked out, or null
+    private int[]           _addedNextStarts; // By processor, of the nodes the added task made ready
+
+    /**
+     * Works out the earliest times of every ready node. Tasks can be added to and removed from the schedule afterwards,
+     * as long as it is back to how it was (or has just the one task added, see after) whenever these are used.
+     */
+    public EarliestTimes(Graph graph, Schedule schedule, ReadySet ready) {
+        _graph = graph;
+        _schedule = schedule;
+        _processors = schedule.getNumProcessors();
+        _times = new int[graph.size() * _processors];
+        _known = new boolean[graph.size()];
+        _earliest = new int[graph.size()];
+        _earliestProcessor = new int[graph.size()];
+        _secondEarliest = new int[graph.size()];
+        _nextStart = new int[_processors];
+        _nextNode = new int[_processors];
+        _secondNextStart = new int[_processors];
+        _added = null;
+
+        Arrays.fill(_nextStart, Integer.MAX_VALUE);
+        Arrays.fill(_nextNode, NONE);
+        Arrays.fill(_secondNextStart, Integer.MAX_VALUE);
+
+        for(Node node : ready) {
+            int id = node.getId();
+            int offset = id * _processors;
+            for(int processor = 0; processor < _processors; ++processor)
+                _times[offset + processor] = schedule.getEndTime(processor);
+
+            for(Edge edge : graph.getIncomingEdges(node)) {
+                Node dependencyNode = edge.getOriginNode();
+                int itemProcessor = schedule.getProcessor(dependencyNode);
+                int itemEndTime = schedule.getStartTime(dependencyNode) + dependencyNode.getComputationCost();
+
+                for(int processor = 0; processor < _processors; ++processor) {
+                    int time = processor == itemProcessor ? itemEndTime : itemEndTime + edge.getCost();
+                    _times[offset + processor] = Math.max(_times[offset + processor], time);
+                }
+            }
+            _known[id] = true;
+
+            _earliest[id] = Integer.MAX_VALUE;
+            _secondEarliest[id] = Integer.MAX_VALUE;
+            for(int processor = 0; processor < _processors; ++processor) {
+                int time = _times[offset + processor];
+                if(time < _earliest[id]) {
+                    _secondEarliest[id] = _earliest[id];
+                    _earliest[id] = time;
+                    _earliestProcessor[id] = processor;
+                } else {
+                    _secondEarliest[id] = Math.min(_secondEarliest[id], time);
+                }
+
+                if(time < _nextStart[processor]) {
+                    _secondNextStart[processor] = _nextStart[processor];
+                    _nextStart[processor] = time;
+                    _nextNode[processor] = id;
+                } else {
+                    _secondNextStart[processor] = Math.min(_secondNextStart[processor], time);
+                }
+            }
+        }
+    }
+
+    private EarliestTimes(EarliestTimes before, Task added) {
+        _graph = before._graph;
+        _schedule = before._schedule;
+        _processors = before._processors;
+        _times = before._times;
+        _known = before._known;
+        _earliest = before._earliest;
+        _earliestProcessor = before._earliestProcessor;
+        _secondEarliest = before._secondEarliest;
+        _nextStart = before._nextStart;
+        _nextNode = before._nextNode;
+        _secondNextStart = before._secondNextStart;
+        _added = added;
+    }
+
+    /**
+     * Gets the earliest times for the schedule once the given task, of a node that was ready, is added to it
+     */
+    public EarliestTimes after(Task added) {
+        return new EarliestTimes(this, added);
+    }
+
+    /**
+     * Gets the earliest time the given ready node could start on the given processor
+     */
+    public int get(Node node, int processor) {
+        if(!_known[node.getId()])
+            return AlgorithmUtils.calculateEarliestTime(_graph, _schedule, node, processor);
+
+        int time = _times[node.getId() * _processors + processor];
+        if(_added != null && _added.getProcessor() == processor)
+            time = Math.max(time, _added.getEndTime());
+        return time;
+    }
+
+    /**
+     * Gets the earliest time the given ready node could start on any processor
+     */
+    public int getEarliest(Node node) {
+        int id = node.getId();
+        if(!_known[id])
+            return AlgorithmUtils.calculateEarliestStart(_graph, _schedule, node);
+
+        // Only the added task's processor can have got later
+        if(_added != null && _added.getProcessor() == _earliestProcessor[id])
+            return Math.min(_secondEarliest[id], Math.max(_earliest[id], _added.getEndTime()));
+        return _earliest[id];
+    }
+
+    /**
+     * Gets the earliest time any ready node could start on the given processor
+     */
+    public int getNextStart(int processor) {
+        if(_added == null)
+            return _nextStart[processor];
+
+        // The added task's node isn't ready any more, but its children may be
+        int next = _nextNode[processor] == _added.getNode().getId() ? _secondNextStart[processor] : _nextStart[processor];
+        if(processor == _added.getProcessor())
+            next = Math.max(next, _added.getEndTime());
+
+        if(_addedNextStarts == null) {
+            _addedNextStarts = new int[_processors];
+            Arrays.fill(_addedNextStarts, Integer.MAX_VALUE);
+
+            for(Edge edge : _graph.getOutgoingEdges(_added.getNode())) {
+                Node child = edge.getDestinationNode();
+                if(!isReady(child))
+                    continue;
+
+                int[] times = AlgorithmUtils.calculateEarliestTimes(_graph, _schedule, child);
+                for(int childProcessor = 0; childProcessor < _processors; ++childProcessor)
+                    _addedNextStarts[childProcessor] = Math.min(_addedNextStarts[childProcessor], times[childProcessor]);
+            }
+        }
+        return Math.min(next, _addedNextStarts[processor]);
+    }
+
+    private boolean isReady(Node node) {
+        for(Edge edge : _graph.getIncomingEdges(node))
+            if(!_schedule.contains(edge.getOriginNode()))
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package algorithm;
+
+import common.graph.Graph;
+import common.schedule.ArraySchedule;
+import common.schedule.PackedScheduleQueue;
+import common.schedule.ReadySet;
+
+/**
+ * Used by an AStarAlgorithm to create the queue of partial schedules it has yet to explore
+ */
+public interface FrontierFactory {
+    /**
+     * Creates an empty queue, see PackedScheduleQueue#PackedScheduleQueue(Graph, ArraySchedule, ReadySet)
+     */
+    PackedScheduleQueue create(Graph graph, ArraySchedule rootSchedule, ReadySet rootNodes);
+}
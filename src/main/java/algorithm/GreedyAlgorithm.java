@@ -2,15 +2,11 @@ package algorithm;
 
 import common.graph.Graph;
 import common.graph.Node;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
 import common.schedule.SimpleSchedule;
 import common.schedule.Task;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-
 /**
  * Class runs a greedy algorithm on a graph to produce a valid schedule. Logic is that for each itteration, the
  * algorithm looks at all nodes that are possible to place (ie. all nodes whose parents are all in schedule) and
@@ -23,7 +19,7 @@ public class GreedyAlgorithm implements Algorithm {
     @Override
     public void run(Graph graph, int processors) {
         SimpleSchedule schedule = new SimpleSchedule(processors);
-        List<Node> nodesToVisit = graph.getEntryPoints();
+        ReadySet nodesToVisit = new ReadySet(graph);
 
         // while there are still nodes that have not been added to the schedule
         while (!(nodesToVisit.isEmpty())) {
@@ -45,7 +41,7 @@ public class GreedyAlgorithm implements Algorithm {
             schedule.addTask(bestTask);
 
             // the next nodes to visit are now those accessible from the new best schedule.
-            nodesToVisit = new ArrayList<>(AlgorithmUtils.calculateNextNodes(graph, schedule, new HashSet<>(nodesToVisit), bestTask.getNode()));
+            nodesToVisit.add(bestTask.getNode());
         }
 
         _schedule = schedule;
@@ -57,13 +53,10 @@ public class GreedyAlgorithm implements Algorithm {
     }
 
     @Override
-    public BigInteger branchesCulled() {
-        return BigInteger.ZERO;
-    }
-
-    @Override
-    public BigInteger branchesExplored() {
-        return BigInteger.ZERO;
+    public SearchStats getStats() {
+        // Greedy doesn't branch, and is only ever as good as its one schedule
+        int endTime = _schedule != null ? _schedule.getEndTime() : Integer.MAX_VALUE;
+        return new SearchStats(new long[0], 0, 0, endTime, lowerBound());
     }
 
     @Override
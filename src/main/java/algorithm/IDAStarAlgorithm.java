@@ -0,0 +1,200 @@
+package algorithm;
+
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+import common.schedule.Task;
+import javafx.util.Pair;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An iterative deepening A* (IDA*) implementation of the Algorithm class.
+ *
+ * Runs depth first searches that only go into partial schedules whose lower bound is within a threshold. Each search
+ * raises the threshold to the smallest lower bound that went over it, so partial schedules are explored in roughly
+ * the same best first order as A*, but only the current path is ever stored. This means it never runs out of memory,
+ * at the cost of exploring the top of the tree again on every iteration.
+ */
+public class IDAStarAlgorithm extends BoundableAlgorithm {
+    private Arborist _arborist;
+    private LowerBound _lowerBound;
+    private Graph _graph;
+
+    volatile private Node _currentNode;
+    // Every schedule below the starting schedule that is shorter than this has been found already
+    volatile private int _threshold;
+    // The smallest lower bound that went over the threshold in this iteration
+    private int _nextThreshold;
+
+    /**
+     * Constructor for IDAStarAlgorithm class.
+     * @param communicator : A communicator used to communicate with tieredAlgorithms
+     * @param arborist : A pruner to use in algorithm
+     * @param lowerBound : A lower-bound to use in algorithm
+     */
+    public IDAStarAlgorithm(MultiAlgorithmCommunicator communicator, Arborist arborist, LowerBound lowerBound) {
+        super(communicator);
+        _arborist = arborist;
+        _counters.track(arborist);
+        _lowerBound = lowerBound;
+    }
+
+    /**
+     * Constructor for IDA* running in isolation.
+     */
+    public IDAStarAlgorithm(Arborist arborist, LowerBound lowerBound) {
+        this(new MultiAlgorithmCommunicator(), arborist, lowerBound);
+    }
+
+    /**
+     * Constructor for IDA* running in isolation, bounding with an initial guess from the start.
+     */
+    public IDAStarAlgorithm(Arborist arborist, LowerBound lowerBound, Schedule initialGuess) {
+        this(new MultiAlgorithmCommunicator(initialGuess), arborist, lowerBound);
+    }
+
+    /**
+     * Runs depth first searches from the given schedule, raising the threshold after each, until the threshold
+     * reaches the best end time.
+     * @see BoundableAlgorithm#run(Graph, Schedule, ReadySet)
+     */
+    @Override
+    public void run(Graph graph, Schedule schedule, ReadySet nextNodes) {
+        _graph = graph;
+        ArraySchedule arraySchedule = schedule instanceof ArraySchedule
+            ? (ArraySchedule)schedule
+            : new ArraySchedule(graph, schedule);
+
+        _threshold = _lowerBound.estimate(graph, arraySchedule, nextNodes);
+        while(_threshold < refreshBestEndTime() && !_communicator.isStopped()) {
+            _nextThreshold = Integer.MAX_VALUE;
+            iterate(arraySchedule, nextNodes);
+
+            // Nothing can have a lower bound between the two thresholds, unless the search was cut short
+            if(!_communicator.isStopped())
+                _threshold = _nextThreshold;
+        }
+
+        _currentNode = null;
+    }
+
+    /**
+     * The recursive part of the algorithm. Explores every partial schedule below the current one which is within the
+     * threshold, in order of lower bound.
+     *
+     * @param curSchedule The partial schedule with all nodes visited by 'parent' iterators in it
+     * @param availableNodes A helpful list of nodes available to visit next
+     */
+    private void iterate(ArraySchedule curSchedule, ReadySet availableNodes) {
+        if(curSchedule.size() == _graph.size()) {
+            if(curSchedule.getEndTime() < _bestEndTime) {
+                _communicator.update(new ArraySchedule(curSchedule));
+                refreshBestEndTime();
+            }
+            return;
+        }
+        // If only one node left, take it and place it in optimal place. Base case.
+        if(curSchedule.size() + 1 == _graph.size()) {
+            placeLastNode(curSchedule, availableNodes.first());
+            return;
+        }
+
+        // List of tasks within the threshold, ordered by lower bound
+        PriorityQueue<Pair<Integer, Task>> orderedTasks = new PriorityQueue<>(Comparator.comparing(Pair::getKey));
+
+        // Where each node could go, which the lower bounds of the schedules made by placing them also start from
+        EarliestTimes earliestTimes = new EarliestTimes(_graph, curSchedule, availableNodes);
+        List<Task> tasks = AlgorithmUtils.tasksToTry(_graph, curSchedule, availableNodes, earliestTimes, _arborist,
+            _counters);
+
+        // Tasks of the same node come together, so what nodes can be added next iteration is only worked out once for
+        // each node, and undone once we're done with it
+        Node node = null;
+        for(Task toBePlaced : tasks) {
+            if(toBePlaced.getNode() != node) {
+                if(node != null)
+                    availableNodes.remove(node);
+                node = toBePlaced.getNode();
+                _currentNode = node;
+                availableNodes.add(node);
+            }
+
+            curSchedule.addTask(toBePlaced);
+            int nodesLowerBound = _lowerBound.estimate(_graph, curSchedule, availableNodes,
+                earliestTimes.after(toBePlaced));
+            curSchedule.removeTask(toBePlaced);
+
+            if(nodesLowerBound >= _bestEndTime)
+                _counters.culled();
+            else if(nodesLowerBound > _threshold) // Left for a later iteration
+                _nextThreshold = Math.min(_nextThreshold, nodesLowerBound);
+            else
+                orderedTasks.add(new Pair<>(nodesLowerBound, toBePlaced));
+        }
+        if(node != null)
+            availableNodes.remove(node);
+
+        while(!orderedTasks.isEmpty() && !_communicator.isStopped()) {
+            Pair<Integer, Task> taskPair = orderedTasks.poll();
+            Task toBeAdded = taskPair.getValue();
+            // A better schedule may have been found since the task was added
+            if(taskPair.getKey() >= refreshBestEndTime()) {
+                _counters.culled(orderedTasks.size() + 1);
+                break; // We can break because every subsequent task has a greater lower bound
+            }
+
+            curSchedule.addTask(toBeAdded);
+            _counters.explored(curSchedule.size());
+            availableNodes.add(toBeAdded.getNode());
+
+            iterate(curSchedule, availableNodes);
+
+            availableNodes.remove(toBeAdded.getNode());
+            curSchedule.removeTask(toBeAdded);
+        }
+    }
+
+    /**
+     * Places the last node in a schedule in the most optimal place, and attempts to update current best if it is better
+     */
+    private void placeLastNode(ArraySchedule schedule, Node last) {
+        int[] earliestStarts = AlgorithmUtils.calculateEarliestTimes(_graph, schedule, last);
+
+        int minIndex = 0;
+        for(int processor = 1; processor < earliestStarts.length; ++processor)
+            if(earliestStarts[processor] < earliestStarts[minIndex])
+                minIndex = processor;
+
+        int endTime = Math.max(schedule.getEndTime(), earliestStarts[minIndex] + last.getComputationCost());
+        if(endTime < _bestEndTime) {
+            ArraySchedule newSchedule = new ArraySchedule(schedule);
+            newSchedule.addTask(new Task(minIndex, earliestStarts[minIndex], last));
+            _communicator.update(newSchedule);
+            refreshBestEndTime();
+        }
+    }
+
+    /**
+     * @see Algorithm#currentNode()
+     */
+    @Override
+    public Node currentNode() {
+        return _currentNode;
+    }
+
+    /**
+     * The current threshold, as every shorter schedule has already been found
+     * @see Algorithm#lowerBound()
+     */
+    @Override
+    public int lowerBound() {
+        return Math.min(_threshold, _communicator.getCurrentBestEndTime());
+    }
+}
@@ -1,9 +1,11 @@
 package algorithm;
 
 import common.graph.Graph;
-import common.graph.Node;
 import common.schedule.*;
-import java.util.HashSet;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -11,10 +13,20 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class MultiAlgorithmCommunicator {
     protected final AtomicReference<Schedule>   _globalBest;
+    // The end time of the global best. Raced on with compareAndSet so that only actual improvements are published
+    private final AtomicInteger                 _globalBestEndTime;
+    // Shared by every algorithm using this communicator
+    private final SearchCounters                _counters = new SearchCounters();
+    // A transposition table for each thread searching, so that the algorithms run on a thread share one without locking
+    private final Map<Thread, TranspositionTable> _transpositionTables = new ConcurrentHashMap<>();
+    private volatile boolean                    _stopped = false;
+    // Counts the checkpoints asked for. Algorithms answer at their next safe point once it changes
+    private volatile int                        _checkpointGeneration = 0;
     private boolean initialisedGreedy = false;
 
     public MultiAlgorithmCommunicator(Schedule initialGuess) {
         _globalBest = new AtomicReference<>(initialGuess);
+        _globalBestEndTime = new AtomicInteger(initialGuess.getEndTime());
     }
 
     public MultiAlgorithmCommunicator() {
@@ -28,16 +40,106 @@ public class MultiAlgorithmCommunicator {
         return _globalBest.get();
     }
 
-    public synchronized void update(Schedule better) {
-        _globalBest.updateAndGet((Schedule old) -> better.getEndTime() < old.getEndTime() ? better : old);
+    /**
+     * Gets the end time of the current best schedule. This is much cheaper than getCurrentBest().getEndTime(), and
+     * may briefly be ahead of getCurrentBest() while a better schedule is being published.
+     */
+    public int getCurrentBestEndTime() {
+        return _globalBestEndTime.get();
+    }
+
+    /**
+     * Gets the counters that algorithms using this communicator count their branches in
+     */
+    public SearchCounters getCounters() {
+        return _counters;
+    }
+
+    /**
+     * Gets the transposition table that algorithms using this communicator on the calling thread record what they
+     * have explored in. Algorithms on the same thread only ever run one at a time (one handed a partial schedule runs
+     * while the one that handed it over waits), so they can share it. Tables last as long as the communicator
+     */
+    public TranspositionTable getTranspositionTable() {
+        Thread thread = Thread.currentThread();
+        TranspositionTable table = _transpositionTables.get(thread);
+        return table != null ? table : _transpositionTables.computeIfAbsent(thread, key -> new TranspositionTable());
+    }
+
+    /**
+     * Takes a snapshot of the branches counted by every algorithm using this communicator
+     * @param lowerBound The smallest end time any schedule could still have
+     */
+    public SearchStats getStats(int lowerBound) {
+        return _counters.snapshot(getCurrentBestEndTime(), lowerBound);
+    }
+
+    /**
+     * Asks every algorithm using this communicator to stop searching as soon as it can. They will return from run()
+     * early, leaving the best schedule found so far as the current best.
+     */
+    public void stop() {
+        _stopped = true;
+    }
+
+    /**
+     * @return Whether stop() has been called, in which case algorithms should return as soon as they can
+     */
+    public boolean isStopped() {
+        return _stopped;
+    }
+
+    /**
+     * @return The number of checkpoints asked for, see BoundableAlgorithm#checkpointIfAsked()
+     */
+    int getCheckpointGeneration() {
+        return _checkpointGeneration;
+    }
+
+    /**
+     * Asks every algorithm using this communicator to answer with a part of a checkpoint at its next safe point.
+     * Must only be called from one thread at a time.
+     * @return The generation of the checkpoint asked for
+     */
+    int requestCheckpoint() {
+        return ++_checkpointGeneration;
+    }
+
+    /**
+     * Called by an algorithm at a safe point once a checkpoint has been asked for. The default implementation never
+     * asks for checkpoints, so is never called.
+     * @param algorithm The algorithm, which is waiting on this to return
+     * @param generation The generation of the checkpoint it is answering
+     */
+    void answerCheckpoint(BoundableAlgorithm algorithm, int generation) {
+    }
+
+    /**
+     * Makes the given schedule the current best, if it is better than the current best.
+     * @return Whether the given schedule was better
+     */
+    public boolean update(Schedule better) {
+        int endTime = better.getEndTime();
+
+        int current = _globalBestEndTime.get();
+        while(endTime < current) {
+            if(_globalBestEndTime.compareAndSet(current, endTime)) {
+                // Another thread may publish a worse schedule after us if it lost the race, so compare here too
+                _globalBest.accumulateAndGet(better, (old, next) -> next.getEndTime() < old.getEndTime() ? next : old);
+                return true;
+            }
+            current = _globalBestEndTime.get();
+        }
+        return false;
     }
     /**
      * Called when a boundable algorithm has reached its depth and wants the given partial schedule to be explored.
      * The default implementation throws as it is for solutions which do not require explorePartialSolution
      * @param graph
      * @param schedule The partial schedule to explore
+     * @param lowerBound A lower bound on every schedule that can be made from the partial schedule
      */
-    void explorePartialSolution(Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
+    protected void explorePartialSolution(Graph graph, Schedule schedule, ReadySet nextNodes, int lowerBound) {
         throw new UnsupportedOperationException("Can't explore a partial solution with an undefined MultiAlgorithmCommunicator");
     }
 }
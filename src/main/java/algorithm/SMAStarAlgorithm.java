@@ -0,0 +1,291 @@
+package algorithm;
+
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A memory bounded A* (in the style of SMA*) implementation of the Algorithm class.
+ *
+ * Works like A*, but never stores more than a set number of partial schedules. When it goes over, the partial
+ * schedules with the worst lower bounds are forgotten, and their bounds are backed up into their parent. The parent
+ * then goes back in the queue with the smallest of them, so that when the forgotten schedules would have come up they
+ * are created again, with the bounds they had been given before. Memory use is predictable, and schedules are still
+ * explored in best first order.
+ */
+public class SMAStarAlgorithm extends BoundableAlgorithm {
+    /**
+     * The number of partial schedules stored if no other number is given. Roughly 100MB worth
+     */
+    public static final int DEFAULT_MAX_SCHEDULES = 1000000;
+
+    private Arborist _arborist;
+    private LowerBound _lowerBound;
+    private final int _maxSchedules;
+
+    private Graph _graph;
+    private ArraySchedule _rootSchedule;
+    private ReadySet _rootNodes;
+
+    // Best first, then deepest first. So the last is the worst, and shallowest
+    private TreeSet<SearchNode> _open;
+    private int _stored;
+    private long _nextId;
+
+    volatile private Node _currentNode;
+    volatile private int _curLowerBound;
+
+    /**
+     * Constructor for SMAStarAlgorithm class.
+     * @param communicator : A communicator used to communicate with tieredAlgorithms
+     * @param arborist : A pruner to use in algorithm
+     * @param lowerBound : A lower-bound to use in algorithm
+     * @param maxSchedules : How many partial schedules may be stored at once. This can be gone over by the children of
+     *                     one partial schedule while they are being created, and by the best partial schedule and its
+     *                     ancestors when it is smaller than the number of nodes in the graph
+     */
+    public SMAStarAlgorithm(MultiAlgorithmCommunicator communicator, Arborist arborist, LowerBound lowerBound,
+                            int maxSchedules) {
+        super(communicator);
+        _arborist = arborist;
+        _counters.track(arborist);
+        _lowerBound = lowerBound;
+        _maxSchedules = maxSchedules;
+    }
+
+    /**
+     * Constructor for SMA* running in isolation.
+     */
+    public SMAStarAlgorithm(Arborist arborist, LowerBound lowerBound, int maxSchedules) {
+        this(new MultiAlgorithmCommunicator(), arborist, lowerBound, maxSchedules);
+    }
+
+    /**
+     * Constructor for SMA* running in isolation, storing up to DEFAULT_MAX_SCHEDULES.
+     */
+    public SMAStarAlgorithm(Arborist arborist, LowerBound lowerBound) {
+        this(arborist, lowerBound, DEFAULT_MAX_SCHEDULES);
+    }
+
+    @Override
+    public void run(Graph graph, Schedule schedule, ReadySet nextNodes) {
+        _graph = graph;
+        _rootSchedule = schedule instanceof ArraySchedule
+            ? new ArraySchedule((ArraySchedule)schedule)
+            : new ArraySchedule(graph, schedule);
+        _rootNodes = new ReadySet(nextNodes);
+        _open = new TreeSet<>(Comparator
+            .comparingInt((SearchNode node) -> node._openBound)
+            .thenComparingInt(node -> -node._depth)
+            .thenComparingLong(node -> node._id));
+        _stored = 0;
+
+        SearchNode root = new SearchNode(null, null, -1, _lowerBound.estimate(graph, _rootSchedule, _rootNodes));
+        _open.add(root);
+        _stored++;
+
+        while(!_open.isEmpty() && !_communicator.isStopped()) {
+            SearchNode best = _open.first();
+            // Everything left, including everything forgotten, can only lead to schedules at least this long
+            if(best._openBound >= refreshBestEndTime())
+                break;
+
+            _curLowerBound = best._openBound;
+            _open.remove(best);
+            expand(best);
+
+            while(_stored > _maxSchedules && forgetWorst());
+        }
+
+        if(!_communicator.isStopped())
+            _curLowerBound = refreshBestEndTime();
+        _open = null;
+        _currentNode = null;
+    }
+
+    /**
+     * Creates the children of the given search node. The first time, every child is created. After that, only the
+     * children that have been forgotten are.
+     */
+    private void expand(SearchNode parent) {
+        ArraySchedule schedule = new ArraySchedule(_rootSchedule);
+        ReadySet nextNodes = new ReadySet(_rootNodes);
+        build(parent, schedule, nextNodes);
+
+        if(schedule.size() == _graph.size()) {
+            _communicator.update(schedule);
+            refreshBestEndTime();
+            finish(parent);
+            return;
+        }
+
+        Map<Integer, Integer> forgotten = parent._forgotten;
+        int processors = schedule.getNumProcessors();
+
+        for(Node node : nextNodes) {
+            _currentNode = node;
+            int[] earliestStarts = AlgorithmUtils.calculateEarliestTimes(_graph, schedule, node);
+            nextNodes.add(node);
+
+            for(int processor = 0; processor < processors; ++processor) {
+                int index = node.getId() * processors + processor;
+                Integer forgottenBound = forgotten != null ? forgotten.get(index) : null;
+                if(parent._expanded && forgottenBound == null)
+                    continue; // Either still stored, or already explored
+
+                Task task = new Task(processor, earliestStarts[processor], node);
+                if(_arborist.prune(_graph, schedule, task)) {
+                    _counters.culled();
+                    continue;
+                }
+
+                schedule.addTask(task);
+                if(schedule.size() == _graph.size()) { // Complete schedules don't need to wait their turn
+                    if(schedule.getEndTime() < _bestEndTime) {
+                        _communicator.update(new ArraySchedule(schedule));
+                        refreshBestEndTime();
+                    }
+                    schedule.removeTask(task);
+                    continue;
+                }
+                // No child can do better than its parent, or than it was found to be able to do before being forgotten
+                int bound = Math.max(parent._ownBound, _lowerBound.estimate(_graph, schedule, nextNodes));
+                if(forgottenBound != null)
+                    bound = Math.max(bound, forgottenBound);
+                schedule.removeTask(task);
+
+                if(bound >= _bestEndTime) {
+                    _counters.culled();
+                } else {
+                    _counters.explored(schedule.size() + 1);
+                    _open.add(new SearchNode(parent, task, index, bound));
+                    parent._liveChildren++;
+                    _stored++;
+                }
+            }
+            nextNodes.remove(node);
+        }
+
+        parent._expanded = true;
+        parent._forgotten = null;
+        if(parent._liveChildren == 0)
+            finish(parent);
+    }
+
+    /**
+     * Forgets the worst search node that has no children stored, backing its bound up into its parent. The best search
+     * node is never forgotten, and neither are its ancestors as they all have a child stored, so the next expansion
+     * always goes one deeper rather than creating the same schedules again.
+     * @return Whether anything could be forgotten
+     */
+    private boolean forgetWorst() {
+        SearchNode best = _open.first();
+        Iterator<SearchNode> worstFirst = _open.descendingIterator();
+        while(worstFirst.hasNext()) {
+            SearchNode worst = worstFirst.next();
+            if(worst == best || worst._parent == null || worst._liveChildren != 0)
+                continue;
+
+            worstFirst.remove();
+            _stored--;
+            SearchNode parent = worst._parent;
+            parent._liveChildren--;
+
+            if(worst._openBound >= _bestEndTime) {
+                // Can't lead anywhere better, so is as good as explored
+                if(parent._liveChildren == 0 && parent._forgotten == null)
+                    finish(parent);
+                return true;
+            }
+
+            if(parent._forgotten == null) {
+                parent._forgotten = new HashMap<>();
+                parent._openBound = worst._openBound;
+            } else {
+                _open.remove(parent);
+                parent._openBound = Math.min(parent._openBound, worst._openBound);
+            }
+            parent._forgotten.put(worst._index, worst._openBound);
+            _open.add(parent);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a search node whose children have all been explored, which may mean its parent's have been too
+     */
+    private void finish(SearchNode node) {
+        for(SearchNode cur = node; cur != null; cur = cur._parent) {
+            _stored--;
+            SearchNode parent = cur._parent;
+            if(parent == null)
+                return;
+
+            parent._liveChildren--;
+            if(parent._liveChildren != 0 || parent._forgotten != null)
+                return;
+        }
+    }
+
+    /**
+     * Adds every task between the root and the given search node to the schedule and next nodes, in order
+     */
+    private void build(SearchNode node, ArraySchedule schedule, ReadySet nextNodes) {
+        if(node._parent == null)
+            return;
+        build(node._parent, schedule, nextNodes);
+        schedule.addTask(node._task);
+        nextNodes.add(node._task.getNode());
+    }
+
+    /**
+     * @see Algorithm#currentNode()
+     */
+    @Override
+    public Node currentNode() {
+        return _currentNode;
+    }
+
+    @Override
+    public int lowerBound() {
+        return _curLowerBound;
+    }
+
+    /**
+     * A partial schedule, stored as the task it adds to its parent's
+     */
+    private class SearchNode {
+        private final SearchNode    _parent;
+        private final Task          _task;
+        private final int           _index;      // Which of its parent's children it is
+        private final int           _depth;
+        private final int           _ownBound;   // The lower bound of this schedule
+        private final long          _id = _nextId++;
+
+        private int                 _openBound;  // Its position in the queue: its own bound, or its forgotten children's
+        private boolean             _expanded = false;
+        private int                 _liveChildren = 0;
+        private Map<Integer, Integer> _forgotten; // The children to create again when next expanded and their bounds
+
+        private SearchNode(SearchNode parent, Task task, int index, int bound) {
+            _parent = parent;
+            _task = task;
+            _index = index;
+            _depth = parent == null ? 0 : parent._depth + 1;
+            _ownBound = bound;
+            _openBound = bound;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package algorithm;
+
+import algorithm.heuristics.pruner.Arborist;
+import algorithm.heuristics.pruner.CombinedArborist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts branches explored and culled by every algorithm sharing a MultiAlgorithmCommunicator.
+ *
+ * Counts are striped (with LongAdder) so that threads counting at the same time don't fight over a single value, and
+ * so that taking a snapshot never holds up the algorithms doing the counting.
+ * @see SearchStats
+ */
+public class SearchCounters {
+    private final LongAdder     _culled = new LongAdder();
+    private final LongAdder     _fixedOrder = new LongAdder();
+    private final LongAdder     _transpositionHits = new LongAdder();
+    private final LongAdder     _transpositionMisses = new LongAdder();
+    // Explored branches by the size of the partial schedule they led to. Only ever grows, and only while locked
+    private volatile LongAdder[] _exploredByDepth = new LongAdder[0];
+    // The arborists of the algorithms counting here that keep statistics on their pruners. Often shared between them
+    private final Set<CombinedArborist> _arborists = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Counts a branch as explored
+     * @param depth The size of the partial schedule the branch led to
+     */
+    public void explored(int depth) {
+        LongAdder[] exploredByDepth = _exploredByDepth;
+        if(depth >= exploredByDepth.length)
+            exploredByDepth = grow(depth);
+        exploredByDepth[depth].increment();
+    }
+
+    /**
+     * Counts a single branch as culled
+     */
+    public void culled() {
+        _culled.increment();
+    }
+
+    /**
+     * Counts a number of branches as culled at once
+     */
+    public void culled(long branches) {
+        _culled.add(branches);
+    }
+
+    /**
+     * Counts a partial schedule whose ready nodes could be placed in a fixed order, so only one of them was tried
+     * @see AlgorithmUtils#fixedOrderFirst
+     */
+    public void fixedOrder() {
+        _fixedOrder.increment();
+    }
+
+    /**
+     * Counts a partial schedule looked up in a transposition table
+     * @param hit Whether it had already been explored, and so was skipped
+     * @see TranspositionTable#visit(long, int, int)
+     */
+    public void transposition(boolean hit) {
+        (hit ? _transpositionHits : _transpositionMisses).increment();
+    }
+
+    /**
+     * Includes what each of the given arborist's pruners has done in every snapshot, if it keeps count. An arborist
+     * shared by several algorithms is only included once.
+     * @see CombinedArborist#getStatistics()
+     */
+    public void track(Arborist arborist) {
+        if(arborist instanceof CombinedArborist)
+            _arborists.add((CombinedArborist)arborist);
+    }
+
+    /**
+     * Adds on the counts of an earlier search, such as one being carried on from a checkpoint
+     */
+    public void add(SearchStats earlier) {
+        for(int depth = earlier.getDepths() - 1; depth >= 0; --depth) {
+            LongAdder[] exploredByDepth = _exploredByDepth;
+            if(depth >= exploredByDepth.length)
+                exploredByDepth = grow(depth);
+            exploredByDepth[depth].add(earlier.getExplored(depth));
+        }
+        _culled.add(earlier.getCulled());
+        _fixedOrder.add(earlier.getFixedOrder());
+        _transpositionHits.add(earlier.getTranspositionHits());
+        _transpositionMisses.add(earlier.getTranspositionMisses());
+    }
+
+    /**
+     * Takes a snapshot of the counts so far, and of the tracked arborists' statistics. Counts made while the snapshot
+     * is taken may or may not be included.
+     * @param bestEndTime The end time of the best schedule found so far
+     * @param lowerBound The smallest end time any schedule could still have
+     */
+    public SearchStats snapshot(int bestEndTime, int lowerBound) {
+        LongAdder[] exploredByDepth = _exploredByDepth;
+        long[] counts = new long[exploredByDepth.length];
+        for(int depth = 0; depth < counts.length; ++depth)
+            counts[depth] = exploredByDepth[depth].sum();
+
+        List<CombinedArborist.Statistics> prunerStatistics = new ArrayList<>();
+        for(CombinedArborist arborist : _arborists)
+            prunerStatistics.addAll(arborist.getStatistics());
+
+        return new SearchStats(counts, _culled.sum(), _fixedOrder.sum(), _transpositionHits.sum(),
+            _transpositionMisses.sum(), bestEndTime, lowerBound, prunerStatistics);
+    }
+
+    private synchronized LongAdder[] grow(int depth) {
+        LongAdder[] old = _exploredByDepth;
+        if(depth < old.length)
+            return old; // Someone else got here first
+
+        LongAdder[] exploredByDepth = new LongAdder[Math.max(depth + 1, old.length * 2)];
+        System.arraycopy(old, 0, exploredByDepth, 0, old.length);
+        for(int i = old.length; i < exploredByDepth.length; ++i)
+            exploredByDepth[i] = new LongAdder();
+
+        return _exploredByDepth = exploredByDepth;
+    }
+}
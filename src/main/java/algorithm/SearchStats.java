@@ -0,0 +1,131 @@
+package algorithm;
+
+import algorithm.heuristics.pruner.CombinedArborist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of how far an algorithm has got through its search.
+ * @see SearchCounters#snapshot(int, int)
+ * @see Algorithm#getStats()
+ */
+public final class SearchStats {
+    private final long[]    _exploredByDepth;
+    private final long      _explored;
+    private final long      _culled;
+    private final long      _fixedOrder;
+    private final long      _transpositionHits;
+    private final long      _transpositionMisses;
+    private final int       _bestEndTime;
+    private final int       _lowerBound;
+    private final List<CombinedArborist.Statistics> _prunerStatistics;
+
+    /**
+     * @param exploredByDepth The number of branches explored that led to partial schedules of each size. Is copied
+     * @param culled The number of branches culled
+     * @param fixedOrder The number of partial schedules whose ready nodes were placed in a fixed order
+     * @param bestEndTime The end time of the best schedule found, or Integer.MAX_VALUE if none has been
+     * @param lowerBound The smallest end time any schedule could still have
+     */
+    public SearchStats(long[] exploredByDepth, long culled, long fixedOrder, int bestEndTime, int lowerBound) {
+        this(exploredByDepth, culled, fixedOrder, 0, 0, bestEndTime, lowerBound, Collections.emptyList());
+    }
+
+    /**
+     * @param transpositionHits The number of partial schedules skipped as a transposition table had them already
+     * @param transpositionMisses The number of partial schedules looked up in a transposition table but not found
+     * @param prunerStatistics What each pruner of the algorithms' arborists has done. Is copied
+     * @see SearchStats#SearchStats(long[], long, long, int, int)
+     */
+    public SearchStats(long[] exploredByDepth, long culled, long fixedOrder, long transpositionHits,
+                       long transpositionMisses, int bestEndTime, int lowerBound,
+                       List<CombinedArborist.Statistics> prunerStatistics) {
+        _exploredByDepth = exploredByDepth.clone();
+        _explored = Arrays.stream(exploredByDepth).sum();
+        _culled = culled;
+        _fixedOrder = fixedOrder;
+        _transpositionHits = transpositionHits;
+        _transpositionMisses = transpositionMisses;
+        _bestEndTime = bestEndTime;
+        _lowerBound = lowerBound;
+        _prunerStatistics = Collections.unmodifiableList(new ArrayList<>(prunerStatistics));
+    }
+
+    /**
+     * @return The number of branches explored, at every depth
+     */
+    public long getExplored() {
+        return _explored;
+    }
+
+    /**
+     * @return The number of branches explored that led to partial schedules with the given number of tasks
+     */
+    public long getExplored(int depth) {
+        return depth < _exploredByDepth.length ? _exploredByDepth[depth] : 0;
+    }
+
+    /**
+     * @return One more than the deepest depth with any explored branches counted, though it may be larger
+     */
+    public int getDepths() {
+        return _exploredByDepth.length;
+    }
+
+    /**
+     * @return The number of branches culled via pruning and lower bound
+     */
+    public long getCulled() {
+        return _culled;
+    }
+
+    /**
+     * @return The number of partial schedules whose ready nodes could be placed in a fixed order, so that only one of
+     * them was tried next
+     */
+    public long getFixedOrder() {
+        return _fixedOrder;
+    }
+
+    /**
+     * @return The number of partial schedules skipped because a transposition table showed they had already been
+     * explored. These are also counted as culled
+     * @see TranspositionTable
+     */
+    public long getTranspositionHits() {
+        return _transpositionHits;
+    }
+
+    /**
+     * @return The number of partial schedules looked up in a transposition table that hadn't been explored yet
+     */
+    public long getTranspositionMisses() {
+        return _transpositionMisses;
+    }
+
+    /**
+     * @return The end time of the best schedule found, or Integer.MAX_VALUE if none has been
+     */
+    public int getBestEndTime() {
+        return _bestEndTime;
+    }
+
+    /**
+     * @see Algorithm#lowerBound()
+     */
+    public int getLowerBound() {
+        return _lowerBound;
+    }
+
+    /**
+     * @return What each pruner of the algorithms' arborists has done, for those arborists that keep count (see
+     * CombinedArborist). Empty if none do, or the search was carried on from a checkpoint or run elsewhere and these
+     * weren't kept
+     */
+    public List<CombinedArborist.Statistics> getPrunerStatistics() {
+        return _prunerStatistics;
+    }
+}
@@ -2,21 +2,29 @@ package algorithm;
 
 import common.graph.Graph;
 import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
-import common.schedule.SimpleSchedule;
-import javafx.util.Pair;
 
-import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
@@ -25,20 +33,62 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 
 public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algorithm {
-    // This is a queue of all the schedules to be explored, as well as the next nodes to visit for each.
-    private LinkedBlockingQueue<Pair<Schedule, HashSet<Node>>> _schedulesToExplore;
+    /**
+     * How partial schedules are shared out between threads
+     */
+    public enum Mode {
+        /**
+         * Every thread takes partial schedules from one shared, bounded queue
+         */
+        SHARED_QUEUE,
+        /**
+         * Every partial schedule is a task in a ForkJoinPool, so each thread keeps its own partial schedules and
+         * steals from other threads only when it runs out
+         */
+        WORK_STEALING
+    }
+
+    // Past this many queued tasks on a worker, partial schedules are explored straight away instead of being forked
+    private static final int MAX_SURPLUS_TASKS = 2;
+    // Queued once for each thread when every partial schedule has been explored, to tell it to finish
+    private static final PartialSchedule FINISHED = new PartialSchedule(null, null, 0);
 
-    private Lock                        _waitForItemsLock = new ReentrantLock();
-    private Lock                        _shutDownLock = new ReentrantLock();
-    private AtomicInteger               _running = new AtomicInteger(0);
+    private final Mode                  _mode;
+    private ForkJoinPool                _pool;
+    private AtomicReference<Throwable>  _failure = new AtomicReference<>();
+
+    // This is a queue of all the schedules to be explored, as well as the next nodes to visit for each.
+    private LinkedBlockingQueue<PartialSchedule> _schedulesToExplore;
+    // Every partial schedule which has been handed over but not started on yet. Only kept with checkpoints enabled
+    private final Set<PartialSchedule>  _pending = ConcurrentHashMap.newKeySet();
+    // How many of the pending partial schedules have each lower bound. Together with the best end time and the bounds
+    // of the algorithms running, the smallest of these bounds every schedule that could still be found. Counts are
+    // left at 0 rather than removed, so that a count is never removed while another thread adds to it
+    private final ConcurrentSkipListMap<Integer, LongAdder> _pendingBounds = new ConcurrentSkipListMap<>();
+
+    private AtomicInteger               _running = new AtomicInteger(0); // Schedules queued or being explored
     private Thread[]                    _threads;
 
     private List<BoundableAlgorithm>    _algorithmsRunning;
     private AlgorithmFactory            _generator;
     private Graph                       _graph;
-
-    private AtomicReference<BigInteger> _totalCulled = new AtomicReference<>(BigInteger.ZERO);
-    private AtomicReference<BigInteger> _totalExplored = new AtomicReference<>(BigInteger.ZERO);
+    private int                         _processors;
+
+    // Whether what is pending and running is kept track of so that checkpoints can be taken. Costs a copy of every
+    // partial schedule handed over, so is off unless asked for
+    private boolean                     _checkpoints = false;
+    // A copy of the partial schedule each running algorithm started on, and its answer to the latest checkpoint
+    private final Map<BoundableAlgorithm, PartialSchedule> _roots = new ConcurrentHashMap<>();
+    private final Map<BoundableAlgorithm, Answer> _answers = new ConcurrentHashMap<>();
+    // Partial schedules moving between pending and running count themselves in and out, so that a checkpoint can wait
+    // for any part way through moving before gathering them. Until a checkpoint is gathering, moving touches nothing
+    // else that is shared
+    private final LongAdder             _transitionsBegun = new LongAdder();
+    private final LongAdder             _transitionsEnded = new LongAdder();
+    private volatile boolean            _gathering = false;
+    // The algorithms running on each thread, innermost first. More than one when an algorithm explores a partial
+    // schedule handed over to it by another one
+    private final ThreadLocal<Deque<BoundableAlgorithm>> _nested = ThreadLocal.withInitial(ArrayDeque::new);
 
     /**
      * Does not get given a schedule to start with, it's initial guess is instead infinite.
@@ -46,7 +96,16 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
      * @see TieredAlgorithm#TieredAlgorithm(int, AlgorithmFactory, Schedule)
      */
     public TieredAlgorithm(int threads, AlgorithmFactory generator) {
+        this(threads, generator, Mode.SHARED_QUEUE);
+    }
+    /**
+     * Does not get given a schedule to start with, it's initial guess is instead infinite.
+     *
+     * @see TieredAlgorithm#TieredAlgorithm(int, AlgorithmFactory, Schedule, Mode)
+     */
+    public TieredAlgorithm(int threads, AlgorithmFactory generator, Mode mode) {
         super();
+        _mode = mode;
         _generator = generator;
         _threads = new Thread[threads];
         _algorithmsRunning = new CopyOnWriteArrayList<>();
@@ -60,8 +119,29 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
      * @param initialGuess A schedule to start with as an initial guess
      */
     public TieredAlgorithm(int threads, AlgorithmFactory generator, Schedule initialGuess) {
-        this(threads, generator);
-        _globalBest.set(initialGuess);
+        this(threads, generator, initialGuess, Mode.SHARED_QUEUE);
+    }
+    /**
+     * Create a tiered algorithm.
+     * @param threads Number of threads to run algorithms in. Includes thread algorithm is started in
+     * @param generator The factory used to generate the algorithms that will be used
+     * @param initialGuess A schedule to start with as an initial guess
+     * @param mode How partial schedules are shared between the threads
+     */
+    public TieredAlgorithm(int threads, AlgorithmFactory generator, Schedule initialGuess, Mode mode) {
+        this(threads, generator, mode);
+        update(initialGuess);
+    }
+
+    /**
+     * Keeps track of every partial schedule pending or being explored, so that checkpoint() can be used. Must be
+     * called before the search is run
+     * @return This algorithm
+     * @see TieredAlgorithm#checkpoint(long)
+     */
+    public TieredAlgorithm enableCheckpoints() {
+        _checkpoints = true;
+        return this;
     }
 
     /**
@@ -73,10 +153,55 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
      */
     @Override
     public void run(Graph graph, int processors) {
+        run(graph, processors, null);
+    }
+
+    /**
+     * Carries on the search a checkpoint was taken of, starting on every partial schedule it had left to explore
+     * that could still lead to something better than the best schedule it had found
+     * @param from The checkpoint, or null to start from the empty schedule
+     * @see TieredAlgorithm#checkpoint(long)
+     */
+    public void run(Graph graph, int processors, Checkpoint from) {
         _graph = graph;
+        _processors = processors;
+
+        List<PartialSchedule> start = new ArrayList<>();
+        if(from == null) {
+            // Nothing is known about the empty schedule yet
+            start.add(new PartialSchedule(new ArraySchedule(graph, processors), new ReadySet(graph), 0));
+        } else {
+            Schedule incumbent = from.getIncumbent(graph);
+            if(incumbent != null)
+                update(incumbent);
+            getCounters().add(from.getStats());
+
+            for(Checkpoint.Frontier frontier : from.getFrontiers()) {
+                if(frontier.isQueue()) {
+                    start.add(new PartialSchedule(graph, frontier));
+                } else {
+                    for(int item = 0; item < frontier.size(); ++item) {
+                        ArraySchedule schedule = frontier.getSchedule(graph, item);
+                        start.add(new PartialSchedule(schedule, new ReadySet(graph, schedule),
+                            frontier.getLowerBound(item)));
+                    }
+                }
+            }
+            start.removeIf(partial -> partial._lowerBound >= getCurrentBestEndTime());
+            start.sort(Comparator.comparingInt(partial -> partial._lowerBound));
+        }
+        for(PartialSchedule partial : start)
+            addPending(partial);
+
+        if(_mode == Mode.WORK_STEALING) {
+            runWorkStealing(start);
+            return;
+        }
 
-        // Add the empty schedule as first
-        _schedulesToExplore.add(new Pair<>(new SimpleSchedule(processors), new HashSet<>(graph.getEntryPoints())));
+        // Add the starting schedules first. There is room for all of them, best first
+        _schedulesToExplore = new LinkedBlockingQueue<>(Math.max(_threads.length * 2, start.size()));
+        _running.addAndGet(start.size());
+        _schedulesToExplore.addAll(start);
 
         _threads[0] = Thread.currentThread();
         for (int i = 1 ; i<_threads.length ; i++) {
@@ -105,33 +230,12 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
     }
 
     /**
-     * @see Algorithm#branchesCulled()
+     * Every algorithm this creates counts into the same counters, so this doesn't need to ask any of them
+     * @see Algorithm#getStats()
      */
     @Override
-    public BigInteger branchesCulled() {
-        // Add the sum of nodes culled by algorithms that have finished running
-        BigInteger sum = _totalCulled.get();
-
-        // Add culled from the currently running algorithms
-        for (BoundableAlgorithm algorithm : _algorithmsRunning) {
-            sum = sum.add(algorithm.branchesCulled());
-        }
-        return sum;
-    }
-
-    /**
-     * @see Algorithm#branchesExplored()
-     */
-    @Override
-    public BigInteger branchesExplored() {
-        // Add the sum of nodes explored by algorithms that have finished running
-        BigInteger sum = _totalExplored.get();
-
-        // Add explored from the currently running algorithms
-        for (BoundableAlgorithm algorithm : _algorithmsRunning) {
-            sum = sum.add(algorithm.branchesExplored());
-        }
-        return sum;
+    public SearchStats getStats() {
+        return getStats(lowerBound());
     }
 
     /**
@@ -146,11 +250,22 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
     }
 
     /**
+     * Partial schedules are only forgotten about once an algorithm running on them is bounding them instead, and
+     * algorithms only once they have finished, so this holds even once stopped.
      * @see Algorithm#lowerBound()
      */
     @Override
     public int lowerBound() {
-        int minBound = getCurrentBest().getEndTime();
+        int minBound = getCurrentBestEndTime();
+        // Pending bounds must be looked at first, as algorithms are added before their schedule's bound is removed
+        for(Map.Entry<Integer, LongAdder> pending : _pendingBounds.entrySet()) {
+            if(pending.getKey() >= minBound)
+                break;
+            if(pending.getValue().sum() > 0) {
+                minBound = pending.getKey();
+                break;
+            }
+        }
         for(Algorithm algorithm : _algorithmsRunning)
             minBound = Math.min(minBound, algorithm.lowerBound());
         return minBound;
@@ -176,15 +291,136 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
     }
 
     /**
-     * @see MultiAlgorithmCommunicator#explorePartialSolution(Graph, Schedule, HashSet)
+     * @see MultiAlgorithmCommunicator#explorePartialSolution(Graph, Schedule, ReadySet, int)
      */
     @Override
-    public void explorePartialSolution(Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
+    public void explorePartialSolution(Graph graph, Schedule schedule, ReadySet nextNodes, int lowerBound) {
+        PartialSchedule partial = new PartialSchedule(schedule, nextNodes, lowerBound);
+        if(_checkpoints) {
+            beginTransition();
+            try {
+                addPending(partial);
+            } finally {
+                endTransition();
+            }
+        } else {
+            addPending(partial);
+        }
+        if(isStopped())
+            return; // Left unexplored, but its bound is still counted
+
+        if(_mode == Mode.WORK_STEALING) {
+            // Keep it on this worker for it or others to pick up, unless this worker already has plenty to get on with
+            if(ForkJoinTask.inForkJoinPool() && ForkJoinTask.getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS)
+                new ExploreTask(partial).fork();
+            else
+                runAlgorithmOn(partial);
+            return;
+        }
+
         // We will try to add the above to the schedule. If theres not enough room (too many schedules to explore),
         // as it is obvious exploration is getting out of hand we will instead run it here, in this thread, RIGHT NOW!!!
         // TODO: Tiers are only ever 0 or 1. Change?
-        if(!_schedulesToExplore.offer(new Pair<>(schedule, nextNodes)))
-            runAlgorithmOn(calculateTier(schedule), graph, schedule, nextNodes);
+        // It counts as running from before it is queued, so that there is no moment where it could look like every
+        // schedule has been explored.
+        _running.incrementAndGet();
+        if(!_schedulesToExplore.offer(partial)) {
+            _running.decrementAndGet();
+            runAlgorithmOn(partial);
+        }
+    }
+
+    /**
+     * Takes a checkpoint of the search, which can be carried on from with run(Graph, int, Checkpoint). Every running
+     * algorithm is asked to answer with what it has left to explore at its next safe point, and is only held up while
+     * it does so. The rest of the work of taking the checkpoint is done on the calling thread.
+     * @param timeoutMillis How long to wait for running algorithms to answer. Any that haven't have their whole
+     *                      partial schedule explored again once carried on
+     * @return The checkpoint, or null if the search hasn't been started or checkpoints weren't enabled
+     * @see TieredAlgorithm#enableCheckpoints()
+     */
+    public synchronized Checkpoint checkpoint(long timeoutMillis) throws InterruptedException {
+        if(_graph == null || !_checkpoints)
+            return null;
+        int generation = requestCheckpoint();
+
+        List<BoundableAlgorithm> waiting = new ArrayList<>(_roots.keySet());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while(!isStopped() && System.nanoTime() < deadline) {
+            waiting.removeIf(algorithm -> !_roots.containsKey(algorithm) || answered(algorithm, generation));
+            if(waiting.isEmpty())
+                break;
+            Thread.sleep(1);
+        }
+
+        Checkpoint checkpoint = new Checkpoint(_graph, _processors);
+        Checkpoint.Frontier partials = checkpoint.addFrontier(false);
+        List<Checkpoint.Part> parts = new ArrayList<>();
+
+        // Every partial schedule is either pending or being explored by an algorithm once none are part way through
+        // moving. Ended is read first, so that one begun in between can only make the counts look unequal
+        _gathering = true;
+        try {
+            while(_transitionsEnded.sum() != _transitionsBegun.sum())
+                Thread.yield();
+
+            for(PartialSchedule partial : _pending)
+                partial.addTo(checkpoint, partials);
+            for(Map.Entry<BoundableAlgorithm, PartialSchedule> running : _roots.entrySet()) {
+                // An answer to an older checkpoint still holds everything the algorithm has left, and more
+                Answer answer = _answers.remove(running.getKey());
+                if(answer != null && answer._part != null)
+                    parts.add(answer._part);
+                else
+                    running.getValue().addTo(checkpoint, partials);
+            }
+        } finally {
+            _gathering = false;
+        }
+
+        for(Checkpoint.Part part : parts)
+            part.addTo(checkpoint);
+        // Anything explored since is counted, and anything found is kept, so these are taken last
+        checkpoint.setStats(getCounters().snapshot(getCurrentBestEndTime(), 0));
+        checkpoint.setIncumbent(getCurrentBest());
+        return checkpoint;
+    }
+
+    /**
+     * Answers for the algorithm, and for every algorithm waiting on it to explore a partial schedule they handed over
+     * @see MultiAlgorithmCommunicator#answerCheckpoint(BoundableAlgorithm, int)
+     */
+    @Override
+    void answerCheckpoint(BoundableAlgorithm algorithm, int generation) {
+        for(BoundableAlgorithm running : _nested.get()) {
+            Answer old = _answers.put(running, new Answer(generation, running.checkpointPart(running != algorithm)));
+            if(old != null && old._part != null)
+                old._part.discard();
+        }
+    }
+
+    private boolean answered(BoundableAlgorithm algorithm, int generation) {
+        Answer answer = _answers.get(algorithm);
+        return answer != null && answer._generation >= generation;
+    }
+
+    /**
+     * Explores from the given schedules in a ForkJoinPool, returning once every partial schedule has been explored.
+     * As forked tasks are never joined, finishing is detected by the pool going quiet: no task is queued or running.
+     */
+    private void runWorkStealing(List<PartialSchedule> start) {
+        _pool = new ForkJoinPool(_threads.length);
+        try {
+            for(PartialSchedule partial : start)
+                _pool.execute(new ExploreTask(partial));
+            while(!_pool.awaitQuiescence(1, TimeUnit.DAYS));
+        } finally {
+            _pool.shutdown();
+        }
+
+        Throwable failure = _failure.get();
+        if(failure != null)
+            throw new RuntimeException("Exploring a partial schedule failed", failure);
     }
 
     /**
@@ -192,52 +428,123 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
      * partial solutions as they come.
      */
     private void runThread() {
-        // Effectively a while true loop (loop forever)
         try {
-            while (!Thread.interrupted()) {
+            while (true) {
                 tryClose();
 
-                Pair<Schedule, HashSet<Node>> pair;
-                _waitForItemsLock.lockInterruptibly();
-                try {
-                    // Ensure the operation of taking a schedule and saying we are running is atomic, as we want to
-                    // say we are running the instant we have a schedule to run.
-                    pair = _schedulesToExplore.take();
-                    _running.incrementAndGet();
-                } finally {
-                    _waitForItemsLock.unlock();
-                }
+                // The schedule was already counted as running when it was queued
+                PartialSchedule partial = _schedulesToExplore.take();
+                if (partial == FINISHED)
+                    return;
 
-                runAlgorithmOn(calculateTier(pair.getKey()), _graph, pair.getKey(), pair.getValue());
+                runAlgorithmOn(partial);
                 _running.decrementAndGet();
             }
         } catch(InterruptedException ignored) {
-            // If we have been interrupted, we are meant to finish running
+            // Only interrupted from outside, in which case we are meant to finish running anyway
         }
     }
 
     /**
-     * Runs an algorithm on a specified tier with a schedule to add to and a helpful list of nodes
-     * to look at next
-     * @param tier : The tier of the algorithm
-     * @param graph : The graph
-     * @param schedule : Schedule to add to
-     * @param nextNodes : Helpful list of next nodes to look through
+     * Runs an algorithm on the tier of the given partial schedule, unless the search has been stopped, in which case
+     * it is left unexplored.
+     * @param partial : Schedule to add to, with a helpful list of next nodes to look through
      */
-    private void runAlgorithmOn(int tier, Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
-        BoundableAlgorithm algorithm = _generator.create(tier, this);
-        // Add algorithm to running algorithm list
-        _algorithmsRunning.add(algorithm);
+    private void runAlgorithmOn(PartialSchedule partial) {
+        if(isStopped())
+            return;
+
+        BoundableAlgorithm algorithm = _generator.create(calculateTier(partial._schedule), this);
+
+        // Add algorithm to running algorithm list. From here on its own lower bound covers the schedule
+        if(_checkpoints) {
+            // The algorithm changes the schedule as it goes, so a checkpoint needs its own copy
+            PartialSchedule root = partial._frontier != null ? partial : partial.copy(_graph);
+
+            beginTransition();
+            try {
+                _algorithmsRunning.add(algorithm);
+                _roots.put(algorithm, root);
+                _pending.remove(partial);
+                _pendingBounds.get(partial._lowerBound).decrement();
+            } finally {
+                endTransition();
+            }
+        } else {
+            _algorithmsRunning.add(algorithm);
+            _pendingBounds.get(partial._lowerBound).decrement();
+        }
 
-        algorithm.run(graph, schedule, nextNodes);
+        boolean ran = true;
+        Deque<BoundableAlgorithm> nested = _nested.get();
+        nested.push(algorithm);
+        try {
+            if(partial._frontier == null)
+                algorithm.run(_graph, partial._schedule, partial._nextNodes);
+            else
+                ran = algorithm.resume(_graph, partial._frontier);
+        } finally {
+            nested.pop();
+        }
 
-        // Increment counters
-        _totalExplored.accumulateAndGet(algorithm.branchesExplored(), BigInteger::add);
-        _totalCulled.accumulateAndGet(algorithm.branchesCulled(), BigInteger::add);
+        // An algorithm that can't carry on from a frontier hands over each of its partial schedules instead
+        if(!ran) {
+            Checkpoint.Frontier frontier = partial._frontier;
+            for(int item = 0; item < frontier.size(); ++item) {
+                ArraySchedule schedule = frontier.getSchedule(_graph, item);
+                explorePartialSolution(_graph, schedule, new ReadySet(_graph, schedule), frontier.getLowerBound(item));
+            }
+        }
 
         // When the algorithm has finished running must remove from list so its values are not used to calculate
-        // other values
-        _algorithmsRunning.remove(algorithm);
+        // other values. If it was stopped part way it still bounds what it didn't get to, so is kept
+        if(!isStopped() && _checkpoints) {
+            beginTransition();
+            try {
+                _algorithmsRunning.remove(algorithm);
+                _roots.remove(algorithm);
+            } finally {
+                endTransition();
+            }
+
+            Answer answer = _answers.remove(algorithm);
+            if(answer != null && answer._part != null)
+                answer._part.discard();
+        } else if(!isStopped()) {
+            _algorithmsRunning.remove(algorithm);
+        }
+    }
+
+    /**
+     * Counts a partial schedule as starting to move between pending and running. If a checkpoint is gathering them it
+     * waits for it to finish first, so that the checkpoint doesn't have to wait for it.
+     */
+    private void beginTransition() {
+        while(true) {
+            _transitionsBegun.increment();
+            if(!_gathering)
+                return;
+
+            _transitionsEnded.increment();
+            while(_gathering)
+                Thread.yield();
+        }
+    }
+
+    private void endTransition() {
+        _transitionsEnded.increment();
+    }
+
+    /**
+     * Counts a partial schedule as pending. Its bound is counted first, so that it is never pending without it
+     */
+    private void addPending(PartialSchedule partial) {
+        LongAdder count = _pendingBounds.get(partial._lowerBound);
+        if(count == null)
+            count = _pendingBounds.computeIfAbsent(partial._lowerBound, bound -> new LongAdder());
+        count.increment();
+        if(_checkpoints)
+            _pending.add(partial);
     }
 
     /**
@@ -250,17 +557,94 @@ public class TieredAlgorithm extends MultiAlgorithmCommunicator implements Algor
     /**
      * Checks whether it is time to close threads. If it is, then it will close threads.
      */
-    private void tryClose() throws InterruptedException {
-        _shutDownLock.lockInterruptibly(); // Ensure no two threads both try to close.
-        try {
-            // If running is 0, nothing is in the middle of running an algorithm, and we can exit.
-            if(_schedulesToExplore.isEmpty() && _running.get() == 0) {
-                _running.decrementAndGet(); // To -1, to signify finished.
-                for (Thread thread : _threads)
-                    thread.interrupt(); // Yes, it is safe to call this on yourself, it'll get picked up later
+    private void tryClose() {
+        // If running is 0, nothing is queued or in the middle of running an algorithm, and we can exit.
+        // Set it to -1 to signify finished, which also makes sure only one thread does the closing.
+        // Each thread, started yet or not, then finds one FINISHED in the queue, which is empty and has room for them
+        if(_running.compareAndSet(0, -1)) {
+            for (int i = 0; i < _threads.length; i++)
+                _schedulesToExplore.add(FINISHED);
+        }
+    }
+
+    /**
+     * A partial schedule waiting to be explored, with what is needed to explore it
+     */
+    private static class PartialSchedule {
+        private final Schedule  _schedule;
+        private final ReadySet  _nextNodes;
+        private final int       _lowerBound;
+        // Set if this is a whole frontier of a checkpoint, to be carried on from by a single algorithm
+        private final Checkpoint.Frontier _frontier;
+
+        private PartialSchedule(Schedule schedule, ReadySet nextNodes, int lowerBound) {
+            _schedule = schedule;
+            _nextNodes = nextNodes;
+            _lowerBound = lowerBound;
+            _frontier = null;
+        }
+
+        /**
+         * The schedule is the one every partial schedule of the frontier is built on, and decides its tier
+         */
+        private PartialSchedule(Graph graph, Checkpoint.Frontier frontier) {
+            _schedule = frontier.buildSchedule(graph, frontier.getBase());
+            _nextNodes = null;
+            _lowerBound = frontier.getLowerBound();
+            _frontier = frontier;
+        }
+
+        private PartialSchedule copy(Graph graph) {
+            ArraySchedule schedule = _schedule instanceof ArraySchedule
+                ? new ArraySchedule((ArraySchedule)_schedule) : new ArraySchedule(graph, _schedule);
+            return new PartialSchedule(schedule, _nextNodes, _lowerBound);
+        }
+
+        /**
+         * Adds what is left to explore of this partial schedule to a checkpoint
+         * @param partials The frontier single partial schedules are added to
+         */
+        private void addTo(Checkpoint checkpoint, Checkpoint.Frontier partials) {
+            if(_frontier != null)
+                checkpoint.addFrontier(_frontier);
+            else
+                partials.addItem(partials.addSchedule(_schedule), _lowerBound);
+        }
+    }
+
+    /**
+     * The part of a checkpoint an algorithm answered with, or null if it couldn't tell what it had left
+     */
+    private static class Answer {
+        private final int               _generation;
+        private final Checkpoint.Part   _part;
+
+        private Answer(int generation, Checkpoint.Part part) {
+            _generation = generation;
+            _part = part;
+        }
+    }
+
+    /**
+     * Explores a single partial schedule when in WORK_STEALING mode
+     */
+    private class ExploreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PartialSchedule _partial;
+
+        private ExploreTask(PartialSchedule partial) {
+            _partial = partial;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                runAlgorithmOn(_partial);
+            } catch(Throwable failure) {
+                // Nothing joins on this task, so make sure someone hears about it
+                _failure.compareAndSet(null, failure);
             }
-        } finally {
-            _shutDownLock.unlock();
         }
     }
 }
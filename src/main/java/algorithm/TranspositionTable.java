@@ -0,0 +1,148 @@
+package algorithm;
+
+/**
+ * A bounded memory store of partial schedules that have already been explored, keyed by their ScheduleHash.
+ *
+ * Entries are kept in buckets of BUCKET_SIZE slots. The table starts small and doubles as it fills, up until it reaches
+ * its maximum capacity, after which inserting into a full bucket evicts the entry with the most tasks placed (as that
+ * entry is the one that saves the least work when hit).
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_CAPACITY = 1 << 20; // 16 bytes a slot, so 16MB at most
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final int _maxCapacity;
+
+    private long[] _hashes;
+    private int[] _lowerBounds;
+    private int[] _depths; // The number of tasks in the schedule. 0 signifies an empty slot
+    private int _count = 0;
+
+    private long _hits = 0;
+    private long _misses = 0;
+
+    /**
+     * Creates a table with the default maximum capacity
+     */
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a table which will hold at most the given number of entries (rounded up to a power of two)
+     */
+    public TranspositionTable(int maxCapacity) {
+        _maxCapacity = Math.max(BUCKET_SIZE, Integer.highestOneBit(Math.max(1, maxCapacity - 1)) << 1);
+        allocate(Math.min(INITIAL_CAPACITY, _maxCapacity));
+    }
+
+    /**
+     * Checks whether a schedule with the given hash has already been visited with an equal or better lower bound.
+     * If it hasn't, the schedule is recorded as visited.
+     * @param hash The hash of the partial schedule
+     * @param lowerBound The lower bound of the partial schedule
+     * @param depth The number of tasks in the partial schedule. Must be at least 1
+     * @return Whether the schedule has already been visited, and so does not need exploring again
+     */
+    public boolean visit(long hash, int lowerBound, int depth) {
+        int bucket = bucketOf(hash, _hashes.length);
+
+        int victim = bucket;
+        for(int slot = bucket; slot < bucket + BUCKET_SIZE; ++slot) {
+            if(_depths[slot] == 0) { // Nothing further in this bucket
+                victim = slot;
+                break;
+            } else if(_hashes[slot] == hash && _depths[slot] == depth) {
+                if(_lowerBounds[slot] <= lowerBound) {
+                    _hits++;
+                    return true;
+                }
+                // Seen before, but with a worse bound. Keep the better one for next time
+                _lowerBounds[slot] = lowerBound;
+                _misses++;
+                return false;
+            } else if(_depths[slot] > _depths[victim]) {
+                victim = slot;
+            }
+        }
+
+        _misses++;
+
+        if(_depths[victim] == 0) {
+            _count++;
+            if(_count > (_hashes.length / 4) * 3 && _hashes.length < _maxCapacity) {
+                grow();
+                insert(hash, lowerBound, depth);
+                return false;
+            }
+        }
+
+        _hashes[victim] = hash;
+        _lowerBounds[victim] = lowerBound;
+        _depths[victim] = depth;
+        return false;
+    }
+
+    /**
+     * The number of times a visited schedule was found in the table
+     */
+    public long hits() {
+        return _hits;
+    }
+
+    /**
+     * The number of times a visited schedule was not found in the table
+     */
+    public long misses() {
+        return _misses;
+    }
+
+    /**
+     * Doubles the size of the table, re-inserting all the old entries
+     */
+    private void grow() {
+        long[] hashes = _hashes;
+        int[] lowerBounds = _lowerBounds;
+        int[] depths = _depths;
+
+        allocate(hashes.length * 2);
+
+        for(int slot = 0; slot < hashes.length; ++slot)
+            if(depths[slot] != 0)
+                insert(hashes[slot], lowerBounds[slot], depths[slot]);
+    }
+
+    /**
+     * Puts an entry known not to be in the table into the first free slot of its bucket, or over the deepest entry.
+     */
+    private void insert(long hash, int lowerBound, int depth) {
+        int bucket = bucketOf(hash, _hashes.length);
+
+        int victim = bucket;
+        for(int slot = bucket; slot < bucket + BUCKET_SIZE; ++slot) {
+            if(_depths[slot] == 0) {
+                victim = slot;
+                break;
+            } else if(_depths[slot] > _depths[victim]) {
+                victim = slot;
+            }
+        }
+
+        _hashes[victim] = hash;
+        _lowerBounds[victim] = lowerBound;
+        _depths[victim] = depth;
+    }
+
+    private void allocate(int capacity) {
+        _hashes = new long[capacity];
+        _lowerBounds = new int[capacity];
+        _depths = new int[capacity];
+    }
+
+    private static int bucketOf(long hash, int capacity) {
+        // Fold the high bits in so that they affect which bucket is used too
+        return (int)(hash ^ (hash >>> 32)) & (capacity - 1) & ~(BUCKET_SIZE - 1);
+    }
+}
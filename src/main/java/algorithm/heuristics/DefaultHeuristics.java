@@ -1,7 +1,7 @@
 package algorithm.heuristics;
 
-import algorithm.heuristics.lowerbound.CriticalPath;
-import algorithm.heuristics.lowerbound.FillTimeBound;
+import algorithm.heuristics.lowerbound.FastCriticalPath;
+import algorithm.heuristics.lowerbound.IdleTimeBound;
 import algorithm.heuristics.lowerbound.LowerBound;
 import algorithm.heuristics.pruner.*;
 
@@ -10,11 +10,12 @@ import algorithm.heuristics.pruner.*;
  */
 public class DefaultHeuristics {
     public static LowerBound lowerBound() {
-        return LowerBound.combine(new CriticalPath(), new FillTimeBound());
+        return LowerBound.combine(new FastCriticalPath(), new IdleTimeBound());
     }
 
-    public static Arborist arborist() {
+    public static CombinedArborist arborist() {
         return Arborist.combine(
+            new EquivalentNodePruner(),
             new StartTimePruner(),
             new ProcessorOrderPruner(),
             new BetterStartPruner(),
@@ -4,6 +4,7 @@ import algorithm.AlgorithmUtils;
 import common.graph.Edge;
 import common.graph.Graph;
 import common.graph.Node;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
 
 import java.util.*;
@@ -22,7 +23,7 @@ public class CriticalPath implements LowerBound {
      * @param nextNodesToVisit : All the nodes that can be added imminently to the partial schedule
      * @return estimate : int
      */
-    public int estimate(Graph graph, Schedule schedule, HashSet<Node> nextNodesToVisit) {
+    public int estimate(Graph graph, Schedule schedule, ReadySet nextNodesToVisit) {
 
         // Map to store Nodes and the critical path to reach that node.
         Map<Node, Integer> nodePathWeights = new HashMap<>();
@@ -69,7 +70,7 @@ public class CriticalPath implements LowerBound {
                 if (nodePathWeights.containsKey(parent))
                     potentialPathWeight = Math.max(potentialPathWeight, nodePathWeights.get(parent));
                 else if (schedule.contains(parent))
-                    potentialPathWeight = Math.max(potentialPathWeight, schedule.findTask(parent).getEndTime());
+                    potentialPathWeight = Math.max(potentialPathWeight, schedule.getStartTime(parent) + parent.getComputationCost());
                 else // If neither, we can't visit this node yet
                     continue outerNodeLoop; // Skip all below code, move to next node.
             }
@@ -0,0 +1,48 @@
+package algorithm.heuristics.lowerbound;
+
+import algorithm.AlgorithmUtils;
+import algorithm.EarliestTimes;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+
+/**
+ * A critical path bound that uses the bottom levels precomputed by the graph, rather than searching through the
+ * unscheduled nodes every time.
+ *
+ * Every node needs its bottom level of time after it starts, so the schedule can't finish before any scheduled node's
+ * start time, or any ready node's earliest start, plus its bottom level. This covers every path CriticalPath
+ * considers, so is always at least as tight, and does not allocate. The scheduled nodes' part is kept by the schedule
+ * as tasks are added (see ArraySchedule), so only the ready nodes are looked at.
+ * @see Schedule#getBottomLevelEnd(Graph)
+ * @see Graph#getBottomLevel(Node)
+ */
+public class FastCriticalPath implements LowerBound {
+    /**
+     * @see LowerBound#estimate(Graph, Schedule, ReadySet)
+     */
+    @Override
+    public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
+        return estimate(graph, schedule, nodesToVisit, null);
+    }
+
+    /**
+     * @param earliestTimes The earliest times of the nodes to visit, or null to work them out
+     * @see LowerBound#estimate(Graph, Schedule, ReadySet, EarliestTimes)
+     */
+    @Override
+    public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit, EarliestTimes earliestTimes) {
+        // Scheduled nodes account for paths from anything already placed, through nodes which aren't ready yet
+        int estimate = Math.max(schedule.getEndTime(), schedule.getBottomLevelEnd(graph));
+
+        for(int id = nodesToVisit.nextId(0); id >= 0; id = nodesToVisit.nextId(id + 1)) {
+            Node node = graph.getNode(id);
+            int startTime = earliestTimes != null ? earliestTimes.getEarliest(node)
+                : AlgorithmUtils.calculateEarliestStart(graph, schedule, node);
+            estimate = Math.max(estimate, startTime + graph.getBottomLevel(node));
+        }
+
+        return estimate;
+    }
+}
@@ -1,31 +1,22 @@
 package algorithm.heuristics.lowerbound;
 
 import common.graph.Graph;
-import common.graph.Node;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
 
-import java.util.HashSet;
-
 /**
  * A pruner that calculates the lower bound generated by filling all remaining space with tasks
  */
 public class FillTimeBound implements LowerBound {
 
     @Override
-    public int estimate(Graph graph, Schedule schedule, HashSet<Node> nodesToVisit) {
-        // Get all remaining space
-        int space = 0;
-
-        for(Node node : graph.getNodes()) {
-            if(!schedule.contains(node))
-                space += node.getComputationCost();
-        }
-
-        // Now compute what space we have to fill in the processors who's length is less than max
-        int latestTime = schedule.getEndTime();
-        for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
-            space -= (latestTime - schedule.getEndTime(processor));
+    public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
+        // Every processor is busy or idle up until the end, so the processors between them have to get through all
+        // the work in the graph plus all the idle time already in the schedule. Both are kept up to date by the
+        // schedule, so this doesn't need to look at any nodes.
+        int space = graph.getTotalComputationCost() + schedule.getIdleTime();
+        int processors = schedule.getNumProcessors();
 
-        return Math.max((int)Math.ceil(space / (double)schedule.getNumProcessors()) + latestTime, latestTime);
+        return Math.max((space + processors - 1) / processors, schedule.getEndTime());
     }
 }
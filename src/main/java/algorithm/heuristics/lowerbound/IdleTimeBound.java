@@ -0,0 +1,45 @@
+package algorithm.heuristics.lowerbound;
+
+import algorithm.EarliestTimes;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+
+/**
+ * Like FillTimeBound, fills all remaining space with tasks, but also counts the time each processor has to sit idle
+ * before anything else could start on it, waiting for data to arrive.
+ */
+public class IdleTimeBound implements LowerBound {
+
+    @Override
+    public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
+        return estimate(graph, schedule, nodesToVisit, new EarliestTimes(graph, schedule, nodesToVisit));
+    }
+
+    /**
+     * @see LowerBound#estimate(Graph, Schedule, ReadySet, EarliestTimes)
+     */
+    @Override
+    public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit, EarliestTimes earliestTimes) {
+        int processors = schedule.getNumProcessors();
+        long space = graph.getTotalComputationCost() + schedule.getIdleTime();
+
+        if(nodesToVisit.size() > 0) {
+            // The next task on a processor is either ready now, or has to wait for a ready one to finish somewhere
+            int firstFinish = Integer.MAX_VALUE;
+            for(int id = nodesToVisit.nextId(0); id >= 0; id = nodesToVisit.nextId(id + 1)) {
+                Node node = graph.getNode(id);
+                firstFinish = Math.min(firstFinish, earliestTimes.getEarliest(node) + node.getComputationCost());
+            }
+
+            // A processor that never gets another task is idle until the end, which is after firstFinish anyway
+            for(int processor = 0; processor < processors; ++processor) {
+                int nextStart = Math.min(earliestTimes.getNextStart(processor), firstFinish);
+                space += Math.max(0, nextStart - schedule.getEndTime(processor));
+            }
+        }
+
+        return Math.max((int)((space + processors - 1) / processors), schedule.getEndTime());
+    }
+}
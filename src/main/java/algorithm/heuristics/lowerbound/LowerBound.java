@@ -1,13 +1,10 @@
 package algorithm.heuristics.lowerbound;
 
+import algorithm.EarliestTimes;
 import common.graph.Graph;
-import common.graph.Node;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-
 
 /**
  * Interface is to be implemented by classes who provide logic to find a lower bound of a graph
@@ -19,11 +16,20 @@ public interface LowerBound {
      * created using the partial schedule provided.
      * @param graph The entire graph of the problem
      * @param schedule A partial/incomplete schedule from which the range of solutions is based
-     * @param nodesToVisit An optional list of all nodes that can be added immediately to the schedule
+     * @param nodesToVisit The set of all nodes that can be added immediately to the schedule
      *                     (i.e. all dependencies accounted for in the partial schedule).
      * @return A lower bound of the optimal solution length
      */
-    int estimate(Graph graph, Schedule schedule, HashSet<Node> nodesToVisit);
+    int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit);
+
+    /**
+     * Estimates the same lower bound, given the earliest times the ready nodes could start which the caller has
+     * already worked out, so that they don't need working out again. By default these are ignored.
+     * @param earliestTimes The earliest times of the nodes to visit, on the schedule given
+     */
+    default int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit, EarliestTimes earliestTimes) {
+        return estimate(graph, schedule, nodesToVisit);
+    }
 
     /**
      * Combines multiple lower bounds together by taking the minimum of all of them
@@ -31,13 +37,22 @@ public interface LowerBound {
     static LowerBound combine(LowerBound... bounds) {
         return new LowerBound() {
             @Override
-            public int estimate(Graph graph, Schedule schedule, HashSet<Node> nodesToVisit) {
+            public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
                 int min = bounds[0].estimate(graph, schedule, nodesToVisit);
                 for(int i = 1; i < bounds.length; ++i)
                     min = Math.max(min, bounds[i].estimate(graph, schedule, nodesToVisit));
 
                 return min;
             }
+
+            @Override
+            public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit, EarliestTimes earliestTimes) {
+                int min = bounds[0].estimate(graph, schedule, nodesToVisit, earliestTimes);
+                for(int i = 1; i < bounds.length; ++i)
+                    min = Math.max(min, bounds[i].estimate(graph, schedule, nodesToVisit, earliestTimes));
+
+                return min;
+            }
         };
     }
 }
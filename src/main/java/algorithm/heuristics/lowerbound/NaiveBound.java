@@ -2,12 +2,9 @@ package algorithm.heuristics.lowerbound;
 
 import algorithm.heuristics.lowerbound.LowerBound;
 import common.graph.Graph;
-import common.graph.Node;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
 
-import java.util.HashSet;
-import java.util.List;
-
 /**
  * This class can be used as a complete lower bound estimator.
  * This particular lower bound estimator simply returns 0.
@@ -15,9 +12,9 @@ import java.util.List;
 public class NaiveBound implements LowerBound {
 
     /**
-     * @see LowerBound#estimate(Graph, Schedule, HashSet)
+     * @see LowerBound#estimate(Graph, Schedule, ReadySet)
      */
-    public int estimate(Graph graph, Schedule schedule, HashSet<Node> nextNodes) {
+    public int estimate(Graph graph, Schedule schedule, ReadySet nextNodes) {
         // TODO: Upgrade lower bound to one that at least gets the length of the schedule?
         return 0;
     }
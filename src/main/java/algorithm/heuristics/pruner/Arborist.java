@@ -1,6 +1,7 @@
 package algorithm.heuristics.pruner;
 
 import common.graph.Graph;
+import common.graph.Node;
 import common.schedule.Schedule;
 import common.schedule.Task;
 
@@ -29,16 +30,23 @@ public interface Arborist {
     boolean prune(Graph graph, Schedule schedule, Task toBeAdded);
 
     /**
-     * Combines multiple arborists by deciding to prune if ANY arborist says to prune.
-     * Note: Be VERY careful combining arborists together, make sure they are compatible with eachother.
+     * Tells the algorithm whether to prune every branch adding the given node next, whichever processor it is placed
+     * on. Algorithms ask this once per ready node, before working out where the node could start, so an arborist that
+     * only looks at which nodes are placed can save them that work. prune() must still agree with it.
+     * @param node The node about to be added to the schedule
+     * @return Whether to prune every task placing the node
      */
-    static Arborist combine(Arborist... arborists) {
-        return (graph, schedule, tobeAdded) -> {
-            for(Arborist arborist : arborists)
-                if(arborist.prune(graph, schedule, tobeAdded))
-                    return true;
+    default boolean pruneNode(Graph graph, Schedule schedule, Node node) {
+        return false;
+    }
 
-            return false;
-        };
+    /**
+     * Combines multiple arborists by deciding to prune if ANY arborist says to prune. The arborists may be asked in any
+     * order, which changes as it learns which are worth asking first.
+     * Note: Be VERY careful combining arborists together, make sure they are compatible with eachother.
+     * @see CombinedArborist
+     */
+    static CombinedArborist combine(Arborist... arborists) {
+        return new CombinedArborist(arborists);
     }
 }
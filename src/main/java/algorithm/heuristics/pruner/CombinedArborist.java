@@ -0,0 +1,271 @@
+package algorithm.heuristics.pruner;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Combines arborists by pruning if ANY of them says to prune. Once one says to prune the rest aren't asked, so each
+ * thread counts how often each arborist is asked, how often it prunes and how long it takes, and every so often
+ * reorders them so that the ones which prune the most for the time they take are asked first. The order doesn't
+ * change what is pruned, only how long it takes to find out.
+ *
+ * Each thread keeps its own counts and order, so nothing is shared while pruning. Only one in every SAMPLE_RATE calls
+ * is timed, as reading the time can take longer than some arborists do. How long reading the time takes is measured
+ * alongside them and taken off.
+ * @see Arborist#combine(Arborist...)
+ */
+public class CombinedArborist implements Arborist {
+    // Odd, so that sampled calls don't keep landing on the same processor
+    private static final int SAMPLE_RATE = 31;
+    private static final int REORDER_PERIOD = 4096;
+
+    /**
+     * What one of the combined arborists has done, across every thread
+     */
+    public static class Statistics {
+        private final Arborist  _arborist;
+        private final long      _calls;
+        private final long      _hits;
+        private final long      _nanos;
+        private final long      _nodeCalls;
+        private final long      _nodeHits;
+
+        Statistics(Arborist arborist, long calls, long hits, long nanos, long nodeCalls, long nodeHits) {
+            _arborist = arborist;
+            _calls = calls;
+            _hits = hits;
+            _nanos = nanos;
+            _nodeCalls = nodeCalls;
+            _nodeHits = nodeHits;
+        }
+
+        public Arborist getArborist() {
+            return _arborist;
+        }
+
+        /**
+         * @return How many times the arborist was asked whether to prune a task
+         */
+        public long getCalls() {
+            return _calls;
+        }
+
+        /**
+         * @return How many of those times it said to prune
+         */
+        public long getHits() {
+            return _hits;
+        }
+
+        /**
+         * @return The fraction of the times it was asked that it said to prune, or 0 if it was never asked
+         */
+        public double getHitRate() {
+            return _calls == 0 ? 0 : (double)_hits / _calls;
+        }
+
+        /**
+         * @return Roughly how long it spent deciding on tasks, from the calls that were timed
+         */
+        public long getNanos() {
+            return _nanos;
+        }
+
+        /**
+         * @return How many times the arborist was asked whether to prune every task placing a node
+         * @see Arborist#pruneNode(Graph, Schedule, Node)
+         */
+        public long getNodeCalls() {
+            return _nodeCalls;
+        }
+
+        /**
+         * @return How many of those times it said to prune
+         */
+        public long getNodeHits() {
+            return _nodeHits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d/%d tasks pruned (%.1f%%) in %d ms, %d/%d nodes pruned",
+                _arborist.getClass().getSimpleName(), _hits, _calls, getHitRate() * 100, _nanos / 1000000,
+                _nodeHits, _nodeCalls);
+        }
+    }
+
+    /**
+     * One thread's counts and order of the arborists, by their index in _arborists. Only that thread changes them
+     */
+    private static class Counts {
+        final int[]     order;
+        final long[]    calls;
+        final long[]    hits;
+        final long[]    sampledCalls;
+        final long[]    sampledNanos;
+        final long[]    nodeCalls;
+        final long[]    nodeHits;
+        long            timerCalls;
+        long            timerNanos;
+        int             untilSample = SAMPLE_RATE;
+        int             untilReorder = REORDER_PERIOD;
+
+        Counts(int arborists) {
+            order = new int[arborists];
+            for(int i = 0; i < arborists; ++i)
+                order[i] = i;
+            calls = new long[arborists];
+            hits = new long[arborists];
+            sampledCalls = new long[arborists];
+            sampledNanos = new long[arborists];
+            nodeCalls = new long[arborists];
+            nodeHits = new long[arborists];
+        }
+    }
+
+    private final Arborist[]            _arborists;
+    private final ThreadLocal<Counts>   _counts = ThreadLocal.withInitial(this::newCounts);
+    // Every thread's counts, kept after the thread is done so they still count towards the statistics
+    private final Queue<Counts>         _allCounts = new ConcurrentLinkedQueue<>();
+
+    public CombinedArborist(Arborist... arborists) {
+        _arborists = arborists.clone();
+    }
+
+    @Override
+    public boolean prune(Graph graph, Schedule schedule, Task toBeAdded) {
+        Counts counts = _counts.get();
+        if(--counts.untilReorder == 0) {
+            counts.untilReorder = REORDER_PERIOD;
+            reorder(counts);
+        }
+        if(--counts.untilSample == 0) {
+            counts.untilSample = SAMPLE_RATE;
+            return pruneTimed(counts, graph, schedule, toBeAdded);
+        }
+
+        for(int i : counts.order) {
+            ++counts.calls[i];
+            if(_arborists[i].prune(graph, schedule, toBeAdded)) {
+                ++counts.hits[i];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prunes the same as prune(), but times each arborist. Each time read is the end of one arborist's time and the
+     * start of the next, and the first two are read back to back to measure how long reading the time takes.
+     */
+    private boolean pruneTimed(Counts counts, Graph graph, Schedule schedule, Task toBeAdded) {
+        long start = System.nanoTime();
+        long time = System.nanoTime();
+        counts.timerNanos += time - start;
+        ++counts.timerCalls;
+
+        for(int i : counts.order) {
+            ++counts.calls[i];
+            boolean hit = _arborists[i].prune(graph, schedule, toBeAdded);
+
+            long end = System.nanoTime();
+            counts.sampledNanos[i] += end - time;
+            ++counts.sampledCalls[i];
+            time = end;
+
+            if(hit) {
+                ++counts.hits[i];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Asks the arborists in the order given, as most don't prune whole nodes and those that do are cheap
+     */
+    @Override
+    public boolean pruneNode(Graph graph, Schedule schedule, Node node) {
+        Counts counts = _counts.get();
+        for(int i = 0; i < _arborists.length; ++i) {
+            ++counts.nodeCalls[i];
+            if(_arborists[i].pruneNode(graph, schedule, node)) {
+                ++counts.nodeHits[i];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets what each arborist has done so far, in the order they were given. Counts from threads that are still
+     * pruning may be a little behind.
+     */
+    public List<Statistics> getStatistics() {
+        long timerCalls = 0, timerNanos = 0;
+        for(Counts counts : _allCounts) {
+            timerCalls += counts.timerCalls;
+            timerNanos += counts.timerNanos;
+        }
+        double timerOverhead = timerCalls == 0 ? 0 : (double)timerNanos / timerCalls;
+
+        List<Statistics> statistics = new ArrayList<>();
+        for(int i = 0; i < _arborists.length; ++i) {
+            long calls = 0, hits = 0, sampledCalls = 0, sampledNanos = 0, nodeCalls = 0, nodeHits = 0;
+            for(Counts counts : _allCounts) {
+                calls += counts.calls[i];
+                hits += counts.hits[i];
+                sampledCalls += counts.sampledCalls[i];
+                sampledNanos += counts.sampledNanos[i];
+                nodeCalls += counts.nodeCalls[i];
+                nodeHits += counts.nodeHits[i];
+            }
+
+            double nanosPerCall = sampledCalls == 0 ? 0 : (double)sampledNanos / sampledCalls - timerOverhead;
+            long nanos = (long)(Math.max(nanosPerCall, 0) * calls);
+            statistics.add(new Statistics(_arborists[i], calls, hits, nanos, nodeCalls, nodeHits));
+        }
+        return statistics;
+    }
+
+    private Counts newCounts() {
+        Counts counts = new Counts(_arborists.length);
+        _allCounts.add(counts);
+        return counts;
+    }
+
+    /**
+     * Orders a thread's arborists by the fraction of tasks they prune for each nanosecond they take. Arborists that
+     * haven't been timed yet go first, so that they get timed.
+     */
+    private static void reorder(Counts counts) {
+        int[] order = counts.order;
+        double timerOverhead = counts.timerCalls == 0 ? 0 : (double)counts.timerNanos / counts.timerCalls;
+        double[] scores = new double[order.length];
+        for(int i = 0; i < order.length; ++i) {
+            if(counts.sampledCalls[i] == 0) {
+                scores[i] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double hitRate = (double)counts.hits[i] / counts.calls[i];
+            double nanos = (double)counts.sampledNanos[i] / counts.sampledCalls[i] - timerOverhead;
+            scores[i] = hitRate / Math.max(nanos, 1);
+        }
+
+        // Insertion sort, as there are only a few arborists and they are usually in order already
+        for(int i = 1; i < order.length; ++i) {
+            int arborist = order[i];
+            int j = i;
+            for(; j > 0 && scores[order[j - 1]] < scores[arborist]; --j)
+                order[j] = order[j - 1];
+            order[j] = arborist;
+        }
+    }
+}
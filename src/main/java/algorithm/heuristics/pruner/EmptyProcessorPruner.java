@@ -0,0 +1,17 @@
+package algorithm.heuristics.pruner;
+
+import common.graph.Graph;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+/**
+ * Only lets tasks be placed on the first of the empty processors, as every empty processor is the same. Unlike
+ * ProcessorOrderPruner, this doesn't rely on tasks being added in order of start time.
+ */
+public class EmptyProcessorPruner implements Arborist {
+    @Override
+    public boolean prune(Graph graph, Schedule schedule, Task toBeAdded) {
+        int processor = toBeAdded.getProcessor();
+        return processor > 0 && schedule.size(processor) == 0 && schedule.size(processor - 1) == 0;
+    }
+}
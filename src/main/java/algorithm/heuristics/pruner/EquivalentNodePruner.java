@@ -0,0 +1,28 @@
+package algorithm.heuristics.pruner;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+/**
+ * Places equivalent nodes (with the same computation cost, parents and children, see Graph#getPreviousEquivalent) in
+ * order of id. Any schedule placing them in another order is the same as one placing them in this order with the
+ * nodes swapped, so only one of every such group of schedules is explored. Equivalent nodes have the same parents, so
+ * they are always ready at the same time, and the next one is ready whenever this prunes.
+ */
+public class EquivalentNodePruner implements Arborist {
+    @Override
+    public boolean prune(Graph graph, Schedule schedule, Task toBeAdded) {
+        return pruneNode(graph, schedule, toBeAdded.getNode());
+    }
+
+    /**
+     * Prunes the node if the equivalent node before it is still to be placed
+     */
+    @Override
+    public boolean pruneNode(Graph graph, Schedule schedule, Node node) {
+        Node previous = graph.getPreviousEquivalent(node);
+        return previous != null && !schedule.contains(previous);
+    }
+}
@@ -19,7 +19,7 @@ public class ProcessorOrderPruner implements Arborist {
             if(schedule.size(i) == 0) // Task which starts first should come next
                 return true;
             // Order by startTime then (if there is no chance of one depending on the other) node id
-            Task firstTask = schedule.getTasks(i).get(0);
+            Task firstTask = schedule.getFirst(i);
             if(toBeAdded.getStartTime() < firstTask.getStartTime()
                 || (toBeAdded.getStartTime() == firstTask.getStartTime()
                     && toBeAdded.getNode().getId() < firstTask.getNode().getId()
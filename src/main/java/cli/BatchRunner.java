@@ -0,0 +1,332 @@
+package cli;
+
+import algorithm.Algorithm;
+import algorithm.DefaultAlgorithm;
+import algorithm.SearchStats;
+import algorithm.heuristics.pruner.CombinedArborist;
+import common.graph.Graph;
+import common.schedule.Schedule;
+import io.dot.DotGraphReader;
+import io.dot.DotScheduleWriter;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Schedules many graphs in one go. Graphs are shared out between a fixed number of threads, and each is scheduled
+ * with the single threaded algorithm, so that as many graphs as there are threads are always being worked on.
+ */
+public class BatchRunner {
+    // Graphs named like 4p_... are meant for 4 processors
+    private static final Pattern PROCESSORS_PREFIX = Pattern.compile("^(\\d+)p_");
+
+    /**
+     * What happened when scheduling a single graph
+     */
+    public static class Result {
+        private final Path      _graph;
+        private final int       _processors;
+        private final int       _makespan;
+        private final long      _wallTimeMillis;
+        private final long      _branchesExplored;
+        private final long      _branchesCulled;
+        private final long      _fixedOrder;
+        private final List<CombinedArborist.Statistics> _prunerStatistics;
+        private final String    _error;
+
+        Result(Path graph, int processors, int makespan, long wallTimeMillis, SearchStats stats) {
+            _graph = graph;
+            _processors = processors;
+            _makespan = makespan;
+            _wallTimeMillis = wallTimeMillis;
+            _branchesExplored = stats.getExplored();
+            _branchesCulled = stats.getCulled();
+            _fixedOrder = stats.getFixedOrder();
+            _prunerStatistics = stats.getPrunerStatistics();
+            _error = null;
+        }
+
+        Result(Path graph, int processors, long wallTimeMillis, String error) {
+            _graph = graph;
+            _processors = processors;
+            _makespan = -1;
+            _wallTimeMillis = wallTimeMillis;
+            _branchesExplored = 0;
+            _branchesCulled = 0;
+            _fixedOrder = 0;
+            _prunerStatistics = Collections.emptyList();
+            _error = error;
+        }
+
+        public Path getGraph() {
+            return _graph;
+        }
+
+        public int getProcessors() {
+            return _processors;
+        }
+
+        /**
+         * @return The end time of the schedule found, or -1 if there was an error
+         */
+        public int getMakespan() {
+            return _makespan;
+        }
+
+        /**
+         * @return How long it took to read, schedule and write the graph
+         */
+        public long getWallTimeMillis() {
+            return _wallTimeMillis;
+        }
+
+        public long getBranchesExplored() {
+            return _branchesExplored;
+        }
+
+        public long getBranchesCulled() {
+            return _branchesCulled;
+        }
+
+        /**
+         * @return How many partial schedules had their ready nodes placed in a fixed order
+         * @see SearchStats#getFixedOrder()
+         */
+        public long getFixedOrder() {
+            return _fixedOrder;
+        }
+
+        /**
+         * @return What each pruner did, or nothing if there was an error
+         * @see SearchStats#getPrunerStatistics()
+         */
+        public List<CombinedArborist.Statistics> getPrunerStatistics() {
+            return _prunerStatistics;
+        }
+
+        /**
+         * @return What went wrong, or null if the graph was scheduled
+         */
+        public String getError() {
+            return _error;
+        }
+    }
+
+    private final int       _threads;
+    private final int       _processors;
+    private final String    _outputDirectory;
+
+    /**
+     * @param threads The number of graphs to schedule at once
+     * @param processors The number of processors to schedule every graph on, or 0 to take it from each graph's name
+     * @param outputDirectory Where to write schedules, or null to write each next to its graph
+     */
+    public BatchRunner(int threads, int processors, String outputDirectory) {
+        _threads = threads;
+        _processors = processors;
+        _outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Finds every .dot file in a directory, or every file matching a glob such as data/Input/2p_*.dot.
+     * Only the last part of a glob may contain wildcards.
+     * @return The graphs found, in name order
+     */
+    public static List<Path> findGraphs(String directoryOrGlob) throws IOException {
+        Path directory;
+        String glob;
+
+        int split = Math.max(directoryOrGlob.lastIndexOf('/'), directoryOrGlob.lastIndexOf(File.separatorChar));
+        boolean hasWildcards = directoryOrGlob.substring(split + 1).matches(".*[*?\\[{].*");
+
+        if(!hasWildcards && Files.isDirectory(Paths.get(directoryOrGlob))) {
+            directory = Paths.get(directoryOrGlob);
+            glob = "*.dot";
+        } else {
+            directory = Paths.get(split < 0 ? "." : split == 0 ? "/" : directoryOrGlob.substring(0, split));
+            glob = directoryOrGlob.substring(split + 1);
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+
+        try(Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> Files.isRegularFile(file) && matcher.matches(file.getFileName()))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Gets the number of processors a graph is meant for, from the Np_ at the start of its file name
+     * @return The number of processors, or 0 if the name doesn't say
+     */
+    public static int processorsFromName(Path graph) {
+        Matcher m = PROCESSORS_PREFIX.matcher(graph.getFileName().toString());
+        return m.find() ? Integer.parseInt(m.group(1)) : 0;
+    }
+
+    /**
+     * Schedules every graph, writing out each schedule as it is found
+     * @return The result for each graph, in the same order as the graphs
+     */
+    public List<Result> run(List<Path> graphs) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(_threads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for(Path graph : graphs)
+                futures.add(pool.submit(() -> schedule(graph)));
+
+            List<Result> results = new ArrayList<>();
+            for(Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch(ExecutionException e) { // schedule() catches everything it can, so this shouldn't happen
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads, schedules and writes out a single graph
+     */
+    private Result schedule(Path graphFile) {
+        long start = System.nanoTime();
+        int processors = _processors != 0 ? _processors : processorsFromName(graphFile);
+
+        try {
+            if(processors < 1)
+                return new Result(graphFile, processors, elapsedMillis(start), "no processor count given or in name");
+
+            Graph graph;
+            try(InputStream is = new BufferedInputStream(Files.newInputStream(graphFile))) {
+                graph = new DotGraphReader(is).read();
+            }
+
+            Algorithm algorithm = DefaultAlgorithm.create(graph, processors, 1);
+            algorithm.run(graph, processors);
+            Schedule schedule = algorithm.getCurrentBest();
+
+            try(OutputStream os = Files.newOutputStream(outputFile(graphFile))) {
+                new DotScheduleWriter(os).write(schedule, graph);
+            }
+
+            return new Result(graphFile, processors, schedule.getEndTime(), elapsedMillis(start), algorithm.getStats());
+        } catch(Exception e) {
+            return new Result(graphFile, processors, elapsedMillis(start), e.toString());
+        }
+    }
+
+    /**
+     * Gets where the schedule for a graph should be written. Named the same as a single graph's default output
+     */
+    private Path outputFile(Path graphFile) {
+        String name = graphFile.getFileName().toString();
+        if(name.endsWith(".dot"))
+            name = name.substring(0, name.length() - ".dot".length());
+        name += "-output.dot";
+
+        return _outputDirectory != null ? Paths.get(_outputDirectory, name) : graphFile.resolveSibling(name);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+
+    /**
+     * Writes results as CSV, with a header row. The pruners column lists each pruner as name:hits:calls:ms, separated
+     * by semicolons
+     */
+    public static void writeCsv(List<Result> results, Writer writer) throws IOException {
+        writer.write("graph,processors,makespan,wall_time_ms,branches_explored,branches_culled,fixed_order,pruners,error\n");
+        for(Result result : results) {
+            writer.write(csvField(result.getGraph().toString()));
+            writer.write("," + result.getProcessors());
+            writer.write("," + (result.getError() == null ? Integer.toString(result.getMakespan()) : ""));
+            writer.write("," + result.getWallTimeMillis());
+            writer.write("," + result.getBranchesExplored());
+            writer.write("," + result.getBranchesCulled());
+            writer.write("," + result.getFixedOrder());
+            writer.write("," + csvField(result.getPrunerStatistics().stream()
+                .map(statistics -> prunerName(statistics) + ":" + statistics.getHits() + ":" + statistics.getCalls()
+                    + ":" + statistics.getNanos() / 1000000)
+                .collect(Collectors.joining(";"))));
+            writer.write("," + (result.getError() == null ? "" : csvField(result.getError())));
+            writer.write("\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes results as a JSON array, with an object for each graph
+     */
+    public static void writeJson(List<Result> results, Writer writer) throws IOException {
+        writer.write("[");
+        for(int i = 0; i < results.size(); ++i) {
+            Result result = results.get(i);
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write("  {\"graph\": " + jsonString(result.getGraph().toString()));
+            writer.write(", \"processors\": " + result.getProcessors());
+            writer.write(", \"makespan\": " + (result.getError() == null ? Integer.toString(result.getMakespan()) : "null"));
+            writer.write(", \"wallTimeMs\": " + result.getWallTimeMillis());
+            writer.write(", \"branchesExplored\": " + result.getBranchesExplored());
+            writer.write(", \"branchesCulled\": " + result.getBranchesCulled());
+            writer.write(", \"fixedOrder\": " + result.getFixedOrder());
+            writer.write(", \"pruners\": [");
+            List<CombinedArborist.Statistics> prunerStatistics = result.getPrunerStatistics();
+            for(int j = 0; j < prunerStatistics.size(); ++j) {
+                CombinedArborist.Statistics statistics = prunerStatistics.get(j);
+                writer.write(j == 0 ? "" : ", ");
+                writer.write("{\"pruner\": " + jsonString(prunerName(statistics)));
+                writer.write(", \"calls\": " + statistics.getCalls());
+                writer.write(", \"hits\": " + statistics.getHits());
+                writer.write(", \"nanos\": " + statistics.getNanos());
+                writer.write(", \"nodeCalls\": " + statistics.getNodeCalls());
+                writer.write(", \"nodeHits\": " + statistics.getNodeHits());
+                writer.write("}");
+            }
+            writer.write("]");
+            writer.write(", \"error\": " + (result.getError() == null ? "null" : jsonString(result.getError())));
+            writer.write("}");
+        }
+        writer.write("\n]\n");
+        writer.flush();
+    }
+
+    private static String prunerName(CombinedArborist.Statistics statistics) {
+        return statistics.getArborist().getClass().getSimpleName();
+    }
+
+    private static String csvField(String text) {
+        if(text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0)
+            return text;
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String jsonString(String text) {
+        StringBuilder builder = new StringBuilder("\"");
+        for(char c : text.toCharArray()) {
+            if(c == '"' || c == '\\')
+                builder.append('\\').append(c);
+            else if(c < ' ')
+                builder.append(String.format("\\u%04x", (int)c));
+            else
+                builder.append(c);
+        }
+        return builder.append('"').toString();
+    }
+}
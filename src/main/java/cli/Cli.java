@@ -29,8 +29,36 @@ public class Cli {
     protected boolean _visualise;
     protected int _cores;
 
+    // Batch mode, where the input is a directory or glob of graphs
+    protected boolean _batch;
+    protected String _summaryFile;
+
+    // Anytime mode, where the search is stopped after a number of seconds and the best schedule so far written
+    protected int _timeout;
+    protected boolean _writeIncumbents;
+
+    // Printing what each pruner did once the search is done
+    protected boolean _prunerStats;
+
+    // Spilling A* frontiers to disk once they go over a heap budget, given in megabytes
+    protected String _spillDirectory;
+    protected int _heapBudget = DEFAULT_HEAP_BUDGET;
+
+    // Checkpointing the search to a file every so many seconds, so that it can be carried on with later
+    protected String _checkpointFile;
+    protected int _checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    protected boolean _resume;
+
+    // Sharing the search with worker processes over TCP, or being one of those workers
+    protected int _coordinatorPort = -1;
+    protected int _splitDepth = DEFAULT_SPLIT_DEPTH;
+    protected String _workerAddress;
+
     // MACROS
     private final String HELPER_HEADER;
+    private static final int DEFAULT_HEAP_BUDGET = 1024; // In megabytes
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 300; // In seconds
+    private static final int DEFAULT_SPLIT_DEPTH = 3;
 
     public String getOutputFile() {
         return _outputFile;
@@ -52,6 +80,102 @@ public class Cli {
         return _visualise;
     }
 
+    /**
+     * In batch mode the input file is a directory or glob of graphs, the output file is the directory to write their
+     * schedules to (or null to write each next to its graph) and the number of processors is 0 if each graph's
+     * processors should be taken from its name.
+     */
+    public boolean getBatch() {
+        return _batch;
+    }
+
+    /**
+     * @return The file to write the batch summary to, or null to print it
+     */
+    public String getSummaryFile() {
+        return _summaryFile;
+    }
+
+    /**
+     * @return The number of seconds to search for before writing the best schedule found, or 0 to search until the
+     *      schedule is optimal
+     */
+    public int getTimeout() {
+        return _timeout;
+    }
+
+    /**
+     * @return Whether every better schedule should be written to the output file as soon as it is found
+     */
+    public boolean getWriteIncumbents() {
+        return _writeIncumbents;
+    }
+
+    /**
+     * @return Whether to print how often each pruner was asked and pruned once the search is done
+     */
+    public boolean getPrunerStats() {
+        return _prunerStats;
+    }
+
+    /**
+     * @return The directory to spill A* frontiers to once they go over the heap budget, or null to keep them on the heap
+     */
+    public String getSpillDirectory() {
+        return _spillDirectory;
+    }
+
+    /**
+     * @return The number of bytes of heap the A* frontiers may use before they are spilled
+     */
+    public long getHeapBudget() {
+        return _heapBudget * 1024L * 1024L;
+    }
+
+    /**
+     * @return The file to checkpoint the search to, or null to not take checkpoints
+     */
+    public String getCheckpointFile() {
+        return _checkpointFile;
+    }
+
+    /**
+     * @return The number of seconds between checkpoints
+     */
+    public int getCheckpointInterval() {
+        return _checkpointInterval;
+    }
+
+    /**
+     * @return Whether to carry on the search from the checkpoint file, if there is one
+     */
+    public boolean getResume() {
+        return _resume;
+    }
+
+    /**
+     * @return The port to listen for workers on, or -1 to search in this process only
+     */
+    public int getCoordinatorPort() {
+        return _coordinatorPort;
+    }
+
+    /**
+     * @return The number of tasks in each partial schedule handed to a worker
+     */
+    public int getSplitDepth() {
+        return _splitDepth;
+    }
+
+    /**
+     * In worker mode there is no input or output file, as the graph comes from the coordinator and the schedule is
+     * written by it.
+     * @return The host:port of the coordinator to work for, or null if this is not a worker
+     */
+    public String getWorkerAddress() {
+        return _workerAddress;
+    }
+
     /**
      * Constructor responsible for assigning the args to a private field and assigning defaults.
      *
@@ -71,6 +195,10 @@ public class Cli {
                 .append("java -jar " + Config.APP_NAME + ".jar INPUT.dot P [Option]")
                 .append(String.format("\n\nINPUT.dot%9s%s", "", "a task graph with integer weights in dot format"))
                 .append(String.format("\nP%17s%s", "", "number of processors to schedule the INPUT graph on"))
+                .append("\n\njava -jar " + Config.APP_NAME + ".jar -b INPUTS [P] [Option]")
+                .append(String.format("\n\nINPUTS%12s%s", "", "a directory or glob (eg. 'dir/*.dot') of task graphs to schedule,"))
+                .append(String.format("\n%18s%s", "", "each on P processors or the N of its Np_ name prefix"))
+                .append("\n\njava -jar " + Config.APP_NAME + ".jar --worker HOST:PORT [-p CORES]")
                 .append("\n\nOptional:")
                 .toString();
     }
@@ -108,21 +236,33 @@ public class Cli {
      */
     private void interrogate(CommandLine cmdLine) {
         // Apache Commons CLI: Interrogation Stage
-        if (cmdLine.hasOption("h") || cmdLine.getArgList().size() < 2) {
+        _batch = cmdLine.hasOption("b");
+        _workerAddress = cmdLine.getOptionValue("worker");
+        if (cmdLine.hasOption("h")
+                || _workerAddress == null && cmdLine.getArgList().size() < (_batch ? 1 : 2)) {
             displayUsage();
         }
 
+        if (_workerAddress != null) {
+            interrogateCores(cmdLine);
+            return;
+        }
+
         List<String> argList = cmdLine.getArgList();
         _inputFile = argList.get(0);
 
-        try {
-            _processors = Integer.parseInt(argList.get(1));
-        } catch (NumberFormatException e) { // Can't parse the number of processors
-            System.out.println("Please make sure the number of processors is a positive, whole number.");
+        if (_batch && argList.size() < 2) {
+            _processors = 0; // Each graph's processors come from its name
+        } else {
+            try {
+                _processors = Integer.parseInt(argList.get(1));
+            } catch (NumberFormatException e) { // Can't parse the number of processors
+                System.out.println("Please make sure the number of processors is a positive, whole number.");
+            }
         }
 
 
-        if (_processors == 0) {
+        if (_processors == 0 && !(_batch && argList.size() < 2)) {
             System.out.println("Sorry, we cannot allocate to zero processors. Please enter a positive integer value of processors");
             //TODO consider adding a custom exception to handle this type of error.
             System.exit(0);
@@ -134,7 +274,10 @@ public class Cli {
 
         outputPath.append(_inputFile, 0, _inputFile.lastIndexOf(File.separator) + 1);
 
-        if (cmdLine.hasOption("o")) {
+        if (_batch) {
+            _outputFile = cmdLine.getOptionValue("o"); // A directory, or null to write each schedule next to its graph
+            _summaryFile = cmdLine.getOptionValue("s");
+        } else if (cmdLine.hasOption("o")) {
             _outputFile = cmdLine.getOptionValue("o"); // Place output file in same location as program
 
             _outputFile = _outputFile.endsWith(".dot") ? _outputFile : (_outputFile += ".dot"); // Append .dot on end if user didn't supply
@@ -150,6 +293,99 @@ public class Cli {
         }
 
 
+        interrogateCores(cmdLine);
+
+        if (cmdLine.hasOption("t")) {
+            try {
+                int timeout = Integer.parseInt(cmdLine.getOptionValue("t"));
+                if(timeout < 1)
+                    throw new NumberFormatException();
+
+                _timeout = timeout;
+                System.out.println("Ainur will stop searching after " + _timeout + " seconds");
+            } catch (NumberFormatException e) {
+                System.out.println("Please make sure the timeout is a positive, whole number of seconds. Searching until optimal");
+            }
+        }
+
+        _writeIncumbents = cmdLine.hasOption("w");
+        _prunerStats = cmdLine.hasOption("pruner-stats");
+
+        if (cmdLine.hasOption("d")) {
+            _spillDirectory = cmdLine.getOptionValue("d");
+            System.out.println("A* frontiers will be spilled to " + _spillDirectory);
+        }
+
+        if (cmdLine.hasOption("m")) {
+            try {
+                int heapBudget = Integer.parseInt(cmdLine.getOptionValue("m"));
+                if(heapBudget < 1)
+                    throw new NumberFormatException();
+
+                _heapBudget = heapBudget;
+            } catch (NumberFormatException e) {
+                System.out.println("Please make sure the heap budget is a positive, whole number of megabytes. Defaulting to "
+                    + DEFAULT_HEAP_BUDGET);
+            }
+        }
+
+        if (cmdLine.hasOption("k")) {
+            _checkpointFile = cmdLine.getOptionValue("k");
+            System.out.println("The search will be checkpointed to " + _checkpointFile);
+        }
+
+        if (cmdLine.hasOption("checkpoint-interval")) {
+            try {
+                int interval = Integer.parseInt(cmdLine.getOptionValue("checkpoint-interval"));
+                if(interval < 1)
+                    throw new NumberFormatException();
+
+                _checkpointInterval = interval;
+            } catch (NumberFormatException e) {
+                System.out.println("Please make sure the checkpoint interval is a positive, whole number of seconds. "
+                    + "Defaulting to " + DEFAULT_CHECKPOINT_INTERVAL);
+            }
+        }
+
+        _resume = cmdLine.hasOption("r");
+        if (_resume && _checkpointFile == null)
+            System.out.println("There is no checkpoint to resume from without -k. Starting a new search");
+
+        if (cmdLine.hasOption("c")) {
+            try {
+                int port = Integer.parseInt(cmdLine.getOptionValue("c"));
+                if(port < 0 || port > 65535)
+                    throw new NumberFormatException();
+
+                _coordinatorPort = port;
+                System.out.println("Ainur will share the search with workers connecting on port " + _coordinatorPort);
+            } catch (NumberFormatException e) {
+                System.out.println("Please make sure the coordinator port is a whole number from 0 to 65535. "
+                    + "Searching in this process only");
+            }
+        }
+
+        if (cmdLine.hasOption("split-depth")) {
+            try {
+                int depth = Integer.parseInt(cmdLine.getOptionValue("split-depth"));
+                if(depth < 1)
+                    throw new NumberFormatException();
+
+                _splitDepth = depth;
+            } catch (NumberFormatException e) {
+                System.out.println("Please make sure the split depth is a positive, whole number of tasks. Defaulting to "
+                    + DEFAULT_SPLIT_DEPTH);
+            }
+        }
+
+        if (cmdLine.hasOption("v")) {
+            _visualise = true;
+            System.out.println("You instructed Ainur to visualise the scheduling process!");
+        }
+    }
+
+
+    private void interrogateCores(CommandLine cmdLine) {
         if (cmdLine.hasOption("p")) {
             // Error checking on getting cores
             try {
@@ -164,11 +400,6 @@ public class Cli {
                 System.out.println("Please make sure the number of cores is a positive, whole number. Defaulting to " + Config.CORES_DEFAULT);
             }
         }
-
-        if (cmdLine.hasOption("v")) {
-            _visualise = true;
-            System.out.println("You instructed Ainur to visualise the scheduling process!");
-        }
     }
 
 
@@ -201,6 +432,37 @@ public class Cli {
 
         options.addOption(new Option("v", "visualise", false, "visualise the search"));
 
+        options.addOption(new Option("t", "timeout", true, "stop searching after <arg> seconds and output the best "
+                + "schedule found, marked with whether it is optimal and its lower bound (not in batch mode)"));
+        options.addOption(new Option("w", "write-incumbents", false, "write every better schedule to the output file "
+                + "as soon as it is found"));
+        options.addOption(Option.builder().longOpt("pruner-stats").desc("once the search is done, print how often "
+                + "each pruner was asked about a task, how often it pruned it and how long it took").build());
+
+        options.addOption(new Option("d", "spill-dir", true, "search best first with A* even on one core, spilling "
+                + "the partial schedules it has yet to explore to files in <arg> once they go over the heap budget"));
+        options.addOption(new Option("m", "heap-budget", true, "with -d, the megabytes of heap the partial schedules "
+                + "may use before they are spilled (default is " + DEFAULT_HEAP_BUDGET + ")"));
+
+        options.addOption(new Option("k", "checkpoint", true, "checkpoint the search to <arg> every so often, "
+                + "and when it is stopped before finishing"));
+        options.addOption(Option.builder().longOpt("checkpoint-interval").hasArg().desc("with -k, the seconds "
+                + "between checkpoints (default is " + DEFAULT_CHECKPOINT_INTERVAL + ")").build());
+        options.addOption(new Option("r", "resume", false, "with -k, carry on the search from its checkpoint "
+                + "instead of starting again"));
+
+        options.addOption(new Option("c", "coordinator", true, "share the search with worker processes, which "
+                + "connect on port <arg>. Finishes once every partial schedule handed out has been explored"));
+        options.addOption(Option.builder().longOpt("split-depth").hasArg().desc("with -c, the number of tasks "
+                + "placed in each partial schedule handed to a worker (default is " + DEFAULT_SPLIT_DEPTH + ")").build());
+        options.addOption(Option.builder().longOpt("worker").hasArg().desc("search the partial schedules handed "
+                + "out by the coordinator at <arg> (as host:port), with -p cores").build());
+
+        options.addOption(new Option("b", "batch", false, "schedule every graph matched by INPUTS, running up to "
+                + "-p graphs at once. -o is then the directory to write schedules to"));
+        options.addOption(new Option("s", "summary", true, "in batch mode, write a summary of every graph to <arg> "
+                + "(JSON if it ends with .json, otherwise CSV. Default is CSV to the console)"));
+
         return options;
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package common.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Holds references to all nodes and edges in a Graph.
@@ -12,8 +14,10 @@ public class Graph {
     public static class Builder {
         private Map<String, Node> _nodes = new HashMap<>();
         private List<Edge> _edges = new ArrayList<>();
+        private List<Integer> _edgePositions = new ArrayList<>(); // Number of nodes added before each edge
         private int _idCounter = 0;
         private String _name = "";
+        private String _ending = "\n";
 
         public Builder() {}
 
@@ -25,6 +29,15 @@ public class Graph {
             return this;
         }
 
+        /**
+         * Sets what followed the closing brace of the graph when it was read, so that it can be written the same.
+         * A single newline unless set
+         */
+        public Builder ending(String ending) {
+            _ending = ending;
+            return this;
+        }
+
         /**
          * Creates a new node
          */
@@ -33,6 +46,13 @@ public class Graph {
             return this;
         }
 
+        /**
+         * Checks whether a node with the given name has been added yet
+         */
+        public boolean hasNode(String name) {
+            return _nodes.containsKey(name);
+        }
+
         /**
          * Constructs an edge between two nodes.
          * Nodes with the given names should already have been added to the GraphBuilder
@@ -49,29 +69,55 @@ public class Graph {
             }
 
             _edges.add(new Edge(_nodes.get(origin), _nodes.get(destination), communicationCost));
+            _edgePositions.add(_idCounter);
             return this;
         }
 
         public Graph build() {
-            return new Graph(_name, new ArrayList<>(_nodes.values()), _edges);
+            int[] edgePositions = new int[_edgePositions.size()];
+            for(int i = 0; i < edgePositions.length; ++i)
+                edgePositions[i] = _edgePositions.get(i);
+
+            return new Graph(_name, new ArrayList<>(_nodes.values()), _edges, edgePositions, _ending);
         }
     }
 
     private final String _name;
     private final List<Node> _nodes;
+    private final Node[] _nodesById;
+    private final Map<String, Node> _nodesByLabel;
     private final List<Edge> _edges;
+    private final int[] _edgePositions;
+    private final String _ending;
     // Storage of edges is relative to how nodes access them.
     private final List<List<Edge>> _incomingEdges = new ArrayList<>();
     private final List<List<Edge>> _outgoingEdges = new ArrayList<>();
     private final List<Node> _entryPoints = new ArrayList<>(); // Starting nodes of graph
 
+    // Longest path of computation costs from each node to an exit, including the node itself
+    private final int[] _bottomLevels;
+    // Longest path of computation costs from an entry to each node, not including the node itself
+    private final int[] _topLevels;
+    private final int _totalComputationCost;
+    // The node before each in its equivalence class (by id), or null if it is the first
+    private final Node[] _previousEquivalents;
+
     /**
      * Default constructor for a Graph object
      */
-    protected Graph(String name, List<Node> nodes, List<Edge> edges) {
+    protected Graph(String name, List<Node> nodes, List<Edge> edges, int[] edgePositions, String ending) {
         _name = name;
+        _ending = ending;
         _nodes = nodes;
         _edges = edges;
+        _edgePositions = edgePositions;
+
+        _nodesById = new Node[_nodes.size()];
+        _nodesByLabel = new HashMap<>();
+        for(Node node : _nodes) {
+            _nodesById[node.getId()] = node;
+            _nodesByLabel.put(node.getLabel(), node);
+        }
 
         // Initialize the edge lists
         for(int i = 0; i < _nodes.size(); ++i) {
@@ -90,6 +136,87 @@ public class Graph {
         for( Node node : _nodes )
             if( _incomingEdges.get(node.getId()).isEmpty() )
                 _entryPoints.add(node);
+
+        int totalComputationCost = 0;
+        for( Node node : _nodes )
+            totalComputationCost += node.getComputationCost();
+        _totalComputationCost = totalComputationCost;
+
+        _bottomLevels = new int[_nodes.size()];
+        _topLevels = new int[_nodes.size()];
+        calculateLevels();
+
+        _previousEquivalents = new Node[_nodes.size()];
+        calculateEquivalences();
+    }
+
+    /**
+     * Fills in the top and bottom levels of every node, by going through the nodes in topological order.
+     */
+    private void calculateLevels() {
+        int[] order = new int[_nodes.size()];
+        int[] unvisitedParents = new int[_nodes.size()];
+        int ordered = 0;
+
+        for(Node node : _entryPoints)
+            order[ordered++] = node.getId();
+        for(Node node : _nodes)
+            unvisitedParents[node.getId()] = _incomingEdges.get(node.getId()).size();
+
+        // Top levels go forwards, from parents to children
+        for(int i = 0; i < ordered; ++i) {
+            Node node = _nodesById[order[i]];
+            for(Edge edge : _outgoingEdges.get(node.getId())) {
+                int child = edge.getDestinationNode().getId();
+                _topLevels[child] = Math.max(_topLevels[child], _topLevels[node.getId()] + node.getComputationCost());
+
+                if(--unvisitedParents[child] == 0)
+                    order[ordered++] = child;
+            }
+        }
+
+        // Bottom levels go backwards, from children to parents
+        for(Node node : _nodes)
+            _bottomLevels[node.getId()] = node.getComputationCost();
+        for(int i = ordered - 1; i >= 0; --i) {
+            Node node = _nodesById[order[i]];
+            for(Edge edge : _outgoingEdges.get(node.getId()))
+                _bottomLevels[node.getId()] = Math.max(_bottomLevels[node.getId()],
+                    node.getComputationCost() + _bottomLevels[edge.getDestinationNode().getId()]);
+        }
+    }
+
+    /**
+     * Groups nodes that have the same computation cost, parents and children, with the same communication costs to
+     * each. Swapping any two nodes of a group in a schedule gives another valid schedule of the same length.
+     */
+    private void calculateEquivalences() {
+        Map<List<Integer>, Node> lastOfClass = new HashMap<>();
+        for(Node node : _nodesById) {
+            List<Integer> key = new ArrayList<>();
+            key.add(node.getComputationCost());
+            addEdgeKeys(key, _incomingEdges.get(node.getId()), true);
+            key.add(-1); // Separates the parents from the children
+            addEdgeKeys(key, _outgoingEdges.get(node.getId()), false);
+
+            _previousEquivalents[node.getId()] = lastOfClass.put(key, node);
+        }
+    }
+
+    /**
+     * Adds the node at the other end and cost of every edge to key, in an order that doesn't depend on the edges' order
+     */
+    private static void addEdgeKeys(List<Integer> key, List<Edge> edges, boolean incoming) {
+        long[] ends = new long[edges.size()];
+        for(int i = 0; i < ends.length; ++i) {
+            Node other = incoming ? edges.get(i).getOriginNode() : edges.get(i).getDestinationNode();
+            ends[i] = ((long)other.getId() << 32) | (edges.get(i).getCost() & 0xFFFFFFFFL);
+        }
+        Arrays.sort(ends);
+        for(long end : ends) {
+            key.add((int)(end >>> 32));
+            key.add((int)end);
+        }
     }
 
     /**
@@ -106,6 +233,13 @@ public class Graph {
         return _nodes;
     }
 
+    /**
+     * Gets the node with the given id
+     */
+    public Node getNode(int id) {
+        return _nodesById[id];
+    }
+
     /**
      * Get all outgoing edges associated to a particular node
      */
@@ -120,6 +254,39 @@ public class Graph {
         return _incomingEdges.get(node.getId());
     }
 
+    /**
+     * Gets the bottom level of a node: the longest path (by computation cost) from the start of the node to the end
+     * of any exit node. Any schedule must run for at least this long after the node starts.
+     */
+    public int getBottomLevel(Node node) {
+        return _bottomLevels[node.getId()];
+    }
+
+    /**
+     * Gets the top level of a node: the longest path (by computation cost) from the start of any entry node to the
+     * start of this node. No schedule can start the node earlier than this.
+     */
+    public int getTopLevel(Node node) {
+        return _topLevels[node.getId()];
+    }
+
+    /**
+     * Gets the node before the given one in its equivalence class: the nodes with the same computation cost, parents
+     * and children, and the same communication costs to each of them. Equivalent nodes can be swapped in any schedule
+     * without changing its length, so a search only needs to place them in one order.
+     * @return The equivalent node with the next lowest id, or null if there is none
+     */
+    public Node getPreviousEquivalent(Node node) {
+        return _previousEquivalents[node.getId()];
+    }
+
+    /**
+     * Gets the sum of the computation costs of every node
+     */
+    public int getTotalComputationCost() {
+        return _totalComputationCost;
+    }
+
     /**
      * Get all the edges in the graph
      */
@@ -127,6 +294,24 @@ public class Graph {
         return _edges;
     }
 
+    /**
+     * Gets where an edge was added to the graph relative to its nodes, so that the graph can be written out in the
+     * same order it was read in.
+     * @param edgeIndex The index of the edge in getAllEdges()
+     * @return The number of nodes added before the edge. These are the nodes with ids less than this
+     */
+    public int getEdgePosition(int edgeIndex) {
+        return _edgePositions[edgeIndex];
+    }
+
+    /**
+     * Gets what followed the closing brace of the graph when it was read, so that it can be written out the same
+     * @see Builder#ending(String)
+     */
+    public String getEnding() {
+        return _ending;
+    }
+
     /**
      * Gets the number of nodes in the graph
      */
@@ -140,9 +325,12 @@ public class Graph {
 
     /**
      * Finds a node by its associated label.
-     * WARNING: This is inefficient and should not be used in production code.
+     * @throws NoSuchElementException if there is no node with that label
      */
     public Node findByLabel(String label) {
-        return _nodes.stream().filter((Node node) -> {return node.getLabel().equals(label);}).findFirst().get();
+        Node node = _nodesByLabel.get(label);
+        if(node == null)
+            throw new NoSuchElementException("No node with label " + label);
+        return node;
     }
 }
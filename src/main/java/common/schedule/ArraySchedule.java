@@ -0,0 +1,314 @@
+package common.schedule;
+
+import common.graph.Graph;
+import common.graph.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A schedule for a specific graph, stored entirely in primitive arrays indexed by node id and processor.
+ *
+ * Each processor's tasks form a stack, linked through the node before them on the same processor. Adding a task to,
+ * or removing the latest task from, a processor does not allocate, and the end times of every processor and of the
+ * whole schedule are cached so that they can be read in constant time. So are the total work scheduled, the idle
+ * time and the bottom level end.
+ *
+ * Tasks are not stored, so methods which return a Task (findTask, getLatest, getTasks...) create them as needed.
+ * Prefer getProcessor, getStartTime and getEndTime in hot code.
+ */
+public class ArraySchedule extends Schedule {
+    private static final int NONE = -1;
+
+    private final Graph _graph;
+
+    // Indexed by node id
+    private final int[] _processors; // NONE if the node is not in the schedule
+    private final int[] _startTimes;
+    private final int[] _previous; // The node placed before this one on the same processor, or NONE
+    // The latest start time plus bottom level of this node and every node before it on the same processor
+    private final int[] _bottomLevelEnds;
+
+    // Indexed by processor
+    private final int[] _first;
+    private final int[] _latest;
+    private final int[] _sizes;
+    private final int[] _endTimes;
+
+    private int _endTime = 0;
+    private int _bottomLevelEnd = 0;
+    private int _totalEndTimes = 0; // Sum of the end times of every processor
+    private int _scheduledWork = 0;
+    private int _size = 0;
+
+    /**
+     * Creates an empty schedule for the given graph
+     * @param graph The graph whose nodes will be placed in the schedule
+     * @param numProcessors fixed number of processors in the schedule
+     */
+    public ArraySchedule(Graph graph, int numProcessors) {
+        super(numProcessors);
+        _graph = graph;
+
+        _processors = new int[graph.size()];
+        _startTimes = new int[graph.size()];
+        _previous = new int[graph.size()];
+        _bottomLevelEnds = new int[graph.size()];
+        Arrays.fill(_processors, NONE);
+
+        _first = new int[numProcessors];
+        _latest = new int[numProcessors];
+        _sizes = new int[numProcessors];
+        _endTimes = new int[numProcessors];
+        Arrays.fill(_first, NONE);
+        Arrays.fill(_latest, NONE);
+    }
+
+    /**
+     * Copies the schedule into this new schedule
+     */
+    public ArraySchedule(ArraySchedule other) {
+        super(other._numProcessors);
+        _graph = other._graph;
+
+        _processors = other._processors.clone();
+        _startTimes = other._startTimes.clone();
+        _previous = other._previous.clone();
+        _bottomLevelEnds = other._bottomLevelEnds.clone();
+
+        _first = other._first.clone();
+        _latest = other._latest.clone();
+        _sizes = other._sizes.clone();
+        _endTimes = other._endTimes.clone();
+
+        _endTime = other._endTime;
+        _bottomLevelEnd = other._bottomLevelEnd;
+        _totalEndTimes = other._totalEndTimes;
+        _scheduledWork = other._scheduledWork;
+        _size = other._size;
+    }
+
+    /**
+     * Copies a generic schedule of the given graph to create this one
+     */
+    public ArraySchedule(Graph graph, Schedule other) {
+        this(graph, other.getNumProcessors());
+
+        for(int i = 0; i < _numProcessors; ++i)
+            for(Task task : other.getTasks(i))
+                addTask(task);
+    }
+
+    /**
+     * @see Schedule#addTask(Task)
+     */
+    @Override
+    public void addTask(Task task) {
+        int processor = task.getProcessor();
+        int id = task.getNode().getId();
+
+        if(_latest[processor] != NONE && _startTimes[_latest[processor]] > task.getStartTime())
+            throw new IllegalArgumentException("Tasks must not start before the last task on their processor");
+
+        _processors[id] = processor;
+        _startTimes[id] = task.getStartTime();
+        _previous[id] = _latest[processor];
+        _bottomLevelEnds[id] = task.getStartTime() + _graph.getBottomLevel(task.getNode());
+        if(_latest[processor] != NONE)
+            _bottomLevelEnds[id] = Math.max(_bottomLevelEnds[id], _bottomLevelEnds[_latest[processor]]);
+
+        if(_first[processor] == NONE)
+            _first[processor] = id;
+        _latest[processor] = id;
+        _sizes[processor]++;
+        _size++;
+
+        _totalEndTimes += task.getEndTime() - _endTimes[processor];
+        _scheduledWork += task.getNode().getComputationCost();
+        _endTimes[processor] = task.getEndTime();
+        _endTime = Math.max(_endTime, _endTimes[processor]);
+        _bottomLevelEnd = Math.max(_bottomLevelEnd, _bottomLevelEnds[id]);
+    }
+
+    /**
+     * @see Schedule#removeTask(Task)
+     */
+    @Override
+    public void removeTask(Task task) {
+        int processor = task.getProcessor();
+        int id = task.getNode().getId();
+
+        if(_latest[processor] != id)
+            throw new IllegalArgumentException("Only the last task on a processor can be removed");
+
+        _latest[processor] = _previous[id];
+        if(_first[processor] == id)
+            _first[processor] = NONE;
+        _processors[id] = NONE;
+        _sizes[processor]--;
+        _size--;
+
+        int oldEndTime = _endTimes[processor];
+        _endTimes[processor] = _latest[processor] != NONE ? endTimeOf(_latest[processor]) : 0;
+        _totalEndTimes += _endTimes[processor] - oldEndTime;
+        _scheduledWork -= task.getNode().getComputationCost();
+
+        // Only have to look at every processor if this one was what decided the end time
+        if(oldEndTime == _endTime) {
+            _endTime = 0;
+            for(int endTime : _endTimes)
+                _endTime = Math.max(_endTime, endTime);
+        }
+        if(_bottomLevelEnds[id] == _bottomLevelEnd) {
+            _bottomLevelEnd = 0;
+            for(int latest : _latest)
+                if(latest != NONE)
+                    _bottomLevelEnd = Math.max(_bottomLevelEnd, _bottomLevelEnds[latest]);
+        }
+    }
+
+    /**
+     * @see Schedule#findTask(Node)
+     */
+    @Override
+    public Task findTask(Node node) {
+        int id = node.getId();
+        return _processors[id] != NONE ? new Task(_processors[id], _startTimes[id], node) : null;
+    }
+
+    /**
+     * @see Schedule#contains(Node)
+     */
+    @Override
+    public boolean contains(Node node) {
+        return _processors[node.getId()] != NONE;
+    }
+
+    /**
+     * @see Schedule#getProcessor(Node)
+     */
+    @Override
+    public int getProcessor(Node node) {
+        return _processors[node.getId()];
+    }
+
+    /**
+     * @see Schedule#getStartTime(Node)
+     */
+    @Override
+    public int getStartTime(Node node) {
+        return _startTimes[node.getId()];
+    }
+
+    /**
+     * @see Schedule#getLatest(int)
+     */
+    @Override
+    public Task getLatest(int processor) {
+        return _latest[processor] != NONE ? taskOf(_latest[processor]) : null;
+    }
+
+    /**
+     * @see Schedule#getLatest()
+     */
+    @Override
+    public Task getLatest() {
+        int latest = NONE;
+        for(int processor = 0; processor < _numProcessors; ++processor) {
+            int id = _latest[processor];
+            if(id != NONE && (latest == NONE || _startTimes[id] >= _startTimes[latest]))
+                latest = id;
+        }
+
+        return latest != NONE ? taskOf(latest) : null;
+    }
+
+    /**
+     * @see Schedule#getFirst(int)
+     */
+    @Override
+    public Task getFirst(int processor) {
+        return _first[processor] != NONE ? taskOf(_first[processor]) : null;
+    }
+
+    /**
+     * @see Schedule#getEndTime(int)
+     */
+    @Override
+    public int getEndTime(int processor) {
+        return _endTimes[processor];
+    }
+
+    /**
+     * @see Schedule#getEndTime()
+     */
+    @Override
+    public int getEndTime() {
+        return _endTime;
+    }
+
+    /**
+     * Only looks at the processors when the task removed was what decided it, so otherwise takes constant time
+     * @param graph Ignored, as this schedule was made for its graph
+     * @see Schedule#getBottomLevelEnd(Graph)
+     */
+    @Override
+    public int getBottomLevelEnd(Graph graph) {
+        return _bottomLevelEnd;
+    }
+
+    /**
+     * @see Schedule#getScheduledWork()
+     */
+    @Override
+    public int getScheduledWork() {
+        return _scheduledWork;
+    }
+
+    /**
+     * @see Schedule#getIdleTime()
+     */
+    @Override
+    public int getIdleTime() {
+        return _totalEndTimes - _scheduledWork;
+    }
+
+    /**
+     * @see Schedule#getTasks(int)
+     */
+    @Override
+    public List<Task> getTasks(int processor) {
+        List<Task> tasks = new ArrayList<>(_sizes[processor]);
+        for(int id = _latest[processor]; id != NONE; id = _previous[id])
+            tasks.add(taskOf(id));
+
+        Collections.reverse(tasks);
+        return Collections.unmodifiableList(tasks);
+    }
+
+    /**
+     * @see Schedule#size(int)
+     */
+    @Override
+    public int size(int processor) {
+        return _sizes[processor];
+    }
+
+    /**
+     * @see Schedule#size()
+     */
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    private Task taskOf(int id) {
+        return new Task(_processors[id], _startTimes[id], _graph.getNode(id));
+    }
+
+    private int endTimeOf(int id) {
+        return _startTimes[id] + _graph.getNode(id).getComputationCost();
+    }
+}
@@ -1,87 +1,548 @@
 package common.schedule;
 
+import common.graph.Graph;
 import common.graph.Node;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashSet;
+import java.util.Arrays;
 
-public class PackedScheduleQueue {
-    private ArrayList<Integer>          _lowerBounds = new ArrayList<>();
-    private ArrayList<SimpleSchedule>   _schedules = new ArrayList<>();
-    private ArrayList<HashSet<Node>>    _visitableNodes = new ArrayList<>();
+/**
+ * A priority queue of partial schedules (and their visitable nodes), ordered by lower bound.
+ *
+ * Partial schedules are not stored in full. Instead every schedule is a state which refers to its parent state and
+ * the single task added to it, packed into a few ints. The full schedule is only rebuilt, from the root, once it
+ * reaches the head of the queue.
+ *
+ * States count the references to them: from their children, from items in the queue, and from whoever created them
+ * and is still creating children of them (see createState, retain and release). Once nothing refers to a state it is
+ * freed, and its space is used for the next state stored. So the states kept are only those leading to something
+ * still in the queue or in use, rather than every state ever created.
+ *
+ * Lower bounds are small integers, so states are kept in one bucket per lower bound rather than being sorted. This
+ * makes adding, removing the head and culling all amortised constant time. States with the same lower bound come out
+ * last in first out, which favours exploring deeper into the schedule that was most recently expanded.
+ *
+ * Everything is kept on the heap. Subclasses may keep some of the queue elsewhere, such as SpillingScheduleQueue which
+ * moves the buckets with high lower bounds out to disk.
+ */
+public class PackedScheduleQueue implements AutoCloseable {
+    /**
+     * The state of the root schedule the queue was created with
+     */
+    public static final int ROOT = 0;
+
+    private static final int    NO_PARENT = -1;
+    private static final int    STATE_INTS = 4; // Parent, node and processor, start time, references
+    private static final int    PAGE_BITS = 14;
+    private static final int    PAGE_SIZE = 1 << PAGE_BITS; // In states
+
+    private final Graph         _graph;
+    private final ArraySchedule _rootSchedule;
+    private final ReadySet      _rootNodes;
+
+    // States are kept in fixed size pages so that storing more of them never has to copy the old ones
+    private int[][]             _pages = new int[16][];
+    private int                 _numStates = 0;     // Including those freed
+    private int                 _liveStates = 0;
+    private int                 _free = NO_PARENT;  // The most recently freed state, whose parent is the one before
+
+    private Bucket[]            _buckets = new Bucket[16];
+    private int                 _base = 0;  // The lower bound of the first bucket
+    private int                 _head = 0;  // Index of the lowest non empty bucket, if there are any items
+    private int                 _end = 0;   // Every bucket from this index on is empty
+    private int                 _size = 0;
+
+    // The head, rebuilt as a full schedule. Created when asked for, and forgotten once the head is removed
+    private int                 _builtState = NO_PARENT;
+    private ArraySchedule       _builtSchedule;
+    private ReadySet            _builtNodes;
+
+    /**
+     * Creates an empty queue, whose states will all be built on top of the given root schedule.
+     * The root state itself is not added; use add(lowerBound, ROOT) to do so.
+     * @param graph The graph being scheduled
+     * @param rootSchedule The schedule to build all states on. It is copied, so can be changed afterwards
+     * @param rootNodes The visitable nodes of the root schedule. It is copied, so can be changed afterwards
+     */
+    public PackedScheduleQueue(Graph graph, ArraySchedule rootSchedule, ReadySet rootNodes) {
+        _graph = graph;
+        _rootSchedule = new ArraySchedule(rootSchedule);
+        _rootNodes = new ReadySet(rootNodes);
+
+        retain(storeState(NO_PARENT, 0, 0)); // The root is never freed
+    }
+
+    /**
+     * Creates a new state by adding the given task to the schedule of the parent state. The state is not put in the
+     * queue, which allows it to be the parent of other states without being visited itself.
+     * @return The new state. The caller holds a reference to it, which must be released once it is done with it
+     */
+    public int createState(int parent, Task task) {
+        int state = storeState(parent, nodeAndProcessor(task), task.getStartTime());
+        retain(state);
+        return state;
+    }
+
+    /**
+     * Takes a reference to a state, so that it isn't freed until the reference is released. Needed to keep creating
+     * children of a state that has been removed from the queue.
+     */
+    public void retain(int state) {
+        _pages[state >>> PAGE_BITS][(state & (PAGE_SIZE - 1)) * STATE_INTS + 3]++;
+    }
+
+    /**
+     * Gives up a reference to a state, freeing it (and then any of its ancestors) once nothing refers to it
+     */
+    public void release(int state) {
+        while(state != NO_PARENT) {
+            int offset = (state & (PAGE_SIZE - 1)) * STATE_INTS;
+            int[] page = _pages[state >>> PAGE_BITS];
+            if(--page[offset + 3] > 0)
+                return;
+
+            int parent = page[offset];
+            page[offset] = _free;
+            _free = state;
+            _liveStates--;
+
+            state = parent;
+        }
+    }
 
     /**
-     * Adds the given items into their relevant positions in the queue
+     * Adds the given state into its relevant position in the queue. The item takes its own reference to the state
      */
-    public void add(int lowerBound, SimpleSchedule schedule, HashSet<Node> visitableNodes) {
-        // Calculate position
-        int index;
-        if(_lowerBounds.size() > 0)
-            index = findPos(lowerBound);
-        else
-            index = 0;
+    public void add(int lowerBound, int state) {
+        retain(state);
+
+        if(_end == 0)
+            _base = lowerBound;
+        else if(lowerBound < _base)
+            shift(_base - lowerBound);
+
+        int index = lowerBound - _base;
+        if(index >= _buckets.length)
+            _buckets = Arrays.copyOf(_buckets, Math.max(index + 1, _buckets.length * 2));
+        if(_buckets[index] == null)
+            _buckets[index] = new Bucket();
 
-        _lowerBounds.add(index, lowerBound);
-        _schedules.add(index, schedule);
-        _visitableNodes.add(index, visitableNodes);
+        _buckets[index].push(state);
+        _end = Math.max(_end, index + 1);
+        if(_size == 0 || index < _head)
+            _head = index;
+        _size++;
+    }
+
+    /**
+     * Creates the state of the given task added to the parent state, and adds it to the queue
+     * @see PackedScheduleQueue#createState(int, Task)
+     */
+    public void add(int lowerBound, int parent, Task task) {
+        int state = createState(parent, task);
+        add(lowerBound, state);
+        release(state);
     }
 
     /**
      * Gets the lower bound of the head item
      */
     public int getLowerBound() {
-        return _lowerBounds.get(_lowerBounds.size() - 1);
+        if(_size == 0)
+            throw new IndexOutOfBoundsException("The queue is empty");
+        return _base + _head;
     }
 
     /**
-     * Gets the head schedule
+     * Gets the state of the head item
      */
-    public SimpleSchedule getSchedule() {
-        return _schedules.get(_schedules.size() - 1);
+    public int getState() {
+        if(_size == 0)
+            throw new IndexOutOfBoundsException("The queue is empty");
+        return _buckets[_head].peek();
     }
 
     /**
-     * Gets the head set of visitable nodes
+     * Gets the head schedule. This is built fresh for the caller, who is free to change it.
      */
-    public HashSet<Node> getVisitableNodes() {
-        return _visitableNodes.get(_visitableNodes.size() - 1);
+    public ArraySchedule getSchedule() {
+        build(getState());
+        return _builtSchedule;
     }
 
     /**
-     * Removes the head item
+     * Gets the head set of visitable nodes. This is built fresh for the caller, who is free to change it.
+     */
+    public ReadySet getVisitableNodes() {
+        build(getState());
+        return _builtNodes;
+    }
+
+    /**
+     * Removes the head item, and its reference to its state. To keep using the state, retain it first.
      */
     public void remove() {
-        _lowerBounds.remove(_visitableNodes.size() - 1);
-        _schedules.remove(_visitableNodes.size() - 1);
-        _visitableNodes.remove(_visitableNodes.size() - 1);
+        if(_size == 0)
+            throw new IndexOutOfBoundsException("The queue is empty");
+
+        release(_buckets[_head].pop());
+        _size--;
+        forgetBuilt();
+
+        if(_size == 0) {
+            _head = 0;
+            _end = 0;
+        } else {
+            while(_buckets[_head] == null || _buckets[_head]._size == 0)
+                _head++;
+        }
     }
 
     public int size() {
-        return _lowerBounds.size();
+        return _size;
     }
 
     public boolean isEmpty() {
-        return _lowerBounds.isEmpty();
+        return _size == 0;
+    }
+
+    /**
+     * @return The number of states stored that haven't been freed, including the root
+     */
+    public int liveStates() {
+        return _liveStates;
+    }
+
+    /**
+     * @return Whether any of the queue is kept off the heap, so that it can grow beyond the memory available
+     */
+    public boolean spillsToDisk() {
+        return false;
+    }
+
+    /**
+     * Takes a snapshot of every item in the queue, which can be read on another thread while this queue carries on
+     * being used. Freed states are used again, so the states are copied along with the items in the buckets.
+     */
+    public Snapshot snapshot() {
+        int[][] pages = new int[_pages.length][];
+        for(int page = 0; page < pages.length && _pages[page] != null; ++page)
+            pages[page] = _pages[page].clone();
+
+        Snapshot snapshot = new Snapshot(pages, _numStates, _rootSchedule);
+        for(int index = _head; index < _end; ++index) {
+            Bucket bucket = _buckets[index];
+            if(bucket != null)
+                for(int i = 0; i < bucket._size; ++i)
+                    snapshot.addItem(bucket._states[i], _base + index);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Frees anything the queue keeps off the heap. The queue must not be used afterwards
+     */
+    @Override
+    public void close() {
     }
 
     /**
-     * Culls the items with a lower bound greater than the given bound
+     * Culls the items with a lower bound equal to or greater than the given bound, as they can't lead to anything
+     * better than a schedule of that length.
      */
     public void cull(int limit) {
-        if(_lowerBounds.size() > 0 && limit <= _lowerBounds.get(0)) {
-            int index = findPos(limit + 1);
+        int from = Math.max(0, limit - _base);
+
+        for(int index = from; index < _end; ++index) {
+            Bucket bucket = _buckets[index];
+            if(bucket != null) {
+                for(int i = 0; i < bucket._size; ++i)
+                    release(bucket._states[i]);
+                _size -= bucket._size;
+                _buckets[index] = null;
+            }
+        }
+
+        if(from <= _head)
+            forgetBuilt();
+
+        if(_size == 0) {
+            _head = 0;
+            _end = 0;
+        } else {
+            _end = Math.min(_end, from);
+        }
+    }
+
+    /**
+     * Stores a state made from the given task packed into a single int, as from nodeAndProcessor(). The state holds a
+     * reference to its parent, but nothing refers to it yet, so it must be added or retained before anything is
+     * released.
+     * @return The new state
+     */
+    protected int storeState(int parent, int nodeAndProcessor, int startTime) {
+        int state;
+        if(_free != NO_PARENT) {
+            state = _free;
+            _free = field(state, 0);
+        } else {
+            int page = _numStates >>> PAGE_BITS;
+            if(page == _pages.length)
+                _pages = Arrays.copyOf(_pages, _pages.length * 2);
+            if(_pages[page] == null)
+                _pages[page] = new int[PAGE_SIZE * STATE_INTS];
+            state = _numStates++;
+        }
+
+        int offset = (state & (PAGE_SIZE - 1)) * STATE_INTS;
+        int[] page = _pages[state >>> PAGE_BITS];
+        page[offset] = parent;
+        page[offset + 1] = nodeAndProcessor;
+        page[offset + 2] = startTime;
+        page[offset + 3] = 0;
+        if(parent != NO_PARENT)
+            retain(parent);
+
+        _liveStates++;
+        return state;
+    }
+
+    /**
+     * Rebuilds the full schedule and visitable nodes of the given state, by adding all the tasks between it and the
+     * root in the order they were originally added.
+     */
+    private void build(int state) {
+        if(state == _builtState)
+            return;
+
+        int depth = 0;
+        for(int cur = state; cur != ROOT; cur = field(cur, 0))
+            depth++;
+
+        int[] path = new int[depth];
+        for(int cur = state; cur != ROOT; cur = field(cur, 0))
+            path[--depth] = cur;
 
-            _lowerBounds.subList(0, index).clear();
-            _schedules.subList(0, index).clear();
-            _visitableNodes.subList(0, index).clear();
+        ArraySchedule schedule = new ArraySchedule(_rootSchedule);
+        ReadySet nodes = new ReadySet(_rootNodes);
+        int numProcessors = schedule.getNumProcessors();
+
+        for(int cur : path) {
+            int nodeAndProcessor = field(cur, 1);
+            Node node = _graph.getNode(nodeAndProcessor / numProcessors);
+
+            schedule.addTask(new Task(nodeAndProcessor % numProcessors, field(cur, 2), node));
+            nodes.add(node);
+        }
+
+        _builtState = state;
+        _builtSchedule = schedule;
+        _builtNodes = nodes;
+    }
+
+    /**
+     * Packs the node and processor of a task into the single int states store them as
+     */
+    protected int nodeAndProcessor(Task task) {
+        return task.getNode().getId() * _rootSchedule.getNumProcessors() + task.getProcessor();
+    }
+
+    /**
+     * @return The number of items kept in the buckets on the heap
+     */
+    protected int heapSize() {
+        return _size;
+    }
+
+    /**
+     * Gets the lower bound of the worst items in the queue
+     */
+    protected int getLastLowerBound() {
+        if(_size == 0)
+            throw new IndexOutOfBoundsException("The queue is empty");
+        while(_buckets[_end - 1] == null || _buckets[_end - 1]._size == 0)
+            _end--;
+        return _base + _end - 1;
+    }
+
+    /**
+     * Removes every item sharing the worst lower bound, see getLastLowerBound()
+     * @return The states of the removed items, in the order they were added. The items' references to them are passed
+     *         on to the caller
+     */
+    protected int[] removeLast() {
+        Bucket bucket = _buckets[getLastLowerBound() - _base];
+        int[] states = Arrays.copyOf(bucket._states, bucket._size);
+
+        _buckets[--_end] = null;
+        _size -= states.length;
+        if(_end == _head)
+            forgetBuilt();
+        if(_size == 0) {
+            _head = 0;
+            _end = 0;
+        }
+        return states;
+    }
+
+    private void forgetBuilt() {
+        _builtState = NO_PARENT;
+        _builtSchedule = null;
+        _builtNodes = null;
+    }
+
+    /**
+     * Gets a field of a stored state: 0 for its parent, 1 for its packed node and processor or 2 for its start time
+     */
+    protected int field(int state, int field) {
+        return _pages[state >>> PAGE_BITS][(state & (PAGE_SIZE - 1)) * STATE_INTS + field];
+    }
+
+    /**
+     * Moves every bucket along to make room for lower bounds below the current base
+     */
+    private void shift(int amount) {
+        Bucket[] buckets = new Bucket[Math.max(_buckets.length, _end + amount)];
+        System.arraycopy(_buckets, 0, buckets, amount, _end);
+
+        _buckets = buckets;
+        _base -= amount;
+        _head += amount;
+        _end += amount;
+    }
+
+    /**
+     * The items of a queue at the moment it was taken, along with every state they are built on
+     * @see PackedScheduleQueue#snapshot()
+     */
+    public static class Snapshot {
+        private final int[][]       _pages;
+        private final int           _numStoredStates;
+        private final ArraySchedule _rootSchedule;
+
+        // States added by the snapshot itself, after the stored ones
+        private int[]               _addedStates = new int[0];
+        private int                 _numStates;
+        private int[]               _items = new int[16]; // State and lower bound of each
+        private int                 _size = 0;
+
+        protected Snapshot(int[][] pages, int numStates, ArraySchedule rootSchedule) {
+            _pages = pages;
+            _numStoredStates = numStates;
+            _numStates = numStates;
+            _rootSchedule = rootSchedule;
+        }
+
+        /**
+         * Shares the states of another snapshot that has not been loaded, and copies its items
+         */
+        protected Snapshot(Snapshot other) {
+            this(other._pages, other._numStoredStates, other._rootSchedule);
+            _items = other._items.clone();
+            _size = other._size;
+        }
+
+        /**
+         * Reads in any items kept off the heap. Must be called before anything else is read from the snapshot
+         */
+        public void load() {
+        }
+
+        /**
+         * Frees anything kept off the heap, if the snapshot is never loaded
+         */
+        public void discard() {
+        }
+
+        /**
+         * The schedule the ROOT state stands for. Must not be changed
+         */
+        public ArraySchedule getRootSchedule() {
+            return _rootSchedule;
+        }
+
+        /**
+         * @return One more than the highest state, including those no longer leading to any item
+         */
+        public int numStates() {
+            return _numStates;
+        }
+
+        public int getParent(int state) {
+            return field(state, 0);
+        }
+
+        /**
+         * @see PackedScheduleQueue#nodeAndProcessor(Task)
+         */
+        public int getNodeAndProcessor(int state) {
+            return field(state, 1);
+        }
+
+        public int getStartTime(int state) {
+            return field(state, 2);
+        }
+
+        public int size() {
+            return _size;
+        }
+
+        public int getState(int item) {
+            return _items[item * 2];
+        }
+
+        public int getLowerBound(int item) {
+            return _items[item * 2 + 1];
+        }
+
+        /**
+         * Adds a state that was never stored by the queue, such as one that was spilled
+         */
+        protected int addState(int parent, int nodeAndProcessor, int startTime) {
+            int offset = (_numStates - _numStoredStates) * STATE_INTS;
+            if(offset == _addedStates.length)
+                _addedStates = Arrays.copyOf(_addedStates, Math.max(16 * STATE_INTS, _addedStates.length * 2));
+
+            _addedStates[offset] = parent;
+            _addedStates[offset + 1] = nodeAndProcessor;
+            _addedStates[offset + 2] = startTime;
+            return _numStates++;
+        }
+
+        protected void addItem(int state, int lowerBound) {
+            if(_size * 2 == _items.length)
+                _items = Arrays.copyOf(_items, _items.length * 2);
+
+            _items[_size * 2] = state;
+            _items[_size * 2 + 1] = lowerBound;
+            _size++;
+        }
+
+        private int field(int state, int field) {
+            if(state >= _numStoredStates)
+                return _addedStates[(state - _numStoredStates) * STATE_INTS + field];
+            return _pages[state >>> PAGE_BITS][(state & (PAGE_SIZE - 1)) * STATE_INTS + field];
         }
     }
 
-    private int findPos(int lowerBound) {
-        int pos = Collections.binarySearch(_lowerBounds, lowerBound, Comparator.reverseOrder());
+    /**
+     * A stack of the states sharing one lower bound
+     */
+    private static class Bucket {
+        private int[]   _states = new int[4];
+        private int     _size = 0;
 
-        return pos < 0 ? -pos - 1 : pos;
+        private void push(int state) {
+            if(_size == _states.length)
+                _states = Arrays.copyOf(_states, _size * 2);
+            _states[_size++] = state;
+        }
+
+        private int peek() {
+            return _states[_size - 1];
+        }
+
+        private int pop() {
+            return _states[--_size];
+        }
     }
 }
@@ -0,0 +1,194 @@
+package common.schedule;
+
+import common.graph.Edge;
+import common.graph.Graph;
+import common.graph.Node;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The set of nodes that are ready to be added to a schedule (i.e. all their parents are already in the schedule).
+ *
+ * Stored as a bitset over node ids, along with a count of unscheduled parents for every node, so that adding a node
+ * to (or removing it from) the schedule only has to look at its outgoing edges. The first 64 nodes live in a single
+ * word so that small graphs never touch an array.
+ */
+public class ReadySet implements Iterable<Node> {
+    private final Graph _graph;
+
+    private long _firstWord = 0;
+    private final long[] _otherWords; // null if the graph has 64 nodes or less
+    private final int[] _unscheduledParents;
+    private int _size = 0;
+
+    /**
+     * Creates the ready set of an empty schedule: All the entry points of the graph.
+     */
+    public ReadySet(Graph graph) {
+        _graph = graph;
+        _otherWords = graph.size() > 64 ? new long[(graph.size() - 1) >> 6] : null;
+        _unscheduledParents = new int[graph.size()];
+
+        for(Node node : graph.getNodes())
+            _unscheduledParents[node.getId()] = graph.getIncomingEdges(node).size();
+        for(Node node : graph.getEntryPoints())
+            set(node.getId());
+    }
+
+    /**
+     * Creates the ready set of the given partial schedule
+     */
+    public ReadySet(Graph graph, Schedule schedule) {
+        _graph = graph;
+        _otherWords = graph.size() > 64 ? new long[(graph.size() - 1) >> 6] : null;
+        _unscheduledParents = new int[graph.size()];
+
+        for(Node node : graph.getNodes())
+            for(Edge edge : graph.getIncomingEdges(node))
+                if(!schedule.contains(edge.getOriginNode()))
+                    _unscheduledParents[node.getId()]++;
+
+        for(Node node : graph.getNodes())
+            if(_unscheduledParents[node.getId()] == 0 && !schedule.contains(node))
+                set(node.getId());
+    }
+
+    /**
+     * Copies the ready set
+     */
+    public ReadySet(ReadySet other) {
+        _graph = other._graph;
+        _firstWord = other._firstWord;
+        _otherWords = other._otherWords != null ? other._otherWords.clone() : null;
+        _unscheduledParents = other._unscheduledParents.clone();
+        _size = other._size;
+    }
+
+    /**
+     * Updates the set for the given (ready) node being added to the schedule. Its children become ready if it was
+     * the last of their parents to be scheduled.
+     */
+    public void add(Node node) {
+        clear(node.getId());
+
+        for(Edge edge : _graph.getOutgoingEdges(node)) {
+            int child = edge.getDestinationNode().getId();
+            if(--_unscheduledParents[child] == 0)
+                set(child);
+        }
+    }
+
+    /**
+     * Reverses add(node). Nodes must be removed in the reverse order they were added.
+     */
+    public void remove(Node node) {
+        for(Edge edge : _graph.getOutgoingEdges(node)) {
+            int child = edge.getDestinationNode().getId();
+            if(_unscheduledParents[child]++ == 0)
+                clear(child);
+        }
+
+        set(node.getId());
+    }
+
+    /**
+     * Returns whether the given node is ready to be added
+     */
+    public boolean contains(Node node) {
+        int id = node.getId();
+        return id < 64 ? (_firstWord & (1L << id)) != 0 : (_otherWords[(id >> 6) - 1] & (1L << id)) != 0;
+    }
+
+    /**
+     * Gets the number of ready nodes
+     */
+    public int size() {
+        return _size;
+    }
+
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    /**
+     * Gets the ready node with the smallest id
+     * @return null if there are no ready nodes
+     */
+    public Node first() {
+        int id = nextId(0);
+        return id >= 0 ? _graph.getNode(id) : null;
+    }
+
+    /**
+     * Gets the id of the first ready node with an id of at least the given id
+     * @return -1 if there are no more ready nodes
+     */
+    public int nextId(int from) {
+        if(from < 64) {
+            long word = _firstWord & (-1L << from);
+            if(word != 0)
+                return Long.numberOfTrailingZeros(word);
+            from = 64;
+        }
+        if(_otherWords == null)
+            return -1;
+
+        for(int index = (from >> 6) - 1; index < _otherWords.length; ++index) {
+            long word = _otherWords[index];
+            if(index == (from >> 6) - 1)
+                word &= -1L << from;
+            if(word != 0)
+                return ((index + 1) << 6) + Long.numberOfTrailingZeros(word);
+        }
+        return -1;
+    }
+
+    /**
+     * Iterates over the ready nodes in order of id. The set may be changed while iterating so long as it is put back
+     * the way it was before the next call to next().
+     */
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<Node>() {
+            private int _next = nextId(0);
+
+            @Override
+            public boolean hasNext() {
+                return _next >= 0;
+            }
+
+            @Override
+            public Node next() {
+                if(_next < 0)
+                    throw new NoSuchElementException();
+
+                Node node = _graph.getNode(_next);
+                _next = nextId(_next + 1);
+                return node;
+            }
+        };
+    }
+
+    private void set(int id) {
+        if(id < 64) {
+            _size += (_firstWord & (1L << id)) == 0 ? 1 : 0;
+            _firstWord |= 1L << id;
+        } else {
+            int index = (id >> 6) - 1;
+            _size += (_otherWords[index] & (1L << id)) == 0 ? 1 : 0;
+            _otherWords[index] |= 1L << id;
+        }
+    }
+
+    private void clear(int id) {
+        if(id < 64) {
+            _size -= (_firstWord & (1L << id)) != 0 ? 1 : 0;
+            _firstWord &= ~(1L << id);
+        } else {
+            int index = (id >> 6) - 1;
+            _size -= (_otherWords[index] & (1L << id)) != 0 ? 1 : 0;
+            _otherWords[index] &= ~(1L << id);
+        }
+    }
+}
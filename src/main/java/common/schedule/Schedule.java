@@ -1,5 +1,6 @@
 package common.schedule;
 
+import common.graph.Graph;
 import common.graph.Node;
 
 import java.util.List;
@@ -37,6 +38,22 @@ public abstract class Schedule {
         return findTask(node) != null;
     }
 
+    /**
+     * Gets the processor the given node is placed on. Unlike findTask, implementations should not need to allocate.
+     * @return The processor, or -1 if the node is not in the schedule
+     */
+    public int                  getProcessor(Node node) {
+        Task task = findTask(node);
+        return task != null ? task.getProcessor() : -1;
+    }
+    /**
+     * Gets the start time of the given node, which must be in the schedule.
+     * Unlike findTask, implementations should not need to allocate.
+     */
+    public int                  getStartTime(Node node) {
+        return findTask(node).getStartTime();
+    }
+
     /**
      * Gets the latest task in the given processor
      */
@@ -59,6 +76,13 @@ public abstract class Schedule {
         return latest;
     }
 
+    /**
+     * Gets the first task in the given processor
+     */
+    public Task                 getFirst(int processor) {
+        return size(processor) > 0 ? getTasks(processor).get(0) : null;
+    }
+
     /**
      * Gets the time at which all processing on the given processor is finished
      */
@@ -81,6 +105,44 @@ public abstract class Schedule {
         return endTime;
     }
 
+    /**
+     * Gets the latest that any task's start time plus its bottom level reaches. No schedule built on this one can
+     * finish any earlier
+     * @param graph The graph the tasks' nodes are from
+     * @see Graph#getBottomLevel(Node)
+     */
+    public int                  getBottomLevelEnd(Graph graph) {
+        int end = 0;
+        for(int i = 0; i < _numProcessors; ++i)
+            for(Task task : getTasks(i))
+                end = Math.max(end, task.getStartTime() + graph.getBottomLevel(task.getNode()));
+
+        return end;
+    }
+
+    /**
+     * Gets the total computation cost of every task in the schedule
+     */
+    public int                  getScheduledWork() {
+        int work = 0;
+        for(int i = 0; i < _numProcessors; ++i)
+            for(Task task : getTasks(i))
+                work += task.getNode().getComputationCost();
+
+        return work;
+    }
+    /**
+     * Gets the total time that processors sit idle between their first task starting and their end time. Time
+     * before a processor's first task counts as idle too.
+     */
+    public int                  getIdleTime() {
+        int busyUntil = 0;
+        for(int i = 0; i < _numProcessors; ++i)
+            busyUntil += getEndTime(i);
+
+        return busyUntil - getScheduledWork();
+    }
+
     /**
      * Gets all the tasks, in order, on the given processor.
      * N.B., this seems to be the least used method, please keep it that way just in case there are further
@@ -0,0 +1,67 @@
+package common.schedule;
+
+/**
+ * An incrementally maintained 64 bit hash of the tasks placed in a schedule.
+ *
+ * Each processor hashes the set of (node, start time) pairs placed on it, and the processor hashes are then combined
+ * with an order independent sum. This means two schedules which are the same up to relabelling of processors hash
+ * to the same value, which is what we want since such schedules have exactly the same completions.
+ */
+public class ScheduleHash {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L; // Keeps a zero input from hashing to zero
+
+    private final long[] _processorHashes;
+    private long _hash = 0;
+
+    /**
+     * Creates the hash of an empty schedule with the given number of processors
+     */
+    public ScheduleHash(int numProcessors) {
+        _processorHashes = new long[numProcessors];
+    }
+
+    /**
+     * Creates the hash of every task currently in the given schedule
+     */
+    public ScheduleHash(Schedule schedule) {
+        this(schedule.getNumProcessors());
+
+        for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
+            for(Task task : schedule.getTasks(processor))
+                toggle(task);
+    }
+
+    /**
+     * Adds the task to the hash if it is not part of it, or removes it if it is.
+     * Call this alongside every Schedule#addTask and Schedule#removeTask.
+     */
+    public void toggle(Task task) {
+        toggle(task.getProcessor(), task.getNode().getId(), task.getStartTime());
+    }
+
+    /**
+     * @see ScheduleHash#toggle(Task)
+     */
+    public void toggle(int processor, int nodeId, int startTime) {
+        long before = mix(_processorHashes[processor] * GOLDEN_GAMMA);
+
+        _processorHashes[processor] ^= mix((((long)nodeId << 32) | (startTime & 0xFFFFFFFFL)) + GOLDEN_GAMMA);
+        _hash += mix(_processorHashes[processor] * GOLDEN_GAMMA) - before;
+    }
+
+    /**
+     * Gets the current hash value
+     */
+    public long get() {
+        return _hash;
+    }
+
+    /**
+     * The splitmix64 finaliser, a cheap way of spreading bits across the whole word.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,469 @@
+package common.schedule;
+
+import common.graph.Graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A PackedScheduleQueue that keeps its low lower bound buckets on the heap, and spills the buckets with higher lower
+ * bounds to memory mapped files once the queue goes over a heap budget. This lets a best first search carry on with a
+ * frontier many times the size of the heap.
+ *
+ * Every bucket on the heap has a lower bound below every spilled bucket, so the head is always on the heap unless the
+ * heap is empty. Then the lowest spilled bucket is read back in, sequentially, and its file deleted.
+ *
+ * A spilled item is written as every task from the root to it, so that nothing on the heap is kept for it and the
+ * states only it led to are freed. Items spilled one after another are usually siblings, so each is written as how
+ * many of the tasks it shares with the item before it, followed by the rest. Reading a bucket back in shares those
+ * states again. Apart from the head bucket, and the states in use by whoever is taking items off the queue, the
+ * heap stays within the budget.
+ */
+public class SpillingScheduleQueue extends PackedScheduleQueue {
+    /**
+     * The heap budget if no other is given, in bytes
+     */
+    public static final long DEFAULT_HEAP_BUDGET = 1024L * 1024 * 1024;
+
+    private static final int    STATE_BYTES = 16;    // Four ints per stored state
+    private static final int    ITEM_BYTES = 4;      // One int per item in a bucket
+
+    private final Path          _directory;
+    private final long          _heapBudget;
+
+    private Path                _segmentDirectory;  // Created when the first bucket is spilled
+    private final TreeMap<Integer, Segment> _segments = new TreeMap<>();
+    private int                 _spillFrom = Integer.MAX_VALUE; // Items with a lower bound of at least this are spilled
+    private int                 _spilled = 0;
+    private int[]               _path = new int[16]; // The node and processor, and start time, of each task of an item
+
+    /**
+     * @param directory The directory to spill buckets to. Each queue makes its own directory inside it
+     * @param heapBudget How many bytes the queue may use on the heap before it starts spilling
+     * @see PackedScheduleQueue#PackedScheduleQueue(Graph, ArraySchedule, ReadySet)
+     */
+    public SpillingScheduleQueue(Graph graph, ArraySchedule rootSchedule, ReadySet rootNodes, Path directory,
+                                 long heapBudget) {
+        super(graph, rootSchedule, rootNodes);
+        _directory = directory;
+        _heapBudget = heapBudget;
+    }
+
+    @Override
+    public void add(int lowerBound, int state) {
+        if(lowerBound >= _spillFrom) {
+            spill(lowerBound, pathTo(state));
+        } else {
+            super.add(lowerBound, state);
+            if(overBudget())
+                spillAboveHead();
+        }
+    }
+
+    /**
+     * Only stores the state if it is kept on the heap
+     */
+    @Override
+    public void add(int lowerBound, int parent, Task task) {
+        if(lowerBound >= _spillFrom) {
+            int depth = pathTo(parent);
+            _path = ensureCapacity(_path, depth + 1);
+            _path[depth * 2] = nodeAndProcessor(task);
+            _path[depth * 2 + 1] = task.getStartTime();
+            spill(lowerBound, depth + 1);
+        } else {
+            super.add(lowerBound, parent, task);
+        }
+    }
+
+    @Override
+    public int getLowerBound() {
+        reloadIfNeeded();
+        return super.getLowerBound();
+    }
+
+    @Override
+    public int getState() {
+        reloadIfNeeded();
+        return super.getState();
+    }
+
+    @Override
+    public void remove() {
+        reloadIfNeeded();
+        super.remove();
+    }
+
+    @Override
+    public int size() {
+        return super.size() + _spilled;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void cull(int limit) {
+        super.cull(limit);
+
+        Map<Integer, Segment> culled = _segments.tailMap(limit, true);
+        for(Segment segment : culled.values()) {
+            _spilled -= segment._count;
+            segment.delete();
+        }
+        culled.clear();
+    }
+
+    /**
+     * Spilled buckets are hard linked rather than read in, so that taking a snapshot costs little more than it does
+     * with everything on the heap. They are read in when the snapshot is loaded.
+     */
+    @Override
+    public Snapshot snapshot() {
+        Snapshot snapshot = super.snapshot();
+        if(_segments.isEmpty())
+            return snapshot;
+
+        try {
+            Path directory = Files.createTempDirectory(_directory, "snapshot-");
+            SpilledSnapshot spilled = new SpilledSnapshot(snapshot, directory);
+            for(Map.Entry<Integer, Segment> entry : _segments.entrySet())
+                spilled.link(entry.getKey(), entry.getValue());
+            return spilled;
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean spillsToDisk() {
+        return true;
+    }
+
+    /**
+     * Deletes every spilled bucket, and the directory they were spilled to
+     */
+    @Override
+    public void close() {
+        for(Segment segment : _segments.values())
+            segment.delete();
+        _segments.clear();
+        _spilled = 0;
+
+        if(_segmentDirectory != null) {
+            try {
+                Files.deleteIfExists(_segmentDirectory);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            _segmentDirectory = null;
+        }
+    }
+
+    /**
+     * @return The number of items that are currently spilled to disk
+     */
+    public int spilledSize() {
+        return _spilled;
+    }
+
+    private boolean overBudget() {
+        return (long)liveStates() * STATE_BYTES + (long)heapSize() * ITEM_BYTES > _heapBudget;
+    }
+
+    /**
+     * Spills every bucket on the heap apart from the head, and everything added after that with a worse lower bound
+     * than the head
+     */
+    private void spillAboveHead() {
+        int head = super.getLowerBound();
+        while(getLastLowerBound() > head) {
+            int lowerBound = getLastLowerBound();
+            for(int state : removeLast()) {
+                spill(lowerBound, pathTo(state));
+                release(state);
+            }
+        }
+        _spillFrom = head + 1;
+    }
+
+    /**
+     * Spills an item made of the first depth tasks of _path
+     */
+    private void spill(int lowerBound, int depth) {
+        Segment segment = _segments.get(lowerBound);
+        if(segment == null) {
+            segment = new Segment(segmentDirectory().resolve(lowerBound + ".bucket"));
+            _segments.put(lowerBound, segment);
+        }
+
+        segment.write(_path, depth);
+        _spilled++;
+    }
+
+    /**
+     * Puts every task from the root to the given state into _path, in the order they were added
+     * @return The number of tasks
+     */
+    private int pathTo(int state) {
+        int depth = 0;
+        for(int cur = state; cur != ROOT; cur = field(cur, 0))
+            depth++;
+
+        _path = ensureCapacity(_path, depth);
+        int step = depth;
+        for(int cur = state; cur != ROOT; cur = field(cur, 0)) {
+            --step;
+            _path[step * 2] = field(cur, 1);
+            _path[step * 2 + 1] = field(cur, 2);
+        }
+        return depth;
+    }
+
+    /**
+     * @return The given path, or a bigger copy if it can't hold the given number of tasks (or states, as a path
+     *         holds two ints for each)
+     */
+    private static int[] ensureCapacity(int[] path, int depth) {
+        return depth * 2 <= path.length ? path : Arrays.copyOf(path, Math.max(depth * 2, path.length * 2));
+    }
+
+    /**
+     * Reads the lowest spilled bucket back onto the heap once the heap is empty
+     */
+    private void reloadIfNeeded() {
+        if(heapSize() != 0 || _segments.isEmpty())
+            return;
+
+        Map.Entry<Integer, Segment> lowest = _segments.pollFirstEntry();
+        int lowerBound = lowest.getKey();
+        Segment segment = lowest.getValue();
+
+        // Only the tasks each item doesn't share with the one before need storing
+        int[][] states = { { ROOT } }; // The state after each task of the item read before
+        segment.read((path, depth, shared) -> {
+            states[0] = ensureCapacity(states[0], depth + 1);
+            for(int step = shared; step < depth; ++step)
+                states[0][step + 1] = storeState(states[0][step], path[step * 2], path[step * 2 + 1]);
+            super.add(lowerBound, states[0][depth]);
+        });
+        _spilled -= segment._count;
+        segment.delete();
+
+        // Still below every spilled bucket
+        _spillFrom = _segments.isEmpty() ? Integer.MAX_VALUE : _segments.firstKey();
+    }
+
+    private Path segmentDirectory() {
+        if(_segmentDirectory == null) {
+            try {
+                Files.createDirectories(_directory);
+                _segmentDirectory = Files.createTempDirectory(_directory, "frontier-");
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return _segmentDirectory;
+    }
+
+    /**
+     * A snapshot whose spilled buckets are links to the files they were spilled to. The queue only ever appends to
+     * those files or deletes them, so the items counted when the snapshot was taken stay as they were.
+     */
+    private static class SpilledSnapshot extends Snapshot {
+        private final Path          _directory;
+        private final Map<Path, int[]> _links = new TreeMap<>(); // Lower bound and count of the items in each
+
+        private SpilledSnapshot(Snapshot heap, Path directory) {
+            super(heap);
+            _directory = directory;
+        }
+
+        private void link(int lowerBound, Segment segment) throws IOException {
+            Path link = _directory.resolve(lowerBound + ".bucket");
+            try {
+                Files.createLink(link, segment._file);
+            } catch(UnsupportedOperationException | IOException e) {
+                Files.copy(segment._file, link);
+            }
+            _links.put(link, new int[] { lowerBound, segment._count });
+        }
+
+        /**
+         * Reads every spilled item in after those that were on the heap
+         */
+        @Override
+        public void load() {
+            for(Map.Entry<Path, int[]> link : _links.entrySet()) {
+                int lowerBound = link.getValue()[0];
+                int[][] states = { new int[] { ROOT } };
+                try(FileChannel channel = FileChannel.open(link.getKey(), StandardOpenOption.READ)) {
+                    Segment.read(channel, link.getValue()[1], (path, depth, shared) -> {
+                        states[0] = ensureCapacity(states[0], depth + 1);
+                        for(int step = shared; step < depth; ++step)
+                            states[0][step + 1] = addState(states[0][step], path[step * 2], path[step * 2 + 1]);
+                        addItem(states[0][depth], lowerBound);
+                    });
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            discard();
+        }
+
+        @Override
+        public void discard() {
+            try {
+                for(Path link : _links.keySet())
+                    Files.deleteIfExists(link);
+                _links.clear();
+                Files.deleteIfExists(_directory);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private interface RecordVisitor {
+        /**
+         * @param path The node and processor, and start time, of each task from the root to the item
+         * @param depth The number of tasks
+         * @param shared How many of the tasks are the same as those of the item visited before
+         */
+        void visit(int[] path, int depth, int shared);
+    }
+
+    /**
+     * The spilled items sharing one lower bound, in a file that is mapped a chunk at a time.
+     *
+     * Each item is written as variable length ints: the number of its tasks not shared with the item before + 1, then
+     * the number that are shared, then the node and processor, and start time, of each task that isn't. An item is
+     * never split between chunks; if there isn't room for one the rest of the chunk is left as zeros, which no item
+     * starts with.
+     */
+    private static class Segment {
+        private static final int    CHUNK_BYTES = 1 << 22;
+        private static final int    VAR_INT_BYTES = 5;          // The most bytes an int takes
+
+        private final Path          _file;
+        private FileChannel         _channel;
+        private MappedByteBuffer    _chunk;
+        private long                _chunkPosition = -CHUNK_BYTES;
+        private int                 _count = 0;
+        private int[]               _lastPath = new int[0];     // Of the item written before
+        private int                 _lastDepth = 0;
+
+        private Segment(Path file) {
+            _file = file;
+            try {
+                _channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Writes an item made of the first depth tasks of the given path
+         */
+        private void write(int[] path, int depth) {
+            int shared = 0;
+            while(shared < depth && shared < _lastDepth && path[shared * 2] == _lastPath[shared * 2]
+                    && path[shared * 2 + 1] == _lastPath[shared * 2 + 1])
+                shared++;
+
+            int bytes = (2 + (depth - shared) * 2) * VAR_INT_BYTES;
+            if(_chunk == null || _chunk.remaining() < bytes) {
+                _chunkPosition += CHUNK_BYTES;
+                _chunk = map(_channel, FileChannel.MapMode.READ_WRITE, _chunkPosition);
+            }
+
+            putVarInt(_chunk, depth - shared + 1);
+            putVarInt(_chunk, shared);
+            for(int i = shared * 2; i < depth * 2; ++i)
+                putVarInt(_chunk, path[i]);
+
+            _lastPath = ensureCapacity(_lastPath, depth);
+            System.arraycopy(path, shared * 2, _lastPath, shared * 2, (depth - shared) * 2);
+            _lastDepth = depth;
+            _count++;
+        }
+
+        /**
+         * Visits every item in the order it was written
+         */
+        private void read(RecordVisitor visitor) {
+            _chunk = null;
+            read(_channel, _count, visitor);
+        }
+
+        /**
+         * Visits the first count items written to the file of the given channel
+         */
+        private static void read(FileChannel channel, int count, RecordVisitor visitor) {
+            MappedByteBuffer chunk = null;
+            long position = -CHUNK_BYTES;
+            int[] path = new int[16];
+            for(int i = 0; i < count; ++i) {
+                if(chunk == null || !chunk.hasRemaining() || chunk.get(chunk.position()) == 0) {
+                    position += CHUNK_BYTES;
+                    chunk = map(channel, FileChannel.MapMode.READ_ONLY, position);
+                }
+
+                int unshared = getVarInt(chunk) - 1;
+                int shared = getVarInt(chunk);
+                int depth = shared + unshared;
+                path = ensureCapacity(path, depth);
+                for(int j = shared * 2; j < depth * 2; ++j)
+                    path[j] = getVarInt(chunk);
+                visitor.visit(path, depth, shared);
+            }
+        }
+
+        private void delete() {
+            _chunk = null;
+            try {
+                _channel.close();
+                Files.deleteIfExists(_file);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position) {
+            try {
+                return channel.map(mode, position, CHUNK_BYTES);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void putVarInt(MappedByteBuffer buffer, int value) {
+            while((value & ~0x7F) != 0) {
+                buffer.put((byte)((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte)value);
+        }
+
+        private static int getVarInt(MappedByteBuffer buffer) {
+            int value = 0;
+            for(int shift = 0; ; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if(b >= 0)
+                    return value;
+            }
+        }
+    }
+}
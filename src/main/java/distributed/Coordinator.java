@@ -0,0 +1,348 @@
+package distributed;
+
+import algorithm.Algorithm;
+import algorithm.DFSAlgorithm;
+import algorithm.MultiAlgorithmCommunicator;
+import algorithm.SearchStats;
+import algorithm.heuristics.DefaultHeuristics;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Shares a search between Worker processes, which may be on other machines, over TCP.
+ *
+ * The coordinator expands the first few tasks itself with a DFS, as the first tier of a TieredAlgorithm would, then
+ * hands each partial schedule it reaches to a worker, best lower bound first. Workers send back every better schedule
+ * they find, which is passed on to every other worker so that they all bound with it. Each worker is kept a few partial
+ * schedules ahead so that it never waits on the network, and if a worker disconnects, whatever it had not finished is
+ * handed to the others.
+ * @see Protocol
+ */
+public class Coordinator implements Algorithm {
+    // Partial schedules handed to each worker before it has finished the first of them
+    private static final int PREFETCH = 2;
+
+    private final ServerSocket              _server;
+    private final int                       _depth;
+    private final MultiAlgorithmCommunicator _communicator;
+
+    private Graph                           _graph;
+    private int                             _processors;
+    private volatile DFSAlgorithm           _splitter;  // Set while the first tasks are being expanded
+
+    // Everything below is guarded by this
+    private final PriorityQueue<WorkItem>   _queue = new PriorityQueue<>(Comparator.comparingInt(item -> item._lowerBound));
+    private final List<Connection>          _workers = new ArrayList<>();
+    private int                             _nextId = 0;
+
+    /**
+     * Starts listening for workers straight away, though they are only given work once the search is run
+     * @param port The port to listen on, or 0 for any free port
+     * @param depth The number of tasks in each partial schedule handed to a worker
+     * @param initialGuess A schedule to start with as the best so far
+     */
+    public Coordinator(int port, int depth, Schedule initialGuess) throws IOException {
+        _server = new ServerSocket(port);
+        _depth = depth;
+        _communicator = new MultiAlgorithmCommunicator(initialGuess) {
+            @Override
+            protected void explorePartialSolution(Graph graph, Schedule schedule, ReadySet nextNodes, int lowerBound) {
+                synchronized(Coordinator.this) {
+                    _queue.add(new WorkItem(_nextId++, lowerBound, schedule));
+                }
+            }
+        };
+    }
+
+    /**
+     * @return The port workers should connect to
+     */
+    public int getPort() {
+        return _server.getLocalPort();
+    }
+
+    /**
+     * @return The number of workers connected right now
+     */
+    public synchronized int numWorkers() {
+        return _workers.size();
+    }
+
+    /**
+     * Expands the first tasks, then hands out the partial schedules reached until workers have explored them all.
+     * Waits for workers to connect if there are none.
+     * @see Algorithm#run(Graph, int)
+     */
+    @Override
+    public void run(Graph graph, int processors) {
+        _graph = graph;
+        _processors = processors;
+
+        // Leaves at least one task for the workers, and hands over schedules with depth tasks
+        int depth = Math.max(1, Math.min(_depth, graph.size() - 1));
+        _splitter = new DFSAlgorithm(_communicator, DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound(),
+            depth + 1);
+        _splitter.run(graph, processors);
+        _splitter = null;
+
+        Thread acceptor = new Thread(this::acceptWorkers, "coordinator-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        try {
+            synchronized(this) {
+                // Handing out work may cull everything left, so it is only known to be finished after
+                while(!_communicator.isStopped()) {
+                    handOutWork();
+                    if(finished())
+                        break;
+                    wait();
+                }
+            }
+        } catch(InterruptedException ignored) {
+            // Stopped early, with what was left unexplored still bounding the search
+        } finally {
+            synchronized(this) {
+                closeServer();
+                for(Connection worker : _workers)
+                    worker.send(Protocol.BYE, out -> { });
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        _communicator.stop();
+        synchronized(this) {
+            notifyAll();
+        }
+    }
+
+    @Override
+    public Schedule getCurrentBest() {
+        return _communicator.getCurrentBest();
+    }
+
+    /**
+     * Counts include every partial schedule workers have finished with, but none they are part way through
+     * @see Algorithm#getStats()
+     */
+    @Override
+    public SearchStats getStats() {
+        return _communicator.getStats(lowerBound());
+    }
+
+    /**
+     * The nodes being explored are on other machines
+     */
+    @Override
+    public Node currentNode() {
+        return null;
+    }
+
+    /**
+     * Every partial schedule not yet explored is either queued or being explored by a worker, or is still to be
+     * reached by the DFS expanding the first tasks
+     * @see Algorithm#lowerBound()
+     */
+    @Override
+    public int lowerBound() {
+        int minBound = _communicator.getCurrentBestEndTime();
+        DFSAlgorithm splitter = _splitter;
+        synchronized(this) {
+            if(splitter != null)
+                minBound = Math.min(minBound, splitter.lowerBound());
+            if(!_queue.isEmpty())
+                minBound = Math.min(minBound, _queue.peek()._lowerBound);
+            for(Connection worker : _workers)
+                for(WorkItem item : worker._outstanding.values())
+                    minBound = Math.min(minBound, item._lowerBound);
+        }
+        return minBound;
+    }
+
+    private void closeServer() {
+        try {
+            _server.close();
+        } catch(IOException ignored) {
+            // Nothing more is accepted either way
+        }
+    }
+
+    private boolean finished() {
+        if(!_queue.isEmpty())
+            return false;
+        for(Connection worker : _workers)
+            if(!worker._outstanding.isEmpty())
+                return false;
+        return true;
+    }
+
+    /**
+     * Keeps every worker PREFETCH partial schedules ahead, dropping any that can't beat the best schedule found
+     */
+    private void handOutWork() {
+        for(Connection worker : new ArrayList<>(_workers)) {
+            while(worker._outstanding.size() < PREFETCH && !_queue.isEmpty()) {
+                WorkItem item = _queue.poll();
+                if(item._lowerBound >= _communicator.getCurrentBestEndTime()) {
+                    _communicator.getCounters().culled();
+                    continue;
+                }
+
+                worker._outstanding.put(item._id, item);
+                worker.send(Protocol.WORK, out -> {
+                    out.writeInt(item._id);
+                    out.writeInt(item._lowerBound);
+                    Protocol.writeSchedule(out, item._schedule);
+                });
+            }
+        }
+    }
+
+    private void acceptWorkers() {
+        try {
+            while(!_server.isClosed()) {
+                Socket socket = _server.accept();
+                Connection worker = new Connection(socket);
+                worker.send(Protocol.GRAPH, out -> {
+                    Protocol.writeGraph(out, _graph);
+                    out.writeInt(_processors);
+                    Protocol.writeSchedule(out, _communicator.getCurrentBest());
+                });
+
+                synchronized(this) {
+                    // The search may have finished while the graph was being sent
+                    if(_server.isClosed()) {
+                        worker.send(Protocol.BYE, out -> { });
+                        return;
+                    }
+                    _workers.add(worker);
+                    notifyAll();
+                }
+                Thread reader = new Thread(() -> readFrom(worker), "coordinator-worker");
+                reader.setDaemon(true);
+                reader.start();
+            }
+        } catch(IOException ignored) {
+            // The server was closed
+        }
+    }
+
+    /**
+     * Reads everything a worker sends until it disconnects, then hands its outstanding work to the others
+     */
+    private void readFrom(Connection worker) {
+        try {
+            while(true) {
+                byte type = worker._in.readByte();
+                if(type == Protocol.INCUMBENT) {
+                    Schedule incumbent = Protocol.readSchedule(worker._in, _graph, _processors);
+                    if(_communicator.update(incumbent)) {
+                        synchronized(this) {
+                            for(Connection other : _workers)
+                                if(other != worker)
+                                    other.send(Protocol.BOUND, out -> Protocol.writeSchedule(out, incumbent));
+                        }
+                    }
+                } else if(type == Protocol.DONE) {
+                    int id = worker._in.readInt();
+                    SearchStats stats = Protocol.readStats(worker._in);
+                    _communicator.getCounters().add(stats);
+                    synchronized(this) {
+                        worker._outstanding.remove(id);
+                        notifyAll();
+                    }
+                } else {
+                    throw new IOException("Unknown message " + type);
+                }
+            }
+        } catch(IOException e) {
+            disconnect(worker);
+        }
+    }
+
+    private synchronized void disconnect(Connection worker) {
+        if(!_workers.remove(worker))
+            return;
+        _queue.addAll(worker._outstanding.values());
+        worker._outstanding.clear();
+        worker.close();
+        notifyAll();
+    }
+
+    private interface MessageWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A partial schedule to be handed to a worker
+     */
+    private static class WorkItem {
+        private final int       _id;
+        private final int       _lowerBound;
+        private final Schedule  _schedule;
+
+        private WorkItem(int id, int lowerBound, Schedule schedule) {
+            _id = id;
+            _lowerBound = lowerBound;
+            _schedule = schedule;
+        }
+    }
+
+    /**
+     * A connected worker, and the partial schedules it has been handed but not finished
+     */
+    private class Connection {
+        private final Socket            _socket;
+        private final DataInputStream   _in;
+        private final DataOutputStream  _out;
+        private final Map<Integer, WorkItem> _outstanding = new HashMap<>();
+
+        private Connection(Socket socket) throws IOException {
+            _socket = socket;
+            _socket.setTcpNoDelay(true);
+            _in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            _out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Sends a message. If it can't be sent the worker is closed, so that its reader disconnects it
+         */
+        private void send(byte type, MessageWriter message) {
+            try {
+                synchronized(_out) {
+                    _out.writeByte(type);
+                    message.write(_out);
+                    _out.flush();
+                }
+            } catch(IOException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            try {
+                _socket.close();
+            } catch(IOException ignored) {
+                // Already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package distributed;
+
+import algorithm.SearchStats;
+import common.graph.Edge;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.Schedule;
+import common.schedule.Task;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The messages a Coordinator and its Workers send each other. Every message is a type byte followed by its fields.
+ *
+ * Coordinator to worker:
+ *  GRAPH       The graph, the number of processors and the best schedule so far. Sent once, when the worker connects
+ *  WORK        An id, a lower bound and a partial schedule for the worker to explore
+ *  BOUND       A better schedule found by another worker
+ *  BYE         The search is over. The worker stops whatever it is doing and disconnects
+ *
+ * Worker to coordinator:
+ *  INCUMBENT   A better schedule the worker found
+ *  DONE        The id of a partial schedule the worker has finished exploring, and the branches it counted doing so.
+ *              Any better schedule found while exploring it is always sent first
+ */
+final class Protocol {
+    static final byte GRAPH = 1;
+    static final byte WORK = 2;
+    static final byte BOUND = 3;
+    static final byte BYE = 4;
+    static final byte INCUMBENT = 5;
+    static final byte DONE = 6;
+
+    private Protocol() {
+    }
+
+    /**
+     * Writes the nodes in order of id, and each edge along with its position, so that the graph read back has the same
+     * ids and edge positions
+     */
+    static void writeGraph(DataOutputStream out, Graph graph) throws IOException {
+        out.writeUTF(graph.getName());
+        out.writeInt(graph.size());
+        for(int id = 0; id < graph.size(); ++id) {
+            out.writeUTF(graph.getNode(id).getLabel());
+            out.writeInt(graph.getNode(id).getComputationCost());
+        }
+
+        List<Edge> edges = graph.getAllEdges();
+        out.writeInt(edges.size());
+        for(int i = 0; i < edges.size(); ++i) {
+            out.writeInt(edges.get(i).getOriginNode().getId());
+            out.writeInt(edges.get(i).getDestinationNode().getId());
+            out.writeInt(edges.get(i).getCost());
+            out.writeInt(graph.getEdgePosition(i));
+        }
+    }
+
+    static Graph readGraph(DataInputStream in) throws IOException {
+        Graph.Builder builder = new Graph.Builder().name(in.readUTF());
+
+        String[] labels = new String[in.readInt()];
+        int[] costs = new int[labels.length];
+        for(int id = 0; id < labels.length; ++id) {
+            labels[id] = in.readUTF();
+            costs[id] = in.readInt();
+        }
+
+        int[][] edges = new int[in.readInt()][];
+        for(int i = 0; i < edges.length; ++i)
+            edges[i] = new int[] { in.readInt(), in.readInt(), in.readInt(), in.readInt() };
+
+        // Each edge was added once as many nodes as its position had been
+        int edge = 0;
+        for(int id = 0; id <= labels.length; ++id) {
+            for(; edge < edges.length && edges[edge][3] == id; ++edge)
+                builder.edge(labels[edges[edge][0]], labels[edges[edge][1]], edges[edge][2]);
+            if(id < labels.length)
+                builder.node(labels[id], costs[id]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the tasks of a schedule one processor at a time, or no tasks if it is not a real schedule
+     */
+    static void writeSchedule(DataOutputStream out, Schedule schedule) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if(schedule.getEndTime() != Integer.MAX_VALUE)
+            for(int processor = 0; processor < schedule.getNumProcessors(); ++processor)
+                tasks.addAll(schedule.getTasks(processor));
+
+        out.writeInt(tasks.size());
+        for(Task task : tasks) {
+            out.writeInt(task.getNode().getId());
+            out.writeInt(task.getProcessor());
+            out.writeInt(task.getStartTime());
+        }
+    }
+
+    static ArraySchedule readSchedule(DataInputStream in, Graph graph, int processors) throws IOException {
+        ArraySchedule schedule = new ArraySchedule(graph, processors);
+        int size = in.readInt();
+        for(int i = 0; i < size; ++i) {
+            Node node = graph.getNode(in.readInt());
+            int processor = in.readInt();
+            schedule.addTask(new Task(processor, in.readInt(), node));
+        }
+        return schedule;
+    }
+
+    static void writeStats(DataOutputStream out, SearchStats stats) throws IOException {
+        out.writeInt(stats.getDepths());
+        for(int depth = 0; depth < stats.getDepths(); ++depth)
+            out.writeLong(stats.getExplored(depth));
+        out.writeLong(stats.getCulled());
+        out.writeLong(stats.getFixedOrder());
+        out.writeLong(stats.getTranspositionHits());
+        out.writeLong(stats.getTranspositionMisses());
+    }
+
+    /**
+     * Reads the counts of a SearchStats. Its best end time and lower bound are left unknown
+     */
+    static SearchStats readStats(DataInputStream in) throws IOException {
+        long[] exploredByDepth = new long[in.readInt()];
+        for(int depth = 0; depth < exploredByDepth.length; ++depth)
+            exploredByDepth[depth] = in.readLong();
+        return new SearchStats(exploredByDepth, in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+            Integer.MAX_VALUE, 0, Collections.emptyList());
+    }
+}
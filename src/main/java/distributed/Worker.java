@@ -0,0 +1,214 @@
+package distributed;
+
+import algorithm.Checkpoint;
+import algorithm.DefaultAlgorithm;
+import algorithm.SearchStats;
+import algorithm.TieredAlgorithm;
+import common.graph.Graph;
+import common.schedule.Schedule;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Explores the partial schedules a Coordinator hands it, one at a time, with the same tiered search Ainur would run
+ * on its own, and sends back every better schedule it finds.
+ * @see Protocol
+ */
+public class Worker {
+    // How often the search is checked for a better schedule to send to the coordinator
+    private static final long INCUMBENT_POLL_MILLIS = 50;
+
+    private final String                _host;
+    private final int                   _port;
+    private final int                   _cores;
+
+    private Graph                       _graph;
+    private int                         _processors;
+    private DataInputStream             _in;
+    private DataOutputStream            _out;
+
+    private final BlockingQueue<WorkItem> _work = new LinkedBlockingQueue<>();
+    private volatile Schedule           _best;      // The best schedule found by anyone
+    private volatile TieredAlgorithm    _current;
+    private volatile boolean            _finished = false;
+    private volatile boolean            _disconnected = false;
+
+    /**
+     * @param cores The number of threads to search with
+     */
+    public Worker(String host, int port, int cores) {
+        _host = host;
+        _port = port;
+        _cores = cores;
+    }
+
+    /**
+     * Connects to the coordinator, and explores everything it is handed until the coordinator says the search is over
+     * @throws IOException If the coordinator can't be connected to, or disconnects before the search is over
+     */
+    public void run() throws IOException, InterruptedException {
+        try(Socket socket = new Socket(_host, _port)) {
+            socket.setTcpNoDelay(true);
+            _in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            _out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            if(_in.readByte() != Protocol.GRAPH)
+                throw new IOException("Expected a graph from the coordinator");
+            _graph = Protocol.readGraph(_in);
+            _processors = _in.readInt();
+            _best = Protocol.readSchedule(_in, _graph, _processors);
+
+            Thread reader = new Thread(this::read, "worker-reader");
+            reader.setDaemon(true);
+            reader.start();
+            Thread poller = new Thread(this::pollIncumbent, "worker-incumbent");
+            poller.setDaemon(true);
+            poller.start();
+
+            try {
+                for(WorkItem item = _work.take(); item != WorkItem.BYE; item = _work.take())
+                    explore(item);
+            } catch(IOException e) {
+                // Once the search is over the coordinator may go before hearing about the last partial schedule
+                if(!_finished || _disconnected)
+                    throw e;
+            } finally {
+                _finished = true;
+                poller.interrupt();
+            }
+            if(_disconnected)
+                throw new IOException("Lost the connection to the coordinator");
+        }
+    }
+
+    /**
+     * Searches below the partial schedule, bounding with the best schedule anyone has found
+     */
+    private void explore(WorkItem item) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(_graph, _processors);
+        Checkpoint.Frontier frontier = checkpoint.addFrontier(false);
+        frontier.addItem(frontier.addSchedule(item._schedule), item._lowerBound);
+
+        TieredAlgorithm algorithm = DefaultAlgorithm.createResumable(_graph, _processors, _cores, null, 0);
+        // Set before taking the best so far, so that no better schedule the reader hears of is missed
+        _current = algorithm;
+        algorithm.update(_best);
+        if(_finished)
+            algorithm.stop();
+        algorithm.run(_graph, _processors, checkpoint);
+        _current = null;
+        if(_finished)
+            return;
+
+        // The coordinator must know of anything better before it hears this is done, or it may be thought optimal
+        sendIncumbent(algorithm.getCurrentBest());
+        SearchStats stats = algorithm.getStats();
+        synchronized(_out) {
+            _out.writeByte(Protocol.DONE);
+            _out.writeInt(item._id);
+            Protocol.writeStats(_out, stats);
+            _out.flush();
+        }
+    }
+
+    /**
+     * Sends a schedule to the coordinator if it is better than the best anyone has found
+     */
+    private void sendIncumbent(Schedule schedule) throws IOException {
+        synchronized(_out) {
+            if(schedule.getEndTime() >= _best.getEndTime())
+                return;
+            _best = schedule;
+            _out.writeByte(Protocol.INCUMBENT);
+            Protocol.writeSchedule(_out, schedule);
+            _out.flush();
+        }
+    }
+
+    private void pollIncumbent() {
+        try {
+            while(!_finished) {
+                Thread.sleep(INCUMBENT_POLL_MILLIS);
+                TieredAlgorithm current = _current;
+                if(current != null)
+                    sendIncumbent(current.getCurrentBest());
+            }
+        } catch(InterruptedException | IOException ignored) {
+            // Either the search is over, or the reader will find the connection lost
+        }
+    }
+
+    /**
+     * Reads messages from the coordinator until it says the search is over or disconnects
+     */
+    private void read() {
+        try {
+            while(true) {
+                byte type = _in.readByte();
+                if(type == Protocol.WORK) {
+                    int id = _in.readInt();
+                    int lowerBound = _in.readInt();
+                    _work.add(new WorkItem(id, lowerBound, Protocol.readSchedule(_in, _graph, _processors)));
+                } else if(type == Protocol.BOUND) {
+                    Schedule bound = Protocol.readSchedule(_in, _graph, _processors);
+                    synchronized(_out) {
+                        if(bound.getEndTime() < _best.getEndTime())
+                            _best = bound;
+                    }
+                    TieredAlgorithm current = _current;
+                    if(current != null)
+                        current.update(bound);
+                } else if(type == Protocol.BYE) {
+                    break;
+                } else {
+                    throw new IOException("Unknown message " + type);
+                }
+            }
+        } catch(IOException e) {
+            _disconnected = true;
+        }
+
+        // Whatever was handed over is no longer wanted
+        _finished = true;
+        _work.clear();
+        _work.add(WorkItem.BYE);
+        TieredAlgorithm current = _current;
+        if(current != null)
+            current.stop();
+    }
+
+    /**
+     * A partial schedule handed over by the coordinator
+     */
+    private static class WorkItem {
+        // Marks the end of the work handed over
+        private static final WorkItem BYE = new WorkItem(-1, 0, null);
+
+        private final int       _id;
+        private final int       _lowerBound;
+        private final Schedule  _schedule;
+
+        private WorkItem(int id, int lowerBound, Schedule schedule) {
+            _id = id;
+            _lowerBound = lowerBound;
+            _schedule = schedule;
+        }
+    }
+
+    /**
+     * Runs a worker on its own
+     * @param args The coordinator's host:port, then optionally the number of threads to search with
+     */
+    public static void main(String[] args) throws Exception {
+        String[] address = args[0].split(":");
+        int cores = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        new Worker(address[0], Integer.parseInt(address[1]), cores).run();
+    }
+}
@@ -3,7 +3,6 @@ package io;
 import common.graph.Graph;
 import common.schedule.Schedule;
 
-import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
@@ -25,6 +24,7 @@ public abstract class ScheduleWriter {
      * Writes a schedule. This could either be to the OutputStream specified in the constructor or in a manner decided
      * by inheritors.
      * @param schedule The schedule to write.
+     * @param graph The graph the schedule is for
      */
-    public abstract void write(Schedule schedule, Graph graph, InputStream is);
+    public abstract void write(Schedule schedule, Graph graph);
 }
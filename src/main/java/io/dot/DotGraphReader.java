@@ -1,22 +1,22 @@
 package io.dot;
 
-import common.graph.Edge;
 import common.graph.Graph;
-import common.graph.Node;
 import io.GraphReader;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.charset.MalformedInputException;
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.dot.DotLexer.*;
 
 /**
  * Takes an InputStream in .dot format and converts it to a Graph object.
  */
 public class DotGraphReader extends GraphReader {
+    private DotLexer    _lexer;
+    private int         _token;
 
     /**
      * Constructor for GraphReader.
@@ -37,86 +37,129 @@ public class DotGraphReader extends GraphReader {
      * <header> {
      *     ...dot content...
      * }
+     * The stream is read in a single pass. Only nodes and edges with a Weight are read, anything else is skipped.
      * @return graph : Graph
      */
     @Override
     public Graph read() {
 
         Graph.Builder graphBuilder = new Graph.Builder();
+        // Edges that came before one of their nodes, which can only be added once all nodes have been read
+        List<PendingEdge> pendingEdges = new ArrayList<>();
+        boolean seenDigraph = false;
+
+        _lexer = new DotLexer(_is);
+        try {
+            _token = _lexer.next();
+
+            while(_token != END) {
+                if(_token != ID) { // Braces and semicolons between statements, or something not understood
+                    _token = _lexer.next();
+                    continue;
+                }
+
+                if(_lexer.textEquals("digraph")) {
+                    if(seenDigraph)
+                        throw new RuntimeException("more than one digraph in the file!");
+                    seenDigraph = true;
+
+                    _token = _lexer.next();
+                    if(_token == ID) {
+                        graphBuilder.name(_lexer.text());
+                        _token = _lexer.next();
+                    }
+                    continue;
+                }
+
+                if(_lexer.textEquals("graph") || _lexer.textEquals("node") || _lexer.textEquals("edge")) {
+                    skipStatement(); // Default attributes, which we have no use for
+                    continue;
+                }
+
+                String label = _lexer.text();
+                _token = _lexer.next();
+
+                if(_token == ARROW) {
+                    _token = _lexer.next();
+                    if(_token != ID) {
+                        skipStatement();
+                        continue;
+                    }
+                    String destination = _lexer.text();
+                    _token = _lexer.next();
+
+                    int weight = readWeight();
+                    if(weight < 0)
+                        continue;
+
+                    if(graphBuilder.hasNode(label) && graphBuilder.hasNode(destination))
+                        graphBuilder.edge(label, destination, weight);
+                    else
+                        pendingEdges.add(new PendingEdge(label, destination, weight));
+                } else {
+                    int weight = readWeight();
+                    if(weight >= 0)
+                        graphBuilder.node(label, weight);
+                }
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-        String streamText = convertStreamToString(_is);
-
-        getName(streamText, graphBuilder);
-        getNodes(streamText, graphBuilder);
-        getEdges(streamText, graphBuilder);
+        for(PendingEdge edge : pendingEdges)
+            graphBuilder.edge(edge._origin, edge._destination, edge._weight);
+        graphBuilder.ending(_lexer.whitespace());
 
         return graphBuilder.build();
 
     }
 
-    private void getName(String string, Graph.Builder builder) {
-        Pattern namePattern = Pattern.compile("digraph \"([^\\\"]+)\"");
-        Matcher m = namePattern.matcher(string);
-
-        if(!m.find())
-            //throw new RuntimeException("digraph not found in file!");
-            return;
-
-        builder.name(m.group(1));
+    /**
+     * Reads the attribute list (if any) at the current token, along with the semicolon ending the statement
+     * @return The value of the Weight attribute, or -1 if there is no weight
+     */
+    private int readWeight() throws IOException {
+        int weight = -1;
+
+        if(_token == OPEN_BRACKET) {
+            _token = _lexer.next();
+            while(_token != CLOSE_BRACKET && _token != END) {
+                if(_token == ID && _lexer.textEquals("Weight")) {
+                    _token = _lexer.next();
+                    if(_token == EQUALS) {
+                        _token = _lexer.next();
+                        if(_token == ID)
+                            weight = _lexer.textAsInt();
+                    }
+                    continue;
+                }
+                _token = _lexer.next();
+            }
+            _token = _lexer.next();
+        }
 
-        if(m.find())
-            throw new RuntimeException("more than one digraph in the file!");
+        if(_token == SEMICOLON)
+            _token = _lexer.next();
+        return weight;
     }
 
-    private void getNodes(String string, Graph.Builder builder) {
-
-        // (?<=;|^|\{)                    :     Positive lookbehind ensuring that preceding the string is either a ';', '{'
-        //                                      or '^' (beginning of string)
-        // \s*([\w+])\s*                  :     Any whitespace, any alpha-numeric characters with node label as group 1, any whitespace
-        // \[\s*Weight\s*=\s*(\d+)\s*]   :     String in form of [Weight=?] with ?=node weight as group 2, any whitespace between
-        //                                      [, Weight, =, ?, ] allowed.
-        // /s*;                           :     Any whitespace followed by semicolon
-        Pattern nodePattern = Pattern.compile("(?<=;|^|\\{)\\s*(\\w+)\\s*\\[\\s*Weight\\s*=\\s*(\\d+)\\s*]\\s*;");
-        Matcher m = nodePattern.matcher(string); // Match pattern to input
-
-        while (m.find()) {
-            int nodeCost = Integer.parseInt(m.group(2)); // Cost
-            String nodeName = m.group(1);  // Label
-
-            builder.node(nodeName, nodeCost);
-        }
+    /**
+     * Skips to the end of the current statement
+     */
+    private void skipStatement() throws IOException {
+        while(_token != SEMICOLON && _token != CLOSE_BRACE && _token != END)
+            _token = _lexer.next();
     }
 
+    private static class PendingEdge {
+        final String    _origin;
+        final String    _destination;
+        final int       _weight;
 
-    private void getEdges(String string, Graph.Builder builder) {
-
-        // (?<=;|^|\{)                    :     Positive lookbehind ensuring that preceding the string is either a ';', '{'
-        //                                      or '^' (beginning of string)
-        // \s*([\w+])\s*                  :     Any whitespace, any alpha-numeric characters with node label as group 1, any whitespace
-        // ->\s*                          :     String in form of -> followed by any whitespace
-        // ([\w+])\s*                     :     Any alpha-numeric characters with node label as group 2, any whitespace
-        // \[\s*Weight\s*=\s*(\d+)\s*]    :     String in form of [Weight=?] with ?=node weight as group 3, any whitespace between
-        //                                      [, Weight, =, ?, ] allowed.
-        // /s*;                           :     Any whitespace followed by semicolon
-        Pattern edgePattern = Pattern.compile("(?<=;|^|\\{)\\s*(\\w+)\\s*->\\s*(\\w+)\\s*\\[\\s*Weight\\s*=\\s*(\\d+)\\s*]\\s*;");
-        Matcher m = edgePattern.matcher(string); // Match pattern to input
-
-        while (m.find()) {
-            int edgeCost = Integer.parseInt(m.group(3)); // Cost
-            String originLabel = m.group(1); // Origin node label, get from nodes map
-            String destLabel = m.group(2); // Destination node label, get from nodes map
-
-            builder.edge(originLabel, destLabel, edgeCost);
+        PendingEdge(String origin, String destination, int weight) {
+            _origin = origin;
+            _destination = destination;
+            _weight = weight;
         }
-
-    }
-
-
-    private String convertStreamToString(InputStream inputStream) {
-
-        Scanner s = new Scanner(inputStream).useDelimiter("\\A");
-
-        return s.hasNext() ? s.next() : "";
-
     }
 }
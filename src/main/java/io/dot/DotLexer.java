@@ -0,0 +1,194 @@
+package io.dot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a .dot file into tokens, reading it a block at a time so the whole file is never held in memory at once.
+ *
+ * Works on bytes rather than characters, as everything outside of quoted strings in a .dot file is ASCII. Quoted
+ * strings are decoded as UTF-8. Comments are skipped.
+ */
+class DotLexer {
+    static final int END            = -1;
+    static final int ID             = 0; // A name, number or quoted string. See text()
+    static final int ARROW          = 1; // ->
+    static final int OPEN_BRACKET   = 2; // [
+    static final int CLOSE_BRACKET  = 3; // ]
+    static final int EQUALS         = 4;
+    static final int COMMA          = 5;
+    static final int SEMICOLON      = 6;
+    static final int OPEN_BRACE     = 7; // {
+    static final int CLOSE_BRACE    = 8; // }
+    static final int OTHER          = 9; // Anything this lexer doesn't understand
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream   _is;
+    private final byte[]        _buffer = new byte[BUFFER_SIZE];
+    private int                 _position = 0;
+    private int                 _limit = 0;
+
+    // Text of the last ID token
+    private byte[]              _text = new byte[64];
+    private int                 _textLength = 0;
+    // Whitespace skipped before the last token
+    private final StringBuilder _whitespace = new StringBuilder();
+
+    DotLexer(InputStream is) {
+        _is = is;
+    }
+
+    /**
+     * Reads the next token
+     * @return The type of token read, or END when there are no more
+     */
+    int next() throws IOException {
+        int c = skipWhitespaceAndComments();
+
+        switch(c) {
+            case -1:    return END;
+            case '[':   return OPEN_BRACKET;
+            case ']':   return CLOSE_BRACKET;
+            case '=':   return EQUALS;
+            case ',':   return COMMA;
+            case ';':   return SEMICOLON;
+            case '{':   return OPEN_BRACE;
+            case '}':   return CLOSE_BRACE;
+            case '"':
+                readQuoted();
+                return ID;
+            case '-':
+                if(peek() == '>') {
+                    read();
+                    return ARROW;
+                }
+                return OTHER;
+            default:
+                if(!isIdCharacter(c))
+                    return OTHER;
+
+                _textLength = 0;
+                append(c);
+                while(isIdCharacter(peek()))
+                    append(read());
+                return ID;
+        }
+    }
+
+    /**
+     * @return The text of the last ID token, without quotes
+     */
+    String text() {
+        return new String(_text, 0, _textLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The whitespace skipped before the last token, leaving out any comments. After END, this is whatever
+     * whitespace the file ends with
+     */
+    String whitespace() {
+        return _whitespace.toString();
+    }
+
+    /**
+     * Checks the text of the last ID token without creating a string from it
+     * @param ascii The text to compare to, only in ASCII
+     */
+    boolean textEquals(String ascii) {
+        if(ascii.length() != _textLength)
+            return false;
+        for(int i = 0; i < _textLength; ++i)
+            if(_text[i] != ascii.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * Reads the text of the last ID token as a non-negative integer without creating a string from it
+     * @return The integer, or -1 if the text isn't one
+     */
+    int textAsInt() {
+        if(_textLength == 0 || _textLength > 9) // Anything longer could overflow
+            return -1;
+
+        int value = 0;
+        for(int i = 0; i < _textLength; ++i) {
+            int digit = _text[i] - '0';
+            if(digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int skipWhitespaceAndComments() throws IOException {
+        _whitespace.setLength(0);
+        while(true) {
+            int c = read();
+            if(c == '/' && peek() == '/') {
+                skipLine();
+            } else if(c == '/' && peek() == '*') {
+                read();
+                // Find the closing */
+                for(int prev = read(), cur = read(); cur != -1 && !(prev == '*' && cur == '/'); prev = cur, cur = read());
+            } else if(c == '#') { // Preprocessor output lines are also ignored
+                skipLine();
+            } else if(c == -1 || c > ' ') {
+                return c;
+            } else {
+                _whitespace.append((char)c);
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        for(int c = read(); c != -1 && c != '\n'; c = read());
+    }
+
+    private void readQuoted() throws IOException {
+        _textLength = 0;
+        for(int c = read(); c != -1 && c != '"'; c = read()) {
+            if(c == '\\' && peek() == '"') // Escaped quote
+                c = read();
+            append(c);
+        }
+    }
+
+    private void append(int c) {
+        if(_textLength == _text.length) {
+            byte[] text = new byte[_text.length * 2];
+            System.arraycopy(_text, 0, text, 0, _textLength);
+            _text = text;
+        }
+        _text[_textLength++] = (byte)c;
+    }
+
+    private int read() throws IOException {
+        if(_position == _limit && !fill())
+            return -1;
+        return _buffer[_position++] & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if(_position == _limit && !fill())
+            return -1;
+        return _buffer[_position] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int read = _is.read(_buffer, 0, _buffer.length);
+        if(read <= 0)
+            return false;
+
+        _position = 0;
+        _limit = read;
+        return true;
+    }
+
+    private static boolean isIdCharacter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.'
+            || c >= 0x80; // Part of a UTF-8 character
+    }
+}
@@ -1,19 +1,23 @@
 package io.dot;
 
+import common.graph.Edge;
 import common.graph.Graph;
+import common.graph.Node;
 import common.schedule.Schedule;
 import common.schedule.Task;
 import io.ScheduleWriter;
 
 import java.io.*;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * This class writes a schedule to a .dot file format.
  */
 public class DotScheduleWriter extends ScheduleWriter {
+    private final Map<String, String> _graphAttributes = new LinkedHashMap<>();
 
     /**
      * Constructor for ScheduleWriter
@@ -23,69 +27,91 @@ public class DotScheduleWriter extends ScheduleWriter {
         super(os);
     }
 
-    @Override
     /**
-     * Method to write schedule out to .dot file. There is only one output file for a schedule,
-     * but there can be multiple digraphs in the dot file ie. as many digraphs as there are
-     * processors as each processors tasks goes in a separate digraph
-     * @params schedule the schedule to be written out to file
+     * Adds an attribute to the graph itself, such as whether the schedule is known to be optimal. Graph attributes are
+     * written before any node, in the order they were added.
+     * @param name The name of the attribute
+     * @param value The value of the attribute, which must already be a valid dot ID (such as a number)
      */
-    public void write(Schedule schedule, Graph graph, InputStream is) {
-
-        // Create StringBuilder from InputStream for injection
-        String streamText = convertStreamToString(is);
-        StringBuilder outputText = new StringBuilder(streamText);
-
-        PrintWriter pw = new PrintWriter(_os); // Output writer
-
-        // (?<=;|\{)            :       Positive lookbehind to check that either ';' or '{' appear before match
-        // \s*(\w+)\s*          :       Check for any whitespace, a string of alpha numeric characters as group 1 the any whitespace
-        // *\[Weight[^;]*()\]   :       Find '[Weight' followed by a non-semi-colon then followed by (empty) group 2 (for insertion)
-        //                              followed by a '['. Check for no semi-colon ensures regex does not match multiple lines.
-        // [^;]*;"              :       Check for any amount of non-semi-colons followed by a ';'. This is required to ensure match
-        //                              does not occur across multiple lines.
-        Pattern nodePattern = Pattern.compile("(?<=;|\\{)\\s*(\\w+)\\s*\\[Weight[^;]*()\\][^;]*;");
-        Matcher m = nodePattern.matcher(streamText);
-
-        int characterIndexDifference = 0; // Records total number of characters inserted into StringBuilder in line following while loop.
-
-        while (m.find()) {
-            String nodeName = m.group(1); // Node label
-            Task task = schedule.findTask(graph.findByLabel(nodeName)); // Corresponding task to node label
-
-            // Create injection string from start time of task and associated processor index
-            String injectionString = String.format(", Start=%s, Processor=%s", task.getStartTime(), task.getProcessor() + 1);
-
-            // Inject string into group 2. m.start(2) finds the beginning of group 2 and characterIndexDifference is added because of
-            // increasing string length. As a result, spot we want to inject into gets continually 'bumped along' with each loop iteration.
-            outputText.insert(m.start(2) + characterIndexDifference, injectionString);
-
-            characterIndexDifference += injectionString.length(); // Increment variable by length of string we just injected.
-        }
-
-        // digraph\s*           :       Match 'digraph' followed by any amount of whitespace.
-        // \"()[^\"]*\"         :       '"' followed by empty open group (for insertion) followed by any amount of not '"', followed
-        //                              by a '"'. This is required to ensure a match does not occur across multiple lines.
-        Pattern headerPattern = Pattern.compile("digraph\\s*\\\"()[^\\\"]*\\\"");
-        m = headerPattern.matcher(outputText);
-
-        m.find();
-        int charIndex = m.start(1);
-
-        // Set first character of graph name to upper case. 'digraph title {' -> 'digraph Title {'
-        outputText.setCharAt(charIndex, Character.toUpperCase(outputText.charAt(charIndex)));
-        outputText.insert(charIndex, "output"); // Inject 'output' into space just before graph title. 'Title' -> 'outputTitle'
-
-        pw.write(outputText.toString());
-        pw.close();
+    public void setGraphAttribute(String name, String value) {
+        _graphAttributes.put(name, value);
     }
 
+    /**
+     * Method to write schedule out to .dot file. The output is written straight from the graph, with nodes and edges
+     * in the same order as when the graph was read, and whatever followed the closing brace kept. Each node has the
+     * start time and (1-indexed) processor of its task added to its attributes, and the graph name gains an 'output'
+     * prefix.
+     *
+     * Unlike when the input file was re-read and added to, the layout within the graph is always that of the sample
+     * input files (a tab before each statement, and one statement to a line), and anything the reader skips, such as
+     * comments or attributes other than Weight, is left out. So the output only matches the input byte for byte for
+     * files laid out like the samples.
+     * @param schedule the schedule to be written out to file
+     * @param graph the graph the schedule is for
+     */
+    @Override
+    public void write(Schedule schedule, Graph graph) {
+        // Look up every task up front, as finding tasks by node may not be quick for every type of schedule
+        int[] startTimes = new int[graph.size()];
+        int[] processors = new int[graph.size()];
+        for(int processor = 0; processor < schedule.getNumProcessors(); ++processor) {
+            for(Task task : schedule.getTasks(processor)) {
+                startTimes[task.getNode().getId()] = task.getStartTime();
+                processors[task.getNode().getId()] = processor;
+            }
+        }
 
-    private String convertStreamToString(InputStream inputStream) {
-
-        Scanner s = new Scanner(inputStream).useDelimiter("\\A");
-
-        return s.hasNext() ? s.next() : "";
-
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(_os, StandardCharsets.UTF_8));
+
+            // Set first character of graph name to upper case, and put 'output' in front. 'title' -> 'outputTitle'
+            String name = graph.getName();
+            if(!name.isEmpty())
+                name = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            writer.write("digraph \"output" + name + "\" {\n");
+            for(Map.Entry<String, String> attribute : _graphAttributes.entrySet()) {
+                writer.write('\t');
+                writer.write(attribute.getKey());
+                writer.write('=');
+                writer.write(attribute.getValue());
+                writer.write(";\n");
+            }
+
+            // Nodes and edges are interleaved as they were read
+            List<Edge> edges = graph.getAllEdges();
+            int edgeIndex = 0;
+            for(int id = 0; id <= graph.size(); ++id) {
+                for(; edgeIndex < edges.size() && graph.getEdgePosition(edgeIndex) <= id; ++edgeIndex) {
+                    Edge edge = edges.get(edgeIndex);
+                    writer.write('\t');
+                    writer.write(edge.getOriginNode().getLabel());
+                    writer.write(" -> ");
+                    writer.write(edge.getDestinationNode().getLabel());
+                    writer.write("\t [Weight=");
+                    writer.write(Integer.toString(edge.getCost()));
+                    writer.write("];\n");
+                }
+                if(id == graph.size())
+                    break;
+
+                Node node = graph.getNode(id);
+                writer.write('\t');
+                writer.write(node.getLabel());
+                writer.write("\t [Weight=");
+                writer.write(Integer.toString(node.getComputationCost()));
+                writer.write(", Start=");
+                writer.write(Integer.toString(startTimes[id]));
+                writer.write(", Processor=");
+                writer.write(Integer.toString(processors[id] + 1));
+                writer.write("];\n");
+            }
+
+            writer.write("}");
+            writer.write(graph.getEnding());
+            writer.close();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
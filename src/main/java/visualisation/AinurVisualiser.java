@@ -1,6 +1,7 @@
 package visualisation;
 
 import algorithm.Algorithm;
+import algorithm.SearchStats;
 import algorithm.TieredAlgorithm;
 import common.graph.Graph;
 import common.graph.Node;
@@ -146,8 +147,9 @@ public class AinurVisualiser extends VBox {
      */
     public void run() {
         _fastPoller = new Timeline(new KeyFrame(FAST_POLLING_DELAY, event -> {
-            _bounds.update(_algorithm.lowerBound(), _algorithm.getCurrentBest().getEndTime());
-            _statistics.update(_algorithm.branchesExplored(), _algorithm.branchesCulled());
+            SearchStats stats = _algorithm.getStats();
+            _bounds.update(stats.getLowerBound(), stats.getBestEndTime());
+            _statistics.update(stats.getExplored(), stats.getCulled());
             updateTimeLabel(Duration.millis(System.currentTimeMillis() - _startTime));
 
             updateGraphNodes();
@@ -199,8 +201,9 @@ public class AinurVisualiser extends VBox {
      */
     public void stop() {
         _schedule.update(_algorithm.getCurrentBest());
-        _bounds.update(_algorithm.lowerBound(), _algorithm.getCurrentBest().getEndTime());
-        _statistics.update(_algorithm.branchesExplored(), _algorithm.branchesCulled());
+        SearchStats stats = _algorithm.getStats();
+        _bounds.update(stats.getLowerBound(), stats.getBestEndTime());
+        _statistics.update(stats.getExplored(), stats.getCulled());
 
         _graph.stop();
         _finishedLabel.setVisible(true);
@@ -8,8 +8,6 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.RowConstraints;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 
@@ -72,19 +70,15 @@ public class StatisticsVisualiser extends GridPane {
      * @param spaceLookedAt Number of search space nodes explored
      * @param spaceCulled Number of search space nodes culled
      */
-    public void update(BigInteger spaceLookedAt, BigInteger spaceCulled) {
+    public void update(long spaceLookedAt, long spaceCulled) {
         NumberFormat numberFormat = new DecimalFormat("0.00E0");
 
         _branchesCoveredValue.setText(numberFormat.format(spaceLookedAt));
         _branchesCulledValue.setText(numberFormat.format(spaceCulled));
 
-        // Big integer division requires that you convert into decimals so as to not lose precision (as integer division does).
-        BigDecimal searchSpaceCulledAsBigDec = new BigDecimal(spaceCulled);
-        BigDecimal searchSpaceLookedAtAsBigDec = new BigDecimal(spaceLookedAt);
-
-        if (!searchSpaceLookedAtAsBigDec.equals(BigDecimal.ZERO)) { // We only want to divide if we know for sure the algorithm has some metrics for us
-            BigDecimal proportionCulled = searchSpaceCulledAsBigDec.divide(searchSpaceCulledAsBigDec.add(searchSpaceLookedAtAsBigDec), 5, BigDecimal.ROUND_HALF_UP);
-            _cullingRateValue.setText(NumberFormat.getPercentInstance().format(proportionCulled.floatValue() * 100));
+        if (spaceLookedAt != 0) { // We only want to divide if we know for sure the algorithm has some metrics for us
+            double proportionCulled = (double)spaceCulled / ((double)spaceCulled + spaceLookedAt);
+            _cullingRateValue.setText(NumberFormat.getPercentInstance().format(proportionCulled * 100));
         }
 
         NumberFormat format = NumberFormat.getIntegerInstance();
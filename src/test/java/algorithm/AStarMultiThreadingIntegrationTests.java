@@ -43,6 +43,19 @@ class AStarMultiThreadingIntegrationTests {
         Assert.assertTrue(Validator.isValid(graph, schedule));
     }
 
+    private void testWorkStealing(String graphName, int processors, int optimalScheduleLength) {
+        Graph graph = IntegrationTest.readGraph(graphName);
+
+        // 4 threads A star, sharing work with a ForkJoinPool
+        Algorithm algorithm = generateTieredAlgorithm(4, graph, processors, TieredAlgorithm.Mode.WORK_STEALING);
+        algorithm.run(graph, processors);
+
+        Schedule schedule = algorithm.getCurrentBest();
+
+        assertEquals(optimalScheduleLength, schedule.getEndTime()); // Check answer is optimal
+        assertTrue(Validator.isValid(graph, schedule)); // Check answer is valid
+    }
+
     private void test40Threads(String graphName, int processors, int optimalScheduleLength) {
         Graph graph = IntegrationTest.readGraph(graphName);
 
@@ -91,6 +104,7 @@ class AStarMultiThreadingIntegrationTests {
             new Pair<>("40 threads", new IntegrationTest(GraphSet.OLIVER(), this::test40Threads)),
             new Pair<>("2 threads", new IntegrationTest(GraphSet.OLIVER(), this::test2Threads)),
             new Pair<>("1 thread", new IntegrationTest(GraphSet.OLIVER(), this::test1Thread)),
+            new Pair<>("work stealing", new IntegrationTest(GraphSet.OLIVER(), this::testWorkStealing)),
             new Pair<>("comprehensive", new IntegrationTest(GraphSet.ALL_REASONABLE(), this::testOptimal))
         );
     }
@@ -100,6 +114,13 @@ class AStarMultiThreadingIntegrationTests {
      * @param threads : number of threads for tiered algorithm to run on.
      */
     private TieredAlgorithm generateTieredAlgorithm(int threads, Graph graph, int processors) {
+        return generateTieredAlgorithm(threads, graph, processors, TieredAlgorithm.Mode.SHARED_QUEUE);
+    }
+
+    /**
+     * Generates a tiered AStar algorithm with the specified number of threads and way of sharing work between them.
+     */
+    private TieredAlgorithm generateTieredAlgorithm(int threads, Graph graph, int processors, TieredAlgorithm.Mode mode) {
         GreedyAlgorithm greedyAlgorithm = new GreedyAlgorithm();
         greedyAlgorithm.run(graph, processors);
 
@@ -115,7 +136,8 @@ class AStarMultiThreadingIntegrationTests {
                 else
                     return new DFSAlgorithm(communicator, arborist, lowerBound, Integer.MAX_VALUE);
             },
-            greedyAlgorithm.getCurrentBest()
+            greedyAlgorithm.getCurrentBest(),
+            mode
         );
 
     }
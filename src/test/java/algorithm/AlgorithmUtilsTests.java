@@ -0,0 +1,109 @@
+package algorithm;
+
+import common.graph.Graph;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class AlgorithmUtilsTests {
+    /**
+     * Children of a fork are placed by when their data is ready, then by most expensive outgoing edge
+     */
+    @Test
+    public void testFixedOrderFork() {
+        Graph graph = new Graph.Builder()
+            .node("root", 2)
+            .node("a", 3)
+            .node("b", 1)
+            .node("c", 2)
+            .node("join", 1)
+            .edge("root", "a", 4)
+            .edge("root", "b", 1)
+            .edge("root", "c", 1)
+            .edge("a", "join", 1)
+            .edge("b", "join", 2)
+            .edge("c", "join", 5)
+            .build();
+        ArraySchedule schedule = new ArraySchedule(graph, 2);
+        schedule.addTask(new Task(0, 0, graph.findByLabel("root")));
+
+        assertSame(graph.findByLabel("c"), AlgorithmUtils.fixedOrderFirst(graph, schedule, new ReadySet(graph, schedule)));
+    }
+
+    /**
+     * Entry points with the same child can be placed in a fixed order if those with more expensive outgoing edges are
+     * never ready later
+     */
+    @Test
+    public void testFixedOrderJoin() {
+        Graph graph = new Graph.Builder()
+            .node("a", 2)
+            .node("b", 2)
+            .node("join", 1)
+            .edge("a", "join", 1)
+            .edge("b", "join", 3)
+            .build();
+        ArraySchedule schedule = new ArraySchedule(graph, 2);
+
+        assertSame(graph.findByLabel("b"), AlgorithmUtils.fixedOrderFirst(graph, schedule, new ReadySet(graph, schedule)));
+    }
+
+    /**
+     * Ready nodes with different children, parents on different processors, or whose outgoing edges aren't in order
+     * can't be placed in a fixed order
+     */
+    @Test
+    public void testNoFixedOrder() {
+        Graph graph = new Graph.Builder()
+            .node("x", 1)
+            .node("y", 1)
+            .node("a", 2)
+            .node("b", 2)
+            .node("join", 1)
+            .node("other", 1)
+            .edge("x", "a", 1)
+            .edge("y", "b", 3)
+            .edge("a", "join", 1)
+            .edge("b", "join", 4)
+            .build();
+
+        ArraySchedule schedule = new ArraySchedule(graph, 2);
+        assertNull(AlgorithmUtils.fixedOrderFirst(graph, schedule, new ReadySet(graph, schedule)));
+
+        // b is ready later than a but has the more expensive outgoing edge
+        schedule.addTask(new Task(0, 0, graph.findByLabel("x")));
+        schedule.addTask(new Task(0, 1, graph.findByLabel("y")));
+        schedule.addTask(new Task(1, 0, graph.findByLabel("other")));
+        assertNull(AlgorithmUtils.fixedOrderFirst(graph, schedule, new ReadySet(graph, schedule)));
+
+        // Parents on different processors
+        schedule = new ArraySchedule(graph, 2);
+        schedule.addTask(new Task(0, 0, graph.findByLabel("x")));
+        schedule.addTask(new Task(1, 0, graph.findByLabel("y")));
+        schedule.addTask(new Task(1, 1, graph.findByLabel("other")));
+        assertNull(AlgorithmUtils.fixedOrderFirst(graph, schedule, new ReadySet(graph, schedule)));
+    }
+
+    /**
+     * Nothing can be placed out of order of start time if something already placed could start after the join
+     */
+    @Test
+    public void testFixedOrderAfterLaterTask() {
+        Graph graph = new Graph.Builder()
+            .node("a", 1)
+            .node("b", 1)
+            .node("join", 1)
+            .node("long", 1)
+            .edge("a", "join", 2)
+            .edge("b", "join", 1)
+            .build();
+        ArraySchedule schedule = new ArraySchedule(graph, 2);
+        schedule.addTask(new Task(0, 10, graph.findByLabel("long")));
+
+        assertNull(AlgorithmUtils.fixedOrderFirst(graph, schedule, new ReadySet(graph, schedule)));
+    }
+}
@@ -0,0 +1,201 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import common.graph.Graph;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+import common.schedule.Task;
+import integration.IntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checkpoints should hold everything needed to carry on a search, so that it finds the same optimal schedule
+ */
+public class CheckpointTests {
+    private static final int PROCESSORS = 2;
+    private static final int OPTIMAL = 350;
+
+    private final Graph _graph = IntegrationTest.readGraph(Paths.get("data", "graphs", "Nodes_11_OutTree.dot").toString());
+    private final Arborist _arborist = DefaultHeuristics.arborist();
+
+    /**
+     * A lower bound that, after it has been asked for a number of estimates, takes a checkpoint of the search from
+     * another thread and then stops it
+     */
+    private static class CheckpointingBound implements LowerBound {
+        private final LowerBound    _bound = DefaultHeuristics.lowerBound();
+        private final AtomicInteger _estimatesLeft;
+        private final AtomicReference<Checkpoint> _checkpoint = new AtomicReference<>();
+        private TieredAlgorithm     _algorithm;
+        private Thread              _checkpointer;
+
+        private CheckpointingBound(int estimates) {
+            _estimatesLeft = new AtomicInteger(estimates);
+        }
+
+        @Override
+        public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
+            if(_estimatesLeft.decrementAndGet() == 0) {
+                _checkpointer = new Thread(() -> {
+                    try {
+                        _checkpoint.set(_algorithm.checkpoint(10000));
+                    } catch(InterruptedException ignored) {
+                    }
+                    _algorithm.stop();
+                });
+                _checkpointer.start();
+            }
+            return _bound.estimate(graph, schedule, nodesToVisit);
+        }
+    }
+
+    private TieredAlgorithm dfs(LowerBound lowerBound) {
+        return new TieredAlgorithm(1,
+            (tier, communicator) -> new DFSAlgorithm(communicator, _arborist, lowerBound, Integer.MAX_VALUE),
+            TieredAlgorithm.Mode.WORK_STEALING).enableCheckpoints();
+    }
+
+    private TieredAlgorithm aStar(LowerBound lowerBound) {
+        return new TieredAlgorithm(1,
+            (tier, communicator) -> new AStarAlgorithm(communicator, _arborist, lowerBound),
+            TieredAlgorithm.Mode.WORK_STEALING).enableCheckpoints();
+    }
+
+    private TieredAlgorithm tiered(LowerBound lowerBound, TieredAlgorithm.Mode mode) {
+        return new TieredAlgorithm(2,
+            (tier, communicator) -> tier == 0
+                ? new DFSAlgorithm(communicator, _arborist, lowerBound, 3)
+                : new AStarAlgorithm(communicator, _arborist, lowerBound),
+            mode).enableCheckpoints();
+    }
+
+    private interface TieredFactory {
+        TieredAlgorithm create(LowerBound lowerBound);
+    }
+
+    /**
+     * Checkpoints a search part way through, writes and reads back the checkpoint, then carries on from it
+     */
+    private void testResume(TieredFactory factory) throws Exception {
+        CheckpointingBound bound = new CheckpointingBound(200);
+        TieredAlgorithm first = factory.create(bound);
+        bound._algorithm = first;
+        first.run(_graph, PROCESSORS);
+        bound._checkpointer.join();
+
+        Checkpoint checkpoint = bound._checkpoint.get();
+        assertNotNull(checkpoint);
+        assertTrue(checkpoint.lowerBound() <= OPTIMAL);
+
+        Path file = Files.createTempFile("checkpoint", ".bin");
+        try {
+            checkpoint.write(file);
+            checkpoint = Checkpoint.read(file, _graph, PROCESSORS);
+        } finally {
+            Files.delete(file);
+        }
+
+        TieredAlgorithm second = factory.create(DefaultHeuristics.lowerBound());
+        second.run(_graph, PROCESSORS, checkpoint);
+        assertEquals(OPTIMAL, second.getCurrentBest().getEndTime());
+        assertEquals(OPTIMAL, second.lowerBound());
+        assertTrue(second.getStats().getExplored() >= checkpoint.getStats().getExplored());
+    }
+
+    @Test
+    public void testResumeDFS() throws Exception {
+        testResume(this::dfs);
+    }
+
+    @Test
+    public void testResumeAStar() throws Exception {
+        testResume(this::aStar);
+    }
+
+    @Test
+    public void testResumeWorkStealing() throws Exception {
+        testResume(lowerBound -> tiered(lowerBound, TieredAlgorithm.Mode.WORK_STEALING));
+    }
+
+    @Test
+    public void testResumeSharedQueue() throws Exception {
+        testResume(lowerBound -> tiered(lowerBound, TieredAlgorithm.Mode.SHARED_QUEUE));
+    }
+
+    /**
+     * Without checkpoints enabled nothing is kept for them, so none can be taken, but the search still finishes
+     */
+    @Test
+    public void testCheckpointsDisabled() throws Exception {
+        CheckpointingBound bound = new CheckpointingBound(200);
+        TieredAlgorithm algorithm = new TieredAlgorithm(2,
+            (tier, communicator) -> new DFSAlgorithm(communicator, _arborist, bound, tier == 0 ? 3 : Integer.MAX_VALUE),
+            TieredAlgorithm.Mode.WORK_STEALING);
+        bound._algorithm = algorithm;
+        algorithm.run(_graph, PROCESSORS);
+        bound._checkpointer.join();
+
+        assertNull(bound._checkpoint.get());
+        assertTrue(algorithm.lowerBound() <= OPTIMAL);
+    }
+
+    /**
+     * A checkpoint should be read back exactly as it was written, and only for the search it was taken of
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        Graph graph = new Graph.Builder()
+            .name("small")
+            .node("a", 2)
+            .node("b", 3)
+            .edge("a", "b", 1)
+            .build();
+
+        ArraySchedule best = new ArraySchedule(graph, PROCESSORS);
+        best.addTask(new Task(0, 0, graph.findByLabel("a")));
+        best.addTask(new Task(0, 2, graph.findByLabel("b")));
+
+        Checkpoint checkpoint = new Checkpoint(graph, PROCESSORS);
+        checkpoint.setIncumbent(best);
+        checkpoint.setStats(new SearchStats(new long[] { 1, 4 }, 3, 2, 5, 0));
+        Checkpoint.Frontier frontier = checkpoint.addFrontier(false);
+        int a = frontier.addState(Checkpoint.Frontier.ROOT, new Task(1, 0, graph.findByLabel("a")));
+        frontier.addItem(a, 7);
+        frontier.addItem(Checkpoint.Frontier.ROOT, 4);
+
+        Path file = Files.createTempFile("checkpoint", ".bin");
+        try {
+            checkpoint.write(file);
+            Checkpoint read = Checkpoint.read(file, graph, PROCESSORS);
+
+            assertEquals(5, read.getIncumbent(graph).getEndTime());
+            assertEquals(4, read.getStats().getExplored(1));
+            assertEquals(3, read.getStats().getCulled());
+            assertEquals(2, read.getStats().getFixedOrder());
+            assertEquals(4, read.lowerBound());
+
+            Checkpoint.Frontier readFrontier = read.getFrontiers().get(0);
+            assertFalse(readFrontier.isQueue());
+            assertEquals(2, readFrontier.size());
+            assertEquals(7, readFrontier.getLowerBound(0));
+            assertEquals(1, readFrontier.getSchedule(graph, 0).getProcessor(graph.findByLabel("a")));
+            assertEquals(0, readFrontier.getSchedule(graph, 1).size());
+
+            assertThrows(IllegalArgumentException.class, () -> Checkpoint.read(file, graph, PROCESSORS + 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
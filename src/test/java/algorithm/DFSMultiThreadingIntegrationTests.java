@@ -25,6 +25,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class DFSMultiThreadingIntegrationTests {
 
     protected void testOptimal(String graphName, int processors, int optimalScheduleLength) {
+        testOptimal(graphName, processors, optimalScheduleLength, TieredAlgorithm.Mode.SHARED_QUEUE);
+    }
+    protected void testWorkStealing(String graphName, int processors, int optimalScheduleLength) {
+        testOptimal(graphName, processors, optimalScheduleLength, TieredAlgorithm.Mode.WORK_STEALING);
+    }
+    private void testOptimal(String graphName, int processors, int optimalScheduleLength, TieredAlgorithm.Mode mode) {
         Graph graph = IntegrationTest.readGraph(graphName);
 
         // Execute algorithm w/ all heuristics
@@ -38,7 +44,8 @@ public class DFSMultiThreadingIntegrationTests {
                 DefaultHeuristics.lowerBound(),
                 tier == 0 ? 8 : Integer.MAX_VALUE
             ),
-            greedyAlgorithm.getCurrentBest()
+            greedyAlgorithm.getCurrentBest(),
+            mode
         );
 
         algorithm.run(graph, processors);
@@ -71,6 +78,7 @@ public class DFSMultiThreadingIntegrationTests {
     List<DynamicContainer> generateTests() {
         return IntegrationTest.join(
             new Pair<>("optimal", new IntegrationTest(GraphSet.ALL_REASONABLE(), this::testOptimal)),
+            new Pair<>("work stealing", new IntegrationTest(GraphSet.ALL_REASONABLE(), this::testWorkStealing)),
             new Pair<>("unoptimal", new IntegrationTest(GraphSet.OLIVER(10), this::testUnoptimal))
         );
     }
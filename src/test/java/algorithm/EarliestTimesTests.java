@@ -0,0 +1,74 @@
+package algorithm;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Task;
+import integration.IntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class EarliestTimesTests {
+    private static final int PROCESSORS = 3;
+
+    private final Graph _graph = IntegrationTest.readGraph(Paths.get("data", "graphs", "Nodes_10_Random.dot").toString());
+
+    private void assertSameTimes(ArraySchedule schedule, ReadySet ready, EarliestTimes earliestTimes) {
+        int[] nextStarts = new int[PROCESSORS];
+        Arrays.fill(nextStarts, Integer.MAX_VALUE);
+
+        for(Node node : ready) {
+            int[] expected = AlgorithmUtils.calculateEarliestTimes(_graph, schedule, node);
+            for(int processor = 0; processor < PROCESSORS; ++processor) {
+                assertEquals(expected[processor], earliestTimes.get(node, processor));
+                nextStarts[processor] = Math.min(nextStarts[processor], expected[processor]);
+            }
+            assertEquals(AlgorithmUtils.calculateEarliestStart(_graph, schedule, node), earliestTimes.getEarliest(node));
+        }
+
+        for(int processor = 0; processor < PROCESSORS; ++processor)
+            assertEquals(nextStarts[processor], earliestTimes.getNextStart(processor));
+    }
+
+    /**
+     * The times for a schedule with any task added should be the same as working them out for that schedule,
+     * including for the nodes the task makes ready
+     */
+    @Test
+    public void testAfter() {
+        ArraySchedule schedule = new ArraySchedule(_graph, PROCESSORS);
+        ReadySet ready = new ReadySet(_graph);
+
+        // Place nodes in the first ready order, going round the processors, trying every other task on the way
+        for(int step = 0; ready.size() > 0; ++step) {
+            EarliestTimes earliestTimes = new EarliestTimes(_graph, schedule, ready);
+            assertSameTimes(schedule, ready, earliestTimes);
+
+            List<Node> nodes = new ArrayList<>();
+            ready.forEach(nodes::add);
+            for(Node node : nodes) {
+                for(int processor = 0; processor < PROCESSORS; ++processor) {
+                    Task task = new Task(processor, earliestTimes.get(node, processor), node);
+                    schedule.addTask(task);
+                    ready.add(node);
+                    assertSameTimes(schedule, ready, earliestTimes.after(task));
+                    ready.remove(node);
+                    schedule.removeTask(task);
+                }
+            }
+
+            Node node = ready.first();
+            int processor = step % PROCESSORS;
+            schedule.addTask(new Task(processor, earliestTimes.get(node, processor), node));
+            ready.add(node);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import common.Validator;
+import common.graph.Graph;
+import common.schedule.Schedule;
+import integration.GraphSet;
+import integration.IntegrationTest;
+import javafx.util.Pair;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs thorough test suite for IDA* on giant data set, both on its own and in place of A* in a tiered algorithm.
+ */
+@Tag("gandalf") // Gandalf tests may be slow, but they finish precisely when they mean to
+class IDAStarIntegrationTests {
+
+    private void testOptimalIDAStar(String graphName, int processors, int optimalScheduleLength) {
+        Algorithm algorithm = new IDAStarAlgorithm(DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound());
+
+        Graph graph = IntegrationTest.readGraph(graphName);
+
+        algorithm.run(graph, processors);
+        Schedule schedule = algorithm.getCurrentBest();
+
+        assertEquals(optimalScheduleLength, schedule.getEndTime());
+        assertEquals(optimalScheduleLength, algorithm.lowerBound());
+        assertTrue(Validator.isValid(graph, schedule));
+    }
+
+    private void testTiered(String graphName, int processors, int optimalScheduleLength) {
+        Graph graph = IntegrationTest.readGraph(graphName);
+
+        GreedyAlgorithm greedyAlgorithm = new GreedyAlgorithm();
+        greedyAlgorithm.run(graph, processors);
+
+        Arborist arborist = DefaultHeuristics.arborist();
+        LowerBound lowerBound = DefaultHeuristics.lowerBound();
+
+        // IDA* on the tiers where A* would normally be
+        Algorithm algorithm = new TieredAlgorithm(4,
+            (tier, communicator) -> {
+                if(tier == 0)
+                    return new DFSAlgorithm(communicator, arborist, lowerBound, Math.min(4, graph.size()));
+                else
+                    return new IDAStarAlgorithm(communicator, arborist, lowerBound);
+            },
+            greedyAlgorithm.getCurrentBest(),
+            TieredAlgorithm.Mode.WORK_STEALING
+        );
+        algorithm.run(graph, processors);
+        Schedule schedule = algorithm.getCurrentBest();
+
+        assertEquals(optimalScheduleLength, schedule.getEndTime());
+        assertTrue(Validator.isValid(graph, schedule));
+    }
+
+    @TestFactory
+    List<DynamicContainer> generateTests() {
+        return IntegrationTest.join(
+            new Pair<>("tiered", new IntegrationTest(GraphSet.OLIVER(), this::testTiered)),
+            new Pair<>("comprehensive", new IntegrationTest(GraphSet.ALL_REASONABLE(), this::testOptimalIDAStar))
+        );
+    }
+}
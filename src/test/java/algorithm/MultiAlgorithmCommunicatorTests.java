@@ -0,0 +1,92 @@
+package algorithm;
+
+import common.graph.Graph;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiAlgorithmCommunicatorTests {
+    private final Graph _graph = new Graph.Builder().node("a", 1).build();
+
+    private SimpleSchedule scheduleEndingAt(int endTime) {
+        SimpleSchedule schedule = new SimpleSchedule(1);
+        schedule.addTask(new Task(0, endTime - 1, _graph.findByLabel("a")));
+        return schedule;
+    }
+
+    /**
+     * Only schedules that are better than the current best should replace it
+     */
+    @Test
+    public void testUpdate() {
+        MultiAlgorithmCommunicator communicator = new MultiAlgorithmCommunicator();
+        assertEquals(Integer.MAX_VALUE, communicator.getCurrentBestEndTime());
+
+        SimpleSchedule ten = scheduleEndingAt(10);
+        assertTrue(communicator.update(ten));
+        assertFalse(communicator.update(scheduleEndingAt(10)));
+        assertFalse(communicator.update(scheduleEndingAt(12)));
+        assertSame(ten, communicator.getCurrentBest());
+        assertEquals(10, communicator.getCurrentBestEndTime());
+    }
+
+    /**
+     * However many threads race to update it, the best schedule should be the one that ends up published
+     */
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        MultiAlgorithmCommunicator communicator = new MultiAlgorithmCommunicator();
+
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < 8; ++i) {
+            int offset = i;
+            threads.add(new Thread(() -> {
+                for(int endTime = 1000 + offset; endTime > 10; endTime -= 8)
+                    communicator.update(scheduleEndingAt(endTime));
+            }));
+        }
+        for(Thread thread : threads)
+            thread.start();
+        for(Thread thread : threads)
+            thread.join();
+
+        assertEquals(11, communicator.getCurrentBestEndTime());
+        assertEquals(11, communicator.getCurrentBest().getEndTime());
+    }
+
+    /**
+     * Once stopped, a communicator should stay stopped
+     */
+    @Test
+    public void testStop() {
+        MultiAlgorithmCommunicator communicator = new MultiAlgorithmCommunicator();
+        assertFalse(communicator.isStopped());
+
+        communicator.stop();
+        assertTrue(communicator.isStopped());
+        communicator.stop();
+        assertTrue(communicator.isStopped());
+    }
+
+    /**
+     * Each thread should get its own transposition table, and the same one every time it asks
+     */
+    @Test
+    public void testTranspositionTablePerThread() throws InterruptedException {
+        MultiAlgorithmCommunicator communicator = new MultiAlgorithmCommunicator();
+        TranspositionTable table = communicator.getTranspositionTable();
+        assertSame(table, communicator.getTranspositionTable());
+
+        List<TranspositionTable> other = new ArrayList<>();
+        Thread thread = new Thread(() -> other.add(communicator.getTranspositionTable()));
+        thread.start();
+        thread.join();
+        assertNotSame(table, other.get(0));
+        assertNotSame(table, new MultiAlgorithmCommunicator().getTranspositionTable());
+    }
+}
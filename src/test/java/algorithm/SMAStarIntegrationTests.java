@@ -0,0 +1,50 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import common.Validator;
+import common.graph.Graph;
+import common.schedule.Schedule;
+import integration.GraphSet;
+import integration.IntegrationTest;
+import javafx.util.Pair;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs thorough test suite for SMA* on giant data set, both with plenty of memory and with so little that it has to
+ * keep forgetting schedules. The smallest graphs are also run with fewer schedules than they have nodes.
+ */
+@Tag("gandalf") // Gandalf tests may be slow, but they finish precisely when they mean to
+class SMAStarIntegrationTests {
+
+    private void testOptimal(String graphName, int processors, int optimalScheduleLength, int maxSchedules) {
+        Algorithm algorithm = new SMAStarAlgorithm(DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound(),
+            maxSchedules);
+
+        Graph graph = IntegrationTest.readGraph(graphName);
+
+        algorithm.run(graph, processors);
+        Schedule schedule = algorithm.getCurrentBest();
+
+        assertEquals(optimalScheduleLength, schedule.getEndTime());
+        assertEquals(optimalScheduleLength, algorithm.lowerBound());
+        assertTrue(Validator.isValid(graph, schedule));
+    }
+
+    @TestFactory
+    List<DynamicContainer> generateTests() {
+        return IntegrationTest.join(
+            new Pair<>("comprehensive", new IntegrationTest(GraphSet.ALL_REASONABLE(),
+                (graph, processors, optimal) -> testOptimal(graph, processors, optimal, SMAStarAlgorithm.DEFAULT_MAX_SCHEDULES))),
+            new Pair<>("low memory", new IntegrationTest(GraphSet.ALL_REASONABLE(),
+                (graph, processors, optimal) -> testOptimal(graph, processors, optimal, 200))),
+            new Pair<>("less memory than nodes", new IntegrationTest(GraphSet.OLIVER(8),
+                (graph, processors, optimal) -> testOptimal(graph, processors, optimal, 4)))
+        );
+    }
+}
@@ -0,0 +1,125 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import common.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchCountersTests {
+    /**
+     * Snapshots should hold the counts made so far, and not change afterwards
+     */
+    @Test
+    public void testSnapshot() {
+        SearchCounters counters = new SearchCounters();
+        counters.explored(1);
+        counters.explored(3);
+        counters.explored(3);
+        counters.culled();
+        counters.culled(4);
+        counters.transposition(true);
+        counters.transposition(false);
+        counters.transposition(false);
+
+        SearchStats stats = counters.snapshot(20, 10);
+        counters.explored(2);
+        counters.culled();
+
+        assertEquals(3, stats.getExplored());
+        assertEquals(0, stats.getExplored(0));
+        assertEquals(1, stats.getExplored(1));
+        assertEquals(0, stats.getExplored(2));
+        assertEquals(2, stats.getExplored(3));
+        assertEquals(0, stats.getExplored(100));
+        assertEquals(5, stats.getCulled());
+        assertEquals(1, stats.getTranspositionHits());
+        assertEquals(2, stats.getTranspositionMisses());
+        assertEquals(20, stats.getBestEndTime());
+        assertEquals(10, stats.getLowerBound());
+
+        assertEquals(4, counters.snapshot(20, 10).getExplored());
+    }
+
+    /**
+     * No counts should go missing when many threads count at once, even while the depths are still growing
+     */
+    @Test
+    public void testConcurrentCounts() throws InterruptedException {
+        SearchCounters counters = new SearchCounters();
+
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < 8; ++i) {
+            threads.add(new Thread(() -> {
+                for(int count = 0; count < 10000; ++count) {
+                    counters.explored(count % 50);
+                    counters.culled();
+                }
+            }));
+        }
+        for(Thread thread : threads)
+            thread.start();
+        for(Thread thread : threads)
+            thread.join();
+
+        SearchStats stats = counters.snapshot(0, 0);
+        assertEquals(80000, stats.getExplored());
+        assertEquals(80000, stats.getCulled());
+        for(int depth = 0; depth < 50; ++depth)
+            assertEquals(1600, stats.getExplored(depth));
+    }
+
+    /**
+     * The explored counts at each depth should add up to the total the algorithm reports
+     */
+    @Test
+    public void testAlgorithmStats() {
+        Graph graph = new Graph.Builder()
+            .node("a", 2).node("b", 3).node("c", 1).node("d", 2)
+            .edge("a", "b", 1).edge("a", "c", 2).edge("b", "d", 1).edge("c", "d", 1)
+            .build();
+
+        DFSAlgorithm algorithm = new DFSAlgorithm(DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound());
+        algorithm.run(graph, 2);
+
+        SearchStats stats = algorithm.getStats();
+        long sum = 0;
+        for(int depth = 0; depth < stats.getDepths(); ++depth)
+            sum += stats.getExplored(depth);
+
+        assertTrue(stats.getExplored() > 0);
+        assertEquals(stats.getExplored(), sum);
+        assertEquals(algorithm.branchesExplored().longValue(), stats.getExplored());
+        assertEquals(algorithm.branchesCulled().longValue(), stats.getCulled());
+        assertEquals(algorithm.getCurrentBest().getEndTime(), stats.getBestEndTime());
+        // Every branch explored was looked up in the transposition table first
+        assertEquals(stats.getExplored(), stats.getTranspositionMisses());
+    }
+
+    /**
+     * DFSs run one after another on the same thread and communicator should share a transposition table, so a second
+     * search of the same schedules skips them
+     */
+    @Test
+    public void testSharedTranspositionTable() {
+        Graph graph = new Graph.Builder()
+            .node("a", 2).node("b", 3).node("c", 1).node("d", 2)
+            .edge("a", "b", 1).edge("a", "c", 2).edge("b", "d", 1).edge("c", "d", 1)
+            .build();
+        MultiAlgorithmCommunicator communicator = new MultiAlgorithmCommunicator();
+
+        new DFSAlgorithm(communicator, DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound(), Integer.MAX_VALUE)
+            .run(graph, 2);
+        SearchStats first = communicator.getStats(0);
+        assertEquals(0, first.getTranspositionHits());
+
+        new DFSAlgorithm(communicator, DefaultHeuristics.arborist(), DefaultHeuristics.lowerBound(), Integer.MAX_VALUE)
+            .run(graph, 2);
+        SearchStats both = communicator.getStats(0);
+        assertTrue(both.getTranspositionHits() > 0);
+        assertEquals(first.getExplored(), both.getExplored());
+    }
+}
@@ -0,0 +1,156 @@
+package algorithm;
+
+import algorithm.heuristics.DefaultHeuristics;
+import algorithm.heuristics.lowerbound.LowerBound;
+import algorithm.heuristics.pruner.Arborist;
+import common.graph.Graph;
+import common.schedule.ReadySet;
+import common.schedule.Schedule;
+import integration.IntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Algorithms should stop when asked, leaving the best schedule found so far and a lower bound that is still correct
+ */
+public class StoppingTests {
+    private static final int PROCESSORS = 2;
+    private static final int OPTIMAL = 350;
+
+    private final Graph _graph = IntegrationTest.readGraph(Paths.get("data", "graphs", "Nodes_11_OutTree.dot").toString());
+    private final Arborist _arborist = DefaultHeuristics.arborist();
+
+    /**
+     * A lower bound that stops an algorithm after it has been asked for a number of estimates, so that algorithms
+     * can be stopped at the same point in their search every time
+     */
+    private static class StoppingBound implements LowerBound {
+        private final LowerBound    _bound = DefaultHeuristics.lowerBound();
+        private final AtomicInteger _estimatesLeft;
+        private Algorithm           _algorithm;
+
+        private StoppingBound(int estimates) {
+            _estimatesLeft = new AtomicInteger(estimates);
+        }
+
+        @Override
+        public int estimate(Graph graph, Schedule schedule, ReadySet nodesToVisit) {
+            if(_estimatesLeft.decrementAndGet() == 0)
+                _algorithm.stop();
+            return _bound.estimate(graph, schedule, nodesToVisit);
+        }
+    }
+
+    private Schedule greedy() {
+        GreedyAlgorithm greedy = new GreedyAlgorithm();
+        greedy.run(_graph, PROCESSORS);
+        return greedy.getCurrentBest();
+    }
+
+    private Algorithm dfs(LowerBound lowerBound) {
+        return new DFSAlgorithm(_arborist, lowerBound, greedy());
+    }
+
+    private Algorithm aStar(LowerBound lowerBound) {
+        return new AStarAlgorithm(_arborist, lowerBound);
+    }
+
+    private Algorithm idaStar(LowerBound lowerBound) {
+        return new IDAStarAlgorithm(_arborist, lowerBound, greedy());
+    }
+
+    private Algorithm smaStar(LowerBound lowerBound) {
+        return new SMAStarAlgorithm(_arborist, lowerBound, 20);
+    }
+
+    private Algorithm tiered(LowerBound lowerBound, TieredAlgorithm.Mode mode) {
+        return new TieredAlgorithm(2,
+            (tier, communicator) -> tier == 0
+                ? new DFSAlgorithm(communicator, _arborist, lowerBound, 3)
+                : new AStarAlgorithm(communicator, _arborist, lowerBound),
+            greedy(),
+            mode
+        );
+    }
+
+    /**
+     * Stops the given algorithm after a number of estimates, then checks what it leaves behind
+     */
+    private void testStopsAfter(int estimates, Function<LowerBound, Algorithm> create) {
+        StoppingBound bound = new StoppingBound(estimates);
+        Algorithm algorithm = create.apply(bound);
+        bound._algorithm = algorithm;
+
+        algorithm.run(_graph, PROCESSORS);
+
+        int bestEndTime = algorithm.getCurrentBest().getEndTime();
+        assertTrue(bestEndTime >= OPTIMAL);
+        assertTrue(algorithm.lowerBound() <= OPTIMAL);
+        assertTrue(algorithm.lowerBound() < bestEndTime); // It can't have proved anything so soon
+        assertEquals(algorithm.lowerBound(), algorithm.getStats().getLowerBound());
+    }
+
+    /**
+     * Runs the given algorithm to the end, which should leave it with a lower bound of the optimal schedule's length
+     */
+    private void testFinishes(Function<LowerBound, Algorithm> create) {
+        Algorithm algorithm = create.apply(DefaultHeuristics.lowerBound());
+        algorithm.run(_graph, PROCESSORS);
+
+        assertEquals(OPTIMAL, algorithm.getCurrentBest().getEndTime());
+        assertEquals(OPTIMAL, algorithm.lowerBound());
+    }
+
+    @Test
+    public void testStopBeforeRunning() {
+        Schedule greedy = greedy();
+        Algorithm algorithm = new DFSAlgorithm(_arborist, DefaultHeuristics.lowerBound(), greedy);
+        algorithm.stop();
+        algorithm.run(_graph, PROCESSORS);
+
+        assertSame(greedy, algorithm.getCurrentBest());
+        assertTrue(algorithm.lowerBound() <= OPTIMAL);
+        assertEquals(0, algorithm.getStats().getExplored());
+    }
+
+    @Test
+    public void testStopDFS() {
+        testStopsAfter(50, this::dfs);
+        testFinishes(this::dfs);
+    }
+
+    @Test
+    public void testStopAStar() {
+        testStopsAfter(50, this::aStar);
+        testFinishes(this::aStar);
+    }
+
+    @Test
+    public void testStopIDAStar() {
+        testStopsAfter(50, this::idaStar);
+        testFinishes(this::idaStar);
+    }
+
+    @Test
+    public void testStopSMAStar() {
+        testStopsAfter(50, this::smaStar);
+        testFinishes(this::smaStar);
+    }
+
+    @Test
+    public void testStopTiered() {
+        testStopsAfter(50, bound -> tiered(bound, TieredAlgorithm.Mode.SHARED_QUEUE));
+        testFinishes(bound -> tiered(bound, TieredAlgorithm.Mode.SHARED_QUEUE));
+    }
+
+    @Test
+    public void testStopTieredWorkStealing() {
+        testStopsAfter(50, bound -> tiered(bound, TieredAlgorithm.Mode.WORK_STEALING));
+        testFinishes(bound -> tiered(bound, TieredAlgorithm.Mode.WORK_STEALING));
+    }
+}
@@ -0,0 +1,109 @@
+package algorithm.heuristics;
+
+import algorithm.heuristics.pruner.Arborist;
+import algorithm.heuristics.pruner.CombinedArborist;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.Schedule;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CombinedArboristTests {
+    private static final int CALLS = 20000;
+
+    private Node node = new Node(1, "a", 0);
+    private Arborist never = (graph, schedule, toBeAdded) -> false;
+    private Arborist always = (graph, schedule, toBeAdded) -> true;
+    private Arborist evenStarts = (graph, schedule, toBeAdded) -> toBeAdded.getStartTime() % 2 == 0;
+    private Arborist fiveStarts = (graph, schedule, toBeAdded) -> toBeAdded.getStartTime() % 5 == 0;
+
+    /**
+     * However the arborists get reordered, tasks should be pruned if any of them says to
+     */
+    @Test
+    public void testPrunesIfAny() {
+        CombinedArborist arborist = Arborist.combine(never, evenStarts, fiveStarts);
+        SimpleSchedule schedule = new SimpleSchedule(2);
+
+        for(int start = 0; start < CALLS; ++start)
+            assertEquals(start % 2 == 0 || start % 5 == 0, arborist.prune(null, schedule, new Task(0, start, node)));
+    }
+
+    /**
+     * An arborist that always prunes should end up being asked first, so the others are rarely asked
+     */
+    @Test
+    public void testReorders() {
+        CombinedArborist arborist = Arborist.combine(never, evenStarts, always);
+        SimpleSchedule schedule = new SimpleSchedule(2);
+
+        for(int start = 0; start < CALLS; ++start)
+            assertTrue(arborist.prune(null, schedule, new Task(0, start, node)));
+
+        List<CombinedArborist.Statistics> statistics = arborist.getStatistics();
+        assertSame(never, statistics.get(0).getArborist());
+        assertSame(always, statistics.get(2).getArborist());
+
+        // Every call was pruned by exactly one of them
+        long hits = 0;
+        for(CombinedArborist.Statistics arboristStatistics : statistics)
+            hits += arboristStatistics.getHits();
+        assertEquals(CALLS, hits);
+
+        assertEquals(0, statistics.get(0).getHits());
+        assertEquals(1.0, statistics.get(2).getHitRate());
+        assertTrue(statistics.get(0).getCalls() < CALLS / 2);
+    }
+
+    /**
+     * Each thread reorders its own arborists, but the statistics should count every thread's calls
+     */
+    @Test
+    public void testCountsEveryThread() throws InterruptedException {
+        CombinedArborist arborist = Arborist.combine(evenStarts, never);
+        SimpleSchedule schedule = new SimpleSchedule(2);
+
+        Runnable pruneAll = () -> {
+            for(int start = 0; start < CALLS; ++start)
+                arborist.prune(null, schedule, new Task(0, start, node));
+        };
+        Thread other = new Thread(pruneAll);
+        other.start();
+        pruneAll.run();
+        other.join();
+
+        List<CombinedArborist.Statistics> statistics = arborist.getStatistics();
+        assertEquals(2 * CALLS, statistics.get(0).getCalls());
+        assertEquals(CALLS, statistics.get(0).getHits());
+        assertEquals(0, statistics.get(1).getHits());
+    }
+
+    @Test
+    public void testForwardsPruneNode() {
+        Arborist prunesNodes = new Arborist() {
+            @Override
+            public boolean prune(Graph graph, Schedule schedule, Task toBeAdded) {
+                return true;
+            }
+
+            @Override
+            public boolean pruneNode(Graph graph, Schedule schedule, Node node) {
+                return true;
+            }
+        };
+        SimpleSchedule schedule = new SimpleSchedule(2);
+
+        assertFalse(Arborist.combine(never, evenStarts).pruneNode(null, schedule, node));
+
+        CombinedArborist arborist = Arborist.combine(never, prunesNodes);
+        assertTrue(arborist.pruneNode(null, schedule, node));
+        assertEquals(1, arborist.getStatistics().get(0).getNodeCalls());
+        assertEquals(1, arborist.getStatistics().get(1).getNodeHits());
+    }
+}
@@ -2,18 +2,14 @@ package algorithm.heuristics;
 
 import algorithm.heuristics.lowerbound.CriticalPath;
 import algorithm.heuristics.lowerbound.LowerBound;
-import common.graph.Edge;
 import common.graph.Graph;
 import common.graph.Node;
+import common.schedule.ReadySet;
 import common.schedule.Schedule;
 import common.schedule.SimpleSchedule;
 import common.schedule.Task;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -39,7 +35,7 @@ public class CriticalPathTests {
         LowerBound lowerBound = new CriticalPath();
 
         // Calls critical path method with dummy data.
-        int criticalPath = lowerBound.estimate(graph, schedule, new HashSet<>(graph.getEntryPoints()));
+        int criticalPath = lowerBound.estimate(graph, schedule, new ReadySet(graph));
         assertEquals(7, criticalPath);
     }
 
@@ -67,7 +63,7 @@ public class CriticalPathTests {
         LowerBound lowerBound = new CriticalPath();
 
         // Calls critical path method with dummy data.
-        int criticalPath = lowerBound.estimate(graph, schedule, new HashSet<>(graph.getEntryPoints()));
+        int criticalPath = lowerBound.estimate(graph, schedule, new ReadySet(graph));
         assertEquals(18, criticalPath);
     }
 
@@ -95,7 +91,7 @@ public class CriticalPathTests {
 
         // Calls critical path method with dummy data.
 
-        int criticalPath = lowerBound.estimate(graph, schedule, new HashSet<>(graph.getEntryPoints()));
+        int criticalPath = lowerBound.estimate(graph, schedule, new ReadySet(graph));
         assertEquals(15, criticalPath);
 
     }
@@ -128,13 +124,10 @@ public class CriticalPathTests {
         LowerBound lowerBound = new CriticalPath();
 
         // Next nodes to visit are the children of the root A
-        List<Node> nodesToVisit = new ArrayList<>();
-
-        for (Edge edge : graph.getOutgoingEdges(nodeA)) {
-            nodesToVisit.add(edge.getDestinationNode());
-        }
+        ReadySet nodesToVisit = new ReadySet(graph);
+        nodesToVisit.add(nodeA);
 
-        int criticalPath = lowerBound.estimate(graph, schedule, new HashSet<>(nodesToVisit));
+        int criticalPath = lowerBound.estimate(graph, schedule, nodesToVisit);
         assertEquals(18, criticalPath);
 
     }
@@ -0,0 +1,55 @@
+package algorithm.heuristics;
+
+import algorithm.heuristics.pruner.Arborist;
+import algorithm.heuristics.pruner.EquivalentNodePruner;
+import common.graph.Graph;
+import common.schedule.ArraySchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class EquivalentNodePrunerTests {
+    private final Graph _graph = new Graph.Builder()
+        .node("root", 1)
+        .node("a", 2)
+        .node("b", 2)
+        .node("other", 3)
+        .edge("root", "a", 1)
+        .edge("root", "b", 1)
+        .edge("root", "other", 1)
+        .build();
+    private final Arborist _arborist = new EquivalentNodePruner();
+
+    /**
+     * Of two equivalent nodes, only the one with the lower id can be placed first
+     */
+    @Test
+    public void testOrder() {
+        ArraySchedule schedule = new ArraySchedule(_graph, 2);
+        schedule.addTask(new Task(0, 0, _graph.findByLabel("root")));
+
+        assertFalse(_arborist.pruneNode(_graph, schedule, _graph.findByLabel("a")));
+        assertTrue(_arborist.pruneNode(_graph, schedule, _graph.findByLabel("b")));
+        assertTrue(_arborist.prune(_graph, schedule, new Task(1, 2, _graph.findByLabel("b"))));
+        assertFalse(_arborist.pruneNode(_graph, schedule, _graph.findByLabel("other")));
+
+        schedule.addTask(new Task(1, 2, _graph.findByLabel("a")));
+        assertFalse(_arborist.pruneNode(_graph, schedule, _graph.findByLabel("b")));
+        assertFalse(_arborist.prune(_graph, schedule, new Task(0, 1, _graph.findByLabel("b"))));
+    }
+
+    /**
+     * Combined arborists should prune whole nodes whenever any of them does
+     */
+    @Test
+    public void testCombined() {
+        ArraySchedule schedule = new ArraySchedule(_graph, 2);
+        schedule.addTask(new Task(0, 0, _graph.findByLabel("root")));
+
+        Arborist combined = Arborist.combine((graph, s, task) -> false, _arborist);
+        assertTrue(combined.pruneNode(_graph, schedule, _graph.findByLabel("b")));
+        assertFalse(combined.pruneNode(_graph, schedule, _graph.findByLabel("a")));
+    }
+}
@@ -0,0 +1,97 @@
+package algorithm.heuristics;
+
+import algorithm.AlgorithmUtils;
+import algorithm.heuristics.lowerbound.CriticalPath;
+import algorithm.heuristics.lowerbound.FastCriticalPath;
+import algorithm.heuristics.lowerbound.LowerBound;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ReadySet;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastCriticalPathTests {
+    /**
+     * With nothing scheduled, the bound is just the longest path through the graph
+     */
+    @Test
+    public void testEmptySchedule() {
+        Graph graph = new Graph.Builder()
+            .node("A", 3)
+            .node("B", 4)
+            .node("C", 5)
+            .node("D", 1)
+            .node("E", 10)
+            .edge("A", "B", 2)
+            .edge("A", "C", 1)
+            .edge("C", "D", 1)
+            .edge("C", "E", 1)
+            .build();
+
+        LowerBound lowerBound = new FastCriticalPath();
+        assertEquals(18, lowerBound.estimate(graph, new SimpleSchedule(1), new ReadySet(graph)));
+    }
+
+    /**
+     * A scheduled parent of a node which isn't ready yet can decide the bound, not just the ready nodes
+     */
+    @Test
+    public void testScheduledParentOfUnreadyNode() {
+        Graph graph = new Graph.Builder()
+            .node("P", 10)
+            .node("U", 1)
+            .node("C", 1)
+            .edge("P", "C", 0)
+            .edge("U", "C", 0)
+            .build();
+        Node p = graph.findByLabel("P");
+
+        SimpleSchedule schedule = new SimpleSchedule(2);
+        schedule.addTask(new Task(0, 0, p));
+        ReadySet ready = new ReadySet(graph);
+        ready.add(p);
+
+        // U could start at 0 on processor 1, but C can't start until P finishes at 10
+        assertEquals(11, new CriticalPath().estimate(graph, schedule, ready));
+        assertEquals(11, new FastCriticalPath().estimate(graph, schedule, ready));
+    }
+
+    /**
+     * Should never be looser than CriticalPath, going through a whole schedule
+     */
+    @Test
+    public void testAtLeastCriticalPath() {
+        Graph graph = new Graph.Builder()
+            .node("a", 2)
+            .node("b", 3)
+            .node("c", 4)
+            .node("d", 1)
+            .node("e", 6)
+            .node("f", 2)
+            .edge("a", "c", 3)
+            .edge("b", "c", 1)
+            .edge("b", "d", 4)
+            .edge("c", "e", 2)
+            .edge("d", "e", 1)
+            .edge("d", "f", 5)
+            .build();
+
+        SimpleSchedule schedule = new SimpleSchedule(2);
+        ReadySet ready = new ReadySet(graph);
+        LowerBound slow = new CriticalPath();
+        LowerBound fast = new FastCriticalPath();
+
+        for(int i = 0; !ready.isEmpty(); ++i) {
+            assertTrue(fast.estimate(graph, schedule, ready) >= slow.estimate(graph, schedule, ready));
+
+            Node node = ready.first();
+            int processor = i % 2;
+            schedule.addTask(new Task(processor, AlgorithmUtils.calculateEarliestTime(graph, schedule, node, processor), node));
+            ready.add(node);
+        }
+        assertEquals(schedule.getEndTime(), fast.estimate(graph, schedule, ready));
+    }
+}
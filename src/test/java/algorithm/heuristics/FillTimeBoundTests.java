@@ -0,0 +1,61 @@
+package algorithm.heuristics;
+
+import algorithm.AlgorithmUtils;
+import algorithm.heuristics.lowerbound.FillTimeBound;
+import algorithm.heuristics.lowerbound.LowerBound;
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FillTimeBoundTests {
+    private final Graph _graph = new Graph.Builder()
+        .node("A", 2)
+        .node("B", 3)
+        .node("C", 4)
+        .node("D", 1)
+        .node("E", 5)
+        .edge("A", "B", 1)
+        .edge("A", "C", 6)
+        .edge("B", "D", 2)
+        .edge("C", "E", 1)
+        .build();
+    private final LowerBound _lowerBound = new FillTimeBound();
+
+    /**
+     * With nothing scheduled, all of the work is spread evenly over the processors
+     */
+    @Test
+    public void testEmptySchedule() {
+        assertEquals(8, _lowerBound.estimate(_graph, new ArraySchedule(_graph, 2), new ReadySet(_graph)));
+    }
+
+    /**
+     * The idle time ArraySchedule keeps as tasks come and go gives the same bound as walking every task
+     */
+    @Test
+    public void testMatchesWalkingTheSchedule() {
+        ArraySchedule array = new ArraySchedule(_graph, 3);
+        SimpleSchedule simple = new SimpleSchedule(3);
+        ReadySet ready = new ReadySet(_graph);
+
+        for(int i = 0; !ready.isEmpty(); ++i) {
+            Node node = ready.first();
+            Task task = new Task(i % 3, AlgorithmUtils.calculateEarliestTime(_graph, array, node, i % 3), node);
+            array.addTask(task);
+            simple.addTask(task);
+            ready.add(node);
+
+            assertEquals(simple.getIdleTime(), array.getIdleTime());
+            assertEquals(_lowerBound.estimate(_graph, simple, ready), _lowerBound.estimate(_graph, array, ready));
+        }
+
+        assertEquals(_lowerBound.estimate(_graph, simple, ready), _lowerBound.estimate(_graph, array, ready));
+        assertTrue(_lowerBound.estimate(_graph, array, ready) <= array.getEndTime());
+    }
+}
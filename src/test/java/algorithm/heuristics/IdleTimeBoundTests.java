@@ -0,0 +1,46 @@
+package algorithm.heuristics;
+
+import algorithm.heuristics.lowerbound.FillTimeBound;
+import algorithm.heuristics.lowerbound.IdleTimeBound;
+import algorithm.heuristics.lowerbound.LowerBound;
+import common.graph.Graph;
+import common.schedule.ArraySchedule;
+import common.schedule.ReadySet;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdleTimeBoundTests {
+    private final Graph _graph = new Graph.Builder()
+        .node("A", 2)
+        .node("B", 2)
+        .edge("A", "B", 10)
+        .build();
+    private final LowerBound _lowerBound = new IdleTimeBound();
+
+    /**
+     * A processor waiting on data can't be filled with work, so is counted as idle until anything could start there
+     */
+    @Test
+    public void testCommunicationGap() {
+        ArraySchedule schedule = new ArraySchedule(_graph, 2);
+        schedule.addTask(new Task(0, 0, _graph.findByLabel("A")));
+        ReadySet ready = new ReadySet(_graph, schedule);
+
+        assertEquals(2, new FillTimeBound().estimate(_graph, schedule, ready));
+        assertEquals(4, _lowerBound.estimate(_graph, schedule, ready));
+    }
+
+    /**
+     * Without anything left to place, the bound is the end of the schedule
+     */
+    @Test
+    public void testCompleteSchedule() {
+        ArraySchedule schedule = new ArraySchedule(_graph, 2);
+        schedule.addTask(new Task(0, 0, _graph.findByLabel("A")));
+        schedule.addTask(new Task(1, 12, _graph.findByLabel("B")));
+
+        assertEquals(14, _lowerBound.estimate(_graph, schedule, new ReadySet(_graph, schedule)));
+    }
+}
@@ -0,0 +1,120 @@
+package cli;
+
+import algorithm.heuristics.pruner.CombinedArborist;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTests {
+    private static final Path GRAPHS = Paths.get("data", "graphs");
+
+    private Path _outputDirectory;
+
+    @BeforeEach
+    public void createOutputDirectory() throws IOException {
+        _outputDirectory = Files.createTempDirectory("ainur-batch");
+    }
+
+    @AfterEach
+    public void deleteOutputDirectory() throws IOException {
+        for(File file : _outputDirectory.toFile().listFiles())
+            file.delete();
+        Files.delete(_outputDirectory);
+    }
+
+    /**
+     * Directories should give every .dot file in them, and globs only those that match
+     */
+    @Test
+    public void testFindGraphs() throws IOException {
+        List<Path> all = BatchRunner.findGraphs(GRAPHS.toString());
+        assertFalse(all.isEmpty());
+        for(Path graph : all)
+            assertTrue(graph.getFileName().toString().endsWith(".dot"));
+
+        List<Path> outTrees = BatchRunner.findGraphs(GRAPHS.resolve("*_OutTree.dot").toString());
+        assertFalse(outTrees.isEmpty());
+        assertTrue(outTrees.size() < all.size());
+        for(Path graph : outTrees)
+            assertTrue(all.contains(graph));
+    }
+
+    @Test
+    public void testProcessorsFromName() {
+        assertEquals(2, BatchRunner.processorsFromName(Paths.get("data", "2p_Fork_Nodes_10.dot")));
+        assertEquals(16, BatchRunner.processorsFromName(Paths.get("16p_Join_Nodes_21.dot")));
+        assertEquals(0, BatchRunner.processorsFromName(Paths.get("Nodes_7_OutTree.dot")));
+    }
+
+    /**
+     * Every graph should be scheduled and written out, and graphs without a processor count reported as errors
+     */
+    @Test
+    public void testRun() throws InterruptedException {
+        Path graph = GRAPHS.resolve("Nodes_7_OutTree.dot");
+
+        List<BatchRunner.Result> results = new BatchRunner(2, 2, _outputDirectory.toString())
+            .run(Arrays.asList(graph, graph));
+        assertEquals(2, results.size());
+        for(BatchRunner.Result result : results) {
+            assertNull(result.getError());
+            assertEquals(graph, result.getGraph());
+            assertEquals(2, result.getProcessors());
+            assertEquals(28, result.getMakespan());
+        }
+        assertTrue(Files.exists(_outputDirectory.resolve("Nodes_7_OutTree-output.dot")));
+
+        // No processors given, and none in the name
+        BatchRunner.Result unknown = new BatchRunner(1, 0, _outputDirectory.toString())
+            .run(Collections.singletonList(graph)).get(0);
+        assertNotNull(unknown.getError());
+        assertEquals(-1, unknown.getMakespan());
+    }
+
+    @Test
+    public void testSummaries() throws InterruptedException, IOException {
+        List<BatchRunner.Result> results = new BatchRunner(1, 2, _outputDirectory.toString())
+            .run(Collections.singletonList(GRAPHS.resolve("Nodes_7_OutTree.dot")));
+        BatchRunner.Result result = results.get(0);
+
+        StringWriter csv = new StringWriter();
+        BatchRunner.writeCsv(results, csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals("graph,processors,makespan,wall_time_ms,branches_explored,branches_culled,fixed_order,pruners,error",
+            lines[0]);
+        String prefix = result.getGraph() + ",2,28," + result.getWallTimeMillis() + "," + result.getBranchesExplored()
+            + "," + result.getBranchesCulled() + "," + result.getFixedOrder() + ",";
+        assertTrue(lines[1].startsWith(prefix));
+        assertTrue(lines[1].endsWith(","));
+
+        // Every pruner of the default arborist is reported, with how often it was asked
+        assertFalse(result.getPrunerStatistics().isEmpty());
+        String[] pruners = lines[1].substring(prefix.length(), lines[1].length() - 1).split(";");
+        assertEquals(result.getPrunerStatistics().size(), pruners.length);
+        for(int i = 0; i < pruners.length; ++i) {
+            CombinedArborist.Statistics statistics = result.getPrunerStatistics().get(i);
+            assertTrue(pruners[i].startsWith(statistics.getArborist().getClass().getSimpleName() + ":"
+                + statistics.getHits() + ":" + statistics.getCalls() + ":"));
+        }
+        assertTrue(result.getPrunerStatistics().stream().anyMatch(statistics -> statistics.getCalls() > 0));
+
+        StringWriter json = new StringWriter();
+        BatchRunner.writeJson(results, json);
+        assertTrue(json.toString().contains("\"makespan\": 28"));
+        assertTrue(json.toString().contains("\"error\": null"));
+        assertTrue(json.toString().contains("\"pruners\": [{\"pruner\": \""
+            + result.getPrunerStatistics().get(0).getArborist().getClass().getSimpleName() + "\""));
+    }
+}
@@ -0,0 +1,168 @@
+package common;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrayScheduleTests {
+    private Graph createGraph() {
+        return new Graph.Builder()
+            .node("a", 2)
+            .node("b", 3)
+            .node("c", 4)
+            .node("d", 1)
+            .edge("a", "c", 1)
+            .edge("b", "d", 2)
+            .build();
+    }
+
+    /**
+     * The bottom level end should follow tasks being added and removed, in any order on different processors
+     */
+    @Test
+    public void testBottomLevelEnd() {
+        Graph graph = createGraph();
+        Task taskA = new Task(0, 0, graph.findByLabel("a"));
+        Task taskB = new Task(1, 4, graph.findByLabel("b"));
+        Task taskC = new Task(0, 3, graph.findByLabel("c"));
+
+        ArraySchedule schedule = new ArraySchedule(graph, 2);
+        assertEquals(0, schedule.getBottomLevelEnd(graph));
+
+        // a has a bottom level of 6, b of 4 and c of 4
+        schedule.addTask(taskA);
+        assertEquals(6, schedule.getBottomLevelEnd(graph));
+        schedule.addTask(taskB);
+        assertEquals(8, schedule.getBottomLevelEnd(graph));
+        schedule.addTask(taskC);
+        assertEquals(8, schedule.getBottomLevelEnd(graph));
+        assertEquals(8, new ArraySchedule(schedule).getBottomLevelEnd(graph));
+
+        SimpleSchedule simple = new SimpleSchedule(2);
+        simple.addTask(taskA);
+        simple.addTask(taskB);
+        simple.addTask(taskC);
+        assertEquals(8, simple.getBottomLevelEnd(graph));
+
+        // Not the latest task added
+        schedule.removeTask(taskB);
+        assertEquals(7, schedule.getBottomLevelEnd(graph));
+        schedule.removeTask(taskC);
+        assertEquals(6, schedule.getBottomLevelEnd(graph));
+        schedule.removeTask(taskA);
+        assertEquals(0, schedule.getBottomLevelEnd(graph));
+    }
+
+    /**
+     * End times, sizes and task lookups should follow tasks being added and removed
+     */
+    @Test
+    public void testAddAndRemove() {
+        Graph graph = createGraph();
+        Node a = graph.findByLabel("a");
+        Node b = graph.findByLabel("b");
+        Node c = graph.findByLabel("c");
+
+        ArraySchedule schedule = new ArraySchedule(graph, 2);
+        assertEquals(0, schedule.getEndTime());
+
+        Task taskA = new Task(0, 0, a);
+        Task taskB = new Task(1, 0, b);
+        Task taskC = new Task(0, 2, c);
+        schedule.addTask(taskA);
+        schedule.addTask(taskB);
+        schedule.addTask(taskC);
+
+        assertEquals(3, schedule.size());
+        assertEquals(2, schedule.size(0));
+        assertEquals(6, schedule.getEndTime(0));
+        assertEquals(3, schedule.getEndTime(1));
+        assertEquals(6, schedule.getEndTime());
+        assertEquals(9, schedule.getScheduledWork());
+        assertEquals(0, schedule.getIdleTime());
+        assertEquals(0, schedule.getProcessor(c));
+        assertEquals(2, schedule.getStartTime(c));
+        assertTask(taskA, schedule.getFirst(0));
+        assertTask(taskC, schedule.getLatest(0));
+        assertTask(taskC, schedule.getLatest());
+        assertTask(taskB, schedule.findTask(b));
+        assertNull(schedule.findTask(graph.findByLabel("d")));
+
+        List<Task> tasks = schedule.getTasks(0);
+        assertEquals(2, tasks.size());
+        assertTask(taskA, tasks.get(0));
+        assertTask(taskC, tasks.get(1));
+
+        schedule.removeTask(taskC);
+        assertEquals(5, schedule.getScheduledWork());
+        assertFalse(schedule.contains(c));
+        assertEquals(-1, schedule.getProcessor(c));
+        assertEquals(2, schedule.getEndTime(0));
+        assertEquals(3, schedule.getEndTime());
+
+        schedule.removeTask(taskB);
+        schedule.removeTask(taskA);
+        assertEquals(0, schedule.size());
+        assertEquals(0, schedule.getEndTime());
+        assertNull(schedule.getFirst(0));
+        assertNull(schedule.getLatest());
+    }
+
+    /**
+     * Only the latest task on a processor can be removed
+     */
+    @Test
+    public void testRemoveNotLatest() {
+        Graph graph = createGraph();
+
+        ArraySchedule schedule = new ArraySchedule(graph, 1);
+        Task taskA = new Task(0, 0, graph.findByLabel("a"));
+        schedule.addTask(taskA);
+        schedule.addTask(new Task(0, 2, graph.findByLabel("b")));
+
+        assertThrows(IllegalArgumentException.class, () -> schedule.removeTask(taskA));
+    }
+
+    /**
+     * Copies should be independent of the original, and converting from another schedule should keep every task
+     */
+    @Test
+    public void testCopy() {
+        Graph graph = createGraph();
+        Node a = graph.findByLabel("a");
+        Node b = graph.findByLabel("b");
+
+        SimpleSchedule simple = new SimpleSchedule(2);
+        simple.addTask(new Task(0, 0, a));
+        simple.addTask(new Task(1, 1, b));
+
+        ArraySchedule converted = new ArraySchedule(graph, simple);
+        assertEquals(2, converted.size());
+        assertEquals(simple.getEndTime(), converted.getEndTime());
+        assertEquals(1, converted.findTask(b).getProcessor());
+        assertEquals(1, converted.findTask(b).getStartTime());
+
+        assertEquals(simple.getIdleTime(), converted.getIdleTime());
+
+        ArraySchedule copy = new ArraySchedule(converted);
+        copy.addTask(new Task(0, 4, graph.findByLabel("c")));
+        assertEquals(3, copy.size());
+        assertEquals(8, copy.getEndTime());
+        assertEquals(3, copy.getIdleTime()); // 2 after a on processor 0, and 1 before b on processor 1
+        assertEquals(2, converted.size());
+        assertEquals(4, converted.getEndTime());
+    }
+
+    private void assertTask(Task expected, Task actual) {
+        assertEquals(expected.getProcessor(), actual.getProcessor());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getNode(), actual.getNode());
+    }
+}
@@ -7,8 +7,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 public class GraphTests {
@@ -44,7 +47,83 @@ public class GraphTests {
         assertEquals(entryNode, outgoing.get(0).getOriginNode());
         assertEquals(3, _graph.size());
 
-        // Check that we can find nodes by label, even though we shouldn't ever have to except for testing
+        // Check that we can find nodes by label
         assertEquals(entryNode, _graph.findByLabel("a"));
+        assertThrows(NoSuchElementException.class, () -> _graph.findByLabel("d"));
+    }
+
+    /**
+     * Top and bottom levels should be the longest paths of computation costs before and after each node
+     */
+    @Test
+    public void    testLevels()
+    {
+        Node a = _graph.findByLabel("a");
+        Node b = _graph.findByLabel("b");
+        Node c = _graph.findByLabel("c");
+
+        // a -> b -> c is longer than a -> c
+        assertEquals(6, _graph.getBottomLevel(a));
+        assertEquals(5, _graph.getBottomLevel(b));
+        assertEquals(3, _graph.getBottomLevel(c));
+
+        assertEquals(0, _graph.getTopLevel(a));
+        assertEquals(1, _graph.getTopLevel(b));
+        assertEquals(3, _graph.getTopLevel(c));
+    }
+
+    /**
+     * Edge positions should record how many nodes were added before each edge
+     */
+    @Test
+    public void    testEdgePositions()
+    {
+        Graph graph = new Graph.Builder()
+            .node("a", 1)
+            .node("b", 2)
+            .edge("a", "b", 1)
+            .node("c", 3)
+            .edge("a", "c", 1)
+            .edge("b", "c", 1)
+            .build();
+
+        assertEquals(2, graph.getEdgePosition(0));
+        assertEquals(3, graph.getEdgePosition(1));
+        assertEquals(3, graph.getEdgePosition(2));
+    }
+
+    /**
+     * Nodes are only equivalent with the same cost, parents and children, and the same communication costs to each
+     */
+    @Test
+    public void    testEquivalences()
+    {
+        Graph graph = new Graph.Builder()
+            .node("root", 1)
+            .node("a", 2)
+            .node("b", 2)
+            .node("c", 2)
+            .node("differentCost", 3)
+            .node("differentEdge", 2)
+            .node("sink", 1)
+            .edge("root", "a", 1)
+            .edge("root", "b", 1)
+            .edge("root", "c", 1)
+            .edge("root", "differentCost", 1)
+            .edge("root", "differentEdge", 2)
+            .edge("a", "sink", 1)
+            .edge("b", "sink", 1)
+            .edge("c", "sink", 1)
+            .edge("differentCost", "sink", 1)
+            .edge("differentEdge", "sink", 1)
+            .build();
+
+        assertNull(graph.getPreviousEquivalent(graph.findByLabel("a")));
+        assertEquals(graph.findByLabel("a"), graph.getPreviousEquivalent(graph.findByLabel("b")));
+        assertEquals(graph.findByLabel("b"), graph.getPreviousEquivalent(graph.findByLabel("c")));
+        assertNull(graph.getPreviousEquivalent(graph.findByLabel("differentCost")));
+        assertNull(graph.getPreviousEquivalent(graph.findByLabel("differentEdge")));
+        assertNull(graph.getPreviousEquivalent(graph.findByLabel("root")));
+        assertNull(graph.getPreviousEquivalent(graph.findByLabel("sink")));
     }
 }
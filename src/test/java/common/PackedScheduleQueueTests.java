@@ -0,0 +1,160 @@
+package common;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.PackedScheduleQueue;
+import common.schedule.ReadySet;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedScheduleQueueTests {
+    private final Graph _graph = new Graph.Builder()
+        .node("a", 1)
+        .node("b", 2)
+        .node("c", 3)
+        .edge("a", "c", 1)
+        .build();
+
+    private PackedScheduleQueue createQueue() {
+        return new PackedScheduleQueue(_graph, new ArraySchedule(_graph, 2), new ReadySet(_graph));
+    }
+
+    /**
+     * Items should come out lowest bound first, and most recently added first amongst equal bounds
+     */
+    @Test
+    public void testOrder() {
+        PackedScheduleQueue queue = createQueue();
+        int first = queue.createState(PackedScheduleQueue.ROOT, new Task(0, 0, _graph.findByLabel("a")));
+        int second = queue.createState(PackedScheduleQueue.ROOT, new Task(1, 0, _graph.findByLabel("a")));
+        int low = queue.createState(PackedScheduleQueue.ROOT, new Task(0, 0, _graph.findByLabel("b")));
+        int high = queue.createState(PackedScheduleQueue.ROOT, new Task(1, 0, _graph.findByLabel("b")));
+
+        queue.add(10, first);
+        queue.add(10, second);
+        queue.add(20, high);
+        queue.add(5, low); // Below the first bound added
+        assertEquals(4, queue.size());
+
+        assertEquals(5, queue.getLowerBound());
+        assertEquals(low, queue.getState());
+        queue.remove();
+
+        assertEquals(10, queue.getLowerBound());
+        assertEquals(second, queue.getState());
+        queue.remove();
+        assertEquals(first, queue.getState());
+        queue.remove();
+
+        assertEquals(20, queue.getLowerBound());
+        assertEquals(high, queue.getState());
+        queue.remove();
+
+        assertTrue(queue.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, queue::getLowerBound);
+    }
+
+    /**
+     * Culling should drop everything that is at least as bad as the limit, and nothing else
+     */
+    @Test
+    public void testCull() {
+        PackedScheduleQueue queue = createQueue();
+        queue.add(3, PackedScheduleQueue.ROOT);
+        queue.add(7, PackedScheduleQueue.ROOT);
+        queue.add(8, PackedScheduleQueue.ROOT);
+        queue.add(8, PackedScheduleQueue.ROOT);
+
+        queue.cull(7);
+        assertEquals(1, queue.size());
+        assertEquals(3, queue.getLowerBound());
+
+        // Can still add after culling, including above the old limit
+        queue.add(9, PackedScheduleQueue.ROOT);
+        assertEquals(2, queue.size());
+        queue.remove();
+        assertEquals(9, queue.getLowerBound());
+
+        queue.cull(0);
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * The schedule and visitable nodes of a state should be rebuilt from all of its ancestors
+     */
+    @Test
+    public void testBuild() {
+        Node a = _graph.findByLabel("a");
+        Node b = _graph.findByLabel("b");
+        Node c = _graph.findByLabel("c");
+
+        PackedScheduleQueue queue = createQueue();
+        int withA = queue.createState(PackedScheduleQueue.ROOT, new Task(0, 0, a));
+        queue.add(4, withA, new Task(1, 0, b));
+
+        ArraySchedule schedule = queue.getSchedule();
+        assertEquals(2, schedule.size());
+        assertEquals(0, schedule.getProcessor(a));
+        assertEquals(1, schedule.getProcessor(b));
+        assertEquals(2, schedule.getEndTime());
+
+        ReadySet nodes = queue.getVisitableNodes();
+        assertEquals(1, nodes.size());
+        assertTrue(nodes.contains(c));
+
+        // The built schedule belongs to the caller, so changing it should not change the queue
+        schedule.addTask(new Task(0, 1, c));
+        queue.add(4, withA);
+        assertEquals(1, queue.getSchedule().size());
+    }
+
+    /**
+     * States should be freed once nothing refers to them, and their space used again without changing live states
+     */
+    @Test
+    public void testFreesStates() {
+        Node a = _graph.findByLabel("a");
+        Node b = _graph.findByLabel("b");
+        Node c = _graph.findByLabel("c");
+
+        PackedScheduleQueue queue = createQueue();
+        assertEquals(1, queue.liveStates());
+
+        int withA = queue.createState(PackedScheduleQueue.ROOT, new Task(0, 0, a));
+        int withB = queue.createState(withA, new Task(1, 0, b));
+        queue.add(5, withB, new Task(0, 1, c));
+        queue.release(withB);
+        queue.release(withA);
+        assertEquals(4, queue.liveStates()); // The chain is kept by the item at the end of it
+
+        // Keep the head's state to add a child of it after removing it, as a search would
+        int head = queue.getState();
+        queue.retain(head);
+        queue.remove();
+        queue.add(6, head, new Task(1, 2, b));
+        queue.release(head);
+        assertEquals(5, queue.liveStates());
+
+        queue.cull(6);
+        assertEquals(1, queue.liveStates());
+
+        // Freed states are used again, without touching any state still in use
+        int kept = queue.createState(PackedScheduleQueue.ROOT, new Task(1, 0, b));
+        for(int i = 0; i < 1000; ++i) {
+            queue.add(i % 10, kept, new Task(0, i, a));
+            if(i % 3 == 0)
+                queue.remove();
+        }
+        assertEquals(queue.size() + 2, queue.liveStates());
+        queue.cull(0);
+        assertEquals(2, queue.liveStates());
+
+        queue.add(1, kept);
+        ArraySchedule schedule = queue.getSchedule();
+        assertEquals(1, schedule.size());
+        assertEquals(1, schedule.getProcessor(b));
+    }
+}
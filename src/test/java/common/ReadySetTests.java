@@ -0,0 +1,105 @@
+package common;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ReadySet;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadySetTests {
+    /**
+     * Children only become ready once all their parents have been added, and removing undoes adding
+     */
+    @Test
+    public void testAddAndRemove() {
+        Graph graph = new Graph.Builder()
+            .node("a", 1)
+            .node("b", 2)
+            .node("c", 3)
+            .edge("a", "c", 1)
+            .edge("b", "c", 1)
+            .build();
+        Node a = graph.findByLabel("a");
+        Node b = graph.findByLabel("b");
+        Node c = graph.findByLabel("c");
+
+        ReadySet ready = new ReadySet(graph);
+        assertEquals(2, ready.size());
+        assertFalse(ready.contains(c));
+
+        ready.add(a);
+        assertEquals(1, ready.size());
+        assertFalse(ready.contains(a));
+        assertFalse(ready.contains(c));
+
+        ready.add(b);
+        assertEquals(1, ready.size());
+        assertTrue(ready.contains(c));
+        assertEquals(c, ready.first());
+
+        ready.remove(b);
+        ready.remove(a);
+        assertEquals(2, ready.size());
+        assertTrue(ready.contains(a));
+        assertTrue(ready.contains(b));
+        assertFalse(ready.contains(c));
+    }
+
+    /**
+     * Creating from a partial schedule should match adding each of its tasks
+     */
+    @Test
+    public void testFromSchedule() {
+        Graph graph = new Graph.Builder()
+            .node("a", 1)
+            .node("b", 2)
+            .node("c", 3)
+            .edge("a", "b", 1)
+            .edge("a", "c", 1)
+            .build();
+
+        SimpleSchedule schedule = new SimpleSchedule(2);
+        schedule.addTask(new Task(0, 0, graph.findByLabel("a")));
+        schedule.addTask(new Task(0, 1, graph.findByLabel("b")));
+
+        ReadySet ready = new ReadySet(graph, schedule);
+        assertEquals(1, ready.size());
+        assertTrue(ready.contains(graph.findByLabel("c")));
+    }
+
+    /**
+     * Graphs with more than 64 nodes spill over the first word
+     */
+    @Test
+    public void testLargeGraph() {
+        Graph.Builder builder = new Graph.Builder();
+        for(int i = 0; i < 130; ++i)
+            builder.node("n" + i, 1);
+        for(int i = 1; i < 130; ++i)
+            builder.edge("n0", "n" + i, 1);
+        Graph graph = builder.build();
+
+        ReadySet ready = new ReadySet(graph);
+        assertEquals(1, ready.size());
+
+        ready.add(graph.findByLabel("n0"));
+        assertEquals(129, ready.size());
+
+        List<Node> iterated = new ArrayList<>();
+        for(Node node : ready)
+            iterated.add(node);
+        assertEquals(129, iterated.size());
+        for(int i = 1; i < iterated.size(); ++i)
+            assertTrue(iterated.get(i - 1).getId() < iterated.get(i).getId());
+
+        ready.remove(graph.findByLabel("n0"));
+        assertEquals(1, ready.size());
+        assertEquals(graph.findByLabel("n0"), ready.first());
+    }
+}
@@ -0,0 +1,87 @@
+package common;
+
+import common.graph.Node;
+import common.schedule.ScheduleHash;
+import common.schedule.SimpleSchedule;
+import common.schedule.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleHashTests {
+    private Node nodeA = new Node(3, "a", 0);
+    private Node nodeB = new Node(2, "b", 1);
+    private Node nodeC = new Node(4, "c", 2);
+
+    /**
+     * Adding tasks in a different order should give the same hash
+     */
+    @Test
+    public void testOrderIndependent() {
+        ScheduleHash first = new ScheduleHash(2);
+        first.toggle(new Task(0, 0, nodeA));
+        first.toggle(new Task(1, 0, nodeB));
+        first.toggle(new Task(0, 3, nodeC));
+
+        ScheduleHash second = new ScheduleHash(2);
+        second.toggle(new Task(1, 0, nodeB));
+        second.toggle(new Task(0, 0, nodeA));
+        second.toggle(new Task(0, 3, nodeC));
+
+        assertEquals(first.get(), second.get());
+    }
+
+    /**
+     * Swapping which processor each group of tasks is on should give the same hash
+     */
+    @Test
+    public void testProcessorsNormalised() {
+        SimpleSchedule schedule = new SimpleSchedule(2);
+        schedule.addTask(new Task(0, 0, nodeA));
+        schedule.addTask(new Task(0, 3, nodeC));
+        schedule.addTask(new Task(1, 0, nodeB));
+
+        SimpleSchedule swapped = new SimpleSchedule(2);
+        swapped.addTask(new Task(1, 0, nodeA));
+        swapped.addTask(new Task(1, 3, nodeC));
+        swapped.addTask(new Task(0, 0, nodeB));
+
+        assertEquals(new ScheduleHash(schedule).get(), new ScheduleHash(swapped).get());
+    }
+
+    /**
+     * Different placements of the same tasks should give different hashes
+     */
+    @Test
+    public void testDifferentPlacements() {
+        ScheduleHash together = new ScheduleHash(2);
+        together.toggle(new Task(0, 0, nodeA));
+        together.toggle(new Task(0, 3, nodeB));
+
+        ScheduleHash apart = new ScheduleHash(2);
+        apart.toggle(new Task(0, 0, nodeA));
+        apart.toggle(new Task(1, 3, nodeB));
+
+        ScheduleHash later = new ScheduleHash(2);
+        later.toggle(new Task(0, 0, nodeA));
+        later.toggle(new Task(0, 4, nodeB));
+
+        assertNotEquals(together.get(), apart.get());
+        assertNotEquals(together.get(), later.get());
+    }
+
+    /**
+     * Toggling a task twice should undo it
+     */
+    @Test
+    public void testToggleUndoes() {
+        ScheduleHash hash = new ScheduleHash(2);
+        hash.toggle(new Task(0, 0, nodeA));
+        long before = hash.get();
+
+        hash.toggle(new Task(1, 2, nodeB));
+        hash.toggle(new Task(1, 2, nodeB));
+
+        assertEquals(before, hash.get());
+    }
+}
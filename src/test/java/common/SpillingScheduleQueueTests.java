@@ -0,0 +1,233 @@
+package common;
+
+import common.graph.Graph;
+import common.graph.Node;
+import common.schedule.ArraySchedule;
+import common.schedule.PackedScheduleQueue;
+import common.schedule.ReadySet;
+import common.schedule.SpillingScheduleQueue;
+import common.schedule.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpillingScheduleQueueTests {
+    private final Graph _graph = new Graph.Builder()
+        .node("a", 1)
+        .node("b", 2)
+        .node("c", 3)
+        .edge("a", "c", 1)
+        .build();
+
+    private Path _directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        _directory = Files.createTempDirectory("spill");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        Files.delete(_directory);
+    }
+
+    /**
+     * A budget of 0 bytes spills everything but the head as soon as anything is added
+     */
+    private SpillingScheduleQueue createQueue(long heapBudget) {
+        return new SpillingScheduleQueue(_graph, new ArraySchedule(_graph, 2), new ReadySet(_graph), _directory,
+            heapBudget);
+    }
+
+    /**
+     * Items should come out in the same order as they would if they had never been spilled
+     */
+    @Test
+    public void testOrder() {
+        try(SpillingScheduleQueue queue = createQueue(0)) {
+            int first = queue.createState(PackedScheduleQueue.ROOT, new Task(0, 0, _graph.findByLabel("a")));
+            int second = queue.createState(PackedScheduleQueue.ROOT, new Task(1, 0, _graph.findByLabel("a")));
+            int low = queue.createState(PackedScheduleQueue.ROOT, new Task(0, 0, _graph.findByLabel("b")));
+
+            queue.add(10, first);
+            queue.add(10, second); // Shares the head's bound, so stays on the heap
+            queue.add(20, PackedScheduleQueue.ROOT, new Task(1, 0, _graph.findByLabel("b")));
+            queue.add(5, low); // The new head, so the 10s are spilled too
+            queue.release(first);
+            queue.release(second);
+            queue.release(low);
+            assertEquals(4, queue.size());
+            assertEquals(3, queue.spilledSize());
+
+            assertEquals(5, queue.getLowerBound());
+            assertEquals(low, queue.getState());
+            queue.remove();
+
+            // Read back in, as new states
+            assertEquals(10, queue.getLowerBound());
+            assertEquals(1, queue.getSchedule().getProcessor(_graph.findByLabel("a")));
+            queue.remove();
+            assertEquals(0, queue.getSchedule().getProcessor(_graph.findByLabel("a")));
+            queue.remove();
+
+            // Read back in, and stored only then
+            assertEquals(20, queue.getLowerBound());
+            assertEquals(0, queue.spilledSize());
+            ArraySchedule schedule = queue.getSchedule();
+            assertEquals(1, schedule.getProcessor(_graph.findByLabel("b")));
+            queue.remove();
+
+            assertTrue(queue.isEmpty());
+            assertThrows(IndexOutOfBoundsException.class, queue::getLowerBound);
+        }
+    }
+
+    /**
+     * Culling should drop spilled buckets as well as those on the heap
+     */
+    @Test
+    public void testCull() {
+        try(SpillingScheduleQueue queue = createQueue(0)) {
+            queue.add(3, PackedScheduleQueue.ROOT);
+            queue.add(7, PackedScheduleQueue.ROOT);
+            queue.add(8, PackedScheduleQueue.ROOT);
+            queue.add(8, PackedScheduleQueue.ROOT);
+
+            queue.cull(7);
+            assertEquals(1, queue.size());
+            assertEquals(0, queue.spilledSize());
+            assertEquals(3, queue.getLowerBound());
+
+            queue.add(9, PackedScheduleQueue.ROOT);
+            queue.remove();
+            assertEquals(9, queue.getLowerBound());
+        }
+    }
+
+    /**
+     * However items are added, removed and culled, the queue should give the same states as one kept on the heap,
+     * and leave nothing behind once closed
+     */
+    @Test
+    public void testMatchesHeap() throws IOException {
+        Node[] nodes = { _graph.findByLabel("a"), _graph.findByLabel("b"), _graph.findByLabel("c") };
+        Random random = new Random(7);
+
+        PackedScheduleQueue heap = new PackedScheduleQueue(_graph, new ArraySchedule(_graph, 2), new ReadySet(_graph));
+        try(SpillingScheduleQueue spilling = createQueue(2000)) {
+            for(int i = 0; i < 5000; ++i) {
+                int action = random.nextInt(10);
+                if(action < 6) {
+                    int lowerBound = random.nextInt(50);
+                    Task task = new Task(random.nextInt(2), random.nextInt(1000), nodes[random.nextInt(3)]);
+                    heap.add(lowerBound, PackedScheduleQueue.ROOT, task);
+                    spilling.add(lowerBound, PackedScheduleQueue.ROOT, task);
+                } else if(action < 9 && !heap.isEmpty()) {
+                    assertEquals(heap.size(), spilling.size());
+                    assertEquals(heap.getLowerBound(), spilling.getLowerBound());
+                    Task expected = heap.getSchedule().getLatest();
+                    Task actual = spilling.getSchedule().getLatest();
+                    assertEquals(expected.getNode(), actual.getNode());
+                    assertEquals(expected.getProcessor(), actual.getProcessor());
+                    assertEquals(expected.getStartTime(), actual.getStartTime());
+                    heap.remove();
+                    spilling.remove();
+                } else if(action == 9) {
+                    int limit = 10 + random.nextInt(50);
+                    heap.cull(limit);
+                    spilling.cull(limit);
+                }
+            }
+            assertEquals(heap.size(), spilling.size());
+        }
+
+        try(Stream<Path> files = Files.list(_directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * Expanding schedules as a search would, the states kept on the heap should stay within the budget apart from
+     * the few items at the head's lower bound and the schedule being expanded, while the queue still gives the same
+     * schedules as one kept on the heap
+     */
+    @Test
+    public void testHeapStaysBounded() {
+        final int nodeCount = 10;
+        final int bucketItems = 4; // The most items the test gives any one lower bound
+        final int budget = 4000;
+
+        Graph.Builder builder = new Graph.Builder();
+        for(int i = 0; i < nodeCount; ++i)
+            builder.node("n" + i, i + 1);
+        Graph graph = builder.build();
+
+        Random random = new Random(11);
+        Map<Integer, Integer> items = new HashMap<>();
+        int heapPeak = 0;
+
+        PackedScheduleQueue heap = new PackedScheduleQueue(graph, new ArraySchedule(graph, 2), new ReadySet(graph));
+        try(SpillingScheduleQueue spilling = new SpillingScheduleQueue(graph, new ArraySchedule(graph, 2),
+                new ReadySet(graph), _directory, budget)) {
+            heap.add(0, PackedScheduleQueue.ROOT);
+            spilling.add(0, PackedScheduleQueue.ROOT);
+
+            for(int i = 0; i < 2000 && !heap.isEmpty(); ++i) {
+                assertEquals(heap.size(), spilling.size());
+                int lowerBound = heap.getLowerBound();
+                assertEquals(lowerBound, spilling.getLowerBound());
+
+                ArraySchedule schedule = heap.getSchedule();
+                ArraySchedule spilledSchedule = spilling.getSchedule();
+                List<Task> children = new ArrayList<>();
+                for(Node node : graph.getNodes()) {
+                    assertEquals(schedule.contains(node), spilledSchedule.contains(node));
+                    if(schedule.contains(node)) {
+                        assertEquals(schedule.getProcessor(node), spilledSchedule.getProcessor(node));
+                        assertEquals(schedule.getStartTime(node), spilledSchedule.getStartTime(node));
+                    } else if(random.nextBoolean()) {
+                        int processor = random.nextInt(2);
+                        children.add(new Task(processor, schedule.getEndTime(processor), node));
+                    }
+                }
+
+                int heapState = heap.getState();
+                int spilledState = spilling.getState();
+                heap.retain(heapState);
+                spilling.retain(spilledState);
+                heap.remove();
+                spilling.remove();
+
+                for(Task child : children) {
+                    int childBound = lowerBound + 1 + random.nextInt(20);
+                    while(items.getOrDefault(childBound, 0) == bucketItems)
+                        childBound++;
+                    items.merge(childBound, 1, Integer::sum);
+
+                    heap.add(childBound, heapState, child);
+                    spilling.add(childBound, spilledState, child);
+                }
+                heap.release(heapState);
+                spilling.release(spilledState);
+
+                heapPeak = Math.max(heapPeak, heap.liveStates());
+                assertTrue(spilling.liveStates() <= budget / 16 + (bucketItems + 1) * nodeCount);
+            }
+        }
+
+        // Otherwise the budget was never tested
+        assertTrue(heapPeak > 10 * budget / 16);
+    }
+}
@@ -0,0 +1,70 @@
+package distributed;
+
+import algorithm.GreedyAlgorithm;
+import common.Validator;
+import common.graph.Graph;
+import common.schedule.Schedule;
+import integration.GraphSet;
+import integration.IntegrationTest;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a coordinator here with workers in their own JVMs, one of which is killed part way through the search
+ */
+@Tag("gandalf") // Gandalf tests may be slow, but they finish precisely when they mean to
+public class DistributedIntegrationTests {
+    private static final int WORKERS = 3;
+
+    private Process startWorker(int port) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Worker.class.getName(),
+            "localhost:" + port, "1")
+            .inheritIO()
+            .start();
+    }
+
+    private void testOptimal(String graphName, int processors, int optimalScheduleLength) {
+        Graph graph = IntegrationTest.readGraph(graphName);
+
+        GreedyAlgorithm greedyAlgorithm = new GreedyAlgorithm();
+        greedyAlgorithm.run(graph, processors);
+
+        List<Process> workers = new ArrayList<>();
+        try {
+            Coordinator coordinator = new Coordinator(0, 3, greedyAlgorithm.getCurrentBest());
+            for(int i = 0; i < WORKERS; ++i)
+                workers.add(startWorker(coordinator.getPort()));
+            // Lost as soon as it connects, or not connected at all
+            workers.get(0).destroyForcibly();
+
+            coordinator.run(graph, processors);
+            Schedule resultManual = coordinator.getCurrentBest();
+
+            assertEquals(optimalScheduleLength, resultManual.getEndTime()); // Check answer is optimal
+            assertTrue(Validator.isValid(graph, resultManual)); // Check result is valid
+            for(Process worker : workers.subList(1, WORKERS))
+                assertTrue(worker.waitFor(10, TimeUnit.SECONDS));
+        } catch(IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            for(Process worker : workers)
+                worker.destroyForcibly();
+        }
+    }
+
+    @TestFactory
+    List<DynamicTest> generateTests() {
+        return new IntegrationTest(GraphSet.OLIVER(), this::testOptimal).getList();
+    }
+}
@@ -0,0 +1,136 @@
+package distributed;
+
+import algorithm.GreedyAlgorithm;
+import common.Validator;
+import common.graph.Graph;
+import common.schedule.ArraySchedule;
+import common.schedule.Schedule;
+import common.schedule.Task;
+import integration.IntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A coordinator and its workers, on this machine, should find the same optimal schedule as searching in one process
+ */
+public class DistributedTests {
+    private static final int PROCESSORS = 2;
+    private static final int OPTIMAL = 350;
+
+    private final Graph _graph = IntegrationTest.readGraph(Paths.get("data", "graphs", "Nodes_11_OutTree.dot").toString());
+
+    private Coordinator coordinator(int depth) throws IOException {
+        GreedyAlgorithm greedy = new GreedyAlgorithm();
+        greedy.run(_graph, PROCESSORS);
+        return new Coordinator(0, depth, greedy.getCurrentBest());
+    }
+
+    private Thread startWorker(Coordinator coordinator) {
+        Thread thread = new Thread(() -> {
+            try {
+                new Worker("localhost", coordinator.getPort(), 1).run();
+            } catch(IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void assertOptimal(Coordinator coordinator) {
+        Schedule best = coordinator.getCurrentBest();
+        assertEquals(OPTIMAL, best.getEndTime());
+        assertTrue(Validator.isValid(_graph, best));
+        assertEquals(OPTIMAL, coordinator.lowerBound());
+        assertTrue(coordinator.getStats().getExplored() > 0);
+    }
+
+    @Test
+    public void testWorkers() throws Exception {
+        Coordinator coordinator = coordinator(3);
+        List<Thread> workers = new ArrayList<>();
+        for(int i = 0; i < 3; ++i)
+            workers.add(startWorker(coordinator));
+
+        coordinator.run(_graph, PROCESSORS);
+        for(Thread worker : workers)
+            worker.join(10000);
+
+        assertOptimal(coordinator);
+        for(Thread worker : workers)
+            assertFalse(worker.isAlive());
+    }
+
+    /**
+     * A worker that disconnects part way should have what it was handed explored by the others
+     */
+    @Test
+    public void testRebalance() throws Exception {
+        Coordinator coordinator = coordinator(2);
+        Thread search = new Thread(() -> coordinator.run(_graph, PROCESSORS));
+        search.start();
+
+        try(Socket socket = new Socket("localhost", coordinator.getPort())) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            assertEquals(Protocol.GRAPH, in.readByte());
+            Graph graph = Protocol.readGraph(in);
+            int processors = in.readInt();
+            Protocol.readSchedule(in, graph, processors);
+
+            assertEquals(Protocol.WORK, in.readByte());
+            in.readInt();
+            in.readInt();
+            assertTrue(Protocol.readSchedule(in, graph, processors).size() > 0);
+        }
+
+        Thread worker = startWorker(coordinator);
+        search.join(30000);
+        worker.join(10000);
+
+        assertFalse(search.isAlive());
+        assertOptimal(coordinator);
+    }
+
+    /**
+     * Graphs should be read back with the same ids and edge positions, so that schedules can be sent by id
+     */
+    @Test
+    public void testGraphAndSchedule() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        ArraySchedule schedule = new ArraySchedule(_graph, PROCESSORS);
+        schedule.addTask(new Task(1, 0, _graph.getNode(0)));
+        Protocol.writeGraph(out, _graph);
+        Protocol.writeSchedule(out, schedule);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Graph read = Protocol.readGraph(in);
+        assertEquals(_graph.getName(), read.getName());
+        assertEquals(_graph.size(), read.size());
+        for(int id = 0; id < _graph.size(); ++id) {
+            assertEquals(_graph.getNode(id).getLabel(), read.getNode(id).getLabel());
+            assertEquals(_graph.getNode(id).getComputationCost(), read.getNode(id).getComputationCost());
+        }
+        assertEquals(_graph.getAllEdges().size(), read.getAllEdges().size());
+        for(int i = 0; i < _graph.getAllEdges().size(); ++i) {
+            assertEquals(_graph.getEdgePosition(i), read.getEdgePosition(i));
+            assertEquals(_graph.getAllEdges().get(i).getCost(), read.getAllEdges().get(i).getCost());
+        }
+
+        Schedule readSchedule = Protocol.readSchedule(in, read, PROCESSORS);
+        assertEquals(1, readSchedule.size());
+        assertEquals(1, readSchedule.getProcessor(read.getNode(0)));
+    }
+}
@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 
@@ -302,4 +303,100 @@ public class DotGraphReaderTests {
         assertEquals(3, firstNodeFirstEdge.getCost());
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests that comments, other attributes and default attribute statements are all skipped over
+     */
+    @Test
+    public void testSkipsUnusedContent() {
+
+        // Arrange
+        String text = "// A comment\n" +
+                "digraph \"with extras\" {\n" +
+                "\tnode [shape=box];\n" +
+                "\t/* a block\n comment */\n" +
+                "\ta\t[Weight=1, Start=0, Processor=1];\n" +
+                "\tb\t[Start=5, Weight=2];\n" +
+                "\ta -> b\t[Weight=3]\n" + // Semicolons are optional
+                "}";
+        InputStream stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+
+        //Act
+        Graph graph = new DotGraphReader(stream).read();
+
+        //Assert
+        assertEquals("with extras", graph.getName());
+        assertEquals(2, graph.size());
+        Node a = graph.findByLabel("a");
+        Node b = graph.findByLabel("b");
+        assertEquals(1, a.getComputationCost());
+        assertEquals(2, b.getComputationCost());
+        assertEquals(3, graph.getOutgoingEdges(a).get(0).getCost());
+        assertEquals(b, graph.getOutgoingEdges(a).get(0).getDestinationNode());
+    }
+
+    /**
+     * Tests that quoted node labels have their quotes removed
+     */
+    @Test
+    public void testQuotedLabels() {
+
+        // Arrange
+        String text = "\t\"first node\"\t[Weight=1];\n" +
+                "\t\"second node\"\t[Weight=2];\n" +
+                "\t\"first node\" -> \"second node\"\t[Weight=3];";
+        InputStream stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+
+        //Act
+        Graph graph = new DotGraphReader(stream).read();
+
+        //Assert
+        Node first = graph.findByLabel("first node");
+        assertEquals(1, first.getComputationCost());
+        assertEquals("second node", graph.getOutgoingEdges(first).get(0).getDestinationNode().getLabel());
+    }
+
+    /**
+     * Tests that a file with more than one digraph is rejected
+     */
+    @Test
+    public void testMultipleDigraphs() {
+
+        // Arrange
+        String text = "digraph \"one\" { a [Weight=1]; } digraph \"two\" { b [Weight=1]; }";
+        InputStream stream = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+
+        //Act / Assert
+        assertThrows(RuntimeException.class, () -> new DotGraphReader(stream).read());
+    }
+
+    /**
+     * Tests a graph far larger than the reader's buffer, so that tokens are split across reads
+     */
+    @Test
+    public void testLargeGraph() {
+
+        // Arrange
+        int nodes = 20000;
+        StringBuilder text = new StringBuilder("digraph \"large\" {\n");
+        for(int i = 0; i < nodes; ++i) {
+            text.append('\t').append(i).append("\t [Weight=").append(i % 10 + 1).append("];\n");
+            if(i > 0)
+                text.append('\t').append(i - 1).append(" -> ").append(i).append("\t [Weight=").append(i % 7).append("];\n");
+        }
+        text.append("}");
+        InputStream stream = new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8));
+
+        //Act
+        Graph graph = new DotGraphReader(stream).read();
+
+        //Assert
+        assertEquals(nodes, graph.size());
+        assertEquals(1, graph.getEntryPoints().size());
+        for(int i = 1; i < nodes; ++i) {
+            Node node = graph.findByLabel(Integer.toString(i));
+            assertEquals(i % 10 + 1, node.getComputationCost());
+            assertEquals(i % 7, graph.getIncomingEdges(node).get(0).getCost());
+            assertEquals(Integer.toString(i - 1), graph.getIncomingEdges(node).get(0).getOriginNode().getLabel());
+        }
+    }
+}
@@ -8,8 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,17 +26,6 @@ public class DotScheduleWriterTests {
     public void testBasicLinearOneProcessorSchedule(){
 
         // Set up
-        Graph graph = new Graph.Builder()
-                .node("1", 1)
-                .node("2", 2)
-                .node("3", 1)
-                .build();
-
-        SimpleSchedule schedule = new SimpleSchedule(1);
-        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
-        schedule.addTask( new Task(0, 2, graph.getNodes().get(1)) );
-        schedule.addTask( new Task(0, 6, graph.getNodes().get(2)) );
-
         String str = "digraph \"graph\" {\n" +
                 "\t1\t [Weight=1];\n" +
                 "\t2\t [Weight=2];\n" +
@@ -45,17 +33,17 @@ public class DotScheduleWriterTests {
                 "\t3\t [Weight=1];\n" +
                 "\t2 -> 3\t [Weight=2];\n" +
                 "}\n\n";
-        InputStream is = null;
-        try {
-            is = new ByteArrayInputStream(str.getBytes("UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
-        }
+        Graph graph = new DotGraphReader(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8))).read();
+
+        SimpleSchedule schedule = new SimpleSchedule(1);
+        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
+        schedule.addTask( new Task(0, 2, graph.getNodes().get(1)) );
+        schedule.addTask( new Task(0, 6, graph.getNodes().get(2)) );
 
         // Test
         ByteArrayOutputStream bs = new ByteArrayOutputStream();
         ScheduleWriter dsw = new DotScheduleWriter(bs);
-        dsw.write(schedule, graph, is);
+        dsw.write(schedule, graph);
 
         // Assert
         String expected = "digraph \"outputGraph\" {\n" +
@@ -76,17 +64,6 @@ public class DotScheduleWriterTests {
     public void testOneProcessotScheduleCharacterLabels(){
 
         // Set up
-        Graph graph = new Graph.Builder()
-                .node("heythenamespauline", 1)
-                .node("giddaypaulineimsteph", 2)
-                .node("guysguysjustchillout", 1)
-                .build();
-
-        SimpleSchedule schedule = new SimpleSchedule(1);
-        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
-        schedule.addTask( new Task(0, 2, graph.getNodes().get(1)) );
-        schedule.addTask( new Task(0, 6, graph.getNodes().get(2)) );
-
         String str = "digraph \"graph\" {\n" +
                 "\theythenamespauline\t [Weight=1];\n" +
                 "\tgiddaypaulineimsteph\t [Weight=2];\n" +
@@ -94,17 +71,17 @@ public class DotScheduleWriterTests {
                 "\tguysguysjustchillout\t [Weight=1];\n" +
                 "\tgiddaypaulineimsteph -> guysguysjustchillout\t [Weight=2];\n" +
                 "}\n\n";
-        InputStream is = null;
-        try {
-            is = new ByteArrayInputStream(str.getBytes("UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
-        }
+        Graph graph = new DotGraphReader(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8))).read();
+
+        SimpleSchedule schedule = new SimpleSchedule(1);
+        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
+        schedule.addTask( new Task(0, 2, graph.getNodes().get(1)) );
+        schedule.addTask( new Task(0, 6, graph.getNodes().get(2)) );
 
         // Test
         ByteArrayOutputStream bs = new ByteArrayOutputStream();
         ScheduleWriter dsw = new DotScheduleWriter(bs);
-        dsw.write(schedule, graph, is);
+        dsw.write(schedule, graph);
 
         // Assert
         String expected = "digraph \"outputGraph\" {\n" +
@@ -125,17 +102,6 @@ public class DotScheduleWriterTests {
     public void testMultiProcessorSchedule(){
 
         // Set up
-        Graph graph = new Graph.Builder()
-                .node("1", 1)
-                .node("2", 2)
-                .node("3", 1)
-                .build();
-
-        SimpleSchedule schedule = new SimpleSchedule(3);
-        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
-        schedule.addTask( new Task(1, 2, graph.getNodes().get(1)) );
-        schedule.addTask( new Task(2, 6, graph.getNodes().get(2)) );
-
         String str = "digraph \"graph\" {\n" +
                 "\t1\t [Weight=1];\n" +
                 "\t2\t [Weight=2];\n" +
@@ -143,17 +109,17 @@ public class DotScheduleWriterTests {
                 "\t3\t [Weight=1];\n" +
                 "\t2 -> 3\t [Weight=2];\n" +
                 "}\n\n";
-        InputStream is = null;
-        try {
-            is = new ByteArrayInputStream(str.getBytes("UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
-        }
+        Graph graph = new DotGraphReader(new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8))).read();
+
+        SimpleSchedule schedule = new SimpleSchedule(3);
+        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
+        schedule.addTask( new Task(1, 2, graph.getNodes().get(1)) );
+        schedule.addTask( new Task(2, 6, graph.getNodes().get(2)) );
 
         // Test
         ByteArrayOutputStream bs = new ByteArrayOutputStream();
         ScheduleWriter dsw = new DotScheduleWriter(bs);
-        dsw.write(schedule, graph, is);
+        dsw.write(schedule, graph);
 
         // Assert
         String expected = "digraph \"outputGraph\" {\n" +
@@ -166,4 +132,77 @@ public class DotScheduleWriterTests {
 
         assertEquals(expected, bs.toString());
     }
+
+    @Test
+    /**
+     * This tests that a graph read from a file is written back out in the same order, even when edges are declared
+     * long after their nodes
+     */
+    public void testKeepsDeclarationOrder(){
+
+        // Set up
+        String input = "digraph \"graph\" {\n" +
+                "\t1\t [Weight=1];\n" +
+                "\t2\t [Weight=2];\n" +
+                "\t3\t [Weight=1];\n" +
+                "\t1 -> 3\t [Weight=2];\n" +
+                "\t1 -> 2\t [Weight=1];\n" +
+                "}\n";
+        Graph graph = new DotGraphReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))).read();
+
+        SimpleSchedule schedule = new SimpleSchedule(2);
+        schedule.addTask( new Task(0, 0, graph.findByLabel("1")) );
+        schedule.addTask( new Task(0, 1, graph.findByLabel("2")) );
+        schedule.addTask( new Task(1, 3, graph.findByLabel("3")) );
+
+        // Test
+        ByteArrayOutputStream bs = new ByteArrayOutputStream();
+        new DotScheduleWriter(bs).write(schedule, graph);
+
+        // Assert
+        String expected = "digraph \"outputGraph\" {\n" +
+                "\t1\t [Weight=1, Start=0, Processor=1];\n" +
+                "\t2\t [Weight=2, Start=1, Processor=1];\n" +
+                "\t3\t [Weight=1, Start=3, Processor=2];\n" +
+                "\t1 -> 3\t [Weight=2];\n" +
+                "\t1 -> 2\t [Weight=1];\n" +
+                "}\n";
+        assertEquals(expected, bs.toString());
+    }
+
+    @Test
+    /**
+     * This tests that graph attributes are written before every node, in the order they were set
+     */
+    public void testGraphAttributes(){
+
+        // Set up
+        Graph graph = new Graph.Builder()
+                .name("graph")
+                .node("1", 1)
+                .node("2", 2)
+                .edge("1", "2", 1)
+                .build();
+
+        SimpleSchedule schedule = new SimpleSchedule(1);
+        schedule.addTask( new Task(0, 0, graph.getNodes().get(0)) );
+        schedule.addTask( new Task(0, 1, graph.getNodes().get(1)) );
+
+        // Test
+        ByteArrayOutputStream bs = new ByteArrayOutputStream();
+        DotScheduleWriter dsw = new DotScheduleWriter(bs);
+        dsw.setGraphAttribute("Optimal", "false");
+        dsw.setGraphAttribute("LowerBound", "2");
+        dsw.write(schedule, graph);
+
+        // Assert
+        String expected = "digraph \"outputGraph\" {\n" +
+                "\tOptimal=false;\n" +
+                "\tLowerBound=2;\n" +
+                "\t1\t [Weight=1, Start=0, Processor=1];\n" +
+                "\t2\t [Weight=2, Start=1, Processor=1];\n" +
+                "\t1 -> 2\t [Weight=1];\n" +
+                "}\n";
+        assertEquals(expected, bs.toString());
+    }
 }